@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonParserStream;
+import org.opendaylight.yangtools.yang.data.impl.tree.BenchmarkModel;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+/**
+ * Measurement of the peak heap usage and time needed by {@link JsonParserStream} to parse a JSON document with
+ * a large BenchmarkModel outer list, comparing the default tree-building mode with the streaming mode. Parsed
+ * events are only counted, so that the measured memory is the one retained by the parser itself.
+ *
+ * <p>
+ * Peak usage is taken from the heap memory pools other than eden, i.e. it covers objects which survived at least one
+ * garbage collection. The results are therefore only indicative and should be compared with a fixed heap size, for
+ * example -Xms4g -Xmx4g.
+ */
+public final class JsonParserStreamFootprint {
+    private static final int[] DEFAULT_ENTRY_COUNTS = { 1000000 };
+    private static final int ITERATIONS = 3;
+
+    private JsonParserStreamFootprint() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void main(final String... args) throws IOException, ReactorException {
+        final int[] entryCounts;
+        if (args.length != 0) {
+            entryCounts = new int[args.length];
+            for (int i = 0; i < args.length; ++i) {
+                entryCounts[i] = Integer.parseInt(args[i]);
+            }
+        } else {
+            entryCounts = DEFAULT_ENTRY_COUNTS;
+        }
+
+        final SchemaContext schemaContext = BenchmarkModel.createTestContext();
+        for (int entryCount : entryCounts) {
+            final File file = File.createTempFile("outer-list-" + entryCount + "-", ".json");
+            try {
+                writeDocument(file, entryCount);
+                System.out.println("JSON document with " + entryCount + " outer list entries, " + file.length()
+                    + " bytes");
+                for (int i = 0; i < ITERATIONS; ++i) {
+                    measure(schemaContext, file, false);
+                    measure(schemaContext, file, true);
+                }
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    private static void writeDocument(final File file, final int entryCount) throws IOException {
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8)))) {
+            writer.beginObject();
+            writer.name("odl-datastore-test:test").beginObject();
+            writer.name("outer-list").beginArray();
+            for (int outerListKey = 0; outerListKey < entryCount; ++outerListKey) {
+                writer.beginObject();
+                writer.name("id").value(outerListKey);
+                writer.name("inner-list").beginArray();
+                writer.beginObject();
+                writer.name("name").value(outerListKey);
+                writer.name("value").value("value-" + outerListKey);
+                writer.endObject();
+                writer.endArray();
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+            writer.endObject();
+        }
+    }
+
+    private static void measure(final SchemaContext schemaContext, final File file, final boolean streaming)
+            throws IOException {
+        System.gc();
+        resetPeakHeapUsage();
+        final long baseline = peakHeapUsage();
+
+        final long start = System.nanoTime();
+        final CountingStreamWriter writer = new CountingStreamWriter();
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(
+                    new FileInputStream(file), StandardCharsets.UTF_8)))) {
+            final JsonParserStream parser = streaming ? JsonParserStream.createStreaming(writer, schemaContext)
+                    : JsonParserStream.create(writer, schemaContext);
+            parser.parse(reader);
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        System.out.println(String.format("  %-9s %6d ms, %d leaves, peak heap %6d MiB above baseline",
+            streaming ? "streaming" : "tree", elapsed / 1000000, writer.leaves,
+            (peakHeapUsage() - baseline) / (1024 * 1024)));
+    }
+
+    private static void resetPeakHeapUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (isSurvivorPool(pool)) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static boolean isSurvivorPool(final MemoryPoolMXBean pool) {
+        return pool.getType() == MemoryType.HEAP && !pool.getName().contains("Eden");
+    }
+
+    private static long peakHeapUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (isSurvivorPool(pool)) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static final class CountingStreamWriter implements NormalizedNodeStreamWriter {
+        long leaves;
+
+        @Override
+        public void leafNode(final NodeIdentifier name, final Object value) {
+            leaves++;
+        }
+
+        @Override
+        public void startLeafSet(final NodeIdentifier name, final int childSizeHint) {
+            // No-op
+        }
+
+        @Override
+        public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) {
+            // No-op
+        }
+
+        @Override
+        public void leafSetEntryNode(final QName name, final Object value) {
+            leaves++;
+        }
+
+        @Override
+        public void startContainerNode(final NodeIdentifier name, final int childSizeHint) {
+            // No-op
+        }
+
+        @Override
+        public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) {
+            // No-op
+        }
+
+        @Override
+        public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) {
+            // No-op
+        }
+
+        @Override
+        public void startMapNode(final NodeIdentifier name, final int childSizeHint) {
+            // No-op
+        }
+
+        @Override
+        public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint) {
+            // No-op
+        }
+
+        @Override
+        public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) {
+            // No-op
+        }
+
+        @Override
+        public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) {
+            // No-op
+        }
+
+        @Override
+        public void startAugmentationNode(final AugmentationIdentifier identifier) {
+            // No-op
+        }
+
+        @Override
+        public void anyxmlNode(final NodeIdentifier name, final Object value) {
+            leaves++;
+        }
+
+        @Override
+        public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint) {
+            // No-op
+        }
+
+        @Override
+        public void endNode() {
+            // No-op
+        }
+
+        @Override
+        public void close() {
+            // No-op
+        }
+
+        @Override
+        public void flush() {
+            // No-op
+        }
+    }
+}
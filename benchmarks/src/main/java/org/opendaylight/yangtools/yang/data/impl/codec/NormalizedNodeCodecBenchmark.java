@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import com.google.gson.stream.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONCodecFactory;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonParserStream;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonWriterFactory;
+import org.opendaylight.yangtools.yang.data.codec.xml.XmlParserStream;
+import org.opendaylight.yangtools.yang.data.impl.codec.binary.BinaryNormalizedNodeStreamReader;
+import org.opendaylight.yangtools.yang.data.impl.codec.binary.BinaryNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.tree.BenchmarkModel;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of NormalizedNode serialization and deserialization, comparing the binary format with XML and JSON.
+ * The data is a BenchmarkModel test container with an outer list, where each entry has a ten-item inner list.
+ *
+ * JMH is used for microbenchmarking.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class NormalizedNodeCodecBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+    private static final int INNER_LIST_SIZE = 10;
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    static {
+        XML_OUTPUT_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, Boolean.TRUE);
+    }
+
+    @Param({ "1000", "10000" })
+    public int outerListSize;
+
+    private SchemaContext schemaContext;
+    private JSONCodecFactory jsonCodecFactory;
+    private ContainerNode data;
+    private byte[] binary;
+    private String xml;
+    private String json;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + NormalizedNodeCodecBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static ContainerNode createData(final int outerListSize) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList = ImmutableNodes
+            .mapNodeBuilder(BenchmarkModel.OUTER_LIST_QNAME);
+        for (int outerListKey = 0; outerListKey < outerListSize; ++outerListKey) {
+            final CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes
+                .mapNodeBuilder(BenchmarkModel.INNER_LIST_QNAME);
+            for (int innerListKey = 0; innerListKey < INNER_LIST_SIZE; ++innerListKey) {
+                innerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.INNER_LIST_QNAME,
+                    BenchmarkModel.NAME_QNAME, innerListKey)
+                    .withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "value-" + innerListKey))
+                    .build());
+            }
+
+            outerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME,
+                BenchmarkModel.ID_QNAME, outerListKey).withChild(innerList.build()).build());
+        }
+
+        return Builders.containerBuilder()
+            .withNodeIdentifier(new NodeIdentifier(BenchmarkModel.TEST_QNAME))
+            .withChild(outerList.build()).build();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        schemaContext = BenchmarkModel.createTestContext();
+        jsonCodecFactory = JSONCodecFactory.create(schemaContext);
+        data = createData(outerListSize);
+
+        binary = writeBinary();
+        xml = writeXml();
+        json = writeJson();
+    }
+
+    @TearDown
+    public void tearDown() {
+        schemaContext = null;
+        jsonCodecFactory = null;
+        data = null;
+        binary = null;
+        xml = null;
+        json = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public byte[] writeBinary() throws Exception {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BinaryNormalizedNodeStreamWriter writer = new BinaryNormalizedNodeStreamWriter(
+                new DataOutputStream(bos))) {
+            writer.writeNormalizedNode(data);
+        }
+        return bos.toByteArray();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public String writeXml() throws Exception {
+        final StringWriter writer = new StringWriter();
+        final XMLStreamWriter xmlWriter = XML_OUTPUT_FACTORY.createXMLStreamWriter(writer);
+        try (NormalizedNodeWriter nodeWriter = NormalizedNodeWriter.forStreamWriter(
+                XMLStreamNormalizedNodeStreamWriter.create(xmlWriter, schemaContext))) {
+            nodeWriter.write(data);
+        }
+        return writer.toString();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public String writeJson() throws Exception {
+        final StringWriter writer = new StringWriter();
+        try (NormalizedNodeWriter nodeWriter = NormalizedNodeWriter.forStreamWriter(
+                JSONNormalizedNodeStreamWriter.createExclusiveWriter(jsonCodecFactory, SchemaPath.ROOT, null,
+                    JsonWriterFactory.createJsonWriter(writer)))) {
+            nodeWriter.write(data);
+        }
+        return writer.toString();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public NormalizedNode<?, ?> readBinary() throws Exception {
+        return new BinaryNormalizedNodeStreamReader(new DataInputStream(new ByteArrayInputStream(binary)))
+            .readNormalizedNode();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public NormalizedNode<?, ?> readXml() throws Exception {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter streamWriter = ImmutableNormalizedNodeStreamWriter.from(result);
+        final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(xml));
+        try {
+            XmlParserStream.create(streamWriter, schemaContext).parse(reader);
+        } finally {
+            reader.close();
+        }
+        return result.getResult();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public NormalizedNode<?, ?> readJson() throws Exception {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter streamWriter = ImmutableNormalizedNodeStreamWriter.from(result);
+        try (JsonParserStream parser = JsonParserStream.create(streamWriter, schemaContext)) {
+            parser.parse(new JsonReader(new StringReader(json)));
+        }
+        return result.getResult();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.leafref;
+
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of leafref validation of a single-entry change to a data tree with a large list of interfaces, each
+ * of which is referenced by a subinterface. {@link LeafRefValidatation#validate(DataTreeCandidate, LeafRefContext)}
+ * scans all values of the leafref and its target, while {@link LeafRefIndex} looks up the changed values only.
+ * Both the write of a referencing entry and the write of a target entry are measured. Validation of the initial write
+ * of the entire tree is measured both sequentially and in parallel.
+ *
+ * JMH is used for microbenchmarking.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class LeafRefValidationBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final QName MODULE_QNAME = QName.create("urn:opendaylight:params:xml:ns:yang:benchmark:leafref",
+        "2016-03-21", "leafref-benchmark");
+    private static final QName INTERFACES_QNAME = QName.create(MODULE_QNAME, "interfaces");
+    private static final QName INTERFACE_QNAME = QName.create(MODULE_QNAME, "interface");
+    private static final QName NAME_QNAME = QName.create(MODULE_QNAME, "name");
+    private static final QName SUBINTERFACES_QNAME = QName.create(MODULE_QNAME, "subinterfaces");
+    private static final QName SUBINTERFACE_QNAME = QName.create(MODULE_QNAME, "subinterface");
+    private static final QName ID_QNAME = QName.create(MODULE_QNAME, "id");
+    private static final QName PARENT_QNAME = QName.create(MODULE_QNAME, "parent");
+    private static final String LEAFREF_BENCHMARK_YANG = "/leafref-benchmark.yang";
+
+    private static final YangInstanceIdentifier INTERFACE_PATH = YangInstanceIdentifier.of(INTERFACES_QNAME)
+            .node(INTERFACE_QNAME);
+    private static final YangInstanceIdentifier SUBINTERFACE_PATH = YangInstanceIdentifier.of(SUBINTERFACES_QNAME)
+            .node(SUBINTERFACE_QNAME);
+
+    @Param({ "10000", "100000" })
+    public int interfaceCount;
+
+    private LeafRefContext rootLeafRefContext;
+    private LeafRefIndex index;
+    private DataTreeCandidate subinterfaceWrite;
+    private DataTreeCandidate interfaceWrite;
+    private DataTreeCandidate initialWrite;
+    private ForkJoinPool pool;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + LeafRefValidationBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static SchemaContext createTestContext() throws Exception {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        return reactor.buildEffective(Collections.singletonList(
+            LeafRefValidationBenchmark.class.getResourceAsStream(LEAFREF_BENCHMARK_YANG)));
+    }
+
+    private static String interfaceName(final int index) {
+        return "eth" + index;
+    }
+
+    private static MapEntryNode subinterface(final int id, final String parent) {
+        return ImmutableNodes.mapEntryBuilder(SUBINTERFACE_QNAME, ID_QNAME, id)
+                .withChild(ImmutableNodes.leafNode(PARENT_QNAME, parent)).build();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        final SchemaContext schemaContext = createTestContext();
+        rootLeafRefContext = LeafRefContext.create(schemaContext);
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> interfaces = ImmutableNodes.mapNodeBuilder(INTERFACE_QNAME);
+        final CollectionNodeBuilder<MapEntryNode, MapNode> subinterfaces =
+                ImmutableNodes.mapNodeBuilder(SUBINTERFACE_QNAME);
+        for (int i = 0; i < interfaceCount; ++i) {
+            interfaces.withChild(ImmutableNodes.mapEntry(INTERFACE_QNAME, NAME_QNAME, interfaceName(i)));
+            subinterfaces.withChild(subinterface(i, interfaceName(i)));
+        }
+
+        final TipProducingDataTree dataTree = InMemoryDataTreeFactory.getInstance().create(TreeType.CONFIGURATION);
+        dataTree.setSchemaContext(schemaContext);
+
+        final DataTreeModification initial = dataTree.takeSnapshot().newModification();
+        initial.write(YangInstanceIdentifier.of(INTERFACES_QNAME), Builders.containerBuilder()
+            .withNodeIdentifier(new NodeIdentifier(INTERFACES_QNAME)).withChild(interfaces.build()).build());
+        initial.write(YangInstanceIdentifier.of(SUBINTERFACES_QNAME), Builders.containerBuilder()
+            .withNodeIdentifier(new NodeIdentifier(SUBINTERFACES_QNAME)).withChild(subinterfaces.build()).build());
+        initial.ready();
+        dataTree.validate(initial);
+        initialWrite = dataTree.prepare(initial);
+        dataTree.commit(initialWrite);
+        pool = new ForkJoinPool();
+        index = LeafRefIndex.create(rootLeafRefContext, dataTree.takeSnapshot().readNode(
+            YangInstanceIdentifier.EMPTY).get());
+
+        // Candidates are not committed, hence they can be validated repeatedly
+        final DataTreeModification subinterfaceMod = dataTree.takeSnapshot().newModification();
+        subinterfaceMod.write(SUBINTERFACE_PATH.node(new YangInstanceIdentifier.NodeIdentifierWithPredicates(
+            SUBINTERFACE_QNAME, ID_QNAME, interfaceCount)), subinterface(interfaceCount, interfaceName(0)));
+        subinterfaceMod.ready();
+        subinterfaceWrite = dataTree.prepare(subinterfaceMod);
+
+        final DataTreeModification interfaceMod = dataTree.takeSnapshot().newModification();
+        interfaceMod.write(INTERFACE_PATH.node(new YangInstanceIdentifier.NodeIdentifierWithPredicates(
+            INTERFACE_QNAME, NAME_QNAME, interfaceName(interfaceCount))),
+            ImmutableNodes.mapEntry(INTERFACE_QNAME, NAME_QNAME, interfaceName(interfaceCount)));
+        interfaceMod.ready();
+        interfaceWrite = dataTree.prepare(interfaceMod);
+    }
+
+    @TearDown
+    public void tearDown() {
+        rootLeafRefContext = null;
+        index = null;
+        subinterfaceWrite = null;
+        interfaceWrite = null;
+        initialWrite = null;
+        pool.shutdown();
+        pool = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void fullScanReferencingWrite() throws LeafRefDataValidationFailedException {
+        LeafRefValidatation.validate(subinterfaceWrite, rootLeafRefContext);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void indexedReferencingWrite() throws LeafRefDataValidationFailedException {
+        LeafRefValidatation.validate(subinterfaceWrite, index);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void fullScanTargetWrite() throws LeafRefDataValidationFailedException {
+        LeafRefValidatation.validate(interfaceWrite, rootLeafRefContext);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void indexedTargetWrite() throws LeafRefDataValidationFailedException {
+        LeafRefValidatation.validate(interfaceWrite, index);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void sequentialInitialWrite() throws LeafRefDataValidationFailedException {
+        LeafRefValidatation.validate(initialWrite, rootLeafRefContext);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void parallelInitialWrite() throws LeafRefDataValidationFailedException {
+        LeafRefValidatation.validate(initialWrite, rootLeafRefContext, pool);
+    }
+}
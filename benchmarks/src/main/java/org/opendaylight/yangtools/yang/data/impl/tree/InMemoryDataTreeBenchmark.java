@@ -11,6 +11,8 @@ import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
 import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
@@ -47,6 +49,7 @@ public class InMemoryDataTreeBenchmark {
     private static final int WARMUP_ITERATIONS = 20;
     private static final int MEASUREMENT_ITERATIONS = 20;
 
+    private static final int OUTER_LIST_1M = 1000000;
     private static final int OUTER_LIST_100K = 100000;
     private static final int OUTER_LIST_50K = 50000;
     private static final int OUTER_LIST_10K = 10000;
@@ -98,7 +101,49 @@ public class InMemoryDataTreeBenchmark {
     }
 
     private SchemaContext schemaContext;
-    private DataTree datastore;
+    private TipProducingDataTree datastore;
+
+    /**
+     * Data tree pre-populated with a 1M-entry outer list. Kept separate from the main state, so that only the
+     * benchmarks which need it pay for its initialization.
+     */
+    @State(Scope.Thread)
+    public static class LargeListState {
+        private DataTree datastore;
+        private int nextKey;
+
+        @Setup(Level.Trial)
+        public void setup() throws DataValidationFailedException, SourceException, ReactorException {
+            final CollectionNodeBuilder<MapEntryNode, MapNode> outerList = ImmutableNodes
+                .mapNodeBuilder(BenchmarkModel.OUTER_LIST_QNAME);
+            for (int outerListKey = 0; outerListKey < OUTER_LIST_1M; ++outerListKey) {
+                outerList.withChild(ImmutableNodes.mapEntry(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME,
+                    outerListKey));
+            }
+
+            datastore = InMemoryDataTreeFactory.getInstance().create();
+            datastore.setSchemaContext(BenchmarkModel.createTestContext());
+
+            final DataTreeModification modification = datastore.takeSnapshot().newModification();
+            modification.write(BenchmarkModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+                .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(BenchmarkModel.TEST_QNAME))
+                .withChild(outerList.build()).build());
+            modification.ready();
+            datastore.validate(modification);
+            datastore.commit(datastore.prepare(modification));
+        }
+
+        @TearDown
+        public void tearDown() {
+            datastore = null;
+        }
+
+        int nextKey() {
+            final int key = nextKey;
+            nextKey = (key + 1) % OUTER_LIST_100K;
+            return key;
+        }
+    }
 
     public static void main(String... args) throws IOException, RunnerException {
         Options opt = new OptionsBuilder()
@@ -131,6 +176,7 @@ public class InMemoryDataTreeBenchmark {
             .build();
 
         modification.write(testPath, provideOuterListNode());
+        modification.ready();
         datastore.validate(modification);
         final DataTreeCandidate candidate = datastore.prepare(modification);
         datastore.commit(candidate);
@@ -145,6 +191,20 @@ public class InMemoryDataTreeBenchmark {
                     .build()).build();
     }
 
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void write1SingleNodeInto1MListBenchmark(final LargeListState state) throws Exception {
+        final DataTreeModification modification = state.datastore.takeSnapshot().newModification();
+        final int outerListKey = state.nextKey();
+        modification.write(OUTER_LIST_100K_PATHS[outerListKey], OUTER_LIST_ONE_ITEM_INNER_LIST[outerListKey]);
+        modification.ready();
+        state.datastore.validate(modification);
+        final DataTreeCandidate candidate = state.datastore.prepare(modification);
+        state.datastore.commit(candidate);
+    }
+
     @Benchmark
     @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
     @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
@@ -154,6 +214,7 @@ public class InMemoryDataTreeBenchmark {
         for (int outerListKey = 0; outerListKey < OUTER_LIST_100K; ++outerListKey) {
             modification.write(OUTER_LIST_100K_PATHS[outerListKey], OUTER_LIST_ONE_ITEM_INNER_LIST[outerListKey]);
         }
+        modification.ready();
         datastore.validate(modification);
         final DataTreeCandidate candidate = datastore.prepare(modification);
         datastore.commit(candidate);
@@ -167,6 +228,7 @@ public class InMemoryDataTreeBenchmark {
         for (int outerListKey = 0; outerListKey < OUTER_LIST_100K; ++outerListKey) {
             final DataTreeModification modification = snapshot.newModification();
             modification.write(OUTER_LIST_100K_PATHS[outerListKey], OUTER_LIST_ONE_ITEM_INNER_LIST[outerListKey]);
+            modification.ready();
             datastore.validate(modification);
             final DataTreeCandidate candidate = datastore.prepare(modification);
             datastore.commit(candidate);
@@ -182,6 +244,7 @@ public class InMemoryDataTreeBenchmark {
         for (int outerListKey = 0; outerListKey < OUTER_LIST_50K; ++outerListKey) {
             modification.write(OUTER_LIST_50K_PATHS[outerListKey], OUTER_LIST_TWO_ITEM_INNER_LIST[outerListKey]);
         }
+        modification.ready();
         datastore.validate(modification);
         final DataTreeCandidate candidate = datastore.prepare(modification);
         datastore.commit(candidate);
@@ -195,6 +258,7 @@ public class InMemoryDataTreeBenchmark {
         for (int outerListKey = 0; outerListKey < OUTER_LIST_50K; ++outerListKey) {
             final DataTreeModification modification = snapshot.newModification();
             modification.write(OUTER_LIST_50K_PATHS[outerListKey], OUTER_LIST_TWO_ITEM_INNER_LIST[outerListKey]);
+            modification.ready();
             datastore.validate(modification);
             final DataTreeCandidate candidate = datastore.prepare(modification);
             datastore.commit(candidate);
@@ -210,6 +274,7 @@ public class InMemoryDataTreeBenchmark {
         for (int outerListKey = 0; outerListKey < OUTER_LIST_10K; ++outerListKey) {
             modification.write(OUTER_LIST_10K_PATHS[outerListKey], OUTER_LIST_TEN_ITEM_INNER_LIST[outerListKey]);
         }
+        modification.ready();
         datastore.validate(modification);
         final DataTreeCandidate candidate = datastore.prepare(modification);
         datastore.commit(candidate);
@@ -223,9 +288,55 @@ public class InMemoryDataTreeBenchmark {
         for (int outerListKey = 0; outerListKey < OUTER_LIST_10K; ++outerListKey) {
             final DataTreeModification modification = snapshot.newModification();
             modification.write(OUTER_LIST_10K_PATHS[outerListKey], OUTER_LIST_TEN_ITEM_INNER_LIST[outerListKey]);
+            modification.ready();
             datastore.validate(modification);
             final DataTreeCandidate candidate = datastore.prepare(modification);
             datastore.commit(candidate);
         }
     }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public List<GroupCommitResult> write100KSingleNodeWithOneInnerItemInGroupCommitBenchmark() throws Exception {
+        final DataTreeSnapshot snapshot = datastore.takeSnapshot();
+        final List<DataTreeModification> modifications = new ArrayList<>(OUTER_LIST_100K);
+        for (int outerListKey = 0; outerListKey < OUTER_LIST_100K; ++outerListKey) {
+            final DataTreeModification modification = snapshot.newModification();
+            modification.write(OUTER_LIST_100K_PATHS[outerListKey], OUTER_LIST_ONE_ITEM_INNER_LIST[outerListKey]);
+            modification.ready();
+            modifications.add(modification);
+        }
+        return datastore.groupCommit(modifications);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public List<GroupCommitResult> write50KSingleNodeWithTwoInnerItemsInGroupCommitBenchmark() throws Exception {
+        final DataTreeSnapshot snapshot = datastore.takeSnapshot();
+        final List<DataTreeModification> modifications = new ArrayList<>(OUTER_LIST_50K);
+        for (int outerListKey = 0; outerListKey < OUTER_LIST_50K; ++outerListKey) {
+            final DataTreeModification modification = snapshot.newModification();
+            modification.write(OUTER_LIST_50K_PATHS[outerListKey], OUTER_LIST_TWO_ITEM_INNER_LIST[outerListKey]);
+            modification.ready();
+            modifications.add(modification);
+        }
+        return datastore.groupCommit(modifications);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public List<GroupCommitResult> write10KSingleNodeWithTenInnerItemsInGroupCommitBenchmark() throws Exception {
+        final DataTreeSnapshot snapshot = datastore.takeSnapshot();
+        final List<DataTreeModification> modifications = new ArrayList<>(OUTER_LIST_10K);
+        for (int outerListKey = 0; outerListKey < OUTER_LIST_10K; ++outerListKey) {
+            final DataTreeModification modification = snapshot.newModification();
+            modification.write(OUTER_LIST_10K_PATHS[outerListKey], OUTER_LIST_TEN_ITEM_INNER_LIST[outerListKey]);
+            modification.ready();
+            modifications.add(modification);
+        }
+        return datastore.groupCommit(modifications);
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Measurement of the memory footprint of InMemoryDataTree metadata, e.g. {@link TreeNode}s and {@link Version}s,
+ * as opposed to the data it holds. The tree is populated with outer list entries, each consisting of two nodes:
+ * the entry itself and its key leaf. Entries are committed in batches, so that the resulting tree contains nodes
+ * of multiple versions.
+ *
+ * <p>
+ * Object graph sizes are measured using JOL, hence the results depend on the JVM's object layout. Populating
+ * a tree of 10M nodes requires a correspondingly large heap, for example -Xmx8g.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jol/">JOL</a>
+ */
+public final class InMemoryDataTreeFootprint {
+    private static final int[] DEFAULT_NODE_COUNTS = { 1000000, 10000000 };
+    private static final int BATCH_SIZE = 1000;
+    private static final String SPI_PACKAGE = TreeNode.class.getPackage().getName();
+
+    private InMemoryDataTreeFootprint() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void main(final String... args) throws DataValidationFailedException, ReactorException {
+        final int[] nodeCounts;
+        if (args.length != 0) {
+            nodeCounts = new int[args.length];
+            for (int i = 0; i < args.length; ++i) {
+                nodeCounts[i] = Integer.parseInt(args[i]);
+            }
+        } else {
+            nodeCounts = DEFAULT_NODE_COUNTS;
+        }
+
+        for (int nodeCount : nodeCounts) {
+            measure(nodeCount);
+        }
+    }
+
+    private static DataTree createDataTree(final int entryCount) throws DataValidationFailedException,
+            ReactorException {
+        final DataTree datastore = InMemoryDataTreeFactory.getInstance().create();
+        datastore.setSchemaContext(BenchmarkModel.createTestContext());
+
+        final DataTreeModification init = datastore.takeSnapshot().newModification();
+        init.write(BenchmarkModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(BenchmarkModel.TEST_QNAME))
+            .withChild(ImmutableNodes.mapNodeBuilder(BenchmarkModel.OUTER_LIST_QNAME).build()).build());
+        init.ready();
+        datastore.validate(init);
+        datastore.commit(datastore.prepare(init));
+
+        for (int batchStart = 0; batchStart < entryCount; batchStart += BATCH_SIZE) {
+            final DataTreeModification modification = datastore.takeSnapshot().newModification();
+            final int batchEnd = Math.min(batchStart + BATCH_SIZE, entryCount);
+            for (int outerListKey = batchStart; outerListKey < batchEnd; ++outerListKey) {
+                final YangInstanceIdentifier path = YangInstanceIdentifier.builder(BenchmarkModel.OUTER_LIST_PATH)
+                    .nodeWithKey(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, outerListKey).build();
+                modification.write(path, ImmutableNodes.mapEntry(BenchmarkModel.OUTER_LIST_QNAME,
+                    BenchmarkModel.ID_QNAME, outerListKey));
+            }
+            modification.ready();
+            datastore.validate(modification);
+            datastore.commit(datastore.prepare(modification));
+        }
+
+        return datastore;
+    }
+
+    private static void measure(final int nodeCount) throws DataValidationFailedException, ReactorException {
+        final DataTree datastore = createDataTree(nodeCount / 2);
+        final GraphLayout treeLayout = GraphLayout.parseInstance(datastore);
+        final GraphLayout dataLayout = GraphLayout.parseInstance(
+            datastore.takeSnapshot().readNode(BenchmarkModel.TEST_PATH).get());
+
+        long metadataCount = 0;
+        long metadataSize = 0;
+        for (Class<?> clazz : treeLayout.getClasses()) {
+            if (clazz.getName().startsWith(SPI_PACKAGE)) {
+                metadataCount += treeLayout.getClassCounts(clazz);
+                metadataSize += treeLayout.getClassSizes(clazz);
+            }
+        }
+
+        System.out.println("Data tree with " + nodeCount + " nodes");
+        System.out.println("  total:    " + treeLayout.totalCount() + " objects, " + treeLayout.totalSize()
+            + " bytes");
+        System.out.println("  data:     " + dataLayout.totalCount() + " objects, " + dataLayout.totalSize()
+            + " bytes");
+        System.out.println("  metadata: " + metadataCount + " objects, " + metadataSize + " bytes, "
+            + (double) metadataSize / nodeCount + " bytes/node");
+        System.out.println("  versions: " + treeLayout.getClassCounts(Version.class) + " objects, "
+            + treeLayout.getClassSizes(Version.class) + " bytes");
+        System.out.println(treeLayout.toFootprint());
+    }
+}
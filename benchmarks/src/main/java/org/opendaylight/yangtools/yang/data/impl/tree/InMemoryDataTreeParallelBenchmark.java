@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of sequential and parallel validation and preparation of large modifications in InMemoryDataTree.
+ * Each modification writes the specified number of outer list entries, each of which has a single-entry inner list.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class InMemoryDataTreeParallelBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private static final MapNode ONE_ITEM_INNER_LIST = ImmutableNodes.mapNodeBuilder(BenchmarkModel.INNER_LIST_QNAME)
+            .withChild(ImmutableNodes.mapEntry(BenchmarkModel.INNER_LIST_QNAME, BenchmarkModel.NAME_QNAME, 1))
+            .build();
+
+    @Param({ "10000", "100000", "1000000" })
+    public int modificationSize;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private ForkJoinPool pool;
+    private DataTree datastore;
+    private DataTreeModification modification;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + InMemoryDataTreeParallelBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException, ReactorException {
+        final DataTreeConfiguration.Builder builder = new DataTreeConfiguration.Builder(TreeType.OPERATIONAL);
+        if (parallel) {
+            pool = new ForkJoinPool();
+            builder.setParallelProcessing(pool, PARALLEL_THRESHOLD);
+        }
+
+        datastore = InMemoryDataTreeFactory.getInstance().create(builder.build());
+        datastore.setSchemaContext(BenchmarkModel.createTestContext());
+
+        final DataTreeModification init = datastore.takeSnapshot().newModification();
+        init.write(BenchmarkModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(BenchmarkModel.TEST_QNAME))
+            .withChild(ImmutableNodes.mapNodeBuilder(BenchmarkModel.OUTER_LIST_QNAME).build()).build());
+        init.ready();
+        datastore.validate(init);
+        datastore.commit(datastore.prepare(init));
+
+        modification = datastore.takeSnapshot().newModification();
+        for (int outerListKey = 0; outerListKey < modificationSize; ++outerListKey) {
+            final YangInstanceIdentifier path = YangInstanceIdentifier.builder(BenchmarkModel.OUTER_LIST_PATH)
+                .nodeWithKey(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, outerListKey)
+                .build();
+            modification.write(path, ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME,
+                BenchmarkModel.ID_QNAME, outerListKey).withChild(ONE_ITEM_INNER_LIST).build());
+        }
+        modification.ready();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        modification = null;
+        datastore = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public DataTreeCandidate validateAndPrepareBenchmark() throws DataValidationFailedException {
+        datastore.validate(modification);
+        return datastore.prepare(modification);
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.jaxen;
+
+import com.google.common.base.Converter;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import javax.xml.xpath.XPathExpressionException;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathDocument;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathExpression;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContext;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of evaluation of must-like XPath expressions over a large list of interfaces, comparing
+ * {@link JaxenSchemaContextFactory} with {@link CompiledXPathSchemaContextFactory}. Expressions are evaluated in
+ * the context of a subinterface's parent leaf.
+ *
+ * JMH is used for microbenchmarking.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class XPathBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final QName MODULE_QNAME = QName.create("urn:opendaylight:params:xml:ns:yang:benchmark:leafref",
+        "2016-03-21", "leafref-benchmark");
+    private static final QName INTERFACES_QNAME = QName.create(MODULE_QNAME, "interfaces");
+    private static final QName INTERFACE_QNAME = QName.create(MODULE_QNAME, "interface");
+    private static final QName NAME_QNAME = QName.create(MODULE_QNAME, "name");
+    private static final QName MTU_QNAME = QName.create(MODULE_QNAME, "mtu");
+    private static final QName SUBINTERFACES_QNAME = QName.create(MODULE_QNAME, "subinterfaces");
+    private static final QName SUBINTERFACE_QNAME = QName.create(MODULE_QNAME, "subinterface");
+    private static final QName ID_QNAME = QName.create(MODULE_QNAME, "id");
+    private static final QName PARENT_QNAME = QName.create(MODULE_QNAME, "parent");
+    private static final String LEAFREF_BENCHMARK_YANG = "/leafref-benchmark.yang";
+
+    private static final SchemaPath PARENT_PATH = SchemaPath.create(true, SUBINTERFACES_QNAME, SUBINTERFACE_QNAME,
+        PARENT_QNAME);
+    private static final YangInstanceIdentifier SUBINTERFACE_PARENT = YangInstanceIdentifier.of(SUBINTERFACES_QNAME)
+            .node(SUBINTERFACE_QNAME).node(new NodeIdentifierWithPredicates(SUBINTERFACE_QNAME, ID_QNAME, 0))
+            .node(PARENT_QNAME);
+
+    // Leafref-like existence check and an aggregate constraint, both of which need to scan the interface list
+    private static final String EXISTS_XPATH = "/lref:interfaces/lref:interface/lref:name = .";
+    private static final String COUNT_XPATH = "count(/lref:interfaces/lref:interface[mtu > 1500]) < ../id + 10";
+
+    @Param({ "1000", "10000" })
+    public int interfaceCount;
+
+    private XPathDocument jaxenDocument;
+    private XPathDocument compiledDocument;
+    private XPathExpression jaxenExists;
+    private XPathExpression jaxenCount;
+    private XPathExpression compiledExists;
+    private XPathExpression compiledCount;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + XPathBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static SchemaContext createTestContext() throws Exception {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        return reactor.buildEffective(Collections.singletonList(
+            XPathBenchmark.class.getResourceAsStream(LEAFREF_BENCHMARK_YANG)));
+    }
+
+    private static String interfaceName(final int index) {
+        return "eth" + index;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        final SchemaContext schemaContext = createTestContext();
+        final Converter<String, QNameModule> prefixes = Maps.asConverter(ImmutableBiMap.of("lref",
+            MODULE_QNAME.getModule()));
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> interfaces = ImmutableNodes.mapNodeBuilder(INTERFACE_QNAME);
+        for (int i = 0; i < interfaceCount; ++i) {
+            interfaces.withChild(ImmutableNodes.mapEntryBuilder(INTERFACE_QNAME, NAME_QNAME, interfaceName(i))
+                .withChild(ImmutableNodes.leafNode(MTU_QNAME, i % 2 == 0 ? 1500 : 9000)).build());
+        }
+
+        // The referenced interface is the last one, so that the existence check needs to go through the entire list
+        final MapNode subinterfaces = ImmutableNodes.mapNodeBuilder(SUBINTERFACE_QNAME)
+                .withChild(ImmutableNodes.mapEntryBuilder(SUBINTERFACE_QNAME, ID_QNAME, 0)
+                    .withChild(ImmutableNodes.leafNode(PARENT_QNAME, interfaceName(interfaceCount - 1))).build())
+                .build();
+
+        final XPathSchemaContext jaxenContext = new JaxenSchemaContextFactory().createContext(schemaContext);
+        final XPathSchemaContext compiledContext = new CompiledXPathSchemaContextFactory().createContext(schemaContext);
+
+        final ContainerNode root = Builders.containerBuilder()
+                .withNodeIdentifier(new NodeIdentifier(SchemaContext.NAME))
+                .withChild(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(INTERFACES_QNAME))
+                    .withChild(interfaces.build()).build())
+                .withChild(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(SUBINTERFACES_QNAME))
+                    .withChild(subinterfaces).build())
+                .build();
+
+        jaxenDocument = jaxenContext.createDocument(root);
+        compiledDocument = compiledContext.createDocument(root);
+        jaxenExists = jaxenContext.compileExpression(PARENT_PATH, prefixes, EXISTS_XPATH);
+        jaxenCount = jaxenContext.compileExpression(PARENT_PATH, prefixes, COUNT_XPATH);
+        compiledExists = compiledContext.compileExpression(PARENT_PATH, prefixes, EXISTS_XPATH);
+        compiledCount = compiledContext.compileExpression(PARENT_PATH, prefixes, COUNT_XPATH);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jaxenDocument = null;
+        compiledDocument = null;
+        jaxenExists = null;
+        jaxenCount = null;
+        compiledExists = null;
+        compiledCount = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<? extends XPathResult<?>> jaxenExists() throws XPathExpressionException {
+        return jaxenExists.evaluate(jaxenDocument, SUBINTERFACE_PARENT);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<? extends XPathResult<?>> compiledExists() throws XPathExpressionException {
+        return compiledExists.evaluate(compiledDocument, SUBINTERFACE_PARENT);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<? extends XPathResult<?>> jaxenCount() throws XPathExpressionException {
+        return jaxenCount.evaluate(jaxenDocument, SUBINTERFACE_PARENT);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<? extends XPathResult<?>> compiledCount() throws XPathExpressionException {
+        return compiledCount.evaluate(compiledDocument, SUBINTERFACE_PARENT);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of {@link DataSchemaContextTree} lookups of deep instance identifiers, comparing the cached
+ * {@link DataSchemaContextTree#getChild(YangInstanceIdentifier)} with walking the tree from its root for each path.
+ * The model consists of six levels of a container with a nested keyed list, so each looked up path has nineteen
+ * arguments, twelve of them being list related.
+ *
+ * JMH is used for microbenchmarking.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class DataSchemaContextTreeBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+    private static final int PATH_COUNT = 1000;
+    private static final int DEPTH = 6;
+
+    private static final QName MODULE_QNAME = QName.create("urn:opendaylight:params:xml:ns:yang:benchmark:deep-path",
+        "2016-03-21", "deep-path-test");
+    private static final QName ID_QNAME = QName.create(MODULE_QNAME, "id");
+    private static final QName VALUE_QNAME = QName.create(MODULE_QNAME, "value");
+    private static final String DEEP_PATH_TEST_YANG = "/deep-path-test.yang";
+
+    /**
+     * Number of distinct list keys used at each list level. Lower values make the paths share longer prefixes.
+     */
+    @Param({ "1", "10" })
+    public int keysPerLevel;
+
+    private DataSchemaContextTree tree;
+    private YangInstanceIdentifier[] paths;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + DataSchemaContextTreeBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static SchemaContext createTestContext() throws Exception {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        return reactor.buildEffective(Collections.singletonList(
+            DataSchemaContextTreeBenchmark.class.getResourceAsStream(DEEP_PATH_TEST_YANG)));
+    }
+
+    private static YangInstanceIdentifier createPath(final int index, final int keysPerLevel) {
+        final YangInstanceIdentifier.InstanceIdentifierBuilder builder = YangInstanceIdentifier.builder();
+        int remaining = index;
+        for (int level = 1; level <= DEPTH; ++level) {
+            final QName entryQName = QName.create(MODULE_QNAME, "entry-" + level);
+            builder.node(QName.create(MODULE_QNAME, "level-" + level)).node(entryQName)
+                .nodeWithKey(entryQName, ID_QNAME, remaining % keysPerLevel);
+            remaining /= keysPerLevel;
+        }
+        return builder.node(VALUE_QNAME).build();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        tree = DataSchemaContextTree.from(createTestContext());
+        paths = new YangInstanceIdentifier[PATH_COUNT];
+        for (int i = 0; i < PATH_COUNT; ++i) {
+            paths[i] = createPath(i, keysPerLevel);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        tree = null;
+        paths = null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATH_COUNT)
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public int cachedLookup() {
+        int found = 0;
+        for (YangInstanceIdentifier path : paths) {
+            if (tree.getChild(path) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATH_COUNT)
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public int treeWalk() {
+        int found = 0;
+        for (YangInstanceIdentifier path : paths) {
+            DataSchemaContextNode<?> current = tree.getRoot();
+            for (PathArgument arg : path.getPathArguments()) {
+                current = current.getChild(arg);
+            }
+            if (current != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
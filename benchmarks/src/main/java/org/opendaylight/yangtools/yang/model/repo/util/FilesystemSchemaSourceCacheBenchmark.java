@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.repo.util;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.io.Files;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.repo.SharedSchemaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of concurrent lookups in {@link FilesystemSchemaSourceCache}, simulating many devices requesting
+ * their schemas at the same time. Each benchmark is run with a single thread and with as many threads as there are
+ * available processors, so that the scalability of lookups can be assessed.
+ *
+ * JMH is used for microbenchmarking.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class FilesystemSchemaSourceCacheBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int SOURCE_COUNT = 500;
+    private static final int REVISION_COUNT = 3;
+
+    private File storageDirectory;
+    private FilesystemSchemaSourceCache<YangTextSchemaSource> cache;
+    private SourceIdentifier[] revisionIds;
+    private SourceIdentifier[] newestIds;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + FilesystemSchemaSourceCacheBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static YangTextSchemaSource source(final String name, final String revision) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("module ").append(name).append(" {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:").append(name).append("\";\n")
+            .append("    prefix ").append(name).append(";\n")
+            .append("    revision ").append(revision).append(";\n");
+        for (int i = 0; i < 50; ++i) {
+            sb.append("    leaf leaf-").append(i).append(" {\n")
+                .append("        type string;\n")
+                .append("    }\n");
+        }
+        sb.append("}\n");
+        final byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        return new YangTextSchemaSource(new SourceIdentifier(name, revision)) {
+            @Override
+            protected MoreObjects.ToStringHelper addToStringAttributes(final MoreObjects.ToStringHelper toStringHelper) {
+                return toStringHelper;
+            }
+
+            @Override
+            public InputStream openStream() {
+                return new ByteArrayInputStream(bytes);
+            }
+        };
+    }
+
+    @Setup
+    public void setup() {
+        storageDirectory = Files.createTempDir();
+        cache = new FilesystemSchemaSourceCache<>(new SharedSchemaRepository("benchmark"),
+            YangTextSchemaSource.class, storageDirectory);
+
+        revisionIds = new SourceIdentifier[SOURCE_COUNT * REVISION_COUNT];
+        newestIds = new SourceIdentifier[SOURCE_COUNT];
+        for (int i = 0; i < SOURCE_COUNT; ++i) {
+            final String name = "module-" + i;
+            for (int r = 0; r < REVISION_COUNT; ++r) {
+                final String revision = String.format("201%d-01-01", r);
+                final YangTextSchemaSource source = source(name, revision);
+                cache.schemaSourceEncountered(source);
+                revisionIds[i * REVISION_COUNT + r] = source.getIdentifier();
+            }
+            newestIds[i] = new SourceIdentifier(name, "");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cache = null;
+        for (File file : storageDirectory.listFiles()) {
+            file.delete();
+        }
+        storageDirectory.delete();
+    }
+
+    private YangTextSchemaSource lookup(final SourceIdentifier[] ids) throws SchemaSourceException {
+        return cache.getSource(ids[ThreadLocalRandom.current().nextInt(ids.length)]).checkedGet();
+    }
+
+    private static long read(final YangTextSchemaSource source) throws IOException {
+        return source.size();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public YangTextSchemaSource revisionLookupSingleThread() throws SchemaSourceException {
+        return lookup(revisionIds);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public YangTextSchemaSource revisionLookupAllThreads() throws SchemaSourceException {
+        return lookup(revisionIds);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public YangTextSchemaSource newestLookupSingleThread() throws SchemaSourceException {
+        return lookup(newestIds);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public YangTextSchemaSource newestLookupAllThreads() throws SchemaSourceException {
+        return lookup(newestIds);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public long lookupAndReadAllThreads() throws SchemaSourceException, IOException {
+        return read(lookup(revisionIds));
+    }
+}
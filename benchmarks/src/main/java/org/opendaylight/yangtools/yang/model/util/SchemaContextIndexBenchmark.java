@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util;
+
+import com.google.common.io.ByteSource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of lookups in a large SchemaContext, comparing the {@link SchemaContextIndex} with searching modules
+ * and walking their children. The context consists of 900 generated modules, each of which defines a few nested
+ * containers and identities.
+ *
+ * JMH is used for microbenchmarking.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class SchemaContextIndexBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int MODULE_COUNT = 900;
+    private static final int CONTAINERS_PER_MODULE = 5;
+    private static final int IDENTITIES_PER_MODULE = 4;
+    private static final int LOOKUPS = 1024;
+
+    private SchemaContext context;
+    private QName[] topLevel;
+    private SchemaPath[] paths;
+    private QName[] identities;
+    private int offset;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + SchemaContextIndexBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static ByteSource module(final int index) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("module index-").append(index).append(" {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:index:").append(index).append("\";\n")
+            .append("    prefix i").append(index).append(";\n")
+            .append("    revision 2016-03-21;\n");
+
+        for (int i = 0; i < IDENTITIES_PER_MODULE; ++i) {
+            sb.append("    identity id-").append(i).append(";\n");
+        }
+        for (int i = 0; i < CONTAINERS_PER_MODULE; ++i) {
+            sb.append("    container top-").append(i).append(" {\n")
+                .append("        container config {\n")
+                .append("            list entry {\n")
+                .append("                key name;\n")
+                .append("                leaf name {\n")
+                .append("                    type string;\n")
+                .append("                }\n")
+                .append("                leaf value {\n")
+                .append("                    type uint32;\n")
+                .append("                }\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+        sb.append("}\n");
+        return ByteSource.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        final List<ByteSource> sources = new ArrayList<>(MODULE_COUNT);
+        for (int i = 0; i < MODULE_COUNT; ++i) {
+            sources.add(module(i));
+        }
+        context = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources);
+
+        final List<Module> modules = new ArrayList<>(context.getModules());
+        Collections.shuffle(modules, new Random(0));
+
+        topLevel = new QName[LOOKUPS];
+        paths = new SchemaPath[LOOKUPS];
+        identities = new QName[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; ++i) {
+            final Module module = modules.get(i % modules.size());
+            final QName top = QName.create(module.getQNameModule(), "top-" + i % CONTAINERS_PER_MODULE);
+            topLevel[i] = top;
+            paths[i] = SchemaPath.create(true, top, QName.create(top, "config"), QName.create(top, "entry"),
+                QName.create(top, "value"));
+            identities[i] = QName.create(top, "id-" + i % IDENTITIES_PER_MODULE);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context = null;
+        topLevel = null;
+        paths = null;
+        identities = null;
+    }
+
+    private int next() {
+        offset = (offset + 1) % LOOKUPS;
+        return offset;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public DataSchemaNode indexedDataChild() {
+        return context.getDataChildByName(topLevel[next()]);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public DataSchemaNode scanDataChild() {
+        final QName qname = topLevel[next()];
+        for (Module module : context.getModules()) {
+            final DataSchemaNode result = module.getDataChildByName(qname);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public SchemaNode indexedSchemaNode() {
+        return SchemaContextUtil.findDataSchemaNode(context, paths[next()]);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public SchemaNode walkSchemaNode() {
+        return SchemaContextUtil.findNodeInSchemaContext(context, paths[next()].getPathFromRoot());
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public IdentitySchemaNode indexedIdentity() {
+        return SchemaContextUtil.findIdentity(context, identities[next()]);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public IdentitySchemaNode scanIdentity() {
+        final QName qname = identities[next()];
+        for (Module module : context.getModules()) {
+            for (IdentitySchemaNode identity : module.getIdentities()) {
+                if (qname.equals(identity.getQName())) {
+                    return identity;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.EffectiveSourceCache;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Measurement of the memory footprint of schema contexts built from mostly overlapping module sets, with and without
+ * sharing effective models of modules via an {@link EffectiveSourceCache}. Each context consists of the same set of
+ * generated shared modules and one context-specific device module, as is the case with many mounted devices.
+ *
+ * <p>
+ * Object graph sizes are measured using JOL, hence the results depend on the JVM's object layout.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jol/">JOL</a>
+ */
+public final class EffectiveSourceSharingFootprint {
+    private static final int[] DEFAULT_CONTEXT_COUNTS = { 10, 100 };
+    private static final int SHARED_MODULES = 20;
+    private static final int CONTAINERS_PER_MODULE = 10;
+    private static final Predicate<QName> ALL_FEATURES = new Predicate<QName>() {
+        @Override
+        public boolean test(final QName feature) {
+            return true;
+        }
+    };
+
+    private EffectiveSourceSharingFootprint() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void main(final String... args) throws Exception {
+        final int[] contextCounts;
+        if (args.length != 0) {
+            contextCounts = new int[args.length];
+            for (int i = 0; i < args.length; ++i) {
+                contextCounts[i] = Integer.parseInt(args[i]);
+            }
+        } else {
+            contextCounts = DEFAULT_CONTEXT_COUNTS;
+        }
+
+        for (int contextCount : contextCounts) {
+            measure(contextCount);
+        }
+    }
+
+    private static String sharedModule(final int index) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("module shared-").append(index).append(" {\n")
+            .append("    namespace \"urn:opendaylight:footprint:shared:").append(index).append("\";\n")
+            .append("    prefix s").append(index).append(";\n")
+            .append("    revision 2016-04-01;\n")
+            .append("    typedef percentage {\n")
+            .append("        type uint8 {\n")
+            .append("            range \"0..100\";\n")
+            .append("        }\n")
+            .append("    }\n");
+        for (int i = 0; i < CONTAINERS_PER_MODULE; ++i) {
+            sb.append("    container top-").append(i).append(" {\n")
+                .append("        list item {\n")
+                .append("            key name;\n")
+                .append("            leaf name {\n")
+                .append("                type string;\n")
+                .append("            }\n")
+                .append("            leaf load {\n")
+                .append("                type percentage;\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String deviceModule(final int index) {
+        return "module device-" + index + " {\n"
+            + "    namespace \"urn:opendaylight:footprint:device:" + index + "\";\n"
+            + "    prefix d" + index + ";\n"
+            + "    container device {\n"
+            + "        leaf name {\n"
+            + "            type string;\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n";
+    }
+
+    @SuppressWarnings("deprecation")
+    private static ASTSchemaSource astSource(final String name, final String text) throws Exception {
+        final YangStatementSourceImpl parsed = new YangStatementSourceImpl(
+            new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        return ASTSchemaSource.create(name, parsed.getYangAST(), text);
+    }
+
+    private static Map<SourceIdentifier, ASTSchemaSource> sources(final int device) throws Exception {
+        final Map<SourceIdentifier, ASTSchemaSource> ret = new LinkedHashMap<>();
+        for (int i = 0; i < SHARED_MODULES; ++i) {
+            final ASTSchemaSource source = astSource("shared-" + i, sharedModule(i));
+            ret.put(source.getIdentifier(), source);
+        }
+        final ASTSchemaSource source = astSource("device-" + device, deviceModule(device));
+        ret.put(source.getIdentifier(), source);
+        return ret;
+    }
+
+    private static SchemaContext build(final Map<SourceIdentifier, ASTSchemaSource> sources,
+            final EffectiveSourceCache cache) throws Exception {
+        final CrossSourceStatementReactor.BuildAction reactor =
+                YangInferencePipeline.RFC6020_REACTOR.newBuild(ALL_FEATURES);
+        if (cache == null) {
+            for (ASTSchemaSource source : sources.values()) {
+                reactor.addSource(new YangStatementSourceImpl(source.getIdentifier(),
+                    (StatementContext) source.getAST()));
+            }
+            return reactor.buildEffective();
+        }
+
+        final Map<SourceIdentifier, Object> keys = EffectiveSharingKeys.compute(sources, ALL_FEATURES);
+        for (ASTSchemaSource source : sources.values()) {
+            reactor.addSource(new YangStatementSourceImpl(source.getIdentifier(),
+                (StatementContext) source.getAST()), keys.get(source.getIdentifier()));
+        }
+        return reactor.buildEffective(cache);
+    }
+
+    private static void measure(final int contextCount) throws Exception {
+        final List<Map<SourceIdentifier, ASTSchemaSource>> inputs = new ArrayList<>(contextCount);
+        for (int i = 0; i < contextCount; ++i) {
+            inputs.add(sources(i));
+        }
+
+        final List<SchemaContext> plain = new ArrayList<>(contextCount);
+        for (Map<SourceIdentifier, ASTSchemaSource> input : inputs) {
+            plain.add(build(input, null));
+        }
+        final GraphLayout plainLayout = GraphLayout.parseInstance(plain.toArray());
+        plain.clear();
+
+        final EffectiveSourceCache cache = EffectiveSourceCache.create();
+        final List<SchemaContext> shared = new ArrayList<>(contextCount);
+        for (Map<SourceIdentifier, ASTSchemaSource> input : inputs) {
+            shared.add(build(input, cache));
+        }
+        final GraphLayout sharedLayout = GraphLayout.parseInstance(shared.toArray());
+
+        System.out.println(contextCount + " schema contexts with " + SHARED_MODULES + " shared modules each");
+        System.out.println("  plain:  " + plainLayout.totalCount() + " objects, " + plainLayout.totalSize()
+            + " bytes");
+        System.out.println("  shared: " + sharedLayout.totalCount() + " objects, " + sharedLayout.totalSize()
+            + " bytes, " + cache.getStats().hitCount() + " modules reused");
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.reactor;
+
+import com.google.common.io.ByteSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of SchemaContext assembly from a large set of YANG sources, comparing the sequential build with
+ * the build parsing sources concurrently and with the build replaying a parse cache written by a previous build,
+ * as done on a restart. The model set is generated: a common module with typedefs and a grouping, and a number of
+ * modules using it, each of which augments its predecessor.
+ *
+ * JMH is used for microbenchmarking.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class CrossSourceStatementReactorBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int CONTAINERS_PER_MODULE = 20;
+    private static final Predicate<QName> ALL_FEATURES = new Predicate<QName>() {
+        @Override
+        public boolean test(final QName feature) {
+            return true;
+        }
+    };
+
+    @Param({ "100", "500" })
+    public int moduleCount;
+
+    private List<ByteSource> sources;
+    private ExecutorService executor;
+    private File parseCache;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + CrossSourceStatementReactorBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static ByteSource commonModule() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("module bench-common {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:common\";\n")
+            .append("    prefix common;\n")
+            .append("    revision 2016-03-21;\n")
+            .append("    typedef percentage {\n")
+            .append("        type uint8 {\n")
+            .append("            range \"0..100\";\n")
+            .append("        }\n")
+            .append("    }\n")
+            .append("    typedef name {\n")
+            .append("        type string {\n")
+            .append("            length \"1..64\";\n")
+            .append("            pattern \"[a-z][a-z0-9-]*\";\n")
+            .append("        }\n")
+            .append("    }\n")
+            .append("    grouping entry {\n")
+            .append("        leaf name {\n")
+            .append("            type name;\n")
+            .append("        }\n")
+            .append("        leaf load {\n")
+            .append("            type percentage;\n")
+            .append("        }\n")
+            .append("        leaf enabled {\n")
+            .append("            type boolean;\n")
+            .append("            default true;\n")
+            .append("        }\n")
+            .append("    }\n")
+            .append("}\n");
+        return ByteSource.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteSource module(final int index) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("module bench-").append(index).append(" {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:").append(index).append("\";\n")
+            .append("    prefix b").append(index).append(";\n")
+            .append("    import bench-common {\n")
+            .append("        prefix common;\n")
+            .append("    }\n");
+        if (index != 0) {
+            sb.append("    import bench-").append(index - 1).append(" {\n")
+                .append("        prefix prev;\n")
+                .append("    }\n");
+        }
+        sb.append("    revision 2016-03-21;\n");
+
+        for (int i = 0; i < CONTAINERS_PER_MODULE; ++i) {
+            sb.append("    container top-").append(i).append(" {\n")
+                .append("        description \"Container ").append(i).append(" of module ").append(index)
+                .append("\";\n")
+                .append("        list item {\n")
+                .append("            key name;\n")
+                .append("            uses common:entry;\n")
+                .append("            leaf counter {\n")
+                .append("                type uint64;\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+
+        if (index != 0) {
+            sb.append("    augment \"/prev:top-0/prev:item\" {\n")
+                .append("        leaf augmented-").append(index).append(" {\n")
+                .append("            type common:percentage;\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+        sb.append("}\n");
+        return ByteSource.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Setup
+    public void setup() throws IOException, ReactorException {
+        sources = new ArrayList<>(moduleCount + 1);
+        sources.add(commonModule());
+        for (int i = 0; i < moduleCount; ++i) {
+            sources.add(module(i));
+        }
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+        // The first build writes the parse cache, which subsequent builds replay
+        parseCache = File.createTempFile("reactor-benchmark", ".parse-cache");
+        if (!parseCache.delete()) {
+            throw new IOException("Failed to delete " + parseCache);
+        }
+        YangInferencePipeline.RFC6020_REACTOR.newBuild(ALL_FEATURES).buildEffective(sources, parseCache);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+        executor = null;
+        sources = null;
+        if (!parseCache.delete()) {
+            parseCache.deleteOnExit();
+        }
+        parseCache = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public SchemaContext sequentialBuild() throws Exception {
+        return YangInferencePipeline.RFC6020_REACTOR.newBuild(ALL_FEATURES).buildEffective(sources);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public SchemaContext parallelBuild() throws Exception {
+        return YangInferencePipeline.RFC6020_REACTOR.newBuild(ALL_FEATURES, executor).buildEffective(sources);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public SchemaContext parseCacheBuild() throws Exception {
+        return YangInferencePipeline.RFC6020_REACTOR.newBuild(ALL_FEATURES).buildEffective(sources, parseCache);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.rfc6020;
+
+import com.google.common.io.ByteSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of YANG source parsing with the ANTLR-based {@link YangStatementSourceImpl} and the hand-written
+ * tokenizer of {@link YangTextStatementSource}, both on its own and as part of a SchemaContext build. The corpus is
+ * generated: standalone modules with typedefs, a grouping and a number of containers, using comments, quoted and
+ * concatenated arguments.
+ *
+ * JMH is used for microbenchmarking.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class YangTextStatementSourceBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int CONTAINERS_PER_MODULE = 50;
+
+    @Param({ "100", "500" })
+    public int moduleCount;
+
+    private List<String> texts;
+    private List<ByteSource> sources;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + YangTextStatementSourceBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static String module(final int index) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("/*\n")
+            .append(" * Generated benchmark module ").append(index).append('\n')
+            .append(" */\n")
+            .append("module corpus-").append(index).append(" {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:corpus:").append(index).append("\";\n")
+            .append("    prefix c").append(index).append(";\n")
+            .append("    organization \"OpenDaylight\";\n")
+            .append("    description\n")
+            .append("        \"Module \" + ").append(index).append(" +\n")
+            .append("        ' of the tokenizer benchmark corpus, which is long enough to be split across\n")
+            .append("         multiple lines, as is common in IETF models.';\n")
+            .append("    revision 2016-03-21 {\n")
+            .append("        description \"Initial revision.\";\n")
+            .append("    }\n")
+            .append("    typedef percentage {\n")
+            .append("        type uint8 {\n")
+            .append("            range \"0..100\";\n")
+            .append("        }\n")
+            .append("    }\n")
+            .append("    typedef name {\n")
+            .append("        type string {\n")
+            .append("            length \"1..64\";\n")
+            .append("            pattern '[a-z][a-z0-9-]*';\n")
+            .append("        }\n")
+            .append("    }\n")
+            .append("    grouping entry {\n")
+            .append("        leaf name {\n")
+            .append("            type name;\n")
+            .append("        }\n")
+            .append("        leaf load {\n")
+            .append("            type percentage;\n")
+            .append("            units \"percent\";\n")
+            .append("        }\n")
+            .append("    }\n");
+
+        for (int i = 0; i < CONTAINERS_PER_MODULE; ++i) {
+            sb.append("    // Container ").append(i).append('\n')
+                .append("    container top-").append(i).append(" {\n")
+                .append("        description \"Container ").append(i).append(" of module ").append(index)
+                .append(".\";\n")
+                .append("        list item {\n")
+                .append("            key name;\n")
+                .append("            uses entry;\n")
+                .append("            leaf counter {\n")
+                .append("                type uint64;\n")
+                .append("                default 0;\n")
+                .append("            }\n")
+                .append("            leaf-list tag {\n")
+                .append("                type string;\n")
+                .append("                max-elements 16;\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    @Setup
+    public void setup() {
+        texts = new ArrayList<>(moduleCount);
+        sources = new ArrayList<>(moduleCount);
+        for (int i = 0; i < moduleCount; ++i) {
+            final String text = module(i);
+            texts.add(text);
+            sources.add(ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        texts = null;
+        sources = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public List<YangStatementSourceImpl> antlrParse() throws IOException {
+        final List<YangStatementSourceImpl> ret = new ArrayList<>(sources.size());
+        for (ByteSource source : sources) {
+            try (InputStream stream = source.openStream()) {
+                ret.add(new YangStatementSourceImpl(stream));
+            }
+        }
+        return ret;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public List<YangTextStatementSource> textTokenize() throws IOException, YangSyntaxErrorException {
+        final List<YangTextStatementSource> ret = new ArrayList<>(sources.size());
+        for (ByteSource source : sources) {
+            try (InputStream stream = source.openStream()) {
+                ret.add(YangTextStatementSource.create(stream));
+            }
+        }
+        return ret;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public List<YangTextStatementSource> textTokenizeDecoded() throws YangSyntaxErrorException {
+        final List<YangTextStatementSource> ret = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            ret.add(YangTextStatementSource.create(null, text));
+        }
+        return ret;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public SchemaContext antlrBuild() throws Exception {
+        return YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public SchemaContext textBuild() throws Exception {
+        return YangInferencePipeline.RFC6020_REACTOR.newBuild().useTextStatementSources().buildEffective(sources);
+    }
+}
@@ -8,9 +8,13 @@
 package org.opendaylight.yangtools.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ForwardingCollection;
 import com.google.common.collect.ForwardingMap;
+import com.google.common.collect.ForwardingSet;
 import com.romix.scala.collection.concurrent.TrieMap;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +25,10 @@ import org.slf4j.LoggerFactory;
  * share a single snapshot. That snapshot is instantiated lazily either on
  * first access. Since we never leak the TrieMap and track its size as it
  * changes, we can cache it for future reference.
+ *
+ * The same applies to the collection views: TrieMap computes their size by
+ * walking the entire trie, which defeats the purpose of having a persistent
+ * map for large collections, so we report the tracked size instead.
  */
 final class ReadOnlyTrieMap<K, V> extends ForwardingMap<K, V> {
     @SuppressWarnings("rawtypes")
@@ -59,4 +67,74 @@ final class ReadOnlyTrieMap<K, V> extends ForwardingMap<K, V> {
     public int size() {
         return size;
     }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new SizedSet<>(delegate().keySet(), size);
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new SizedCollection<>(delegate().values(), size);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new SizedSet<>(delegate().entrySet(), size);
+    }
+
+    private static final class SizedCollection<E> extends ForwardingCollection<E> {
+        private final Collection<E> delegate;
+        private final int size;
+
+        SizedCollection(final Collection<E> delegate, final int size) {
+            this.delegate = Preconditions.checkNotNull(delegate);
+            this.size = size;
+        }
+
+        @Override
+        protected Collection<E> delegate() {
+            return delegate;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    private static final class SizedSet<E> extends ForwardingSet<E> {
+        private final Set<E> delegate;
+        private final int size;
+
+        SizedSet(final Set<E> delegate, final int size) {
+            this.delegate = Preconditions.checkNotNull(delegate);
+            this.size = size;
+        }
+
+        @Override
+        protected Set<E> delegate() {
+            return delegate;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+    }
 }
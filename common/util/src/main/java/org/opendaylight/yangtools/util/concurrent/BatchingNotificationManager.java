@@ -0,0 +1,630 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.PeekingIterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import org.opendaylight.yangtools.util.DurationStatisticsTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class manages queuing and dispatching notifications for multiple listeners concurrently, targeting high
+ * notification rates with large numbers of listeners. It follows the same model as
+ * {@link QueuedNotificationManager}: notifications are queued on a per-listener basis and dispatched serially
+ * to each listener via an {@link Executor}, with the queue and task existing only while there are pending
+ * notifications.
+ * <p>
+ * Unlike {@link QueuedNotificationManager}, this class does not use locks. Each listener queue is a lock-free
+ * queue with any number of producers and a single consumer, bounded by an atomic reservation counter, which also
+ * coordinates the exit of the dispatching task. The dispatching task drains notifications in batches of up to
+ * a configured size and hands each batch to a {@link BatchInvoker} in a single call.
+ * <p>
+ * When a listener's queue is full, the behavior is governed by the {@link BackpressurePolicy} selected at
+ * construction time. Per-listener delivery counters and latencies are available via
+ * {@link #getListenerNotificationQueueMetrics()}. They are accumulated over the lifetimes of all tasks of a listener
+ * and retained while the listener has no pending notifications, until the listener is removed via
+ * {@link #removeListener(Object)} or garbage-collected. Metrics are held weakly with respect to the listener, hence
+ * users which only see the {@link NotificationManager} interface do not leak metrics of discarded listeners.
+ *
+ * @param <L> the listener type
+ * @param <N> the notification type
+ */
+public class BatchingNotificationManager<L, N> implements NotificationManager<L, N> {
+
+    /**
+     * Interface implemented by clients that does the work of invoking listeners with batches of notifications.
+     *
+     * @param <L> the listener type
+     * @param <N> the notification type
+     */
+    public interface BatchInvoker<L, N> {
+
+        /**
+         * Called to invoke a listener with a batch of notifications. The batch is never empty and contains
+         * notifications in the order in which they were queued. The list is not used after this method returns,
+         * hence it may be retained by the implementation.
+         *
+         * @param listener the listener to invoke
+         * @param notifications the notifications to send
+         */
+        void invokeListener(L listener, List<N> notifications);
+    }
+
+    /**
+     * Interface implemented by clients which merges notifications when {@link BackpressurePolicy#COALESCE} is
+     * in effect.
+     *
+     * @param <N> the notification type
+     */
+    public interface Coalescer<N> {
+
+        /**
+         * Merges two consecutive notifications into a single one, which is equivalent to delivering both of them
+         * in order.
+         *
+         * @param older the notification which was queued first
+         * @param newer the notification which was queued later
+         * @return merged notification
+         */
+        N coalesce(N older, N newer);
+    }
+
+    /**
+     * Policy applied to notifications submitted for a listener whose queue is full.
+     */
+    public enum BackpressurePolicy {
+        /**
+         * The submitting thread waits until there is space in the queue. Similar to
+         * {@link QueuedNotificationManager}, a notification which cannot be queued within 10 minutes is dropped.
+         */
+        BLOCK,
+        /**
+         * The oldest queued notification is discarded to make room for the new one. The submitting thread never
+         * waits.
+         */
+        DROP_OLDEST,
+        /**
+         * Notifications which do not fit into the queue are merged into a single pending notification using
+         * a {@link Coalescer}, which is delivered after the queued notifications. The submitting thread never
+         * waits.
+         */
+        COALESCE,
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchingNotificationManager.class);
+
+    /**
+     * Caps the maximum number of attempts to offer notification to a particular listener with
+     * {@link BackpressurePolicy#BLOCK}.  Each attempt window is 1 minute, so an offer times out after roughly
+     * 10 minutes.
+     */
+    private static final int MAX_NOTIFICATION_OFFER_ATTEMPTS = 10;
+    private static final long NOTIFICATION_OFFER_ATTEMPT_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Bounds for the time a blocked submitter parks before checking the queue again. We start short, as typically
+     * the listener catches up quickly, and back off exponentially to avoid burning CPU with a stuck listener.
+     */
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ConcurrentMap<ListenerKey<L>, NotificationTask> listenerCache = new ConcurrentHashMap<>();
+    // Weak keys are compared by identity, as are ListenerKeys
+    private final ConcurrentMap<L, ListenerMetrics> listenerMetrics = new MapMaker().weakKeys().makeMap();
+    private final Executor executor;
+    private final BatchInvoker<L, N> listenerInvoker;
+    private final BackpressurePolicy backpressurePolicy;
+    private final Coalescer<N> coalescer;
+    private final String name;
+    private final int maxQueueCapacity;
+    private final int maxBatchSize;
+
+    /**
+     * Constructor.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param listenerInvoker the {@link BatchInvoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue
+     * @param maxBatchSize the maximum number of notifications delivered to a listener in a single invocation
+     * @param backpressurePolicy the policy to apply when a listener queue is full, must not be
+     *        {@link BackpressurePolicy#COALESCE}
+     * @param name the name of this instance for logging info
+     */
+    public BatchingNotificationManager(final Executor executor, final BatchInvoker<L, N> listenerInvoker,
+            final int maxQueueCapacity, final int maxBatchSize, final BackpressurePolicy backpressurePolicy,
+            final String name) {
+        this(executor, listenerInvoker, maxQueueCapacity, maxBatchSize, backpressurePolicy, null, name);
+    }
+
+    /**
+     * Constructor for an instance using {@link BackpressurePolicy#COALESCE}.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param listenerInvoker the {@link BatchInvoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue
+     * @param maxBatchSize the maximum number of notifications delivered to a listener in a single invocation
+     * @param coalescer the {@link Coalescer} to use for merging notifications which do not fit into the queue
+     * @param name the name of this instance for logging info
+     */
+    public BatchingNotificationManager(final Executor executor, final BatchInvoker<L, N> listenerInvoker,
+            final int maxQueueCapacity, final int maxBatchSize, final Coalescer<N> coalescer, final String name) {
+        this(executor, listenerInvoker, maxQueueCapacity, maxBatchSize, BackpressurePolicy.COALESCE,
+            Preconditions.checkNotNull(coalescer), name);
+    }
+
+    private BatchingNotificationManager(final Executor executor, final BatchInvoker<L, N> listenerInvoker,
+            final int maxQueueCapacity, final int maxBatchSize, final BackpressurePolicy backpressurePolicy,
+            final Coalescer<N> coalescer, final String name) {
+        this.executor = Preconditions.checkNotNull(executor);
+        this.listenerInvoker = Preconditions.checkNotNull(listenerInvoker);
+        Preconditions.checkArgument(maxQueueCapacity > 0, "maxQueueCapacity must be > 0");
+        this.maxQueueCapacity = maxQueueCapacity;
+        Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be > 0");
+        this.maxBatchSize = maxBatchSize;
+        this.backpressurePolicy = Preconditions.checkNotNull(backpressurePolicy);
+        Preconditions.checkArgument(backpressurePolicy != BackpressurePolicy.COALESCE || coalescer != null,
+            "Policy %s requires a Coalescer", backpressurePolicy);
+        this.coalescer = coalescer;
+        this.name = Preconditions.checkNotNull(name);
+    }
+
+    @Override
+    public void submitNotification(final L listener, final N notification) {
+        if (notification == null) {
+            return;
+        }
+
+        submitNotifications(listener, Collections.singletonList(notification));
+    }
+
+    @Override
+    public void submitNotifications(final L listener, final Iterable<N> notifications) {
+        if (notifications == null || listener == null) {
+            return;
+        }
+
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("{}: submitNotifications for listener {}: {}", name, listener.toString(), notifications);
+        }
+
+        final ListenerKey<L> key = new ListenerKey<>(listener);
+        final PeekingIterator<N> it = Iterators.peekingIterator(notifications.iterator());
+
+        // Keep looping until all notifications have been handed off to a task. An existing task may be in
+        // the process of exiting, in which case it accepts only some of them (or none at all) and we need to
+        // replace it with a new task for the remainder.
+        try {
+            while (it.hasNext()) {
+                final NotificationTask existingTask = listenerCache.get(key);
+                if (existingTask != null) {
+                    if (existingTask.submitNotifications(it)) {
+                        break;
+                    }
+
+                    // The task has exited, make sure it does not stay in our way
+                    listenerCache.remove(key, existingTask);
+                    continue;
+                }
+
+                // The new task starts with the first notification queued, so it does not exit before we get
+                // a chance to queue the rest.
+                final NotificationTask newTask = new NotificationTask(key, metricsFor(listener), it.peek());
+                if (listenerCache.putIfAbsent(key, newTask) == null) {
+                    LOG.debug("{}: Submitting NotificationTask for listener {}", name, listener.toString());
+
+                    it.next();
+                    try {
+                        executor.execute(newTask);
+                    } catch (RejectedExecutionException e) {
+                        listenerCache.remove(key, newTask);
+                        throw e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // We were interrupted waiting for space in the listener's queue. Somebody's probably telling us
+            // to quit.
+            LOG.debug("{}: Interrupted trying to add to {} listener's queue", name, listener.toString());
+            Thread.currentThread().interrupt();
+        }
+
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("{}: submitNotifications done for listener {}", name, listener.toString());
+        }
+    }
+
+    private ListenerMetrics metricsFor(final L listener) {
+        final ListenerMetrics existing = listenerMetrics.get(listener);
+        if (existing != null) {
+            return existing;
+        }
+
+        final ListenerMetrics created = new ListenerMetrics();
+        final ListenerMetrics raced = listenerMetrics.putIfAbsent(listener, created);
+        return raced != null ? raced : created;
+    }
+
+    /**
+     * Removes accumulated metrics of a listener, which should be invoked when the listener is unregistered.
+     * Notifications submitted for the listener afterwards are accounted anew. Notifications pending at the time
+     * of removal are still delivered, but are not accounted in metrics.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(final L listener) {
+        if (listener != null) {
+            listenerMetrics.remove(listener);
+        }
+    }
+
+    /**
+     * Returns {@link ListenerNotificationQueueStats} instances for each current listener notification task
+     * in progress.
+     */
+    public List<ListenerNotificationQueueStats> getListenerNotificationQueueStats() {
+        final List<ListenerNotificationQueueStats> statsList = new ArrayList<>(listenerCache.size());
+        for (NotificationTask task : listenerCache.values()) {
+            statsList.add(task.metrics.toMetrics(task.listenerKey, task.queueSize()));
+        }
+
+        return statsList;
+    }
+
+    /**
+     * Returns {@link ListenerNotificationQueueMetrics} instances for each listener which has been notified and
+     * has been neither removed via {@link #removeListener(Object)} nor garbage-collected, including listeners which
+     * currently have no pending notifications. Counters and latencies cover all notifications submitted since the
+     * listener was first notified or last removed.
+     */
+    public List<ListenerNotificationQueueMetrics> getListenerNotificationQueueMetrics() {
+        final List<ListenerNotificationQueueMetrics> metricsList = new ArrayList<>(listenerMetrics.size());
+        for (Entry<L, ListenerMetrics> entry : listenerMetrics.entrySet()) {
+            final ListenerKey<L> key = new ListenerKey<>(entry.getKey());
+            final NotificationTask task = listenerCache.get(key);
+            metricsList.add(entry.getValue().toMetrics(key, task != null ? task.queueSize() : 0));
+        }
+
+        return metricsList;
+    }
+
+    /**
+     * Returns the maximum listener queue capacity.
+     */
+    public int getMaxQueueCapacity() {
+        return maxQueueCapacity;
+    }
+
+    /**
+     * Returns the maximum number of notifications delivered in a single invocation.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the policy applied to notifications submitted to a full queue.
+     */
+    public BackpressurePolicy getBackpressurePolicy() {
+        return backpressurePolicy;
+    }
+
+    /**
+     * Returns the {@link Executor} to used for notification tasks.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * A queued notification along with the time it was submitted.
+     */
+    private static final class Queued<N> {
+        final N notification;
+        final long submitNanos;
+
+        Queued(final N notification, final long submitNanos) {
+            this.notification = notification;
+            this.submitNanos = submitNanos;
+        }
+    }
+
+    /**
+     * Delivery counters and latencies of a single listener, which outlive its notification tasks.
+     */
+    private static final class ListenerMetrics {
+        final AtomicLong droppedNotifications = new AtomicLong();
+        final AtomicLong coalescedNotifications = new AtomicLong();
+        final AtomicLong deliveredNotifications = new AtomicLong();
+        final AtomicLong deliveredBatches = new AtomicLong();
+        final DurationStatisticsTracker queueLatency = DurationStatisticsTracker.createConcurrent();
+        final DurationStatisticsTracker invocationTime = DurationStatisticsTracker.createConcurrent();
+
+        ListenerNotificationQueueMetrics toMetrics(final ListenerKey<?> listenerKey, final int queueSize) {
+            return new ListenerNotificationQueueMetrics(listenerKey.toString(), queueSize,
+                deliveredNotifications.get(), droppedNotifications.get(), coalescedNotifications.get(),
+                deliveredBatches.get(), (long) queueLatency.getAverageDuration(), queueLatency.getLongestDuration(),
+                (long) invocationTime.getAverageDuration(), invocationTime.getLongestDuration());
+        }
+    }
+
+    /**
+     * Executor task for a single listener that queues notifications and sends them in batches to the listener.
+     */
+    private final class NotificationTask implements Runnable {
+
+        private final ConcurrentLinkedQueue<Queued<N>> notificationQueue = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Number of notifications in the queue, including the overflow notification and notifications which
+         * submitters have reserved space for but not yet added. A negative value indicates the task has exited
+         * and does not accept notifications anymore.
+         */
+        private final AtomicInteger pending;
+
+        /**
+         * Notification merged from those which did not fit into the queue, used only with
+         * {@link BackpressurePolicy#COALESCE}. While it is present, all submitted notifications are merged into
+         * it, so it is always delivered after all queued notifications.
+         */
+        private final AtomicReference<Queued<N>> overflow = new AtomicReference<>();
+
+        private final ListenerKey<L> listenerKey;
+        private final ListenerMetrics metrics;
+
+        NotificationTask(final ListenerKey<L> listenerKey, final ListenerMetrics metrics, final N notification) {
+            this.listenerKey = listenerKey;
+            this.metrics = metrics;
+            this.notificationQueue.add(new Queued<>(notification, System.nanoTime()));
+            this.pending = new AtomicInteger(1);
+        }
+
+        /**
+         * Queue notifications from an iterator. Each notification is consumed from the iterator only after it
+         * has been queued.
+         *
+         * @return false if this task has exited and the iterator may contain remaining notifications
+         */
+        boolean submitNotifications(final PeekingIterator<N> notifications) throws InterruptedException {
+            while (notifications.hasNext()) {
+                if (!submitNotification(notifications.peek())) {
+                    return false;
+                }
+                notifications.next();
+            }
+            return true;
+        }
+
+        private boolean submitNotification(final N notification) throws InterruptedException {
+            final Queued<N> queued = new Queued<>(notification, System.nanoTime());
+
+            long backoffNanos = MIN_BACKOFF_NANOS;
+            long attemptStart = 0;
+            int attempts = 0;
+            while (true) {
+                final int current = pending.get();
+                if (current < 0) {
+                    return false;
+                }
+
+                // Overflow notification is pending, which means we have to merge into it to retain ordering
+                if (backpressurePolicy == BackpressurePolicy.COALESCE && overflow.get() != null) {
+                    if (mergeOverflow(queued)) {
+                        return true;
+                    }
+                    continue;
+                }
+
+                if (current < maxQueueCapacity) {
+                    if (pending.compareAndSet(current, current + 1)) {
+                        notificationQueue.add(queued);
+                        return true;
+                    }
+                    continue;
+                }
+
+                switch (backpressurePolicy) {
+                    case BLOCK:
+                        final long now = System.nanoTime();
+                        if (attempts == 0) {
+                            LOG.debug("{}: Queue for listener {} is full, waiting", name, listenerKey.toString());
+                            attemptStart = now;
+                            attempts = 1;
+                        } else if (now - attemptStart >= NOTIFICATION_OFFER_ATTEMPT_NANOS) {
+                            if (attempts >= MAX_NOTIFICATION_OFFER_ATTEMPTS) {
+                                LOG.warn("{}: Failed to offer a notification to the queue for listener {}. "
+                                        + "Exceeded max allowable attempts of {} in {} minutes; the listener "
+                                        + "is likely in an unrecoverable state (deadlock or endless loop).",
+                                        name, listenerKey.toString(), MAX_NOTIFICATION_OFFER_ATTEMPTS,
+                                        MAX_NOTIFICATION_OFFER_ATTEMPTS);
+                                metrics.droppedNotifications.incrementAndGet();
+                                return true;
+                            }
+
+                            LOG.warn("{}: Timed out trying to offer a notification to the queue for listener {} "
+                                    + "on attempt {} of {}. The queue has reached its capacity of {}",
+                                    name, listenerKey.toString(), attempts, MAX_NOTIFICATION_OFFER_ATTEMPTS,
+                                    maxQueueCapacity);
+                            attemptStart = now;
+                            attempts++;
+                        }
+
+                        LockSupport.parkNanos(backoffNanos);
+                        if (Thread.interrupted()) {
+                            throw new InterruptedException();
+                        }
+                        backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+                        break;
+                    case DROP_OLDEST:
+                        // We are replacing a queued notification, hence the reservation count does not change.
+                        // The dispatching task cannot exit, as the count is positive.
+                        final Queued<N> oldest = notificationQueue.poll();
+                        if (oldest != null) {
+                            notificationQueue.add(queued);
+                            metrics.droppedNotifications.incrementAndGet();
+                            LOG.debug("{}: Queue for listener {} is full, dropped notification {}", name,
+                                listenerKey.toString(), oldest.notification);
+                            return true;
+                        }
+
+                        // Queue was drained in the meantime, or notifications are yet to be added, try again
+                        Thread.yield();
+                        break;
+                    case COALESCE:
+                        // Reserve space for the overflow notification, it counts as a queued notification
+                        if (pending.compareAndSet(current, current + 1)) {
+                            installOverflow(queued);
+                            return true;
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unhandled policy " + backpressurePolicy);
+                }
+            }
+        }
+
+        /**
+         * Merge a notification into the current overflow notification, if present.
+         *
+         * @return false if there is no overflow notification
+         */
+        private boolean mergeOverflow(final Queued<N> queued) {
+            final Queued<N> prev = overflow.get();
+            if (prev != null && overflow.compareAndSet(prev, coalesce(prev, queued))) {
+                metrics.coalescedNotifications.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Install a notification as the overflow notification, for which the caller has reserved space. If
+         * another overflow notification has been installed concurrently, we merge into it and release
+         * the reservation.
+         */
+        private void installOverflow(final Queued<N> queued) {
+            try {
+                while (true) {
+                    if (overflow.compareAndSet(null, queued)) {
+                        return;
+                    }
+                    if (mergeOverflow(queued)) {
+                        pending.decrementAndGet();
+                        return;
+                    }
+                }
+            } catch (RuntimeException e) {
+                pending.decrementAndGet();
+                throw e;
+            }
+        }
+
+        private Queued<N> coalesce(final Queued<N> older, final Queued<N> newer) {
+            return new Queued<>(coalescer.coalesce(older.notification, newer.notification), older.submitNanos);
+        }
+
+        int queueSize() {
+            return Math.max(pending.get(), 0);
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Loop until we've dispatched all the notifications in the queue.
+                while (true) {
+                    List<N> batch = null;
+                    long oldestSubmitNanos = 0;
+
+                    while (batch == null || batch.size() < maxBatchSize) {
+                        Queued<N> queued = notificationQueue.poll();
+                        if (queued == null) {
+                            // Overflow notification is delivered only once the queue has been drained
+                            if (overflow.get() == null || (queued = overflow.getAndSet(null)) == null) {
+                                break;
+                            }
+                        }
+
+                        if (batch == null) {
+                            batch = new ArrayList<>(Math.min(maxBatchSize, Math.max(pending.get(), 1)));
+                            oldestSubmitNanos = queued.submitNanos;
+                        }
+                        batch.add(queued.notification);
+                    }
+
+                    if (batch == null) {
+                        // Nothing is queued. If no notifications are reserved either, mark ourselves as done,
+                        // after which submitters will create a new task. Otherwise a submitter is about to add
+                        // a notification, so give it a chance to do so.
+                        if (pending.compareAndSet(0, -1)) {
+                            break;
+                        }
+
+                        Thread.yield();
+                        continue;
+                    }
+
+                    pending.addAndGet(-batch.size());
+                    notifyListener(batch, oldestSubmitNanos);
+                }
+            } finally {
+                // We're exiting, gracefully or not - either way make sure we always remove ourselves from
+                // the cache.
+                listenerCache.remove(listenerKey, this);
+            }
+        }
+
+        private void notifyListener(final List<N> batch, final long oldestSubmitNanos) {
+            final long startNanos = System.nanoTime();
+            metrics.queueLatency.addDuration(startNanos - oldestSubmitNanos);
+
+            try {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("{}: Invoking listener {} with {} notifications", name, listenerKey.toString(),
+                        batch.size());
+                }
+
+                listenerInvoker.invokeListener(listenerKey.getListener(), batch);
+
+            } catch (RuntimeException e) {
+
+                // We'll let a RuntimeException from the listener slide and keep sending any remaining
+                // notifications.
+
+                LOG.error(String.format("%1$s: Error notifying listener %2$s", name, listenerKey.toString()), e);
+
+            } catch (Error e) {
+
+                // A JVM Error is severe - best practice is to throw them up the chain. Mark ourselves as done so
+                // no new notifications can be added to this task as we're about to bail.
+
+                pending.set(-1);
+                throw e;
+            }
+
+            metrics.invocationTime.addDuration(System.nanoTime() - startNanos);
+            metrics.deliveredNotifications.addAndGet(batch.size());
+            metrics.deliveredBatches.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2014 Brocade Communications Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+/**
+ * Used as the listenerCache map key by {@link QueuedNotificationManager} and {@link BatchingNotificationManager}.
+ * We key by listener reference identity hashCode/equals. Since we don't know anything about the listener class
+ * implementations and we're mixing multiple listener class instances in the same map, this avoids any potential
+ * issue with an equals implementation that just blindly casts the other Object to compare instead of checking
+ * for instanceof.
+ */
+final class ListenerKey<L> {
+
+    private final L listener;
+
+    ListenerKey(final L listener) {
+        this.listener = listener;
+    }
+
+    L getListener() {
+        return listener;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(listener);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof ListenerKey<?>)) {
+            return false;
+        }
+
+        ListenerKey<?> other = (ListenerKey<?>) obj;
+        return listener == other.listener;
+    }
+
+    @Override
+    public String toString() {
+        return listener.toString();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Class used by the {@link BatchingNotificationManager} that contains a snapshot of notification queue statistics
+ * for a listener. In addition to the queue size, it reports delivery counters and latencies accumulated since
+ * the listener was first notified, or since it was last removed via
+ * {@link BatchingNotificationManager#removeListener(Object)}.
+ *
+ * @see BatchingNotificationManager
+ */
+public class ListenerNotificationQueueMetrics extends ListenerNotificationQueueStats {
+
+    private final long deliveredNotifications;
+    private final long droppedNotifications;
+    private final long coalescedNotifications;
+    private final long deliveredBatches;
+    private final long averageQueueLatency;
+    private final long longestQueueLatency;
+    private final long averageInvocationTime;
+    private final long longestInvocationTime;
+
+    @ConstructorProperties({ "listenerClassName", "currentQueueSize", "deliveredNotifications",
+        "droppedNotifications", "coalescedNotifications", "deliveredBatches", "averageQueueLatency",
+        "longestQueueLatency", "averageInvocationTime", "longestInvocationTime" })
+    public ListenerNotificationQueueMetrics(final String listenerClassName, final int currentQueueSize,
+            final long deliveredNotifications, final long droppedNotifications, final long coalescedNotifications,
+            final long deliveredBatches, final long averageQueueLatency, final long longestQueueLatency,
+            final long averageInvocationTime, final long longestInvocationTime) {
+        super(listenerClassName, currentQueueSize);
+        this.deliveredNotifications = deliveredNotifications;
+        this.droppedNotifications = droppedNotifications;
+        this.coalescedNotifications = coalescedNotifications;
+        this.deliveredBatches = deliveredBatches;
+        this.averageQueueLatency = averageQueueLatency;
+        this.longestQueueLatency = longestQueueLatency;
+        this.averageInvocationTime = averageInvocationTime;
+        this.longestInvocationTime = longestInvocationTime;
+    }
+
+    /**
+     * Returns the number of notifications delivered to the listener.
+     */
+    public long getDeliveredNotifications() {
+        return deliveredNotifications;
+    }
+
+    /**
+     * Returns the number of notifications which were dropped because the queue was full.
+     */
+    public long getDroppedNotifications() {
+        return droppedNotifications;
+    }
+
+    /**
+     * Returns the number of notifications which were merged into a previously-queued notification.
+     */
+    public long getCoalescedNotifications() {
+        return coalescedNotifications;
+    }
+
+    /**
+     * Returns the number of batches delivered to the listener.
+     */
+    public long getDeliveredBatches() {
+        return deliveredBatches;
+    }
+
+    /**
+     * Returns the average time in nanoseconds the oldest notification of a batch spent in the queue.
+     */
+    public long getAverageQueueLatency() {
+        return averageQueueLatency;
+    }
+
+    /**
+     * Returns the longest time in nanoseconds a notification spent in the queue.
+     */
+    public long getLongestQueueLatency() {
+        return longestQueueLatency;
+    }
+
+    /**
+     * Returns the average time in nanoseconds the listener spent processing a batch.
+     */
+    public long getAverageInvocationTime() {
+        return averageInvocationTime;
+    }
+
+    /**
+     * Returns the longest time in nanoseconds the listener spent processing a batch.
+     */
+    public long getLongestInvocationTime() {
+        return longestInvocationTime;
+    }
+}
@@ -218,49 +218,6 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
         return executor;
     }
 
-    /**
-     * Used as the listenerCache map key. We key by listener reference identity hashCode/equals.
-     * Since we don't know anything about the listener class implementations and we're mixing
-     * multiple listener class instances in the same map, this avoids any potential issue with an
-     * equals implementation that just blindly casts the other Object to compare instead of checking
-     * for instanceof.
-     */
-    private static class ListenerKey<L> {
-
-        private final L listener;
-
-        public ListenerKey( L listener ) {
-            this.listener = listener;
-        }
-
-        L getListener() {
-            return listener;
-        }
-
-        @Override
-        public int hashCode() {
-            return System.identityHashCode( listener );
-        }
-
-        @Override
-        public boolean equals( Object obj ) {
-            if (obj == this) {
-                return true;
-            }
-            if (!(obj instanceof ListenerKey<?>)) {
-                return false;
-            }
-
-            ListenerKey<?> other = (ListenerKey<?>) obj;
-            return listener == other.listener;
-        }
-
-        @Override
-        public String toString() {
-            return listener.toString();
-        }
-    }
-
     /**
      * Executor task for a single listener that queues notifications and sends them serially to the
      * listener.
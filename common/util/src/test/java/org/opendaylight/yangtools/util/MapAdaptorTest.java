@@ -112,6 +112,29 @@ public class MapAdaptorTest {
         assertEquals(25, snap3.size());
     }
 
+    @Test
+    public void testTrieViewSizes() {
+        final Map<String, String> input = new TreeMap<>();
+        for (char c = 'a'; c <= 'z'; ++c) {
+            final String s = String.valueOf(c);
+            input.put(s, s);
+        }
+
+        final Map<String, String> opt = adaptor.optimize(input);
+        assertEquals(ReadOnlyTrieMap.class, opt.getClass());
+        assertEquals(26, opt.keySet().size());
+        assertEquals(26, opt.values().size());
+        assertEquals(26, opt.entrySet().size());
+        assertEquals(input.keySet(), opt.keySet());
+        assertEquals(input.entrySet(), opt.entrySet());
+
+        final Map<String, String> snap = adaptor.takeSnapshot(opt);
+        snap.remove("a");
+        final Map<String, String> opt2 = adaptor.optimize(snap);
+        assertEquals(25, opt2.values().size());
+        assertEquals(26, opt.values().size());
+    }
+
     @Test
     public void testTrieToHash() {
         final Map<String, String> input = new TreeMap<>();
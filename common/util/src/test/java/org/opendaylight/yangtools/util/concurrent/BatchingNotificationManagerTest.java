@@ -0,0 +1,436 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.opendaylight.yangtools.util.concurrent.BatchingNotificationManager.BackpressurePolicy;
+import org.opendaylight.yangtools.util.concurrent.BatchingNotificationManager.BatchInvoker;
+import org.opendaylight.yangtools.util.concurrent.BatchingNotificationManager.Coalescer;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManagerTest.TestListener;
+
+/**
+ * Unit tests for BatchingNotificationManager.
+ */
+public class BatchingNotificationManagerTest {
+
+    static class TestNotifier<N> implements BatchInvoker<TestListener<N>, N> {
+        final CountDownLatch gate;
+        volatile int maxBatchSize;
+
+        TestNotifier() {
+            this(new CountDownLatch(0));
+        }
+
+        /**
+         * Creates a notifier which does not invoke listeners until the gate is opened.
+         */
+        TestNotifier(final CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void invokeListener(final TestListener<N> listener, final List<N> notifications) {
+            Uninterruptibles.awaitUninterruptibly(gate);
+            maxBatchSize = Math.max(maxBatchSize, notifications.size());
+            for (N notification : notifications) {
+                listener.onNotification(notification);
+            }
+        }
+    }
+
+    /**
+     * Listener which records batches and blocks until released.
+     */
+    static class BlockingListener<N> {
+        final List<List<N>> batches = Collections.synchronizedList(new ArrayList<List<N>>());
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done;
+
+        BlockingListener(final int expectedBatches) {
+            done = new CountDownLatch(expectedBatches);
+        }
+
+        void onNotifications(final List<N> notifications) {
+            batches.add(ImmutableList.copyOf(notifications));
+            entered.countDown();
+            Uninterruptibles.awaitUninterruptibly(release, 10, TimeUnit.SECONDS);
+            done.countDown();
+        }
+
+        void awaitEntered() {
+            assertTrue("Listener invoked", Uninterruptibles.awaitUninterruptibly(entered, 10, TimeUnit.SECONDS));
+        }
+
+        List<List<N>> releaseAndAwait() {
+            release.countDown();
+            assertTrue("Batches delivered", Uninterruptibles.awaitUninterruptibly(done, 10, TimeUnit.SECONDS));
+            return batches;
+        }
+    }
+
+    static class BlockingNotifier<N> implements BatchInvoker<BlockingListener<N>, N> {
+        @Override
+        public void invokeListener(final BlockingListener<N> listener, final List<N> notifications) {
+            listener.onNotifications(notifications);
+        }
+    }
+
+    private ExecutorService queueExecutor;
+
+    @After
+    public void tearDown() {
+        if (queueExecutor != null) {
+            queueExecutor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testNotificationsWithSingleListener() {
+        queueExecutor = Executors.newFixedThreadPool(2);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final TestNotifier<Integer> notifier = new TestNotifier<>(gate);
+        final NotificationManager<TestListener<Integer>, Integer> manager = new BatchingNotificationManager<>(
+                queueExecutor, notifier, 10, 4, BackpressurePolicy.BLOCK, "TestMgr");
+
+        final int initialCount = 6;
+        final int nNotifications = 100;
+
+        final TestListener<Integer> listener = new TestListener<>(nNotifications, 1);
+
+        manager.submitNotifications(listener, Arrays.asList(1, 2));
+        manager.submitNotification(listener, 3);
+        manager.submitNotifications(listener, Arrays.asList(4, 5));
+        manager.submitNotification(listener, 6);
+
+        manager.submitNotifications(null, Collections.<Integer>emptyList());
+        manager.submitNotifications(listener, null);
+        manager.submitNotification(listener, null);
+
+        // The initial notifications are queued while the first batch is held up, hence they cannot all be
+        // delivered one by one
+        gate.countDown();
+
+        final List<Integer> expNotifications = Lists.newArrayListWithCapacity(nNotifications);
+        expNotifications.addAll(Arrays.asList(1, 2, 3, 4, 5, 6));
+        for (int i = 1; i <= nNotifications - initialCount; i++) {
+            final Integer v = Integer.valueOf(initialCount + i);
+            expNotifications.add(v);
+            manager.submitNotification(listener, v);
+        }
+
+        listener.verifyNotifications(expNotifications);
+        assertTrue("Batch size " + notifier.maxBatchSize, notifier.maxBatchSize > 1 && notifier.maxBatchSize <= 4);
+    }
+
+    @Test(timeout = 30000)
+    public void testNotificationsWithMultipleListeners() throws InterruptedException {
+        final int nListeners = 10;
+        final int nNotifications = 20000;
+        queueExecutor = Executors.newFixedThreadPool(nListeners);
+        final BatchingNotificationManager<TestListener<Integer>, Integer> manager =
+                new BatchingNotificationManager<>(queueExecutor, new TestNotifier<Integer>(), 500, 64,
+                    BackpressurePolicy.BLOCK, "TestMgr");
+
+        final List<TestListener<Integer>> listeners = new ArrayList<>();
+        final List<Integer> expected = new ArrayList<>(nNotifications);
+        for (int i = 1; i <= nNotifications; i++) {
+            expected.add(i);
+        }
+
+        // Each listener is fed from its own thread, so its notifications are ordered
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 1; i <= nListeners; i++) {
+            final TestListener<Integer> listener = new TestListener<>(nNotifications, i);
+            listeners.add(listener);
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (Integer n : expected) {
+                        manager.submitNotification(listener, n);
+                    }
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+
+        for (TestListener<Integer> listener : listeners) {
+            listener.verifyNotifications(expected);
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testDropOldest() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final BatchingNotificationManager<BlockingListener<Integer>, Integer> manager =
+                new BatchingNotificationManager<>(queueExecutor, new BlockingNotifier<Integer>(), 5, 10,
+                    BackpressurePolicy.DROP_OLDEST, "TestMgr");
+
+        final BlockingListener<Integer> listener = new BlockingListener<>(2);
+        manager.submitNotification(listener, 1);
+        listener.awaitEntered();
+
+        for (int i = 2; i <= 20; ++i) {
+            manager.submitNotification(listener, i);
+        }
+
+        final List<ListenerNotificationQueueMetrics> metrics = manager.getListenerNotificationQueueMetrics();
+        assertEquals(1, metrics.size());
+        assertEquals(5, metrics.get(0).getCurrentQueueSize());
+        assertEquals(14, metrics.get(0).getDroppedNotifications());
+
+        assertEquals(ImmutableList.of(ImmutableList.of(1), ImmutableList.of(16, 17, 18, 19, 20)),
+            listener.releaseAndAwait());
+    }
+
+    @Test(timeout = 10000)
+    public void testCoalesce() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final BatchingNotificationManager<BlockingListener<String>, String> manager =
+                new BatchingNotificationManager<>(queueExecutor, new BlockingNotifier<String>(), 2, 10,
+                    new Coalescer<String>() {
+                        @Override
+                        public String coalesce(final String older, final String newer) {
+                            return older + newer;
+                        }
+                    }, "TestMgr");
+
+        final BlockingListener<String> listener = new BlockingListener<>(2);
+        manager.submitNotification(listener, "a");
+        listener.awaitEntered();
+
+        manager.submitNotifications(listener, Arrays.asList("b", "c", "d", "e", "f"));
+
+        final List<ListenerNotificationQueueMetrics> metrics = manager.getListenerNotificationQueueMetrics();
+        assertEquals(1, metrics.size());
+        assertEquals(3, metrics.get(0).getCurrentQueueSize());
+        assertEquals(2, metrics.get(0).getCoalescedNotifications());
+        assertEquals(0, metrics.get(0).getDroppedNotifications());
+
+        assertEquals(ImmutableList.of(ImmutableList.of("a"), ImmutableList.of("b", "c", "def")),
+            listener.releaseAndAwait());
+    }
+
+    @Test(timeout = 10000)
+    public void testBlock() throws InterruptedException {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final BatchingNotificationManager<BlockingListener<Integer>, Integer> manager =
+                new BatchingNotificationManager<>(queueExecutor, new BlockingNotifier<Integer>(), 2, 10,
+                    BackpressurePolicy.BLOCK, "TestMgr");
+
+        final BlockingListener<Integer> listener = new BlockingListener<>(1);
+        manager.submitNotification(listener, 1);
+        listener.awaitEntered();
+
+        final Thread submitter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                manager.submitNotifications(listener, Arrays.asList(2, 3, 4));
+            }
+        });
+        submitter.start();
+
+        // The submitter has to wait for the listener to make room for the last notification
+        submitter.join(200);
+        assertTrue("Submitter blocked", submitter.isAlive());
+        assertEquals(2, manager.getListenerNotificationQueueStats().get(0).getCurrentQueueSize());
+
+        listener.release.countDown();
+        submitter.join();
+
+        // The task goes away once it has delivered all notifications
+        while (!manager.getListenerNotificationQueueStats().isEmpty()) {
+            Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+        }
+
+        final List<Integer> delivered = new ArrayList<>();
+        for (List<Integer> batch : listener.batches) {
+            delivered.addAll(batch);
+        }
+        assertEquals(ImmutableList.of(1, 2, 3, 4), delivered);
+    }
+
+    @Test(timeout = 10000)
+    public void testMetrics() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final CountDownLatch firstEntered = new CountDownLatch(1);
+        final CountDownLatch submitted = new CountDownLatch(1);
+        final CountDownLatch secondEntered = new CountDownLatch(1);
+        final CountDownLatch secondRelease = new CountDownLatch(1);
+        final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<List<Integer>>());
+        final BatchingNotificationManager<Object, Integer> manager = new BatchingNotificationManager<>(
+            queueExecutor, new BatchInvoker<Object, Integer>() {
+                @Override
+                public void invokeListener(final Object listener, final List<Integer> notifications) {
+                    batches.add(ImmutableList.copyOf(notifications));
+                    if (batches.size() == 1) {
+                        firstEntered.countDown();
+                        Uninterruptibles.awaitUninterruptibly(submitted);
+                        Uninterruptibles.sleepUninterruptibly(20, TimeUnit.MILLISECONDS);
+                    } else {
+                        secondEntered.countDown();
+                        Uninterruptibles.awaitUninterruptibly(secondRelease);
+                    }
+                }
+            }, 10, 10, BackpressurePolicy.BLOCK, "TestMgr");
+
+        final Object listener = new Object();
+        manager.submitNotification(listener, 1);
+        Uninterruptibles.awaitUninterruptibly(firstEntered);
+        manager.submitNotifications(listener, Arrays.asList(2, 3));
+        submitted.countDown();
+        Uninterruptibles.awaitUninterruptibly(secondEntered);
+
+        final List<ListenerNotificationQueueMetrics> metrics = manager.getListenerNotificationQueueMetrics();
+        assertEquals(1, metrics.size());
+        final ListenerNotificationQueueMetrics m = metrics.get(0);
+        assertEquals(listener.toString(), m.getListenerClassName());
+        assertEquals(0, m.getCurrentQueueSize());
+        assertEquals(1, m.getDeliveredNotifications());
+        assertEquals(1, m.getDeliveredBatches());
+        assertTrue(m.getLongestInvocationTime() >= TimeUnit.MILLISECONDS.toNanos(20));
+        // Second batch waited for the first one to complete
+        assertTrue(m.getLongestQueueLatency() >= TimeUnit.MILLISECONDS.toNanos(20));
+
+        secondRelease.countDown();
+        assertEquals(ImmutableList.of(ImmutableList.of(1), ImmutableList.of(2, 3)), batches);
+    }
+
+    @Test(timeout = 10000)
+    public void testMetricsRetained() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final BatchingNotificationManager<TestListener<Integer>, Integer> manager =
+                new BatchingNotificationManager<>(queueExecutor, new TestNotifier<Integer>(), 10, 10,
+                    BackpressurePolicy.BLOCK, "TestMgr");
+
+        final TestListener<Integer> listener = new TestListener<>(2, 1);
+        manager.submitNotification(listener, 1);
+        awaitIdle(manager);
+        manager.submitNotification(listener, 2);
+        listener.verifyNotifications(ImmutableList.of(1, 2));
+        awaitIdle(manager);
+
+        // Metrics of an idle listener cover all of its tasks
+        List<ListenerNotificationQueueMetrics> metrics = manager.getListenerNotificationQueueMetrics();
+        assertEquals(1, metrics.size());
+        assertEquals(0, metrics.get(0).getCurrentQueueSize());
+        assertEquals(2, metrics.get(0).getDeliveredNotifications());
+        assertEquals(2, metrics.get(0).getDeliveredBatches());
+
+        manager.removeListener(listener);
+        assertTrue(manager.getListenerNotificationQueueMetrics().isEmpty());
+    }
+
+    @Test(timeout = 10000)
+    public void testMetricsOfCollectedListener() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final BatchingNotificationManager<TestListener<Integer>, Integer> manager =
+                new BatchingNotificationManager<>(queueExecutor, new TestNotifier<Integer>(), 10, 10,
+                    BackpressurePolicy.BLOCK, "TestMgr");
+
+        TestListener<Integer> listener = new TestListener<>(1, 1);
+        manager.submitNotification(listener, 1);
+        listener.verifyNotifications(ImmutableList.of(1));
+        awaitIdle(manager);
+        assertEquals(1, manager.getListenerNotificationQueueMetrics().size());
+
+        // The listener is discarded without being removed, its metrics go away with it
+        final WeakReference<TestListener<Integer>> ref = new WeakReference<>(listener);
+        listener = null;
+        while (!manager.getListenerNotificationQueueMetrics().isEmpty()) {
+            System.gc();
+            Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+        }
+        assertNull(ref.get());
+    }
+
+    private static void awaitIdle(final BatchingNotificationManager<?, ?> manager) {
+        while (!manager.getListenerNotificationQueueStats().isEmpty()) {
+            Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testNotificationsWithListenerRuntimeEx() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final NotificationManager<TestListener<Integer>, Integer> manager = new BatchingNotificationManager<>(
+                queueExecutor, new TestNotifier<Integer>(), 10, 1, BackpressurePolicy.BLOCK, "TestMgr");
+
+        final TestListener<Integer> listener = new TestListener<>(2, 1);
+        listener.runtimeEx = new RuntimeException("mock");
+
+        manager.submitNotification(listener, 1);
+        manager.submitNotification(listener, 2);
+
+        listener.verifyNotifications();
+    }
+
+    @Test(timeout = 10000)
+    public void testNotificationsWithListenerJVMError() {
+        final CountDownLatch errorCaughtLatch = new CountDownLatch(1);
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final ExecutorService executor = queueExecutor;
+
+        final NotificationManager<TestListener<Integer>, Integer> manager = new BatchingNotificationManager<>(
+            new java.util.concurrent.Executor() {
+                @Override
+                public void execute(final Runnable command) {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                command.run();
+                            } catch (Error e) {
+                                errorCaughtLatch.countDown();
+                            }
+                        }
+                    });
+                }
+            }, new TestNotifier<Integer>(), 10, 10, BackpressurePolicy.BLOCK, "TestMgr");
+
+        final TestListener<Integer> listener = new TestListener<>(2, 1);
+        listener.jvmError = new Error("mock");
+
+        manager.submitNotification(listener, 1);
+
+        assertTrue("JVM Error caught", Uninterruptibles.awaitUninterruptibly(errorCaughtLatch, 5,
+            TimeUnit.SECONDS));
+
+        manager.submitNotification(listener, 2);
+
+        listener.verifyNotifications();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCoalesceRequiresCoalescer() {
+        new BatchingNotificationManager<>(Executors.newSingleThreadExecutor(), new TestNotifier<Integer>(), 10, 10,
+            BackpressurePolicy.COALESCE, "TestMgr");
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.base.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+
+/**
+ * A {@link DataTreeCandidateNode} resulting from aggregation of a sequence of consecutive candidate nodes. Its
+ * before-image is that of the first node and its after-image is that of the last node.
+ *
+ * <p>
+ * If all aggregated nodes describe modifications of their children, the result does so as well, recursively
+ * aggregating the children. Once any of the nodes replaces or deletes the entire subtree, the result does so as well
+ * and its children are derived from comparing the before- and after-images.
+ */
+abstract class AggregatedDataTreeCandidateNode implements DataTreeCandidateNode {
+    private final PathArgument identifier;
+    private final Optional<NormalizedNode<?, ?>> dataBefore;
+    private final Optional<NormalizedNode<?, ?>> dataAfter;
+
+    AggregatedDataTreeCandidateNode(@Nullable final PathArgument identifier,
+            final Optional<NormalizedNode<?, ?>> dataBefore, final Optional<NormalizedNode<?, ?>> dataAfter) {
+        this.identifier = identifier;
+        this.dataBefore = dataBefore;
+        this.dataAfter = dataAfter;
+    }
+
+    /**
+     * Aggregate a sequence of consecutive candidate nodes for the same data node.
+     *
+     * @param identifier Identifier of the node, null if it is the root node of a candidate
+     * @param nodes Candidate nodes, in the order in which they were produced
+     * @return Aggregated candidate node
+     */
+    static DataTreeCandidateNode aggregate(@Nullable final PathArgument identifier,
+            @Nonnull final List<DataTreeCandidateNode> nodes) {
+        final List<DataTreeCandidateNode> modified = new ArrayList<>(nodes.size());
+        boolean replaced = false;
+        for (DataTreeCandidateNode node : nodes) {
+            switch (node.getModificationType()) {
+                case UNMODIFIED:
+                    break;
+                case DELETE:
+                case WRITE:
+                    replaced = true;
+                    modified.add(node);
+                    break;
+                case APPEARED:
+                case DISAPPEARED:
+                case SUBTREE_MODIFIED:
+                    modified.add(node);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unhandled modification type " + node.getModificationType());
+            }
+        }
+
+        switch (modified.size()) {
+            case 0:
+                return nodes.get(0);
+            case 1:
+                return modified.get(0);
+            default:
+                break;
+        }
+
+        final Optional<NormalizedNode<?, ?>> before = modified.get(0).getDataBefore();
+        final Optional<NormalizedNode<?, ?>> after = modified.get(modified.size() - 1).getDataAfter();
+        if (replaced) {
+            return new Replaced(identifier, before, after);
+        }
+
+        // All nodes are modifying children, group them by child identifier while retaining order
+        final Map<PathArgument, List<DataTreeCandidateNode>> grouped = new LinkedHashMap<>();
+        for (DataTreeCandidateNode node : modified) {
+            for (DataTreeCandidateNode child : node.getChildNodes()) {
+                List<DataTreeCandidateNode> list = grouped.get(child.getIdentifier());
+                if (list == null) {
+                    list = new ArrayList<>(modified.size());
+                    grouped.put(child.getIdentifier(), list);
+                }
+                list.add(child);
+            }
+        }
+
+        final Map<PathArgument, DataTreeCandidateNode> children = new LinkedHashMap<>(grouped.size());
+        for (Entry<PathArgument, List<DataTreeCandidateNode>> e : grouped.entrySet()) {
+            final DataTreeCandidateNode child = aggregate(e.getKey(), e.getValue());
+            if (child.getModificationType() != ModificationType.UNMODIFIED) {
+                children.put(e.getKey(), child);
+            }
+        }
+
+        return new Modified(identifier, before, after, children);
+    }
+
+    @Override
+    public final PathArgument getIdentifier() {
+        if (identifier == null) {
+            throw new IllegalStateException("Attempted to get identifier of the root node");
+        }
+        return identifier;
+    }
+
+    @Override
+    public final Optional<NormalizedNode<?, ?>> getDataBefore() {
+        return dataBefore;
+    }
+
+    @Override
+    public final Optional<NormalizedNode<?, ?>> getDataAfter() {
+        return dataAfter;
+    }
+
+    @Override
+    public final String toString() {
+        return this.getClass().getSimpleName() + "{identifier = " + identifier + ", type = " + getModificationType()
+                + "}";
+    }
+
+    /**
+     * Aggregate of nodes which modify children only.
+     */
+    private static final class Modified extends AggregatedDataTreeCandidateNode {
+        private final Map<PathArgument, DataTreeCandidateNode> children;
+        private final ModificationType type;
+
+        Modified(final PathArgument identifier, final Optional<NormalizedNode<?, ?>> dataBefore,
+                final Optional<NormalizedNode<?, ?>> dataAfter,
+                final Map<PathArgument, DataTreeCandidateNode> children) {
+            super(identifier, dataBefore, dataAfter);
+            if (children.isEmpty() || !dataBefore.isPresent() && !dataAfter.isPresent()) {
+                // All child modifications have cancelled each other out
+                this.children = Collections.emptyMap();
+                this.type = ModificationType.UNMODIFIED;
+            } else {
+                this.children = Collections.unmodifiableMap(children);
+                if (!dataBefore.isPresent()) {
+                    this.type = ModificationType.APPEARED;
+                } else if (!dataAfter.isPresent()) {
+                    this.type = ModificationType.DISAPPEARED;
+                } else {
+                    this.type = ModificationType.SUBTREE_MODIFIED;
+                }
+            }
+        }
+
+        @Override
+        public Collection<DataTreeCandidateNode> getChildNodes() {
+            return children.values();
+        }
+
+        @Override
+        public DataTreeCandidateNode getModifiedChild(final PathArgument identifier) {
+            return children.get(identifier);
+        }
+
+        @Override
+        public ModificationType getModificationType() {
+            return type;
+        }
+    }
+
+    /**
+     * Aggregate of nodes at least one of which replaces or deletes the entire subtree. Children are derived from
+     * before- and after-images on demand.
+     */
+    private static final class Replaced extends AggregatedDataTreeCandidateNode {
+        private final ModificationType type;
+
+        Replaced(final PathArgument identifier, final Optional<NormalizedNode<?, ?>> dataBefore,
+                final Optional<NormalizedNode<?, ?>> dataAfter) {
+            super(identifier, dataBefore, dataAfter);
+            if (!dataAfter.isPresent()) {
+                this.type = dataBefore.isPresent() ? ModificationType.DELETE : ModificationType.UNMODIFIED;
+            } else if (dataBefore.isPresent() && isSame(dataBefore.get(), dataAfter.get())) {
+                this.type = ModificationType.UNMODIFIED;
+            } else {
+                this.type = ModificationType.WRITE;
+            }
+        }
+
+        /**
+         * Check whether a node has not changed. We compare containers by identity only, as a full comparison would
+         * need to walk the entire subtree.
+         */
+        private static boolean isSame(final NormalizedNode<?, ?> before, final NormalizedNode<?, ?> after) {
+            return before == after || !(before instanceof NormalizedNodeContainer) && before.equals(after);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> container(
+                final Optional<NormalizedNode<?, ?>> data) {
+            if (data.isPresent() && data.get() instanceof NormalizedNodeContainer) {
+                return (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) data.get();
+            }
+            return null;
+        }
+
+        private static Optional<NormalizedNode<?, ?>> child(
+                final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> container,
+                final PathArgument identifier) {
+            if (container == null) {
+                return Optional.absent();
+            }
+
+            final Optional<? extends NormalizedNode<?, ?>> child = container.getChild(identifier);
+            return child.isPresent() ? Optional.<NormalizedNode<?, ?>>of(child.get())
+                    : Optional.<NormalizedNode<?, ?>>absent();
+        }
+
+        @Override
+        public Collection<DataTreeCandidateNode> getChildNodes() {
+            if (type == ModificationType.UNMODIFIED) {
+                return Collections.emptyList();
+            }
+
+            final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> before = container(getDataBefore());
+            final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> after = container(getDataAfter());
+            final Collection<DataTreeCandidateNode> result = new ArrayList<>();
+            if (after != null) {
+                for (NormalizedNode<?, ?> child : after.getValue()) {
+                    final DataTreeCandidateNode node = new Replaced(child.getIdentifier(),
+                        child(before, child.getIdentifier()), Optional.<NormalizedNode<?, ?>>of(child));
+                    if (node.getModificationType() != ModificationType.UNMODIFIED) {
+                        result.add(node);
+                    }
+                }
+            }
+            if (before != null) {
+                for (NormalizedNode<?, ?> child : before.getValue()) {
+                    if (!child(after, child.getIdentifier()).isPresent()) {
+                        result.add(new Replaced(child.getIdentifier(), Optional.<NormalizedNode<?, ?>>of(child),
+                            Optional.<NormalizedNode<?, ?>>absent()));
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public DataTreeCandidateNode getModifiedChild(final PathArgument identifier) {
+            if (type == ModificationType.UNMODIFIED) {
+                return null;
+            }
+
+            final DataTreeCandidateNode node = new Replaced(identifier, child(container(getDataBefore()), identifier),
+                child(container(getDataAfter()), identifier));
+            return node.getModificationType() == ModificationType.UNMODIFIED ? null : node;
+        }
+
+        @Override
+        public ModificationType getModificationType() {
+            return type;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.util.concurrent.BatchingNotificationManager;
+import org.opendaylight.yangtools.util.concurrent.BatchingNotificationManager.BatchInvoker;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager.Invoker;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link BatchInvoker} which coalesces batches of {@link DataTreeCandidate}s before delivering them to a listener.
+ * Each run of consecutive candidates rooted at the same path is merged into a single equivalent candidate via
+ * {@link DataTreeCandidates#aggregate(List)}, so a listener which has fallen behind observes only the overall change
+ * instead of every intermediate state.
+ *
+ * <p>
+ * This invoker is meant to be used with a {@link BatchingNotificationManager}, which opts the listeners it serves into
+ * coalescing. The amount of candidates coalesced at once, and hence retained in memory, is bounded by the manager's
+ * queue capacity and maximum batch size. A listener which keeps up with notifications receives batches of a single
+ * candidate, which are delivered as-is.
+ *
+ * @param <L> the listener type
+ */
+@Beta
+public final class CoalescingDataTreeCandidateInvoker<L> implements BatchInvoker<L, DataTreeCandidate> {
+    private static final Logger LOG = LoggerFactory.getLogger(CoalescingDataTreeCandidateInvoker.class);
+
+    private final Invoker<L, DataTreeCandidate> delegate;
+
+    private CoalescingDataTreeCandidateInvoker(final Invoker<L, DataTreeCandidate> delegate) {
+        this.delegate = Preconditions.checkNotNull(delegate);
+    }
+
+    /**
+     * Create a new invoker.
+     *
+     * @param delegate Invoker to use for delivering coalesced candidates to listeners
+     * @return A new invoker
+     */
+    public static <L> CoalescingDataTreeCandidateInvoker<L> create(
+            @Nonnull final Invoker<L, DataTreeCandidate> delegate) {
+        return new CoalescingDataTreeCandidateInvoker<>(delegate);
+    }
+
+    @Override
+    public void invokeListener(final L listener, final List<DataTreeCandidate> notifications) {
+        final List<DataTreeCandidate> coalesced = coalesce(notifications);
+        if (coalesced.size() != notifications.size()) {
+            LOG.debug("Coalesced {} candidates into {} for listener {}", notifications.size(), coalesced.size(),
+                listener);
+        }
+
+        for (DataTreeCandidate candidate : coalesced) {
+            delegate.invokeListener(listener, candidate);
+        }
+    }
+
+    /**
+     * Coalesce each run of consecutive candidates rooted at the same path. Runs whose changes cancel each other out
+     * are omitted.
+     *
+     * @param candidates Candidates to coalesce
+     * @return Coalesced candidates
+     */
+    static List<DataTreeCandidate> coalesce(final List<DataTreeCandidate> candidates) {
+        if (candidates.size() == 1) {
+            return candidates;
+        }
+
+        final List<DataTreeCandidate> result = new ArrayList<>();
+        int start = 0;
+        while (start < candidates.size()) {
+            final YangInstanceIdentifier rootPath = candidates.get(start).getRootPath();
+            int end = start + 1;
+            while (end < candidates.size() && rootPath.equals(candidates.get(end).getRootPath())) {
+                end++;
+            }
+
+            if (end - start == 1) {
+                result.add(candidates.get(start));
+            } else {
+                final DataTreeCandidate aggregated = DataTreeCandidates.aggregate(candidates.subList(start, end));
+                if (aggregated.getRootNode().getModificationType() != ModificationType.UNMODIFIED) {
+                    result.add(aggregated);
+                }
+            }
+            start = end;
+        }
+
+        return result;
+    }
+}
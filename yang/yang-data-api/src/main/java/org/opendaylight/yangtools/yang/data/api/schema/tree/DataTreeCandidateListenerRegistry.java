@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EventListener;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.AbstractListenerRegistration;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.util.concurrent.NotificationManager;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of listeners interested in changes to particular subtrees of a data tree. Registrations are kept in
+ * a trie keyed by {@link PathArgument}s, which allows each published {@link DataTreeCandidate} to be walked
+ * exactly once, descending only into the parts which have both changed and have listeners registered underneath
+ * them. Each listener is then handed {@link DataTreeCandidate}s rooted at its registered path, which are delivered
+ * via a {@link NotificationManager}, typically a
+ * {@link org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager}. Listeners which may fall behind
+ * can be served by a {@link org.opendaylight.yangtools.util.concurrent.BatchingNotificationManager} with
+ * a {@link CoalescingDataTreeCandidateInvoker}, which merges their backlog into fewer candidates.
+ *
+ * <p>
+ * A registered path may be wildcarded by using a {@link NodeIdentifier} in place of a
+ * {@link NodeIdentifierWithPredicates} or a {@link NodeWithValue}. Such a step matches all list entries or leaf-set
+ * entries with the same node type. A listener registered on a wildcarded path receives a separate candidate for each
+ * changed entry. Listeners registered at an ancestor of a published candidate's root path receive that candidate
+ * as-is.
+ *
+ * <p>
+ * Registration and unregistration are serialized, while {@link #publish(DataTreeCandidate)} does not block them
+ * and may be invoked concurrently. It is up to the caller to publish candidates in commit order.
+ *
+ * @param <L> Listener type
+ */
+@Beta
+public final class DataTreeCandidateListenerRegistry<L extends EventListener> {
+    private static final Logger LOG = LoggerFactory.getLogger(DataTreeCandidateListenerRegistry.class);
+
+    private final NotificationManager<L, DataTreeCandidate> notificationManager;
+    private final Node<L> root = new Node<>(null, null);
+
+    public DataTreeCandidateListenerRegistry(final NotificationManager<L, DataTreeCandidate> notificationManager) {
+        this.notificationManager = Preconditions.checkNotNull(notificationManager);
+    }
+
+    /**
+     * Register a listener for changes in the subtree identified by specified path.
+     *
+     * @param path Path of the subtree, possibly wildcarded
+     * @param listener Listener to register
+     * @return Listener registration, which needs to be closed to unregister the listener
+     */
+    public synchronized @Nonnull <T extends L> ListenerRegistration<T> registerListener(
+            @Nonnull final YangInstanceIdentifier path, @Nonnull final T listener) {
+        Node<L> node = root;
+        for (PathArgument arg : path.getPathArguments()) {
+            node = node.ensureChild(arg);
+        }
+
+        final Registration<L, T> reg = new Registration<>(this, node, path, listener);
+        node.registrations.add(reg);
+        LOG.debug("Registered listener {} at {}", listener, path);
+        return reg;
+    }
+
+    private synchronized void removeRegistration(final Registration<L, ?> reg) {
+        Node<L> node = reg.node;
+        node.registrations.remove(reg);
+
+        // Prune nodes which have become empty
+        while (node.parent != null && node.isEmpty()) {
+            node.parent.children.remove(node.identifier);
+            node = node.parent;
+        }
+        LOG.debug("Unregistered listener {} at {}", reg.getInstance(), reg.path);
+    }
+
+    /**
+     * Publish a candidate, submitting the changes it contains to all interested listeners.
+     *
+     * @param candidate Candidate to publish
+     */
+    public void publish(@Nonnull final DataTreeCandidate candidate) {
+        final YangInstanceIdentifier rootPath = candidate.getRootPath();
+        final DataTreeCandidateNode rootNode = candidate.getRootNode();
+        if (rootNode.getModificationType() == ModificationType.UNMODIFIED) {
+            LOG.trace("Candidate {} has no changes, not publishing it", candidate);
+            return;
+        }
+
+        final Map<Registration<L, ?>, List<DataTreeCandidate>> notifications = new LinkedHashMap<>();
+
+        // Find registrations matching the root path, notifying any registrations at its ancestors on the way
+        List<Node<L>> matches = Collections.singletonList(root);
+        for (PathArgument arg : rootPath.getPathArguments()) {
+            for (Node<L> match : matches) {
+                match.collectNotifications(rootPath, rootNode, notifications);
+            }
+
+            matches = matchChildren(matches, arg);
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+
+        if (!matches.isEmpty()) {
+            walk(rootPath, rootNode, matches, notifications);
+        }
+
+        for (Entry<Registration<L, ?>, List<DataTreeCandidate>> e : notifications.entrySet()) {
+            final Registration<L, ?> reg = e.getKey();
+            if (!reg.isRegistered()) {
+                LOG.debug("Listener {} has been unregistered, not notifying it", reg.getInstance());
+                continue;
+            }
+
+            notificationManager.submitNotifications(reg.getInstance(), e.getValue());
+        }
+    }
+
+    private static <L extends EventListener> void walk(final YangInstanceIdentifier path,
+            final DataTreeCandidateNode node, final Collection<Node<L>> matches,
+            final Map<Registration<L, ?>, List<DataTreeCandidate>> notifications) {
+        if (node.getModificationType() == ModificationType.UNMODIFIED) {
+            return;
+        }
+
+        boolean haveChildren = false;
+        for (Node<L> match : matches) {
+            match.collectNotifications(path, node, notifications);
+            haveChildren |= !match.children.isEmpty();
+        }
+        if (!haveChildren) {
+            return;
+        }
+
+        if (isCollection(node) && haveWildcard(matches, node)) {
+            // Children may be matched by wildcards, we need to examine all of them
+            for (DataTreeCandidateNode child : node.getChildNodes()) {
+                final PathArgument childId = child.getIdentifier();
+                final List<Node<L>> childMatches = matchChildren(matches, childId);
+                if (!childMatches.isEmpty()) {
+                    walk(path.node(childId), child, childMatches, notifications);
+                }
+            }
+            return;
+        }
+
+        // Only exact matches are possible, look up the registered children directly. This keeps the cost of walking
+        // a large list proportional to the number of registered entries rather than the number of modified ones.
+        if (matches.size() == 1) {
+            for (Node<L> child : matches.iterator().next().children.values()) {
+                walkChild(path, node, child.identifier, Collections.singletonList(child), notifications);
+            }
+            return;
+        }
+
+        // Multiple matches may share children, group them so each candidate child is walked only once
+        final Map<PathArgument, List<Node<L>>> childMatches = new LinkedHashMap<>();
+        for (Node<L> match : matches) {
+            for (Node<L> child : match.children.values()) {
+                List<Node<L>> list = childMatches.get(child.identifier);
+                if (list == null) {
+                    list = new ArrayList<>(2);
+                    childMatches.put(child.identifier, list);
+                }
+                list.add(child);
+            }
+        }
+
+        for (Entry<PathArgument, List<Node<L>>> e : childMatches.entrySet()) {
+            walkChild(path, node, e.getKey(), e.getValue(), notifications);
+        }
+    }
+
+    private static <L extends EventListener> void walkChild(final YangInstanceIdentifier path,
+            final DataTreeCandidateNode node, final PathArgument childId, final Collection<Node<L>> matches,
+            final Map<Registration<L, ?>, List<DataTreeCandidate>> notifications) {
+        final DataTreeCandidateNode child = node.getModifiedChild(childId);
+        if (child != null) {
+            walk(path.node(childId), child, matches, notifications);
+        }
+    }
+
+    private static <L extends EventListener> boolean haveWildcard(final Collection<Node<L>> matches,
+            final DataTreeCandidateNode node) {
+        // Entries of a collection share its node type, hence a wildcard step is keyed by the collection's identifier
+        final NodeIdentifier wildcard = NodeIdentifier.create(node.getIdentifier().getNodeType());
+        for (Node<L> match : matches) {
+            if (match.children.containsKey(wildcard)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <L extends EventListener> List<Node<L>> matchChildren(final Collection<Node<L>> nodes,
+            final PathArgument arg) {
+        final NodeIdentifier wildcard = arg instanceof NodeIdentifierWithPredicates || arg instanceof NodeWithValue
+                ? NodeIdentifier.create(arg.getNodeType()) : null;
+
+        List<Node<L>> ret = Collections.emptyList();
+        for (Node<L> node : nodes) {
+            final Node<L> exact = node.children.get(arg);
+            if (exact != null) {
+                ret = addMatch(ret, exact);
+            }
+            if (wildcard != null) {
+                final Node<L> wild = node.children.get(wildcard);
+                if (wild != null) {
+                    ret = addMatch(ret, wild);
+                }
+            }
+        }
+        return ret;
+    }
+
+    private static <L extends EventListener> List<Node<L>> addMatch(final List<Node<L>> list, final Node<L> node) {
+        if (list.isEmpty()) {
+            return Collections.singletonList(node);
+        }
+
+        final List<Node<L>> ret = list.size() == 1 ? new ArrayList<>(list) : list;
+        ret.add(node);
+        return ret;
+    }
+
+    private static boolean isCollection(final DataTreeCandidateNode node) {
+        Optional<NormalizedNode<?, ?>> data = node.getDataAfter();
+        if (!data.isPresent()) {
+            data = node.getDataBefore();
+        }
+        if (!data.isPresent()) {
+            return false;
+        }
+
+        final NormalizedNode<?, ?> value = data.get();
+        return value instanceof MapNode || value instanceof LeafSetNode || value instanceof UnkeyedListNode;
+    }
+
+    private static final class Node<L extends EventListener> {
+        final Map<PathArgument, Node<L>> children = new ConcurrentHashMap<>();
+        final Collection<Registration<L, ?>> registrations = new CopyOnWriteArrayList<>();
+        final Node<L> parent;
+        final PathArgument identifier;
+
+        Node(final Node<L> parent, final PathArgument identifier) {
+            this.parent = parent;
+            this.identifier = identifier;
+        }
+
+        Node<L> ensureChild(final PathArgument arg) {
+            Node<L> child = children.get(arg);
+            if (child == null) {
+                child = new Node<>(this, arg);
+                children.put(arg, child);
+            }
+            return child;
+        }
+
+        boolean isEmpty() {
+            return children.isEmpty() && registrations.isEmpty();
+        }
+
+        void collectNotifications(final YangInstanceIdentifier path, final DataTreeCandidateNode node,
+                final Map<Registration<L, ?>, List<DataTreeCandidate>> notifications) {
+            if (registrations.isEmpty()) {
+                return;
+            }
+
+            final DataTreeCandidate candidate = DataTreeCandidates.newDataTreeCandidate(path, node);
+            for (Registration<L, ?> reg : registrations) {
+                List<DataTreeCandidate> list = notifications.get(reg);
+                if (list == null) {
+                    list = new ArrayList<>(1);
+                    notifications.put(reg, list);
+                }
+                list.add(candidate);
+            }
+        }
+    }
+
+    private static final class Registration<L extends EventListener, T extends L>
+            extends AbstractListenerRegistration<T> {
+        private final DataTreeCandidateListenerRegistry<L> registry;
+        private final Node<L> node;
+        private final YangInstanceIdentifier path;
+
+        Registration(final DataTreeCandidateListenerRegistry<L> registry, final Node<L> node,
+                final YangInstanceIdentifier path, final T listener) {
+            super(Preconditions.checkNotNull(listener));
+            this.registry = Preconditions.checkNotNull(registry);
+            this.node = Preconditions.checkNotNull(node);
+            this.path = Preconditions.checkNotNull(path);
+        }
+
+        boolean isRegistered() {
+            return !isClosed();
+        }
+
+        @Override
+        protected void removeRegistration() {
+            registry.removeRegistration(this);
+        }
+    }
+}
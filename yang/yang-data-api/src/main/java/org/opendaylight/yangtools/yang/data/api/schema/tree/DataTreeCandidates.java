@@ -9,7 +9,9 @@ package org.opendaylight.yangtools.yang.data.api.schema.tree;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
@@ -35,6 +37,35 @@ public final class DataTreeCandidates {
         return new DefaultDataTreeCandidate(rootPath, new NormalizedNodeDataTreeCandidateNode(node));
     }
 
+    /**
+     * Aggregate a sequence of consecutive candidates rooted at the same path into a single equivalent candidate. The
+     * resulting candidate has the before-image of the first candidate and the after-image of the last candidate,
+     * with the modification type of each node reflecting the overall change. Modifications which cancel each other
+     * out are reported as {@link ModificationType#UNMODIFIED}.
+     *
+     * @param candidates Candidates to aggregate, in the order in which they were produced
+     * @return Aggregated candidate
+     * @throws IllegalArgumentException if the list is empty or the candidates are not rooted at the same path
+     */
+    public static DataTreeCandidate aggregate(@Nonnull final List<? extends DataTreeCandidate> candidates) {
+        Preconditions.checkArgument(!candidates.isEmpty(), "Candidates must not be empty");
+        final DataTreeCandidate first = candidates.get(0);
+        if (candidates.size() == 1) {
+            return first;
+        }
+
+        final YangInstanceIdentifier rootPath = first.getRootPath();
+        final List<DataTreeCandidateNode> roots = new ArrayList<>(candidates.size());
+        for (DataTreeCandidate candidate : candidates) {
+            Preconditions.checkArgument(rootPath.equals(candidate.getRootPath()),
+                "Candidate %s is not rooted at %s", candidate, rootPath);
+            roots.add(candidate.getRootNode());
+        }
+
+        return new DefaultDataTreeCandidate(rootPath,
+            AggregatedDataTreeCandidateNode.aggregate(rootPath.getLastPathArgument(), roots));
+    }
+
     public static void applyToCursor(final DataTreeModificationCursor cursor, final DataTreeCandidate candidate) {
         DataTreeCandidateNodes.applyToCursor(cursor, candidate.getRootNode());
     }
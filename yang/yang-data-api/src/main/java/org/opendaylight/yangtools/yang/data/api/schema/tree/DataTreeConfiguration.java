@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.ForkJoinPool;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+
+/**
+ * DataTree configuration class. It captures the tree type and root path, as well as tuning knobs which do not affect
+ * semantics of the data tree, such as whether independent child modifications may be processed in parallel.
+ *
+ * <p>
+ * Parallel processing is disabled by default. When it is enabled, sibling modifications are validated and applied
+ * concurrently on the specified {@link ForkJoinPool} whenever their number reaches the configured threshold. Results
+ * and reported failures are the same as with sequential processing.
+ */
+@Beta
+public final class DataTreeConfiguration implements Immutable {
+    public static final DataTreeConfiguration DEFAULT_CONFIGURATION = new Builder(TreeType.CONFIGURATION).build();
+    public static final DataTreeConfiguration DEFAULT_OPERATIONAL = new Builder(TreeType.OPERATIONAL).build();
+
+    private final YangInstanceIdentifier rootPath;
+    private final TreeType treeType;
+    private final ForkJoinPool parallelPool;
+    private final int parallelThreshold;
+
+    private DataTreeConfiguration(final Builder builder) {
+        this.treeType = builder.treeType;
+        this.rootPath = builder.rootPath;
+        this.parallelPool = builder.parallelPool;
+        this.parallelThreshold = builder.parallelThreshold;
+    }
+
+    public @Nonnull YangInstanceIdentifier getRootPath() {
+        return rootPath;
+    }
+
+    public @Nonnull TreeType getTreeType() {
+        return treeType;
+    }
+
+    /**
+     * Return the pool on which independent child modifications are processed.
+     *
+     * @return Pool for parallel processing, or {@link Optional#absent()} if all processing is sequential.
+     */
+    public @Nonnull Optional<ForkJoinPool> getParallelPool() {
+        return Optional.fromNullable(parallelPool);
+    }
+
+    /**
+     * Return the minimum number of modified children a node needs to have for them to be processed in parallel.
+     *
+     * @return Fan-out threshold, not meaningful if {@link #getParallelPool()} is absent.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Check whether a node with specified number of modified children should have them processed in parallel.
+     *
+     * @param childCount Number of modified children
+     * @return True if the children should be processed in parallel.
+     */
+    public boolean isParallel(final int childCount) {
+        return parallelPool != null && childCount >= parallelThreshold;
+    }
+
+    public static DataTreeConfiguration getDefault(final TreeType treeType) {
+        Preconditions.checkNotNull(treeType);
+        switch (treeType) {
+            case CONFIGURATION:
+                return DEFAULT_CONFIGURATION;
+            case OPERATIONAL:
+                return DEFAULT_OPERATIONAL;
+            default:
+                return new Builder(treeType).build();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).omitNullValues().add("type", treeType).add("root", rootPath)
+                .add("parallelPool", parallelPool).add("parallelThreshold", parallelPool == null ? null
+                        : parallelThreshold).toString();
+    }
+
+    public static class Builder implements org.opendaylight.yangtools.concepts.Builder<DataTreeConfiguration> {
+        private final TreeType treeType;
+        private YangInstanceIdentifier rootPath;
+        private ForkJoinPool parallelPool;
+        private int parallelThreshold;
+
+        public Builder(final TreeType treeType) {
+            this.treeType = Preconditions.checkNotNull(treeType);
+            this.rootPath = YangInstanceIdentifier.EMPTY;
+        }
+
+        public Builder setRootPath(final YangInstanceIdentifier rootPath) {
+            this.rootPath = rootPath.toOptimized();
+            return this;
+        }
+
+        /**
+         * Enable parallel processing of independent child modifications.
+         *
+         * @param pool Pool on which to execute child processing
+         * @param threshold Minimum number of modified children for parallel processing to kick in, has to be at
+         *                  least 2
+         * @return This builder
+         */
+        public Builder setParallelProcessing(final ForkJoinPool pool, final int threshold) {
+            Preconditions.checkArgument(threshold > 1, "Threshold %s has to be at least 2", threshold);
+            this.parallelPool = Preconditions.checkNotNull(pool);
+            this.parallelThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Disable parallel processing of child modifications, which is the default.
+         *
+         * @return This builder
+         */
+        public Builder setSequentialProcessing() {
+            this.parallelPool = null;
+            this.parallelThreshold = 0;
+            return this;
+        }
+
+        @Override
+        public DataTreeConfiguration build() {
+            return new DataTreeConfiguration(this);
+        }
+    }
+}
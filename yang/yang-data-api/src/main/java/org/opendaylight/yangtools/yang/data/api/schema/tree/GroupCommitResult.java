@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * Outcome of a single {@link DataTreeModification} submitted to
+ * {@link TipProducingDataTree#groupCommit(Iterable)}. It holds either the {@link DataTreeCandidate} which has been
+ * committed, or the exception which prevented the modification from being committed. That is
+ * a {@link DataValidationFailedException} if the modification failed validation, or a {@link RuntimeException} if it
+ * could not be validated or prepared, for example because it violates the schema.
+ */
+@Beta
+public final class GroupCommitResult implements Immutable {
+    private final DataTreeModification modification;
+    private final DataTreeCandidate candidate;
+    private final Exception failure;
+
+    private GroupCommitResult(final DataTreeModification modification, final DataTreeCandidate candidate,
+            final Exception failure) {
+        this.modification = Preconditions.checkNotNull(modification);
+        this.candidate = candidate;
+        this.failure = failure;
+    }
+
+    public static GroupCommitResult success(final DataTreeModification modification,
+            final DataTreeCandidate candidate) {
+        return new GroupCommitResult(modification, Preconditions.checkNotNull(candidate), null);
+    }
+
+    public static GroupCommitResult failure(final DataTreeModification modification,
+            final DataValidationFailedException failure) {
+        return new GroupCommitResult(modification, null, Preconditions.checkNotNull(failure));
+    }
+
+    public static GroupCommitResult failure(final DataTreeModification modification, final RuntimeException failure) {
+        return new GroupCommitResult(modification, null, Preconditions.checkNotNull(failure));
+    }
+
+    /**
+     * Return the modification this result pertains to.
+     *
+     * @return Submitted modification
+     */
+    public @Nonnull DataTreeModification getModification() {
+        return modification;
+    }
+
+    /**
+     * Check whether the modification has been committed.
+     *
+     * @return True if the modification has been committed, false if it failed.
+     */
+    public boolean isSuccess() {
+        return candidate != null;
+    }
+
+    /**
+     * Return the candidate describing the changes performed by the modification.
+     *
+     * @return Committed candidate, or {@link Optional#absent()} if the modification failed.
+     */
+    public @Nonnull Optional<DataTreeCandidate> getCandidate() {
+        return Optional.fromNullable(candidate);
+    }
+
+    /**
+     * Return the reason why the modification has not been committed.
+     *
+     * @return Validation or preparation failure, or {@link Optional#absent()} if the modification has been committed.
+     */
+    public @Nonnull Optional<Exception> getFailure() {
+        return Optional.fromNullable(failure);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).omitNullValues().add("modification", modification)
+                .add("candidate", candidate).add("failure", failure).toString();
+    }
+}
@@ -7,11 +7,62 @@
  */
 package org.opendaylight.yangtools.yang.data.api.schema.tree;
 
+import com.google.common.annotations.Beta;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+
 /**
  * A {@link DataTree} which produces {@link DataTreeCandidateTip} candidates,
  * thus allowing existence of multiple candidates, which can be {@link #commit(DataTreeCandidate)}ed
  * in sequence.
  */
 public interface TipProducingDataTree extends DataTree, TipProducingDataTreeTip {
+    /**
+     * Validate, prepare and commit a group of sealed modifications, in iteration order. Each modification is
+     * validated against the state left behind by the modifications preceding it. A modification which fails
+     * validation or cannot be prepared, for example because it violates the schema or has not been sealed, is skipped
+     * and reported in its result, without affecting the rest of the group.
+     *
+     * <p>
+     * Implementations are encouraged to chain the candidates off each other and publish the resulting tree state
+     * in a single step. In that case the returned candidates only serve to describe the changes made and must not
+     * be passed to {@link #commit(DataTreeCandidate)}. Should a concurrent commit be detected, none of the
+     * modifications are committed.
+     *
+     * <p>
+     * The default implementation performs a validate/prepare/commit cycle for each modification in turn.
+     *
+     * @param modifications Sealed modifications to commit
+     * @return Per-modification results, in iteration order
+     * @throws IllegalStateException if the tree has been concurrently modified while the group was being processed
+     */
+    @Beta
+    default @Nonnull List<GroupCommitResult> groupCommit(
+            @Nonnull final Iterable<? extends DataTreeModification> modifications) {
+        final List<GroupCommitResult> ret = new ArrayList<>();
+        for (DataTreeModification mod : modifications) {
+            try {
+                validate(mod);
+            } catch (DataValidationFailedException e) {
+                ret.add(GroupCommitResult.failure(mod, e));
+                continue;
+            } catch (RuntimeException e) {
+                ret.add(GroupCommitResult.failure(mod, e));
+                continue;
+            }
+
+            final DataTreeCandidate candidate;
+            try {
+                candidate = prepare(mod);
+            } catch (RuntimeException e) {
+                ret.add(GroupCommitResult.failure(mod, e));
+                continue;
+            }
 
+            commit(candidate);
+            ret.add(GroupCommitResult.success(mod, candidate));
+        }
+        return ret;
+    }
 }
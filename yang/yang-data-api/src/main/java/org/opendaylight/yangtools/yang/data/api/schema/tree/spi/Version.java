@@ -11,6 +11,10 @@ package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
  * The concept of a version, either node version, or a subtree version. The
  * only interface contract this class has is that no two versions are the
  * same.
+ *
+ * <p>
+ * Versions are allocated once per data tree modification and are shared by all tree nodes that modification
+ * touched, hence a tree node costs a single reference to its version.
  */
 public final class Version {
     private Version() {
@@ -12,6 +12,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Verify;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
@@ -33,6 +34,13 @@ import org.slf4j.LoggerFactory;
 /**
  * Factory for creating JSON equivalents of codecs. Each instance of this object is bound to
  * a particular {@link SchemaContext}, but can be reused by multiple {@link JSONNormalizedNodeStreamWriter}s.
+ *
+ * <p>
+ * Codecs are created lazily, when first requested for a particular schema node. Instances obtained via
+ * {@link #getShared(SchemaContext)} are shared by all concurrent users of the same SchemaContext and retain their
+ * codecs, so that types are resolved only once. A shared instance is retained only while it is referenced, hence it
+ * does not keep a retired SchemaContext alive. Instances obtained via {@link #create(SchemaContext)} are private to
+ * the caller and may drop their codecs under memory pressure.
  */
 @Beta
 public final class JSONCodecFactory {
@@ -60,28 +68,42 @@ public final class JSONCodecFactory {
         }
     };
 
-    private final LoadingCache<DataSchemaNode, JSONCodec<Object>> codecs =
-            CacheBuilder.newBuilder().softValues().build(new CacheLoader<DataSchemaNode, JSONCodec<Object>>() {
-        @Override
-        public JSONCodec<Object> load(final DataSchemaNode key) throws Exception {
-            final TypeDefinition<?> type;
-            if (key instanceof LeafSchemaNode) {
-                type = ((LeafSchemaNode) key).getType();
-            } else if (key instanceof LeafListSchemaNode) {
-                type = ((LeafListSchemaNode) key).getType();
-            } else {
-                throw new IllegalArgumentException("Not supported node type " + key.getClass().getName());
-            }
-            return createCodec(key,type);
-        }
-    });
-
+    /*
+     * Shared factories and their codecs reference their SchemaContext, hence the factories must be only weakly
+     * reachable from the cache, otherwise they would keep the weakly-referenced context alive.
+     */
+    private static final LoadingCache<SchemaContext, JSONCodecFactory> SHARED = CacheBuilder.newBuilder()
+            .weakKeys().weakValues().build(new CacheLoader<SchemaContext, JSONCodecFactory>() {
+                @Override
+                public JSONCodecFactory load(final SchemaContext key) {
+                    return new JSONCodecFactory(key, true);
+                }
+            });
+
+    private final LoadingCache<DataSchemaNode, JSONCodec<Object>> codecs;
     private final SchemaContext schemaContext;
     private final JSONCodec<?> iidCodec;
 
-    private JSONCodecFactory(final SchemaContext context) {
+    private JSONCodecFactory(final SchemaContext context, final boolean shared) {
         this.schemaContext = Preconditions.checkNotNull(context);
         iidCodec = new JSONStringInstanceIdentifierCodec(context, this);
+
+        final CacheBuilder<Object, Object> builder = shared ? CacheBuilder.newBuilder()
+                : CacheBuilder.newBuilder().softValues();
+        codecs = builder.recordStats().build(new CacheLoader<DataSchemaNode, JSONCodec<Object>>() {
+            @Override
+            public JSONCodec<Object> load(final DataSchemaNode key) throws Exception {
+                final TypeDefinition<?> type;
+                if (key instanceof LeafSchemaNode) {
+                    type = ((LeafSchemaNode) key).getType();
+                } else if (key instanceof LeafListSchemaNode) {
+                    type = ((LeafListSchemaNode) key).getType();
+                } else {
+                    throw new IllegalArgumentException("Not supported node type " + key.getClass().getName());
+                }
+                return createCodec(key,type);
+            }
+        });
     }
 
     /**
@@ -91,7 +113,29 @@ public final class JSONCodecFactory {
      * @return A codec factory instance.
      */
     public static JSONCodecFactory create(final SchemaContext context) {
-        return new JSONCodecFactory(context);
+        return new JSONCodecFactory(context, false);
+    }
+
+    /**
+     * Get the codec factory shared by all users of a particular context. The returned instance is safe for concurrent
+     * use and is retained for as long as any of its users references it. Users which process data repeatedly should
+     * keep a reference to it, so its codecs are not recreated.
+     *
+     * @param context SchemaContext to which the factory should be bound
+     * @return A shared codec factory instance.
+     */
+    public static JSONCodecFactory getShared(final SchemaContext context) {
+        return SHARED.getUnchecked(Preconditions.checkNotNull(context));
+    }
+
+    /**
+     * Return statistics of codec lookups performed by this factory, including the number of codecs created and the
+     * time spent creating them.
+     *
+     * @return Codec cache statistics
+     */
+    public CacheStats getCodecStats() {
+        return codecs.stats();
     }
 
     @SuppressWarnings("unchecked")
@@ -13,6 +13,7 @@ import com.google.gson.JsonIOException;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.MalformedJsonException;
 import java.io.Closeable;
 import java.io.EOFException;
@@ -23,7 +24,13 @@ import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.DataSchemaNodeAwareAdaptor;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.SchemaAwareNormalizedNodeStreamWriter;
@@ -39,10 +46,16 @@ import org.opendaylight.yangtools.yang.data.util.ParserStreamUtils;
 import org.opendaylight.yangtools.yang.data.util.RpcAsContainer;
 import org.opendaylight.yangtools.yang.data.util.SimpleNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
 import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
 import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -52,6 +65,13 @@ import org.opendaylight.yangtools.yang.model.api.YangModeledAnyXmlSchemaNode;
 /**
  * This class parses JSON elements from a GSON JsonReader. It disallows multiple elements of the same name unlike the
  * default GSON JsonParser.
+ *
+ * <p>
+ * By default the whole JSON source is first read into an intermediate tree, which is then emitted into the
+ * NormalizedNodeStreamWriter. Parsers created via {@link #createStreaming(NormalizedNodeStreamWriter, SchemaContext)}
+ * emit events as tokens are read from the JsonReader instead, so that the memory needed does not grow with the size
+ * of lists. Only children of choices and augmentations, which need to be grouped together, and list entries whose key
+ * leaves do not precede their other members are buffered.
  */
 @Beta
 public final class JsonParserStream implements Closeable, Flushable {
@@ -60,26 +80,61 @@ public final class JsonParserStream implements Closeable, Flushable {
     private final JSONCodecFactory codecs;
     private final SchemaContext schema;
     private final DataSchemaNode parentNode;
+    private final boolean streaming;
 
     private JsonParserStream(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
-            final DataSchemaNode parentNode) {
+            final DataSchemaNode parentNode, final boolean streaming) {
         this.schema = Preconditions.checkNotNull(schemaContext);
         this.writer = DataSchemaNodeAwareAdaptor.forWriter(writer);
-        this.codecs = JSONCodecFactory.create(schemaContext);
+        this.codecs = JSONCodecFactory.getShared(schemaContext);
         this.parentNode = parentNode;
+        this.streaming = streaming;
     }
 
     public static JsonParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
             final SchemaNode parentNode ) {
-        if (parentNode instanceof RpcDefinition) {
-            return new JsonParserStream(writer, schemaContext, new RpcAsContainer((RpcDefinition) parentNode));
-        }
-        Preconditions.checkArgument(parentNode instanceof DataSchemaNode, "Instance of DataSchemaNode class awaited.");
-        return new JsonParserStream(writer, schemaContext, (DataSchemaNode) parentNode);
+        return create(writer, schemaContext, parentNode, false);
     }
 
     public static JsonParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext) {
-        return new JsonParserStream(writer, schemaContext, schemaContext);
+        return new JsonParserStream(writer, schemaContext, schemaContext, false);
+    }
+
+    /**
+     * Create a parser which emits node events as tokens are read from the JsonReader, without building an
+     * intermediate tree of the whole source.
+     *
+     * @param writer Writer to emit events into
+     * @param schemaContext Schema context
+     * @param parentNode Schema node of the parsed object
+     * @return A new streaming JsonParserStream
+     */
+    public static JsonParserStream createStreaming(final NormalizedNodeStreamWriter writer,
+            final SchemaContext schemaContext, final SchemaNode parentNode) {
+        return create(writer, schemaContext, parentNode, true);
+    }
+
+    /**
+     * Create a parser which emits node events as tokens are read from the JsonReader, without building an
+     * intermediate tree of the whole source.
+     *
+     * @param writer Writer to emit events into
+     * @param schemaContext Schema context
+     * @return A new streaming JsonParserStream
+     */
+    public static JsonParserStream createStreaming(final NormalizedNodeStreamWriter writer,
+            final SchemaContext schemaContext) {
+        return new JsonParserStream(writer, schemaContext, schemaContext, true);
+    }
+
+    private static JsonParserStream create(final NormalizedNodeStreamWriter writer,
+            final SchemaContext schemaContext, final SchemaNode parentNode, final boolean streaming) {
+        if (parentNode instanceof RpcDefinition) {
+            return new JsonParserStream(writer, schemaContext, new RpcAsContainer((RpcDefinition) parentNode),
+                streaming);
+        }
+        Preconditions.checkArgument(parentNode instanceof DataSchemaNode, "Instance of DataSchemaNode class awaited.");
+        return new JsonParserStream(writer, schemaContext, (DataSchemaNode) parentNode, streaming);
     }
 
     public JsonParserStream parse(final JsonReader reader) {
@@ -91,9 +146,14 @@ public final class JsonParserStream implements Closeable, Flushable {
         try {
             reader.peek();
             isEmpty = false;
-            final CompositeNodeDataWithSchema compositeNodeDataWithSchema = new CompositeNodeDataWithSchema(parentNode);
-            read(reader, compositeNodeDataWithSchema);
-            compositeNodeDataWithSchema.write(writer);
+            if (streaming) {
+                streamObject(reader, parentNode);
+            } else {
+                final CompositeNodeDataWithSchema compositeNodeDataWithSchema =
+                        new CompositeNodeDataWithSchema(parentNode);
+                read(reader, compositeNodeDataWithSchema);
+                compositeNodeDataWithSchema.write(writer);
+            }
 
             return this;
         } catch (final EOFException e) {
@@ -163,38 +223,7 @@ public final class JsonParserStream implements Closeable, Flushable {
                 parent = newArrayEntry(parent);
             }
             while (in.hasNext()) {
-                final String jsonElementName = in.nextName();
-                DataSchemaNode parentSchema = parent.getSchema();
-                if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
-                    parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
-                }
-                final NamespaceAndName namespaceAndName = resolveNamespace(jsonElementName, parentSchema);
-                final String localName = namespaceAndName.getName();
-                addNamespace(namespaceAndName.getUri());
-                if (namesakes.contains(jsonElementName)) {
-                    throw new JsonSyntaxException("Duplicate name " + jsonElementName + " in JSON input.");
-                }
-                namesakes.add(jsonElementName);
-
-                final Deque<DataSchemaNode> childDataSchemaNodes =
-                        ParserStreamUtils.findSchemaNodeByNameAndNamespace(parentSchema, localName, getCurrentNamespace());
-                if (childDataSchemaNodes.isEmpty()) {
-                    throw new IllegalStateException("Schema for node with name " + localName + " and namespace "
-                            + getCurrentNamespace() + " doesn't exist.");
-                }
-
-                final AbstractNodeDataWithSchema newChild = ((CompositeNodeDataWithSchema) parent).addChild(childDataSchemaNodes);
-                /*
-                 * FIXME:anyxml data shouldn't be skipped but should be loaded somehow.
-                 * will be able to load anyxml which conforms to YANG data using these
-                 * parser, for other anyxml will be harder.
-                 */
-                if (newChild instanceof AnyXmlNodeDataWithSchema) {
-                    in.skipValue();
-                } else {
-                    read(in, newChild);
-                }
-                removeNamespace();
+                readMember(in, parent, in.nextName(), namesakes);
             }
             in.endObject();
             return;
@@ -206,6 +235,226 @@ public final class JsonParserStream implements Closeable, Flushable {
         }
     }
 
+    private void readMember(final JsonReader in, final AbstractNodeDataWithSchema parent,
+            final String jsonElementName, final Set<String> namesakes) throws IOException {
+        DataSchemaNode parentSchema = parent.getSchema();
+        if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
+            parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
+        }
+        final Deque<DataSchemaNode> childDataSchemaNodes = enterMember(jsonElementName, parentSchema, namesakes);
+        final AbstractNodeDataWithSchema newChild = ((CompositeNodeDataWithSchema) parent).addChild(childDataSchemaNodes);
+        /*
+         * FIXME:anyxml data shouldn't be skipped but should be loaded somehow.
+         * will be able to load anyxml which conforms to YANG data using these
+         * parser, for other anyxml will be harder.
+         */
+        if (newChild instanceof AnyXmlNodeDataWithSchema) {
+            in.skipValue();
+        } else {
+            read(in, newChild);
+        }
+        removeNamespace();
+    }
+
+    /**
+     * Resolve a JSON member name to its schema nodes, checking it is not a duplicate. The member's namespace is pushed
+     * and needs to be popped by the caller once the member's value has been read.
+     */
+    private Deque<DataSchemaNode> enterMember(final String jsonElementName, final DataSchemaNode parentSchema,
+            final Set<String> namesakes) {
+        final NamespaceAndName namespaceAndName = resolveNamespace(jsonElementName, parentSchema);
+        final String localName = namespaceAndName.getName();
+        addNamespace(namespaceAndName.getUri());
+        if (namesakes.contains(jsonElementName)) {
+            throw new JsonSyntaxException("Duplicate name " + jsonElementName + " in JSON input.");
+        }
+        namesakes.add(jsonElementName);
+
+        final Deque<DataSchemaNode> childDataSchemaNodes =
+                ParserStreamUtils.findSchemaNodeByNameAndNamespace(parentSchema, localName, getCurrentNamespace());
+        if (childDataSchemaNodes.isEmpty()) {
+            throw new IllegalStateException("Schema for node with name " + localName + " and namespace "
+                    + getCurrentNamespace() + " doesn't exist.");
+        }
+        return childDataSchemaNodes;
+    }
+
+    private void streamObject(final JsonReader in, final DataSchemaNode parent) throws IOException {
+        in.beginObject();
+        streamMembers(in, parent, new HashSet<>());
+        in.endObject();
+    }
+
+    /**
+     * Stream the remaining members of the current JSON object. Members which need to be grouped into choice and
+     * augmentation nodes are buffered and written once the object is complete.
+     */
+    private void streamMembers(final JsonReader in, final DataSchemaNode parent, final Set<String> namesakes)
+            throws IOException {
+        CompositeNodeDataWithSchema buffered = null;
+
+        while (in.hasNext()) {
+            final String jsonElementName = in.nextName();
+            final Deque<DataSchemaNode> childDataSchemaNodes = enterMember(jsonElementName, parent, namesakes);
+            final DataSchemaNode childSchema = childDataSchemaNodes.peek();
+
+            if (childDataSchemaNodes.size() > 1 || childSchema instanceof YangModeledAnyXmlSchemaNode
+                    || isAugmentationChild(parent, childSchema)) {
+                removeNamespace();
+                if (buffered == null) {
+                    buffered = new CompositeNodeDataWithSchema(parent);
+                }
+                readMember(in, buffered, jsonElementName, new HashSet<>());
+            } else {
+                streamMember(in, childSchema);
+                removeNamespace();
+            }
+        }
+
+        if (buffered != null) {
+            buffered.write(writer);
+        }
+    }
+
+    private void streamMember(final JsonReader in, final DataSchemaNode schema) throws IOException {
+        final NodeIdentifier identifier = NodeIdentifier.create(schema.getQName());
+        if (schema instanceof LeafSchemaNode) {
+            final LeafNodeDataWithSchema leaf = new LeafNodeDataWithSchema(schema);
+            read(in, leaf);
+            leaf.write(writer);
+        } else if (schema instanceof AnyXmlSchemaNode) {
+            in.skipValue();
+            new AnyXmlNodeDataWithSchema(schema).write(writer);
+        } else if (in.peek() != JsonToken.BEGIN_ARRAY
+                && (schema instanceof LeafListSchemaNode || schema instanceof ListSchemaNode)) {
+            // Lenient single-entry encoding, handled by the tree reader
+            final CompositeNodeDataWithSchema holder = schema instanceof ListSchemaNode
+                    ? new ListNodeDataWithSchema(schema) : new LeafListNodeDataWithSchema(schema);
+            read(in, holder);
+            holder.write(writer);
+        } else if (schema instanceof LeafListSchemaNode) {
+            writer.nextDataSchemaNode(schema);
+            if (((LeafListSchemaNode) schema).isUserOrdered()) {
+                writer.startOrderedLeafSet(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            } else {
+                writer.startLeafSet(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            }
+            in.beginArray();
+            while (in.hasNext()) {
+                final LeafListEntryNodeDataWithSchema entry = new LeafListEntryNodeDataWithSchema(schema);
+                read(in, entry);
+                entry.write(writer);
+            }
+            in.endArray();
+            writer.endNode();
+        } else if (schema instanceof ListSchemaNode) {
+            final ListSchemaNode listSchema = (ListSchemaNode) schema;
+            writer.nextDataSchemaNode(schema);
+            if (listSchema.getKeyDefinition().isEmpty()) {
+                writer.startUnkeyedList(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            } else if (listSchema.isUserOrdered()) {
+                writer.startOrderedMapNode(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            } else {
+                writer.startMapNode(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            }
+            in.beginArray();
+            while (in.hasNext()) {
+                streamListEntry(in, listSchema);
+            }
+            in.endArray();
+            writer.endNode();
+        } else if (schema instanceof ContainerSchemaNode) {
+            writer.nextDataSchemaNode(schema);
+            writer.startContainerNode(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            streamObject(in, schema);
+            writer.endNode();
+        } else {
+            throw new IllegalStateException("Unhandled schema node " + schema);
+        }
+    }
+
+    private void streamListEntry(final JsonReader in, final ListSchemaNode schema) throws IOException {
+        final List<QName> keyDef = schema.getKeyDefinition();
+        final Set<String> namesakes = new HashSet<>();
+        in.beginObject();
+
+        if (keyDef.isEmpty()) {
+            writer.nextDataSchemaNode(schema);
+            writer.startUnkeyedListItem(NodeIdentifier.create(schema.getQName()),
+                NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            streamMembers(in, schema, namesakes);
+            in.endObject();
+            writer.endNode();
+            return;
+        }
+
+        // The entry cannot be started before its keys are known, read them first
+        final Map<QName, LeafNodeDataWithSchema> keys = new LinkedHashMap<>();
+        String pending = null;
+        while (keys.size() != keyDef.size() && in.hasNext()) {
+            final String jsonElementName = in.nextName();
+            final NamespaceAndName namespaceAndName = resolveNamespace(jsonElementName, schema);
+            final Deque<DataSchemaNode> childDataSchemaNodes = ParserStreamUtils.findSchemaNodeByNameAndNamespace(
+                schema, namespaceAndName.getName(), namespaceAndName.getUri());
+            final DataSchemaNode childSchema = childDataSchemaNodes.peek();
+            if (childDataSchemaNodes.size() != 1 || !keyDef.contains(childSchema.getQName())
+                    || namesakes.contains(jsonElementName)) {
+                pending = jsonElementName;
+                break;
+            }
+
+            enterMember(jsonElementName, schema, namesakes);
+            final LeafNodeDataWithSchema key = new LeafNodeDataWithSchema(childSchema);
+            read(in, key);
+            removeNamespace();
+            keys.put(childSchema.getQName(), key);
+        }
+
+        if (keys.size() != keyDef.size()) {
+            // Keys are missing or follow other members, we need to buffer the rest of the entry
+            final ListEntryNodeDataWithSchema entry = new ListEntryNodeDataWithSchema(schema);
+            for (LeafNodeDataWithSchema key : keys.values()) {
+                entry.addChild(key);
+            }
+            if (pending != null) {
+                readMember(in, entry, pending, namesakes);
+            }
+            while (in.hasNext()) {
+                readMember(in, entry, in.nextName(), namesakes);
+            }
+            in.endObject();
+            entry.write(writer);
+            return;
+        }
+
+        // Need to restore schema order...
+        final Map<QName, Object> predicates = new LinkedHashMap<>();
+        for (QName qname : keyDef) {
+            predicates.put(qname, keys.get(qname).getValue());
+        }
+
+        writer.nextDataSchemaNode(schema);
+        writer.startMapEntryNode(new NodeIdentifierWithPredicates(schema.getQName(), predicates),
+            NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+        for (LeafNodeDataWithSchema key : keys.values()) {
+            key.write(writer);
+        }
+        streamMembers(in, schema, namesakes);
+        in.endObject();
+        writer.endNode();
+    }
+
+    private static boolean isAugmentationChild(final DataSchemaNode parent, final DataSchemaNode child) {
+        if (parent instanceof AugmentationTarget && !(parent instanceof ChoiceSchemaNode)) {
+            for (AugmentationSchema augmentation : ((AugmentationTarget) parent).getAvailableAugmentations()) {
+                if (augmentation.getDataChildByName(child.getQName()) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private static boolean isArray(final AbstractNodeDataWithSchema parent) {
         return parent instanceof ListNodeDataWithSchema || parent instanceof LeafListNodeDataWithSchema;
     }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadModules;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadTextFile;
+import com.google.common.cache.CacheStats;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.ref.WeakReference;
+import java.net.URISyntaxException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class JSONCodecFactoryTest {
+    private static SchemaContext schemaContext;
+
+    @BeforeClass
+    public static void initialization() throws IOException, URISyntaxException, ReactorException {
+        schemaContext = loadModules("/complexjson/yang");
+    }
+
+    @Test
+    public void testSharedFactory() {
+        final JSONCodecFactory shared = JSONCodecFactory.getShared(schemaContext);
+        assertSame(shared, JSONCodecFactory.getShared(schemaContext));
+        assertNotSame(shared, JSONCodecFactory.create(schemaContext));
+    }
+
+    @Test
+    public void testCodecsCreatedOnce() throws IOException, URISyntaxException {
+        final String inputJson = loadTextFile("/complexjson/keyed-list-node-in-container.json");
+        final JSONCodecFactory shared = JSONCodecFactory.getShared(schemaContext);
+
+        parse(inputJson);
+        final CacheStats first = shared.getCodecStats();
+        assertTrue(first.loadCount() > 0);
+
+        parse(inputJson);
+        final CacheStats second = shared.getCodecStats().minus(first);
+        assertEquals(0, second.loadCount());
+        assertTrue(second.hitCount() > 0);
+    }
+
+    private static void parse(final String inputJson) {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        JsonParserStream.create(ImmutableNormalizedNodeStreamWriter.from(result), schemaContext)
+                .parse(new JsonReader(new StringReader(inputJson)));
+    }
+
+    @Test
+    public void testRetiredContextCollected() throws IOException, URISyntaxException, ReactorException {
+        final WeakReference<SchemaContext> ref = retiredContext();
+        for (int i = 0; i < 10 && ref.get() != null; ++i) {
+            System.gc();
+        }
+        assertNull(ref.get());
+    }
+
+    private static WeakReference<SchemaContext> retiredContext() throws IOException, URISyntaxException,
+            ReactorException {
+        final SchemaContext context = loadModules("/complexjson/yang");
+        JSONCodecFactory.getShared(context);
+        return new WeakReference<>(context);
+    }
+}
@@ -18,6 +18,7 @@ import static org.opendaylight.yangtools.yang.data.impl.schema.Builders.choiceBu
 import static org.opendaylight.yangtools.yang.data.impl.schema.Builders.containerBuilder;
 import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.leafNode;
 import com.google.common.collect.Sets;
+import com.google.gson.JsonSyntaxException;
 import com.google.gson.stream.JsonReader;
 import java.io.IOException;
 import java.io.StringReader;
@@ -98,6 +99,13 @@ public class JsonStreamToNormalizedNodeTest {
                 TestingNormalizedNodeStructuresCreator.keyedListNodeInContainer());
     }
 
+    @Test
+    public void keyedListNodeWithKeysFirstInContainer() throws IOException, URISyntaxException {
+        final String inputJson = loadTextFile("/complexjson/keyed-list-keys-first-in-container.json");
+        verifyTransformationToNormalizedNode(inputJson,
+                TestingNormalizedNodeStructuresCreator.keyedListNodeInContainer());
+    }
+
     @Test
     public void choiceNodeInContainer() throws IOException, URISyntaxException {
         final String inputJson = loadTextFile("/complexjson/choice-node-in-container.json");
@@ -223,6 +231,34 @@ public class JsonStreamToNormalizedNodeTest {
         assertNotNull(transformedInput);
     }
 
+    @Test
+    public void listItemWithoutArrayStreaming() throws IOException, URISyntaxException {
+        final String inputJson = loadTextFile("/complexjson/keyed-list-restconf-behaviour.json");
+        final SchemaNode parentNode = schemaContext.getDataChildByName("cont1");
+
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        JsonParserStream.create(ImmutableNormalizedNodeStreamWriter.from(result), schemaContext, parentNode)
+                .parse(new JsonReader(new StringReader(inputJson)));
+
+        final NormalizedNodeResult streamingResult = new NormalizedNodeResult();
+        JsonParserStream.createStreaming(ImmutableNormalizedNodeStreamWriter.from(streamingResult), schemaContext,
+                parentNode).parse(new JsonReader(new StringReader(inputJson)));
+        assertEquals(result.getResult(), streamingResult.getResult());
+    }
+
+    @Test
+    public void duplicateNameStreaming() throws IOException, URISyntaxException {
+        final String inputJson = "{\"complexjson:cont1\": {\"lf11\": 1, \"lf11\": 2}}";
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try {
+            JsonParserStream.createStreaming(ImmutableNormalizedNodeStreamWriter.from(result), schemaContext)
+                    .parse(new JsonReader(new StringReader(inputJson)));
+            fail("Expected exception not raised");
+        } catch (final JsonSyntaxException e) {
+            assertTrue(e.getMessage().contains("Duplicate name lf11 in JSON input."));
+        }
+    }
+
     @Test
     public void listItemWithArray() throws IOException, URISyntaxException {
         final String inputJson = loadTextFile("/complexjson/keyed-list-yang-json-behaviour.json");
@@ -290,6 +326,12 @@ public class JsonStreamToNormalizedNodeTest {
         final NormalizedNode<?, ?> transformedInput = result.getResult();
         assertEquals("Transformation of json input to normalized node wasn't successful.", awaitedStructure,
                 transformedInput);
+
+        final NormalizedNodeResult streamingResult = new NormalizedNodeResult();
+        JsonParserStream.createStreaming(ImmutableNormalizedNodeStreamWriter.from(streamingResult), schemaContext)
+                .parse(new JsonReader(new StringReader(inputJson)));
+        assertEquals("Streaming transformation of json input to normalized node wasn't successful.",
+                awaitedStructure, streamingResult.getResult());
     }
 
 }
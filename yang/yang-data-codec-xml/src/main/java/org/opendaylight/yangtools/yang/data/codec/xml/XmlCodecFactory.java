@@ -12,6 +12,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Verify;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
@@ -31,6 +32,17 @@ import org.opendaylight.yangtools.yang.model.util.type.DerivedTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Factory for creating XML equivalents of codecs. Each instance of this object is bound to a particular
+ * {@link SchemaContext}.
+ *
+ * <p>
+ * Codecs are created lazily, when first requested for a particular schema node. Instances obtained via
+ * {@link #getShared(SchemaContext)} are shared by all concurrent users of the same SchemaContext and retain their
+ * codecs, so that types are resolved only once. A shared instance is retained only while it is referenced, hence it
+ * does not keep a retired SchemaContext alive. Instances obtained via {@link #create(SchemaContext)} are private to
+ * the caller and may drop their codecs under memory pressure.
+ */
 public final class XmlCodecFactory {
 
     private static final Logger LOG = LoggerFactory.getLogger(XmlCodecFactory.class);
@@ -53,28 +65,42 @@ public final class XmlCodecFactory {
         }
     };
 
-    private final LoadingCache<DataSchemaNode, XmlCodec<?>> codecs =
-            CacheBuilder.newBuilder().softValues().build(new CacheLoader<DataSchemaNode, XmlCodec<?>>() {
+    /*
+     * Shared factories and their codecs reference their SchemaContext, hence the factories must be only weakly
+     * reachable from the cache, otherwise they would keep the weakly-referenced context alive.
+     */
+    private static final LoadingCache<SchemaContext, XmlCodecFactory> SHARED = CacheBuilder.newBuilder()
+            .weakKeys().weakValues().build(new CacheLoader<SchemaContext, XmlCodecFactory>() {
                 @Override
-                public XmlCodec<?> load(final DataSchemaNode key) throws Exception {
-                    final TypeDefinition<?> type;
-                    if (key instanceof LeafSchemaNode) {
-                        type = ((LeafSchemaNode) key).getType();
-                    } else if (key instanceof LeafListSchemaNode) {
-                        type = ((LeafListSchemaNode) key).getType();
-                    } else {
-                        throw new IllegalArgumentException("Not supported node type " + key.getClass().getName());
-                    }
-                    return createCodec(key,type);
+                public XmlCodecFactory load(final SchemaContext key) {
+                    return new XmlCodecFactory(key, true);
                 }
             });
 
+    private final LoadingCache<DataSchemaNode, XmlCodec<?>> codecs;
     private final SchemaContext schemaContext;
     private final XmlCodec<YangInstanceIdentifier> iidCodec;
 
-    private XmlCodecFactory(final SchemaContext context) {
+    private XmlCodecFactory(final SchemaContext context, final boolean shared) {
         this.schemaContext = Preconditions.checkNotNull(context);
         iidCodec = new XmlStringInstanceIdentifierCodec(context, this);
+
+        final CacheBuilder<Object, Object> builder = shared ? CacheBuilder.newBuilder()
+                : CacheBuilder.newBuilder().softValues();
+        codecs = builder.recordStats().build(new CacheLoader<DataSchemaNode, XmlCodec<?>>() {
+            @Override
+            public XmlCodec<?> load(final DataSchemaNode key) throws Exception {
+                final TypeDefinition<?> type;
+                if (key instanceof LeafSchemaNode) {
+                    type = ((LeafSchemaNode) key).getType();
+                } else if (key instanceof LeafListSchemaNode) {
+                    type = ((LeafListSchemaNode) key).getType();
+                } else {
+                    throw new IllegalArgumentException("Not supported node type " + key.getClass().getName());
+                }
+                return createCodec(key,type);
+            }
+        });
     }
 
     /**
@@ -84,7 +110,29 @@ public final class XmlCodecFactory {
      * @return A codec factory instance.
      */
     public static XmlCodecFactory create(final SchemaContext context) {
-        return new XmlCodecFactory(context);
+        return new XmlCodecFactory(context, false);
+    }
+
+    /**
+     * Get the codec factory shared by all users of a particular context. The returned instance is safe for concurrent
+     * use and is retained for as long as any of its users references it. Users which process data repeatedly should
+     * keep a reference to it, so its codecs are not recreated.
+     *
+     * @param context SchemaContext to which the factory should be bound
+     * @return A shared codec factory instance.
+     */
+    public static XmlCodecFactory getShared(final SchemaContext context) {
+        return SHARED.getUnchecked(Preconditions.checkNotNull(context));
+    }
+
+    /**
+     * Return statistics of codec lookups performed by this factory, including the number of codecs created and the
+     * time spent creating them.
+     *
+     * @return Codec cache statistics
+     */
+    public CacheStats getCodecStats() {
+        return codecs.stats();
     }
 
     private XmlCodec<?> createCodec(final DataSchemaNode key, final TypeDefinition<?> type) {
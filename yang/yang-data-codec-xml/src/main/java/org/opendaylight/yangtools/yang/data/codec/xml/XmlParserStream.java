@@ -17,6 +17,9 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -25,6 +28,9 @@ import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.DataSchemaNodeAwareAdaptor;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.SchemaAwareNormalizedNodeStreamWriter;
@@ -40,7 +46,14 @@ import org.opendaylight.yangtools.yang.data.util.ParserStreamUtils;
 import org.opendaylight.yangtools.yang.data.util.RpcAsContainer;
 import org.opendaylight.yangtools.yang.data.util.SimpleNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaNode;
@@ -53,6 +66,14 @@ import org.xml.sax.SAXException;
  * This class provides functionality for parsing an XML source containing YANG-modeled data. It disallows multiple
  * instances of the same element except for leaf-list and list entries. It also expects that the YANG-modeled data in
  * the XML source are wrapped in a root element.
+ *
+ * <p>
+ * By default the whole XML source is first read into an intermediate tree, which is then emitted into the
+ * NormalizedNodeStreamWriter. Parsers created via {@link #createStreaming(NormalizedNodeStreamWriter, SchemaContext)}
+ * emit events as the XML source is read instead, which allows parsing of arbitrarily large lists with bounded memory.
+ * Only those parts of the input which cannot be emitted in document order are buffered: children of choices and
+ * augmentations, which need to be grouped together, and list entries whose key leaves do not precede their other
+ * children.
  */
 public final class XmlParserStream implements Closeable, Flushable {
 
@@ -61,26 +82,61 @@ public final class XmlParserStream implements Closeable, Flushable {
     private final XmlCodecFactory codecs;
     private final SchemaContext schema;
     private final DataSchemaNode parentNode;
+    private final boolean streaming;
 
     private XmlParserStream(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
-                             final DataSchemaNode parentNode) {
+                             final DataSchemaNode parentNode, final boolean streaming) {
         this.schema = Preconditions.checkNotNull(schemaContext);
         this.writer = DataSchemaNodeAwareAdaptor.forWriter(writer);
-        this.codecs = XmlCodecFactory.create(schemaContext);
+        this.codecs = XmlCodecFactory.getShared(schemaContext);
         this.parentNode = parentNode;
+        this.streaming = streaming;
     }
 
     public static XmlParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
             final SchemaNode parentNode ) {
-        if (parentNode instanceof RpcDefinition) {
-            return new XmlParserStream(writer, schemaContext, new RpcAsContainer((RpcDefinition) parentNode));
-        }
-        Preconditions.checkArgument(parentNode instanceof DataSchemaNode, "Instance of DataSchemaNode class awaited.");
-        return new XmlParserStream(writer, schemaContext, (DataSchemaNode) parentNode);
+        return create(writer, schemaContext, parentNode, false);
     }
 
     public static XmlParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext) {
-        return new XmlParserStream(writer, schemaContext, schemaContext);
+        return new XmlParserStream(writer, schemaContext, schemaContext, false);
+    }
+
+    /**
+     * Create a parser which emits node events while the XML source is being read, without building an intermediate
+     * tree of the whole source.
+     *
+     * @param writer Writer to emit events into
+     * @param schemaContext Schema context
+     * @param parentNode Schema node of the root element
+     * @return A new streaming XmlParserStream
+     */
+    public static XmlParserStream createStreaming(final NormalizedNodeStreamWriter writer,
+            final SchemaContext schemaContext, final SchemaNode parentNode) {
+        return create(writer, schemaContext, parentNode, true);
+    }
+
+    /**
+     * Create a parser which emits node events while the XML source is being read, without building an intermediate
+     * tree of the whole source.
+     *
+     * @param writer Writer to emit events into
+     * @param schemaContext Schema context
+     * @return A new streaming XmlParserStream
+     */
+    public static XmlParserStream createStreaming(final NormalizedNodeStreamWriter writer,
+            final SchemaContext schemaContext) {
+        return new XmlParserStream(writer, schemaContext, schemaContext, true);
+    }
+
+    private static XmlParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
+            final SchemaNode parentNode, final boolean streaming) {
+        if (parentNode instanceof RpcDefinition) {
+            return new XmlParserStream(writer, schemaContext, new RpcAsContainer((RpcDefinition) parentNode),
+                streaming);
+        }
+        Preconditions.checkArgument(parentNode instanceof DataSchemaNode, "Instance of DataSchemaNode class awaited.");
+        return new XmlParserStream(writer, schemaContext, (DataSchemaNode) parentNode, streaming);
     }
 
     /**
@@ -105,11 +161,17 @@ public final class XmlParserStream implements Closeable, Flushable {
     public XmlParserStream parse(final XMLStreamReader reader) throws XMLStreamException, URISyntaxException,
             IOException, ParserConfigurationException, SAXException {
         if (reader.hasNext()) {
-            final CompositeNodeDataWithSchema compositeNodeDataWithSchema = new CompositeNodeDataWithSchema(parentNode);
             reader.nextTag();
             rootElement = reader.getLocalName();
-            read(reader, compositeNodeDataWithSchema);
-            compositeNodeDataWithSchema.write(writer);
+            if (streaming) {
+                reader.nextTag();
+                streamChildren(reader, parentNode, new HashSet<>());
+            } else {
+                final CompositeNodeDataWithSchema compositeNodeDataWithSchema =
+                        new CompositeNodeDataWithSchema(parentNode);
+                read(reader, compositeNodeDataWithSchema);
+                compositeNodeDataWithSchema.write(writer);
+            }
         }
 
         return this;
@@ -163,48 +225,7 @@ public final class XmlParserStream implements Closeable, Flushable {
 
             switch (in.nextTag()) {
                 case XMLStreamConstants.START_ELEMENT:
-                    final Set<String> namesakes = new HashSet<>();
-                    while (in.hasNext()) {
-                        String xmlElementName = in.getLocalName();
-                        String xmlElementNamespace = in.getNamespaceURI();
-
-                        if (xmlElementName.equals(rootElement)) {
-                            break;
-                        }
-
-                        DataSchemaNode parentSchema = parent.getSchema();
-                        if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
-                            parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
-                        }
-
-                        String parentSchemaName = parentSchema.getQName().getLocalName();
-                        if (parentSchemaName.equals(xmlElementName)
-                                && in.getEventType() == XMLStreamConstants.END_ELEMENT) {
-                            in.nextTag();
-                            break;
-                        }
-
-                        if (namesakes.contains(xmlElementName)) {
-                            int lineNumber = in.getLocation().getLineNumber();
-                            int columnNumber = in.getLocation().getColumnNumber();
-                            throw new IllegalStateException("Duplicate element \"" + xmlElementName + "\" in XML " +
-                                    "input at: line " + lineNumber + " column " + columnNumber);
-                        }
-                        namesakes.add(xmlElementName);
-
-                        Deque<DataSchemaNode> childDataSchemaNodes = ParserStreamUtils.findSchemaNodeByNameAndNamespace(
-                                parentSchema, xmlElementName, new URI(xmlElementNamespace));
-
-                        if (childDataSchemaNodes.isEmpty()) {
-                            throw new IllegalStateException("Schema for node with name " + xmlElementName +
-                                    " and namespace " + xmlElementNamespace + " doesn't exist.");
-                        }
-
-                        AbstractNodeDataWithSchema newChild =
-                                ((CompositeNodeDataWithSchema) parent).addChild(childDataSchemaNodes);
-
-                        read(in, newChild);
-                    }
+                    readChildren(in, parent, new HashSet<>());
                     break;
                 case XMLStreamConstants.END_ELEMENT:
                     in.nextTag();
@@ -213,6 +234,214 @@ public final class XmlParserStream implements Closeable, Flushable {
         }
     }
 
+    private void readChildren(final XMLStreamReader in, final AbstractNodeDataWithSchema parent,
+            final Set<String> namesakes) throws XMLStreamException, URISyntaxException, ParserConfigurationException,
+            SAXException, IOException {
+        while (in.hasNext()) {
+            String xmlElementName = in.getLocalName();
+
+            if (xmlElementName.equals(rootElement)) {
+                break;
+            }
+
+            DataSchemaNode parentSchema = parent.getSchema();
+            if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
+                parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
+            }
+
+            String parentSchemaName = parentSchema.getQName().getLocalName();
+            if (parentSchemaName.equals(xmlElementName)
+                    && in.getEventType() == XMLStreamConstants.END_ELEMENT) {
+                in.nextTag();
+                break;
+            }
+
+            checkNotDuplicate(in, namesakes, xmlElementName);
+            Deque<DataSchemaNode> childDataSchemaNodes = findChildSchemaNodes(in, parentSchema);
+
+            AbstractNodeDataWithSchema newChild =
+                    ((CompositeNodeDataWithSchema) parent).addChild(childDataSchemaNodes);
+
+            read(in, newChild);
+        }
+    }
+
+    /**
+     * Stream children of an element. Expects the reader to be positioned at the first child element, or at the end
+     * of the parent element if it has no children, and leaves it positioned at the end of the parent element.
+     */
+    private void streamChildren(final XMLStreamReader in, final DataSchemaNode parent, final Set<String> namesakes)
+            throws XMLStreamException, URISyntaxException, ParserConfigurationException, SAXException, IOException {
+        // Children which need to be grouped into choice and augmentation nodes, written once the parent is complete
+        CompositeNodeDataWithSchema buffered = null;
+
+        while (in.getEventType() == XMLStreamConstants.START_ELEMENT) {
+            checkNotDuplicate(in, namesakes, in.getLocalName());
+            final Deque<DataSchemaNode> childDataSchemaNodes = findChildSchemaNodes(in, parent);
+            final DataSchemaNode childSchema = childDataSchemaNodes.peek();
+
+            if (childDataSchemaNodes.size() > 1 || childSchema instanceof YangModeledAnyXmlSchemaNode
+                    || isAugmentationChild(parent, childSchema)) {
+                if (buffered == null) {
+                    buffered = new CompositeNodeDataWithSchema(parent);
+                }
+                read(in, buffered.addChild(childDataSchemaNodes));
+            } else {
+                streamChild(in, childSchema);
+            }
+        }
+
+        if (buffered != null) {
+            buffered.write(writer);
+        }
+    }
+
+    private void streamChild(final XMLStreamReader in, final DataSchemaNode schema)
+            throws XMLStreamException, URISyntaxException, ParserConfigurationException, SAXException, IOException {
+        final NodeIdentifier identifier = NodeIdentifier.create(schema.getQName());
+        if (schema instanceof LeafSchemaNode || schema instanceof AnyXmlSchemaNode) {
+            final SimpleNodeDataWithSchema leaf = schema instanceof LeafSchemaNode
+                    ? new LeafNodeDataWithSchema(schema) : new AnyXmlNodeDataWithSchema(schema);
+            read(in, leaf);
+            leaf.write(writer);
+        } else if (schema instanceof LeafListSchemaNode) {
+            writer.nextDataSchemaNode(schema);
+            if (((LeafListSchemaNode) schema).isUserOrdered()) {
+                writer.startOrderedLeafSet(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            } else {
+                writer.startLeafSet(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            }
+            while (isNextEntry(in, schema)) {
+                final LeafListEntryNodeDataWithSchema entry = new LeafListEntryNodeDataWithSchema(schema);
+                read(in, entry);
+                entry.write(writer);
+            }
+            writer.endNode();
+        } else if (schema instanceof ListSchemaNode) {
+            final ListSchemaNode listSchema = (ListSchemaNode) schema;
+            writer.nextDataSchemaNode(schema);
+            if (listSchema.getKeyDefinition().isEmpty()) {
+                writer.startUnkeyedList(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            } else if (listSchema.isUserOrdered()) {
+                writer.startOrderedMapNode(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            } else {
+                writer.startMapNode(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            }
+            while (isNextEntry(in, schema)) {
+                streamListEntry(in, listSchema);
+            }
+            writer.endNode();
+        } else if (schema instanceof ContainerSchemaNode) {
+            writer.nextDataSchemaNode(schema);
+            writer.startContainerNode(identifier, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            in.nextTag();
+            streamChildren(in, schema, new HashSet<>());
+            writer.endNode();
+            in.nextTag();
+        } else {
+            throw new IllegalStateException("Unhandled schema node " + schema);
+        }
+    }
+
+    private void streamListEntry(final XMLStreamReader in, final ListSchemaNode schema) throws XMLStreamException,
+            URISyntaxException, ParserConfigurationException, SAXException, IOException {
+        final List<QName> keyDef = schema.getKeyDefinition();
+        final Set<String> namesakes = new HashSet<>();
+        in.nextTag();
+
+        if (keyDef.isEmpty()) {
+            writer.nextDataSchemaNode(schema);
+            writer.startUnkeyedListItem(NodeIdentifier.create(schema.getQName()),
+                NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            streamChildren(in, schema, namesakes);
+            writer.endNode();
+            in.nextTag();
+            return;
+        }
+
+        // The entry cannot be started before its keys are known, read them first
+        final Map<QName, LeafNodeDataWithSchema> keys = new LinkedHashMap<>();
+        while (keys.size() != keyDef.size() && in.getEventType() == XMLStreamConstants.START_ELEMENT) {
+            final Deque<DataSchemaNode> childDataSchemaNodes = findChildSchemaNodes(in, schema);
+            final DataSchemaNode childSchema = childDataSchemaNodes.peek();
+            if (childDataSchemaNodes.size() != 1 || !keyDef.contains(childSchema.getQName())) {
+                break;
+            }
+
+            checkNotDuplicate(in, namesakes, in.getLocalName());
+            final LeafNodeDataWithSchema key = new LeafNodeDataWithSchema(childSchema);
+            read(in, key);
+            keys.put(childSchema.getQName(), key);
+        }
+
+        if (keys.size() != keyDef.size()) {
+            // Keys are missing or follow other children, we need to buffer the rest of the entry
+            final ListEntryNodeDataWithSchema entry = new ListEntryNodeDataWithSchema(schema);
+            for (LeafNodeDataWithSchema key : keys.values()) {
+                entry.addChild(key);
+            }
+            readChildren(in, entry, namesakes);
+            entry.write(writer);
+            return;
+        }
+
+        // Need to restore schema order...
+        final Map<QName, Object> predicates = new LinkedHashMap<>();
+        for (QName qname : keyDef) {
+            predicates.put(qname, keys.get(qname).getValue());
+        }
+
+        writer.nextDataSchemaNode(schema);
+        writer.startMapEntryNode(new NodeIdentifierWithPredicates(schema.getQName(), predicates),
+            NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+        for (LeafNodeDataWithSchema key : keys.values()) {
+            key.write(writer);
+        }
+        streamChildren(in, schema, namesakes);
+        writer.endNode();
+        in.nextTag();
+    }
+
+    private static boolean isNextEntry(final XMLStreamReader in, final DataSchemaNode schema) {
+        return in.getEventType() == XMLStreamConstants.START_ELEMENT
+                && schema.getQName().getLocalName().equals(in.getLocalName());
+    }
+
+    private static boolean isAugmentationChild(final DataSchemaNode parent, final DataSchemaNode child) {
+        if (parent instanceof AugmentationTarget && !(parent instanceof ChoiceSchemaNode)) {
+            for (AugmentationSchema augmentation : ((AugmentationTarget) parent).getAvailableAugmentations()) {
+                if (augmentation.getDataChildByName(child.getQName()) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void checkNotDuplicate(final XMLStreamReader in, final Set<String> namesakes,
+            final String xmlElementName) {
+        if (!namesakes.add(xmlElementName)) {
+            int lineNumber = in.getLocation().getLineNumber();
+            int columnNumber = in.getLocation().getColumnNumber();
+            throw new IllegalStateException("Duplicate element \"" + xmlElementName + "\" in XML " +
+                    "input at: line " + lineNumber + " column " + columnNumber);
+        }
+    }
+
+    private static Deque<DataSchemaNode> findChildSchemaNodes(final XMLStreamReader in,
+            final DataSchemaNode parentSchema) throws URISyntaxException {
+        final String xmlElementName = in.getLocalName();
+        final String xmlElementNamespace = in.getNamespaceURI();
+        final Deque<DataSchemaNode> childDataSchemaNodes = ParserStreamUtils.findSchemaNodeByNameAndNamespace(
+                parentSchema, xmlElementName, new URI(xmlElementNamespace));
+
+        if (childDataSchemaNodes.isEmpty()) {
+            throw new IllegalStateException("Schema for node with name " + xmlElementName +
+                    " and namespace " + xmlElementNamespace + " doesn't exist.");
+        }
+        return childDataSchemaNodes;
+    }
+
     private void setValue(final AbstractNodeDataWithSchema parent, final String value) throws
             ParserConfigurationException, SAXException, IOException {
         Preconditions.checkArgument(parent instanceof SimpleNodeDataWithSchema, "Node %s is not a simple type",
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.yangtools.yang.data.codec.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.cache.CacheStats;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URISyntaxException;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.xml.sax.SAXException;
+
+public class XmlCodecFactoryTest {
+
+    private static SchemaContext schemaContext;
+
+    @BeforeClass
+    public static void setup() throws ReactorException {
+        CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        reactor.addSource(new YangStatementSourceImpl("/foo.yang", false));
+        schemaContext = reactor.buildEffective();
+    }
+
+    @Test
+    public void testSharedFactory() {
+        final XmlCodecFactory shared = XmlCodecFactory.getShared(schemaContext);
+        assertSame(shared, XmlCodecFactory.getShared(schemaContext));
+        assertNotSame(shared, XmlCodecFactory.create(schemaContext));
+    }
+
+    @Test
+    public void testCodecsCreatedOnce() throws XMLStreamException, URISyntaxException, IOException,
+            ParserConfigurationException, SAXException {
+        final XmlCodecFactory shared = XmlCodecFactory.getShared(schemaContext);
+
+        parse("/foo.xml");
+        final CacheStats first = shared.getCodecStats();
+        assertTrue(first.loadCount() > 0);
+
+        parse("/foo.xml");
+        final CacheStats second = shared.getCodecStats().minus(first);
+        assertEquals(0, second.loadCount());
+        assertTrue(second.hitCount() > 0);
+    }
+
+    private static void parse(final String xmlResource) throws XMLStreamException, URISyntaxException, IOException,
+            ParserConfigurationException, SAXException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        XmlParserStream.create(ImmutableNormalizedNodeStreamWriter.from(result), schemaContext).parse(
+            XMLInputFactory.newInstance().createXMLStreamReader(
+                XmlCodecFactoryTest.class.getResourceAsStream(xmlResource)));
+    }
+
+    @Test
+    public void testRetiredContextCollected() throws ReactorException {
+        final WeakReference<SchemaContext> ref = retiredContext();
+        for (int i = 0; i < 10 && ref.get() != null; ++i) {
+            System.gc();
+        }
+        assertNull(ref.get());
+    }
+
+    private static WeakReference<SchemaContext> retiredContext() throws ReactorException {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        reactor.addSource(new YangStatementSourceImpl("/foo.yang", false));
+        final SchemaContext context = reactor.buildEffective();
+        XmlCodecFactory.getShared(context);
+        return new WeakReference<>(context);
+    }
+}
@@ -339,6 +339,86 @@ public class XmlToNormalizedNodesTest {
         }
     }
 
+    @Test
+    public void testComplexXmlParsingStreaming() throws ReactorException, XMLStreamException, URISyntaxException,
+            IOException, ParserConfigurationException, SAXException {
+        final NormalizedNode<?, ?> transformedInput = parseStreaming("/baz.yang", "/baz.xml");
+        assertNotNull(transformedInput);
+        assertEquals(buildOuterContainerNode(), transformedInput);
+    }
+
+    @Test
+    public void testStreamingWithKeysNotFirst() throws ReactorException, XMLStreamException, URISyntaxException,
+            IOException, ParserConfigurationException, SAXException {
+        final NormalizedNode<?, ?> transformedInput = parseStreaming("/baz.yang", "/baz-keys-last.xml");
+        assertNotNull(transformedInput);
+        assertEquals(buildOuterContainerNode(), transformedInput);
+    }
+
+    @Test
+    public void testSimpleXmlParsingStreaming() throws ReactorException, XMLStreamException, URISyntaxException,
+            IOException, ParserConfigurationException, SAXException {
+        final SchemaContext schemaContext = buildSchemaContext("/foo.yang");
+
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        XmlParserStream.create(ImmutableNormalizedNodeStreamWriter.from(result), schemaContext).parse(
+            XMLInputFactory.newInstance().createXMLStreamReader(
+                XmlToNormalizedNodesTest.class.getResourceAsStream("/foo.xml")));
+
+        final NormalizedNode<?, ?> transformedInput = parseStreaming("/foo.yang", "/foo.xml");
+        assertNotNull(transformedInput);
+
+        // anyxml values are DOMSources, which do not implement equals(), hence compare only the leaves
+        final NodeIdentifier leafContainer = new NodeIdentifier(QName.create(transformedInput.getNodeType(),
+            "leaf-container"));
+        assertEquals(((ContainerNode) result.getResult()).getChild(leafContainer),
+            ((ContainerNode) transformedInput).getChild(leafContainer));
+    }
+
+    @Test
+    public void shouldFailOnDuplicateLeafStreaming() throws ReactorException, XMLStreamException,
+            URISyntaxException, IOException, ParserConfigurationException, SAXException {
+        try {
+            parseStreaming("/foo.yang", "/invalid-foo.xml");
+            fail("IllegalStateException should have been thrown because of duplicate leaf.");
+        } catch (IllegalStateException ex) {
+            assertTrue(ex.getMessage().contains("Duplicate element \"decimal64-leaf\" in XML input"));
+        }
+    }
+
+    @Test
+    public void shouldFailOnUnexistingContainerElementStreaming() throws ReactorException, XMLStreamException,
+            URISyntaxException, IOException, ParserConfigurationException, SAXException {
+        try {
+            parseStreaming("/baz.yang", "/invalid-baz-3.xml");
+            fail("IllegalStateException should have been thrown because of an unexisting container element.");
+        } catch (IllegalStateException ex) {
+            assertTrue(ex.getMessage().contains("Schema for node with name my-container-1 and namespace baz-namespace" +
+                    " doesn't exist."));
+        }
+    }
+
+    private static SchemaContext buildSchemaContext(final String yangResource) throws ReactorException {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        reactor.addSource(new YangStatementSourceImpl(yangResource, false));
+        return reactor.buildEffective();
+    }
+
+    private static NormalizedNode<?, ?> parseStreaming(final String yangResource, final String xmlResource)
+            throws ReactorException, XMLStreamException, URISyntaxException, IOException,
+            ParserConfigurationException, SAXException {
+        final SchemaContext schemaContext = buildSchemaContext(yangResource);
+
+        final InputStream resourceAsStream = XmlToNormalizedNodesTest.class.getResourceAsStream(xmlResource);
+        final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(resourceAsStream);
+
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter streamWriter = ImmutableNormalizedNodeStreamWriter.from(result);
+
+        XmlParserStream.createStreaming(streamWriter, schemaContext).parse(reader);
+        return result.getResult();
+    }
+
     private NormalizedNode<?, ?> buildOuterContainerNode() {
         // my-container-1
         MapNode myKeyedListNode = Builders.mapBuilder().withNodeIdentifier(new NodeIdentifier(myKeyedList))
@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec.binary;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Reader of streams produced by {@link BinaryNormalizedNodeStreamWriter}. Nodes are either replayed into
+ * a {@link NormalizedNodeStreamWriter}, or materialized as {@link NormalizedNode}s. Dictionary entries are shared
+ * across all nodes read from a single stream.
+ *
+ * <p>
+ * Malformed input, including truncated streams and invalid lengths, is reported as an {@link IOException}. Lengths
+ * read from the stream are not trusted to size buffers up front, hence a corrupt length on a short stream fails with
+ * an {@link java.io.EOFException} rather than exhausting memory.
+ *
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+@Beta
+public final class BinaryNormalizedNodeStreamReader {
+    private static final DocumentBuilderFactory BUILDER_FACTORY;
+
+    static {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setCoalescing(true);
+        factory.setIgnoringElementContentWhitespace(true);
+        factory.setIgnoringComments(true);
+        try {
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        } catch (ParserConfigurationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        BUILDER_FACTORY = factory;
+    }
+
+    private final List<QNameModule> moduleDictionary = new ArrayList<>();
+    private final List<QName> qnameDictionary = new ArrayList<>();
+    private final List<AugmentationIdentifier> augmentationDictionary = new ArrayList<>();
+    private final DataInput input;
+    private boolean headerRead;
+
+    public BinaryNormalizedNodeStreamReader(final DataInput input) {
+        this.input = Preconditions.checkNotNull(input);
+    }
+
+    /**
+     * Read the next node from the stream.
+     *
+     * @return Node which has been read
+     * @throws IOException if the underlying input fails or the stream is malformed
+     */
+    public NormalizedNode<?, ?> readNormalizedNode() throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        streamNormalizedNode(ImmutableNormalizedNodeStreamWriter.from(result));
+        return result.getResult();
+    }
+
+    /**
+     * Read the next node from the stream, emitting its events into a {@link NormalizedNodeStreamWriter}.
+     *
+     * @param writer Writer to receive events
+     * @throws IOException if the underlying input fails or the stream is malformed
+     */
+    public void streamNormalizedNode(final NormalizedNodeStreamWriter writer) throws IOException {
+        ensureHeader();
+        streamNode(writer, input.readByte());
+    }
+
+    /**
+     * Read the next {@link YangInstanceIdentifier} from the stream.
+     *
+     * @return Identifier which has been read
+     * @throws IOException if the underlying input fails or the stream is malformed
+     */
+    public YangInstanceIdentifier readYangInstanceIdentifier() throws IOException {
+        ensureHeader();
+        return readInstanceIdentifier();
+    }
+
+    private void ensureHeader() throws IOException {
+        if (!headerRead) {
+            final short magic = input.readShort();
+            if (magic != BinaryTokens.STREAM_MAGIC) {
+                throw new IOException(String.format("Unexpected stream magic %04x", magic & 0xFFFF));
+            }
+            final byte version = input.readByte();
+            if (version != BinaryTokens.STREAM_VERSION) {
+                throw new IOException("Unsupported stream version " + version);
+            }
+            headerRead = true;
+        }
+    }
+
+    private void streamNode(final NormalizedNodeStreamWriter writer, final byte token) throws IOException {
+        switch (token) {
+            case BinaryTokens.LEAF:
+                writer.leafNode(readNodeIdentifier(), readValue());
+                return;
+            case BinaryTokens.LEAF_SET_ENTRY:
+                writer.leafSetEntryNode(readQName(), readValue());
+                return;
+            case BinaryTokens.ANYXML:
+                writer.anyxmlNode(readNodeIdentifier(), readDOMSource());
+                return;
+            case BinaryTokens.LEAF_SET:
+                writer.startLeafSet(readNodeIdentifier(), BinaryTokens.readSizeHint(input));
+                break;
+            case BinaryTokens.ORDERED_LEAF_SET:
+                writer.startOrderedLeafSet(readNodeIdentifier(), BinaryTokens.readSizeHint(input));
+                break;
+            case BinaryTokens.CONTAINER:
+                writer.startContainerNode(readNodeIdentifier(), BinaryTokens.readSizeHint(input));
+                break;
+            case BinaryTokens.UNKEYED_LIST:
+                writer.startUnkeyedList(readNodeIdentifier(), BinaryTokens.readSizeHint(input));
+                break;
+            case BinaryTokens.UNKEYED_LIST_ITEM:
+                writer.startUnkeyedListItem(readNodeIdentifier(), BinaryTokens.readSizeHint(input));
+                break;
+            case BinaryTokens.MAP:
+                writer.startMapNode(readNodeIdentifier(), BinaryTokens.readSizeHint(input));
+                break;
+            case BinaryTokens.MAP_ENTRY:
+                writer.startMapEntryNode(readNodeIdentifierWithPredicates(), BinaryTokens.readSizeHint(input));
+                break;
+            case BinaryTokens.ORDERED_MAP:
+                writer.startOrderedMapNode(readNodeIdentifier(), BinaryTokens.readSizeHint(input));
+                break;
+            case BinaryTokens.CHOICE:
+                writer.startChoiceNode(readNodeIdentifier(), BinaryTokens.readSizeHint(input));
+                break;
+            case BinaryTokens.AUGMENTATION:
+                writer.startAugmentationNode(readAugmentationIdentifier());
+                break;
+            case BinaryTokens.YANG_MODELED_ANYXML:
+                writer.startYangModeledAnyXmlNode(readNodeIdentifier(), BinaryTokens.readSizeHint(input));
+                break;
+            default:
+                throw new IOException("Unexpected node token " + token);
+        }
+
+        for (byte child = input.readByte(); child != BinaryTokens.END_NODE; child = input.readByte()) {
+            streamNode(writer, child);
+        }
+        writer.endNode();
+    }
+
+    private static <T> T lookup(final List<T> dictionary, final int ref, final String kind) throws IOException {
+        if (ref < 0 || ref > dictionary.size()) {
+            throw new IOException("Invalid " + kind + " reference " + ref + ", dictionary has only "
+                    + dictionary.size() + " entries");
+        }
+        return dictionary.get(ref - 1);
+    }
+
+    private QNameModule readModule() throws IOException {
+        final int ref = BinaryTokens.readVarInt(input);
+        if (ref != 0) {
+            return lookup(moduleDictionary, ref, "module");
+        }
+
+        final String namespace = input.readUTF();
+        final URI uri;
+        try {
+            uri = URI.create(namespace);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid namespace " + namespace, e);
+        }
+        final Date revision = input.readBoolean() ? new Date(input.readLong()) : null;
+        final QNameModule module = QNameModule.create(uri, revision).intern();
+        moduleDictionary.add(module);
+        return module;
+    }
+
+    private QName readQName() throws IOException {
+        final int ref = BinaryTokens.readVarInt(input);
+        if (ref != 0) {
+            return lookup(qnameDictionary, ref, "QName");
+        }
+
+        final QNameModule module = readModule();
+        final String localName = input.readUTF();
+        final QName qname;
+        try {
+            qname = QName.create(module, localName).intern();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid local name " + localName, e);
+        }
+        qnameDictionary.add(qname);
+        return qname;
+    }
+
+    private NodeIdentifier readNodeIdentifier() throws IOException {
+        return NodeIdentifier.create(readQName());
+    }
+
+    private AugmentationIdentifier readAugmentationIdentifier() throws IOException {
+        final int ref = BinaryTokens.readVarInt(input);
+        if (ref != 0) {
+            return lookup(augmentationDictionary, ref, "augmentation");
+        }
+
+        final int size = BinaryTokens.readSize(input, "augmentation size");
+        final ImmutableSet.Builder<QName> builder = ImmutableSet.builder();
+        for (int i = 0; i < size; ++i) {
+            builder.add(readQName());
+        }
+
+        final AugmentationIdentifier identifier = new AugmentationIdentifier(builder.build());
+        augmentationDictionary.add(identifier);
+        return identifier;
+    }
+
+    private NodeIdentifierWithPredicates readNodeIdentifierWithPredicates() throws IOException {
+        final QName nodeType = readQName();
+        final int size = BinaryTokens.readSize(input, "predicate count");
+        if (size == 1) {
+            return new NodeIdentifierWithPredicates(nodeType, readQName(), readValue());
+        }
+
+        final ImmutableMap.Builder<QName, Object> builder = ImmutableMap.builder();
+        for (int i = 0; i < size; ++i) {
+            builder.put(readQName(), readValue());
+        }
+
+        final ImmutableMap<QName, Object> predicates;
+        try {
+            predicates = builder.build();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Duplicate predicates of " + nodeType, e);
+        }
+        return new NodeIdentifierWithPredicates(nodeType, predicates);
+    }
+
+    private PathArgument readPathArgument() throws IOException {
+        final byte token = input.readByte();
+        switch (token) {
+            case BinaryTokens.ARGUMENT_NODE_IDENTIFIER:
+                return readNodeIdentifier();
+            case BinaryTokens.ARGUMENT_NODE_IDENTIFIER_WITH_PREDICATES:
+                return readNodeIdentifierWithPredicates();
+            case BinaryTokens.ARGUMENT_NODE_WITH_VALUE:
+                return new NodeWithValue<>(readQName(), readValue());
+            case BinaryTokens.ARGUMENT_AUGMENTATION_IDENTIFIER:
+                return readAugmentationIdentifier();
+            default:
+                throw new IOException("Unexpected path argument token " + token);
+        }
+    }
+
+    private YangInstanceIdentifier readInstanceIdentifier() throws IOException {
+        final int size = BinaryTokens.readSize(input, "path length");
+        final List<PathArgument> args = new ArrayList<>(Math.min(size, BinaryTokens.MAX_PREALLOCATED_SIZE));
+        for (int i = 0; i < size; ++i) {
+            args.add(readPathArgument());
+        }
+        return YangInstanceIdentifier.create(args);
+    }
+
+    private byte[] readBytes() throws IOException {
+        return readBytes(BinaryTokens.readSize(input, "binary length"));
+    }
+
+    private byte[] readBytes(final int length) throws IOException {
+        if (length <= BinaryTokens.MAX_PREALLOCATED_SIZE) {
+            final byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            return bytes;
+        }
+
+        // Grow the buffer as data arrives, a truncated stream fails before we allocate much more than it holds
+        byte[] bytes = new byte[BinaryTokens.MAX_PREALLOCATED_SIZE];
+        int offset = 0;
+        while (true) {
+            input.readFully(bytes, offset, bytes.length - offset);
+            offset = bytes.length;
+            if (offset == length) {
+                return bytes;
+            }
+            bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * offset));
+        }
+    }
+
+    private BigInteger readBigInteger() throws IOException {
+        final byte[] bytes = readBytes();
+        if (bytes.length == 0) {
+            throw new IOException("Empty big integer encoding");
+        }
+        return new BigInteger(bytes);
+    }
+
+    private String readString(final byte token) throws IOException {
+        switch (token) {
+            case BinaryTokens.VALUE_STRING:
+                return input.readUTF();
+            case BinaryTokens.VALUE_LONG_STRING:
+                final byte[] bytes = readBytes(BinaryTokens.checkSize(input.readInt(), "string length"));
+                return new String(bytes, StandardCharsets.UTF_8);
+            default:
+                throw new IOException("Unexpected string token " + token);
+        }
+    }
+
+    private DOMSource readDOMSource() throws IOException {
+        final String xml = readString(input.readByte());
+        try {
+            final Document doc = BUILDER_FACTORY.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+            return new DOMSource(doc.getDocumentElement());
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Failed to parse anyxml content", e);
+        }
+    }
+
+    private Object readValue() throws IOException {
+        final byte token = input.readByte();
+        switch (token) {
+            case BinaryTokens.VALUE_NULL:
+                return null;
+            case BinaryTokens.VALUE_STRING:
+            case BinaryTokens.VALUE_LONG_STRING:
+                return readString(token);
+            case BinaryTokens.VALUE_TRUE:
+                return Boolean.TRUE;
+            case BinaryTokens.VALUE_FALSE:
+                return Boolean.FALSE;
+            case BinaryTokens.VALUE_BYTE:
+                return input.readByte();
+            case BinaryTokens.VALUE_SHORT:
+                return input.readShort();
+            case BinaryTokens.VALUE_INT:
+                return input.readInt();
+            case BinaryTokens.VALUE_LONG:
+                return input.readLong();
+            case BinaryTokens.VALUE_BIG_INTEGER:
+                return readBigInteger();
+            case BinaryTokens.VALUE_BIG_DECIMAL:
+                final BigInteger unscaled = readBigInteger();
+                return new BigDecimal(unscaled, input.readInt());
+            case BinaryTokens.VALUE_BINARY:
+                return readBytes();
+            case BinaryTokens.VALUE_BITS:
+                final int size = BinaryTokens.readSize(input, "bit count");
+                final ImmutableSet.Builder<String> bits = ImmutableSet.builder();
+                for (int i = 0; i < size; ++i) {
+                    bits.add(input.readUTF());
+                }
+                return bits.build();
+            case BinaryTokens.VALUE_QNAME:
+                return readQName();
+            case BinaryTokens.VALUE_INSTANCE_IDENTIFIER:
+                return readInstanceIdentifier();
+            default:
+                throw new IOException("Unexpected value token " + token);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec.binary;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.DataOutput;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+
+/**
+ * A {@link NormalizedNodeStreamWriter} which emits a compact binary representation of the events it receives into
+ * a {@link DataOutput}. Repeated {@link QName}s and {@link QNameModule}s are written as back-references into
+ * a per-stream dictionary, so namespaces and revisions are written out only once. Leaf values retain their Java type,
+ * so they are written in their native binary form rather than as text. The resulting stream can be read back
+ * using {@link BinaryNormalizedNodeStreamReader}.
+ *
+ * <p>
+ * Supported leaf value types are {@link String}, {@link Boolean}, {@link Byte}, {@link Short}, {@link Integer},
+ * {@link Long}, {@link BigInteger}, {@link BigDecimal}, {@code byte[]}, {@link Set} of {@link String}s (bits),
+ * {@link QName} (identityref) and {@link YangInstanceIdentifier} (instance-identifier). Anyxml nodes are written
+ * as their XML text.
+ *
+ * <p>
+ * Instances of this class are not thread-safe. Multiple nodes can be written to a single stream, in which case they
+ * share the dictionary.
+ */
+@Beta
+public final class BinaryNormalizedNodeStreamWriter implements NormalizedNodeStreamWriter {
+    private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
+
+    private final Map<QNameModule, Integer> moduleDictionary = new HashMap<>();
+    private final Map<QName, Integer> qnameDictionary = new HashMap<>();
+    private final Map<AugmentationIdentifier, Integer> augmentationDictionary = new HashMap<>();
+    private final DataOutput output;
+    private boolean headerWritten;
+
+    public BinaryNormalizedNodeStreamWriter(final DataOutput output) {
+        this.output = Preconditions.checkNotNull(output);
+    }
+
+    /**
+     * Write a complete {@link NormalizedNode} into the stream.
+     *
+     * @param node Node to write
+     * @throws IOException if the underlying output fails
+     */
+    public void writeNormalizedNode(final NormalizedNode<?, ?> node) throws IOException {
+        NormalizedNodeWriter.forStreamWriter(this).write(node);
+    }
+
+    /**
+     * Write a {@link YangInstanceIdentifier} into the stream.
+     *
+     * @param identifier Identifier to write
+     * @throws IOException if the underlying output fails
+     */
+    public void writeYangInstanceIdentifier(final YangInstanceIdentifier identifier) throws IOException {
+        ensureHeader();
+        writeInstanceIdentifier(identifier);
+    }
+
+    @Override
+    public void leafNode(final NodeIdentifier name, final Object value) throws IOException {
+        startNode(BinaryTokens.LEAF, name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.LEAF_SET, name, childSizeHint);
+    }
+
+    @Override
+    public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.ORDERED_LEAF_SET, name, childSizeHint);
+    }
+
+    @Override
+    public void leafSetEntryNode(final QName name, final Object value) throws IOException {
+        ensureHeader();
+        output.writeByte(BinaryTokens.LEAF_SET_ENTRY);
+        writeQName(name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startContainerNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.CONTAINER, name, childSizeHint);
+    }
+
+    @Override
+    public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.UNKEYED_LIST, name, childSizeHint);
+    }
+
+    @Override
+    public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.UNKEYED_LIST_ITEM, name, childSizeHint);
+    }
+
+    @Override
+    public void startMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.MAP, name, childSizeHint);
+    }
+
+    @Override
+    public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint)
+            throws IOException {
+        ensureHeader();
+        output.writeByte(BinaryTokens.MAP_ENTRY);
+        writeNodeIdentifierWithPredicates(identifier);
+        BinaryTokens.writeSizeHint(output, childSizeHint);
+    }
+
+    @Override
+    public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.ORDERED_MAP, name, childSizeHint);
+    }
+
+    @Override
+    public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.CHOICE, name, childSizeHint);
+    }
+
+    @Override
+    public void startAugmentationNode(final AugmentationIdentifier identifier) throws IOException {
+        ensureHeader();
+        output.writeByte(BinaryTokens.AUGMENTATION);
+        writeAugmentationIdentifier(identifier);
+    }
+
+    @Override
+    public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+        Preconditions.checkArgument(value instanceof DOMSource, "Unsupported anyxml value %s", value);
+        startNode(BinaryTokens.ANYXML, name);
+
+        final StringWriter writer = new StringWriter();
+        try {
+            final Transformer transformer = TRANSFORMER_FACTORY.newTransformer();
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            transformer.transform((DOMSource) value, new StreamResult(writer));
+        } catch (TransformerException e) {
+            throw new IOException("Failed to serialize anyxml node " + name, e);
+        }
+        writeString(writer.toString());
+    }
+
+    @Override
+    public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.YANG_MODELED_ANYXML, name, childSizeHint);
+    }
+
+    @Override
+    public void endNode() throws IOException {
+        output.writeByte(BinaryTokens.END_NODE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (output instanceof Closeable) {
+            ((Closeable) output).close();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (output instanceof Flushable) {
+            ((Flushable) output).flush();
+        }
+    }
+
+    private void ensureHeader() throws IOException {
+        if (!headerWritten) {
+            output.writeShort(BinaryTokens.STREAM_MAGIC);
+            output.writeByte(BinaryTokens.STREAM_VERSION);
+            headerWritten = true;
+        }
+    }
+
+    private void startNode(final byte token, final NodeIdentifier name) throws IOException {
+        ensureHeader();
+        output.writeByte(token);
+        writeQName(name.getNodeType());
+    }
+
+    private void startNode(final byte token, final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(token, name);
+        BinaryTokens.writeSizeHint(output, childSizeHint);
+    }
+
+    private void writeModule(final QNameModule module) throws IOException {
+        final Integer ref = moduleDictionary.get(module);
+        if (ref != null) {
+            BinaryTokens.writeVarInt(output, ref + 1);
+            return;
+        }
+
+        BinaryTokens.writeVarInt(output, 0);
+        output.writeUTF(module.getNamespace().toString());
+        final Date revision = module.getRevision();
+        if (revision != null) {
+            output.writeBoolean(true);
+            output.writeLong(revision.getTime());
+        } else {
+            output.writeBoolean(false);
+        }
+        moduleDictionary.put(module, moduleDictionary.size());
+    }
+
+    private void writeQName(final QName qname) throws IOException {
+        final Integer ref = qnameDictionary.get(qname);
+        if (ref != null) {
+            BinaryTokens.writeVarInt(output, ref + 1);
+            return;
+        }
+
+        BinaryTokens.writeVarInt(output, 0);
+        writeModule(qname.getModule());
+        output.writeUTF(qname.getLocalName());
+        qnameDictionary.put(qname, qnameDictionary.size());
+    }
+
+    private void writeAugmentationIdentifier(final AugmentationIdentifier identifier) throws IOException {
+        final Integer ref = augmentationDictionary.get(identifier);
+        if (ref != null) {
+            BinaryTokens.writeVarInt(output, ref + 1);
+            return;
+        }
+
+        BinaryTokens.writeVarInt(output, 0);
+        final Set<QName> childNames = identifier.getPossibleChildNames();
+        BinaryTokens.writeVarInt(output, childNames.size());
+        for (QName childName : childNames) {
+            writeQName(childName);
+        }
+        augmentationDictionary.put(identifier, augmentationDictionary.size());
+    }
+
+    private void writeNodeIdentifierWithPredicates(final NodeIdentifierWithPredicates identifier)
+            throws IOException {
+        writeQName(identifier.getNodeType());
+        final Map<QName, Object> keyValues = identifier.getKeyValues();
+        BinaryTokens.writeVarInt(output, keyValues.size());
+        for (Entry<QName, Object> e : keyValues.entrySet()) {
+            writeQName(e.getKey());
+            writeValue(e.getValue());
+        }
+    }
+
+    private void writePathArgument(final PathArgument arg) throws IOException {
+        if (arg instanceof NodeIdentifier) {
+            output.writeByte(BinaryTokens.ARGUMENT_NODE_IDENTIFIER);
+            writeQName(arg.getNodeType());
+        } else if (arg instanceof NodeIdentifierWithPredicates) {
+            output.writeByte(BinaryTokens.ARGUMENT_NODE_IDENTIFIER_WITH_PREDICATES);
+            writeNodeIdentifierWithPredicates((NodeIdentifierWithPredicates) arg);
+        } else if (arg instanceof NodeWithValue) {
+            output.writeByte(BinaryTokens.ARGUMENT_NODE_WITH_VALUE);
+            writeQName(arg.getNodeType());
+            writeValue(((NodeWithValue<?>) arg).getValue());
+        } else if (arg instanceof AugmentationIdentifier) {
+            output.writeByte(BinaryTokens.ARGUMENT_AUGMENTATION_IDENTIFIER);
+            writeAugmentationIdentifier((AugmentationIdentifier) arg);
+        } else {
+            throw new IllegalArgumentException("Unhandled path argument " + arg);
+        }
+    }
+
+    private void writeInstanceIdentifier(final YangInstanceIdentifier identifier) throws IOException {
+        final List<PathArgument> args = identifier.getPathArguments();
+        BinaryTokens.writeVarInt(output, args.size());
+        for (PathArgument arg : args) {
+            writePathArgument(arg);
+        }
+    }
+
+    private void writeString(final String str) throws IOException {
+        if (str.length() <= BinaryTokens.MAX_UTF_LENGTH) {
+            output.writeByte(BinaryTokens.VALUE_STRING);
+            output.writeUTF(str);
+        } else {
+            final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            output.writeByte(BinaryTokens.VALUE_LONG_STRING);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private void writeValue(final Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(BinaryTokens.VALUE_NULL);
+        } else if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? BinaryTokens.VALUE_TRUE : BinaryTokens.VALUE_FALSE);
+        } else if (value instanceof Byte) {
+            output.writeByte(BinaryTokens.VALUE_BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            output.writeByte(BinaryTokens.VALUE_SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(BinaryTokens.VALUE_INT);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(BinaryTokens.VALUE_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof BigInteger) {
+            output.writeByte(BinaryTokens.VALUE_BIG_INTEGER);
+            writeBytes(((BigInteger) value).toByteArray());
+        } else if (value instanceof BigDecimal) {
+            final BigDecimal decimal = (BigDecimal) value;
+            output.writeByte(BinaryTokens.VALUE_BIG_DECIMAL);
+            writeBytes(decimal.unscaledValue().toByteArray());
+            output.writeInt(decimal.scale());
+        } else if (value instanceof byte[]) {
+            output.writeByte(BinaryTokens.VALUE_BINARY);
+            writeBytes((byte[]) value);
+        } else if (value instanceof Set) {
+            final Set<?> bits = (Set<?>) value;
+            output.writeByte(BinaryTokens.VALUE_BITS);
+            BinaryTokens.writeVarInt(output, bits.size());
+            for (Object bit : bits) {
+                Preconditions.checkArgument(bit instanceof String, "Unsupported bit %s in %s", bit, bits);
+                output.writeUTF((String) bit);
+            }
+        } else if (value instanceof QName) {
+            output.writeByte(BinaryTokens.VALUE_QNAME);
+            writeQName((QName) value);
+        } else if (value instanceof YangInstanceIdentifier) {
+            output.writeByte(BinaryTokens.VALUE_INSTANCE_IDENTIFIER);
+            writeInstanceIdentifier((YangInstanceIdentifier) value);
+        } else {
+            throw new IllegalArgumentException("Unhandled value type " + value.getClass());
+        }
+    }
+
+    private void writeBytes(final byte[] bytes) throws IOException {
+        BinaryTokens.writeVarInt(output, bytes.length);
+        output.write(bytes);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec.binary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constants and primitive encodings shared by {@link BinaryNormalizedNodeStreamWriter} and
+ * {@link BinaryNormalizedNodeStreamReader}.
+ *
+ * <p>
+ * A stream starts with {@link #STREAM_MAGIC} and {@link #STREAM_VERSION}, followed by any number of nodes. Each node
+ * starts with a node token. Leaf-type nodes are followed by their identifier and value, while interior nodes are
+ * followed by their identifier, a child size hint (except for augmentations), the children themselves and
+ * {@link #END_NODE}.
+ *
+ * <p>
+ * {@link org.opendaylight.yangtools.yang.common.QNameModule}s and
+ * {@link org.opendaylight.yangtools.yang.common.QName}s are encoded using per-stream dictionaries: the first
+ * occurrence is written out in full and assigned the next index, subsequent occurrences are written as that index.
+ * Indices are written as variable-length integers, where zero denotes a definition and {@code n > 0} refers to
+ * the entry at index {@code n - 1}. {@link org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier
+ * .AugmentationIdentifier}s are handled the same way.
+ */
+final class BinaryTokens {
+    static final short STREAM_MAGIC = (short) 0xB1DA;
+    static final byte STREAM_VERSION = 1;
+
+    // Node tokens
+    static final byte END_NODE = 0;
+    static final byte LEAF = 1;
+    static final byte LEAF_SET = 2;
+    static final byte ORDERED_LEAF_SET = 3;
+    static final byte LEAF_SET_ENTRY = 4;
+    static final byte CONTAINER = 5;
+    static final byte UNKEYED_LIST = 6;
+    static final byte UNKEYED_LIST_ITEM = 7;
+    static final byte MAP = 8;
+    static final byte MAP_ENTRY = 9;
+    static final byte ORDERED_MAP = 10;
+    static final byte CHOICE = 11;
+    static final byte AUGMENTATION = 12;
+    static final byte ANYXML = 13;
+    static final byte YANG_MODELED_ANYXML = 14;
+
+    // Value tokens
+    static final byte VALUE_NULL = 0;
+    static final byte VALUE_STRING = 1;
+    static final byte VALUE_LONG_STRING = 2;
+    static final byte VALUE_TRUE = 3;
+    static final byte VALUE_FALSE = 4;
+    static final byte VALUE_BYTE = 5;
+    static final byte VALUE_SHORT = 6;
+    static final byte VALUE_INT = 7;
+    static final byte VALUE_LONG = 8;
+    static final byte VALUE_BIG_INTEGER = 9;
+    static final byte VALUE_BIG_DECIMAL = 10;
+    static final byte VALUE_BINARY = 11;
+    static final byte VALUE_BITS = 12;
+    static final byte VALUE_QNAME = 13;
+    static final byte VALUE_INSTANCE_IDENTIFIER = 14;
+
+    // Path argument tokens, used in instance identifier values
+    static final byte ARGUMENT_NODE_IDENTIFIER = 0;
+    static final byte ARGUMENT_NODE_IDENTIFIER_WITH_PREDICATES = 1;
+    static final byte ARGUMENT_NODE_WITH_VALUE = 2;
+    static final byte ARGUMENT_AUGMENTATION_IDENTIFIER = 3;
+
+    /**
+     * Maximum string length which is guaranteed to fit {@link DataOutput#writeUTF(String)}, which is limited to
+     * 65535 bytes and encodes each character in at most three bytes.
+     */
+    static final int MAX_UTF_LENGTH = 65535 / 3;
+
+    /**
+     * Upper bound on the size hints and initial capacities the reader derives from the stream. Larger sizes are still
+     * accepted, but storage for them is grown as the data actually arrives, so that a corrupt size cannot trigger
+     * a huge allocation.
+     */
+    static final int MAX_PREALLOCATED_SIZE = 65536;
+
+    private BinaryTokens() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    /**
+     * Write a non-negative integer using 7 bits per byte, least significant group first.
+     */
+    static void writeVarInt(final DataOutput out, final int value) throws IOException {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    static int readVarInt(final DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    /**
+     * Encode a child size hint, which may be {@link org.opendaylight.yangtools.yang.data.api.schema.stream
+     * .NormalizedNodeStreamWriter#UNKNOWN_SIZE}.
+     */
+    static void writeSizeHint(final DataOutput out, final int childSizeHint) throws IOException {
+        writeVarInt(out, childSizeHint < 0 ? 0 : childSizeHint + 1);
+    }
+
+    static int readSizeHint(final DataInput in) throws IOException {
+        return Math.min(readSize(in, "size hint"), MAX_PREALLOCATED_SIZE + 1) - 1;
+    }
+
+    /**
+     * Read a length or element count encoded as a variable-length integer.
+     *
+     * @throws IOException if the value is negative
+     */
+    static int readSize(final DataInput in, final String kind) throws IOException {
+        return checkSize(readVarInt(in), kind);
+    }
+
+    static int checkSize(final int size, final String kind) throws IOException {
+        if (size < 0) {
+            throw new IOException("Invalid " + kind + " " + size);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.leafref;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+import com.google.common.collect.SetMultimap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of leafref values present in a data tree, which allows leafref validation of a {@link DataTreeCandidate}
+ * to be performed in time proportional to the size of the change, rather than to the size of the leafref targets,
+ * as is the case with {@link LeafRefValidatation#validate(DataTreeCandidate, LeafRefContext)}.
+ *
+ * <p>
+ * The index tracks the multiset of values of each leafref target node and, for each leafref node, the instances
+ * referencing each value. It needs to be kept in sync with the data tree by invoking {@link #update(DataTreeCandidate)}
+ * with each candidate committed to the tree. Leafrefs whose path contains predicates are validated by looking up the
+ * data, as their set of allowed values depends on the referencing instance.
+ *
+ * <p>
+ * Leafrefs and leafref targets within unkeyed lists are not indexed, hence they are not validated. Entries of unkeyed
+ * lists cannot be addressed individually, so their instances cannot be tracked. The same limitation applies to
+ * {@link LeafRefValidatation}.
+ *
+ * <p>
+ * This class is not thread-safe. Validation and updates are expected to be serialized, just as commits to the data
+ * tree are.
+ */
+@Beta
+public final class LeafRefIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(LeafRefIndex.class);
+
+    private final LeafRefContext rootLeafRefCtx;
+    private final Map<LeafRefContext, LeafRefContext> referencingToTarget;
+    private final Map<LeafRefContext, List<LeafRefContext>> targetToReferencing;
+    private final Set<LeafRefContext> predicatedLeafRefs;
+
+    private final Map<LeafRefContext, Multiset<Object>> targetValues = new HashMap<>();
+    private final Map<LeafRefContext, SetMultimap<Object, YangInstanceIdentifier>> referencingInstances =
+            new HashMap<>();
+
+    private LeafRefIndex(final LeafRefContext rootLeafRefCtx) {
+        this.rootLeafRefCtx = Preconditions.checkNotNull(rootLeafRefCtx);
+
+        final Map<LeafRefPath, LeafRefContext> targets = new HashMap<>();
+        for (LeafRefContext child : rootLeafRefCtx.getReferencedByChilds().values()) {
+            collectTargets(child, child.getLeafRefContextModule(), targets);
+        }
+
+        final List<LeafRefContext> leafRefs = new ArrayList<>();
+        collectLeafRefs(rootLeafRefCtx, leafRefs);
+
+        final Map<LeafRefContext, LeafRefContext> toTarget = new HashMap<>();
+        final Map<LeafRefContext, List<LeafRefContext>> toReferencing = new HashMap<>();
+        final Set<LeafRefContext> predicated = new HashSet<>();
+        for (LeafRefContext leafRef : leafRefs) {
+            final LeafRefPath targetPath = leafRef.getAbsoluteLeafRefTargetPath();
+            for (QNameWithPredicate qname : targetPath.getPathFromRoot()) {
+                if (!qname.getQNamePredicates().isEmpty()) {
+                    predicated.add(leafRef);
+                }
+            }
+
+            final LeafRefContext target = targets.get(targetPath);
+            if (target != null) {
+                toTarget.put(leafRef, target);
+                List<LeafRefContext> referencing = toReferencing.get(target);
+                if (referencing == null) {
+                    referencing = new ArrayList<>(1);
+                    toReferencing.put(target, referencing);
+                }
+                referencing.add(leafRef);
+            }
+        }
+
+        referencingToTarget = ImmutableMap.copyOf(toTarget);
+        targetToReferencing = ImmutableMap.copyOf(toReferencing);
+        predicatedLeafRefs = ImmutableSet.copyOf(predicated);
+    }
+
+    /**
+     * Create an empty index, suitable for an empty data tree.
+     *
+     * @param rootLeafRefCtx Root leafref context of the data tree schema
+     * @return A new index
+     */
+    public static LeafRefIndex create(final LeafRefContext rootLeafRefCtx) {
+        return new LeafRefIndex(rootLeafRefCtx);
+    }
+
+    /**
+     * Create an index of the data present in a data tree.
+     *
+     * @param rootLeafRefCtx Root leafref context of the data tree schema
+     * @param rootData Root node of the data tree
+     * @return A new index
+     */
+    public static LeafRefIndex create(final LeafRefContext rootLeafRefCtx, final NormalizedNode<?, ?> rootData) {
+        final LeafRefIndex ret = new LeafRefIndex(rootLeafRefCtx);
+        final Delta delta = new Delta();
+        delta.addData(rootData, rootLeafRefCtx, rootLeafRefCtx, YangInstanceIdentifier.EMPTY, true);
+        ret.apply(delta);
+        return ret;
+    }
+
+    /**
+     * Validate leafrefs affected by a candidate against this index. The index is not modified.
+     *
+     * @param tree Candidate to validate, which needs to be based on the state this index reflects
+     * @throws LeafRefDataValidationFailedException if the candidate contains invalid leafref values or removes values
+     *         which are referenced
+     */
+    public void validate(final DataTreeCandidate tree) throws LeafRefDataValidationFailedException {
+        final Delta delta = computeDelta(tree);
+        final List<String> errors = new ArrayList<>();
+
+        // Newly referenced values need to be present among the target values
+        for (Entry<LeafRefContext, SetMultimap<Object, YangInstanceIdentifier>> e : delta.addedRefs.entrySet()) {
+            final LeafRefContext leafRef = e.getKey();
+            final LeafRefContext target = referencingToTarget.get(leafRef);
+
+            for (Entry<Object, YangInstanceIdentifier> ref : e.getValue().entries()) {
+                final Object value = ref.getKey();
+                final boolean valid;
+                if (target == null || predicatedLeafRefs.contains(leafRef)) {
+                    valid = LeafRefValidatation.getAllowedValues(tree, leafRef, ref.getValue()).contains(value);
+                } else {
+                    valid = delta.countAfter(targetValues, target, value) > 0;
+                }
+
+                if (!valid) {
+                    LOG.debug("Invalid leafref value [{}] of LEAFREF node: {} leafRef target path: {}", value,
+                        ref.getValue(), leafRef.getAbsoluteLeafRefTargetPath());
+                    errors.add(String.format("Invalid leafref value [%s] of LEAFREF node: %s leafRef target path: %s",
+                        value, ref.getValue(), leafRef.getAbsoluteLeafRefTargetPath()));
+                }
+            }
+        }
+
+        // Removed target values must not be referenced by instances which are retained
+        for (Entry<LeafRefContext, Multiset<Object>> e : delta.removedTargets.entrySet()) {
+            final LeafRefContext target = e.getKey();
+            final List<LeafRefContext> leafRefs = targetToReferencing.get(target);
+            if (leafRefs == null) {
+                continue;
+            }
+
+            for (Object value : e.getValue().elementSet()) {
+                if (delta.countAfter(targetValues, target, value) > 0) {
+                    continue;
+                }
+
+                for (LeafRefContext leafRef : leafRefs) {
+                    final SetMultimap<Object, YangInstanceIdentifier> instances = referencingInstances.get(leafRef);
+                    if (instances == null) {
+                        continue;
+                    }
+
+                    final SetMultimap<Object, YangInstanceIdentifier> removed = delta.removedRefs.get(leafRef);
+                    for (YangInstanceIdentifier instance : instances.get(value)) {
+                        if (removed == null || !removed.containsEntry(value, instance)) {
+                            LOG.debug("Removal of leafref TARGET node: {} value [{}] invalidates LEAFREF node: {}",
+                                target.getNodeName(), value, instance);
+                            errors.add(String.format("Removal of leafref TARGET node: %s value [%s] invalidates "
+                                + "LEAFREF node: %s leafRef target path: %s", target.getNodeName(), value, instance,
+                                leafRef.getAbsoluteLeafRefTargetPath()));
+                        }
+                    }
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            final StringBuilder message = new StringBuilder();
+            for (final String error : errors) {
+                message.append(error);
+            }
+            throw new LeafRefDataValidationFailedException(message.toString(), errors.size());
+        }
+    }
+
+    /**
+     * Update this index with a candidate, which has been committed to the data tree.
+     *
+     * @param tree Committed candidate
+     */
+    public void update(final DataTreeCandidate tree) {
+        apply(computeDelta(tree));
+    }
+
+    private Delta computeDelta(final DataTreeCandidate tree) {
+        final Delta delta = new Delta();
+        for (DataTreeCandidateNode child : tree.getRootNode().getChildNodes()) {
+            if (child.getModificationType() != ModificationType.UNMODIFIED) {
+                final PathArgument identifier = child.getIdentifier();
+                final LeafRefContext referencedByCtx = rootLeafRefCtx.getReferencedChildByName(
+                    identifier.getNodeType());
+                final LeafRefContext referencingCtx = rootLeafRefCtx.getReferencingChildByName(
+                    identifier.getNodeType());
+                if (referencedByCtx != null || referencingCtx != null) {
+                    delta.addCandidate(child, referencedByCtx, referencingCtx, YangInstanceIdentifier.create(identifier));
+                }
+            }
+        }
+        return delta;
+    }
+
+    private void apply(final Delta delta) {
+        for (Entry<LeafRefContext, Multiset<Object>> e : delta.removedTargets.entrySet()) {
+            final Multiset<Object> values = targetValues.get(e.getKey());
+            if (values != null) {
+                Multisets.removeOccurrences(values, e.getValue());
+            }
+        }
+        for (Entry<LeafRefContext, Multiset<Object>> e : delta.addedTargets.entrySet()) {
+            Multiset<Object> values = targetValues.get(e.getKey());
+            if (values == null) {
+                values = HashMultiset.create();
+                targetValues.put(e.getKey(), values);
+            }
+            values.addAll(e.getValue());
+        }
+
+        for (Entry<LeafRefContext, SetMultimap<Object, YangInstanceIdentifier>> e : delta.removedRefs.entrySet()) {
+            final SetMultimap<Object, YangInstanceIdentifier> instances = referencingInstances.get(e.getKey());
+            if (instances != null) {
+                for (Entry<Object, YangInstanceIdentifier> ref : e.getValue().entries()) {
+                    instances.remove(ref.getKey(), ref.getValue());
+                }
+            }
+        }
+        for (Entry<LeafRefContext, SetMultimap<Object, YangInstanceIdentifier>> e : delta.addedRefs.entrySet()) {
+            SetMultimap<Object, YangInstanceIdentifier> instances = referencingInstances.get(e.getKey());
+            if (instances == null) {
+                instances = HashMultimap.create();
+                referencingInstances.put(e.getKey(), instances);
+            }
+            instances.putAll(e.getValue());
+        }
+    }
+
+    private static void collectTargets(final LeafRefContext ctx, final Module module,
+            final Map<LeafRefPath, LeafRefContext> targets) {
+        if (ctx.isReferenced()) {
+            targets.put(LeafRefUtils.schemaPathToLeafRefPath(ctx.getCurrentNodePath(), module), ctx);
+        }
+        for (LeafRefContext child : ctx.getReferencedByChilds().values()) {
+            collectTargets(child, module, targets);
+        }
+    }
+
+    private static void collectLeafRefs(final LeafRefContext ctx, final List<LeafRefContext> leafRefs) {
+        if (ctx.isReferencing()) {
+            leafRefs.add(ctx);
+        }
+        for (LeafRefContext child : ctx.getReferencingChilds().values()) {
+            collectLeafRefs(child, leafRefs);
+        }
+    }
+
+    /**
+     * Changes to the index resulting from a {@link DataTreeCandidate}.
+     */
+    private static final class Delta {
+        final Map<LeafRefContext, Multiset<Object>> addedTargets = new HashMap<>();
+        final Map<LeafRefContext, Multiset<Object>> removedTargets = new HashMap<>();
+        final Map<LeafRefContext, SetMultimap<Object, YangInstanceIdentifier>> addedRefs = new HashMap<>();
+        final Map<LeafRefContext, SetMultimap<Object, YangInstanceIdentifier>> removedRefs = new HashMap<>();
+
+        int countAfter(final Map<LeafRefContext, Multiset<Object>> base, final LeafRefContext target,
+                final Object value) {
+            return count(base, target, value) + count(addedTargets, target, value)
+                    - count(removedTargets, target, value);
+        }
+
+        void addCandidate(final DataTreeCandidateNode node, final LeafRefContext referencedByCtx,
+                final LeafRefContext referencingCtx, final YangInstanceIdentifier current) {
+            switch (node.getModificationType()) {
+                case UNMODIFIED:
+                    return;
+                case SUBTREE_MODIFIED:
+                    final NormalizedNode<?, ?> data = node.getDataAfter().or(node.getDataBefore()).orNull();
+                    for (DataTreeCandidateNode child : node.getChildNodes()) {
+                        if (child.getModificationType() != ModificationType.UNMODIFIED) {
+                            final PathArgument identifier = child.getIdentifier();
+                            final LeafRefContext childReferencedByCtx = referencedByChild(referencedByCtx, data,
+                                identifier);
+                            final LeafRefContext childReferencingCtx = referencingChild(referencingCtx, data,
+                                identifier);
+                            if (childReferencedByCtx != null || childReferencingCtx != null) {
+                                addCandidate(child, childReferencedByCtx, childReferencingCtx,
+                                    current.node(identifier));
+                            }
+                        }
+                    }
+                    return;
+                default:
+                    // The node has been replaced as a whole, hence its subtree is re-indexed
+                    addData(node.getDataBefore(), referencedByCtx, referencingCtx, current, false);
+                    addData(node.getDataAfter(), referencedByCtx, referencingCtx, current, true);
+            }
+        }
+
+        private void addData(final Optional<NormalizedNode<?, ?>> data, final LeafRefContext referencedByCtx,
+                final LeafRefContext referencingCtx, final YangInstanceIdentifier current, final boolean added) {
+            if (data.isPresent()) {
+                addData(data.get(), referencedByCtx, referencingCtx, current, added);
+            }
+        }
+
+        void addData(final NormalizedNode<?, ?> node, final LeafRefContext referencedByCtx,
+                final LeafRefContext referencingCtx, final YangInstanceIdentifier current, final boolean added) {
+            if (node instanceof LeafNode) {
+                addLeaf(node.getValue(), referencedByCtx, referencingCtx, current, added);
+            } else if (node instanceof LeafSetNode) {
+                for (final NormalizedNode<?, ?> entry : ((LeafSetNode<?>) node).getValue()) {
+                    addLeaf(entry.getValue(), referencedByCtx, referencingCtx, current.node(entry.getIdentifier()),
+                        added);
+                }
+            } else if (node instanceof MapNode) {
+                for (final MapEntryNode entry : ((MapNode) node).getValue()) {
+                    addData(entry, referencedByCtx, referencingCtx, current.node(entry.getIdentifier()), added);
+                }
+            } else if (node instanceof DataContainerNode) {
+                for (final DataContainerChild<? extends PathArgument, ?> child : ((DataContainerNode<?>) node)
+                        .getValue()) {
+                    final PathArgument identifier = child.getIdentifier();
+                    final LeafRefContext childReferencedByCtx = referencedByChild(referencedByCtx, node, identifier);
+                    final LeafRefContext childReferencingCtx = referencingChild(referencingCtx, node, identifier);
+                    if (childReferencedByCtx != null || childReferencingCtx != null) {
+                        addData(child, childReferencedByCtx, childReferencingCtx, current.node(identifier), added);
+                    }
+                }
+            }
+        }
+
+        private void addLeaf(final Object value, final LeafRefContext referencedByCtx,
+                final LeafRefContext referencingCtx, final YangInstanceIdentifier current, final boolean added) {
+            if (referencedByCtx != null && referencedByCtx.isReferenced()) {
+                multiset(added ? addedTargets : removedTargets, referencedByCtx).add(value);
+            }
+            if (referencingCtx != null && referencingCtx.isReferencing()) {
+                multimap(added ? addedRefs : removedRefs, referencingCtx).put(value, current);
+            }
+        }
+
+        private static int count(final Map<LeafRefContext, Multiset<Object>> map, final LeafRefContext target,
+                final Object value) {
+            final Multiset<Object> values = map.get(target);
+            return values == null ? 0 : values.count(value);
+        }
+
+        private static Multiset<Object> multiset(final Map<LeafRefContext, Multiset<Object>> map,
+                final LeafRefContext ctx) {
+            Multiset<Object> ret = map.get(ctx);
+            if (ret == null) {
+                ret = HashMultiset.create();
+                map.put(ctx, ret);
+            }
+            return ret;
+        }
+
+        private static SetMultimap<Object, YangInstanceIdentifier> multimap(
+                final Map<LeafRefContext, SetMultimap<Object, YangInstanceIdentifier>> map, final LeafRefContext ctx) {
+            SetMultimap<Object, YangInstanceIdentifier> ret = map.get(ctx);
+            if (ret == null) {
+                ret = HashMultimap.create();
+                map.put(ctx, ret);
+            }
+            return ret;
+        }
+    }
+
+    private static LeafRefContext referencedByChild(final LeafRefContext ctx, final NormalizedNode<?, ?> parent,
+            final PathArgument child) {
+        if (ctx == null) {
+            return null;
+        }
+        if (parent instanceof MapNode || parent instanceof LeafSetNode || child instanceof AugmentationIdentifier) {
+            // Entries and augmentations do not have a context of their own
+            return ctx;
+        }
+
+        final QName qname = child.getNodeType();
+        if (parent instanceof ChoiceNode) {
+            for (LeafRefContext caseCtx : ctx.getReferencedByChilds().values()) {
+                final LeafRefContext ret = caseCtx.getReferencedChildByName(qname);
+                if (ret != null) {
+                    return ret;
+                }
+            }
+            return null;
+        }
+        return ctx.getReferencedChildByName(qname);
+    }
+
+    private static LeafRefContext referencingChild(final LeafRefContext ctx, final NormalizedNode<?, ?> parent,
+            final PathArgument child) {
+        if (ctx == null) {
+            return null;
+        }
+        if (parent instanceof MapNode || parent instanceof LeafSetNode || child instanceof AugmentationIdentifier) {
+            return ctx;
+        }
+
+        final QName qname = child.getNodeType();
+        if (parent instanceof ChoiceNode) {
+            for (LeafRefContext caseCtx : ctx.getReferencingChilds().values()) {
+                final LeafRefContext ret = caseCtx.getReferencingChildByName(qname);
+                if (ret != null) {
+                    return ret;
+                }
+            }
+            return null;
+        }
+        return ctx.getReferencingChildByName(qname);
+    }
+}
@@ -8,16 +8,22 @@
 package org.opendaylight.yangtools.yang.data.impl.leafref;
 
 import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
@@ -46,20 +52,73 @@ public class LeafRefValidatation {
     private static final String FAILED = " -> FAILED";
     private static final String SUCCESS = " -> OK";
 
+    /**
+     * Number of sibling candidate nodes or list entries validated by a single task in parallel mode.
+     */
+    private static final int PARALLEL_CHUNK_SIZE = 128;
+
     private final Set<LeafRefContext> validatedLeafRefCtx = new HashSet<>();
-    private final List<String> errorsMessages = new ArrayList<>();
+    /**
+     * Errors in candidate order. In parallel mode they are interleaved with deferred {@link TargetTask}s, which are
+     * also tracked in {@link #targetTasks}.
+     */
+    private final List<ValidationError> errors = new ArrayList<>();
+    private final List<TargetTask> targetTasks = new ArrayList<>();
     private final DataTreeCandidate tree;
+    private final ForkJoinPool pool;
 
-    private LeafRefValidatation(final DataTreeCandidate tree) {
+    private LeafRefValidatation(final DataTreeCandidate tree, final ForkJoinPool pool) {
         this.tree = tree;
+        this.pool = pool;
     }
 
     public static void validate(final DataTreeCandidate tree, final LeafRefContext rootLeafRefCtx)
             throws LeafRefDataValidationFailedException {
-        new LeafRefValidatation(tree).validate0(rootLeafRefCtx);
+        new LeafRefValidatation(tree, null).validate0(rootLeafRefCtx);
+    }
+
+    /**
+     * Validate a candidate, processing independent parts of it in parallel on a {@link ForkJoinPool}. The candidate
+     * is partitioned by top-level child and, for large lists, by chunks of entries. Each part accumulates its own
+     * errors, which are merged in candidate order, hence the reported errors are the same as those reported by
+     * {@link #validate(DataTreeCandidate, LeafRefContext)}.
+     *
+     * @param tree Candidate to validate
+     * @param rootLeafRefCtx Root leafref context
+     * @param pool Pool to execute validation on
+     * @throws LeafRefDataValidationFailedException if the candidate contains invalid leafref values
+     */
+    public static void validate(final DataTreeCandidate tree, final LeafRefContext rootLeafRefCtx,
+            final ForkJoinPool pool) throws LeafRefDataValidationFailedException {
+        new LeafRefValidatation(tree, Preconditions.checkNotNull(pool)).validate0(rootLeafRefCtx);
+    }
+
+    /**
+     * Validate a candidate using an index of leafref values, which needs to reflect the state the candidate is based
+     * on. See {@link LeafRefIndex}.
+     *
+     * @param tree Candidate to validate
+     * @param index Index of leafref values
+     * @throws LeafRefDataValidationFailedException if the candidate contains invalid leafref values
+     */
+    public static void validate(final DataTreeCandidate tree, final LeafRefIndex index)
+            throws LeafRefDataValidationFailedException {
+        index.validate(tree);
+    }
+
+    /**
+     * Return the values allowed for an instance of a leafref node, as found in the data after a candidate is applied.
+     */
+    static Set<Object> getAllowedValues(final DataTreeCandidate tree, final LeafRefContext referencingCtx,
+            final YangInstanceIdentifier current) {
+        final Set<Object> values = new HashSet<>();
+        new LeafRefValidatation(tree, null).addValues(values, tree.getRootNode().getDataAfter(),
+            referencingCtx.getAbsoluteLeafRefTargetPath().getPathFromRoot(), current, QNameWithPredicate.ROOT);
+        return values;
     }
 
     private void validate0(final LeafRefContext rootLeafRefCtx) throws LeafRefDataValidationFailedException {
+        final List<PartTask> tasks = new ArrayList<>();
         for (final DataTreeCandidateNode dataTreeCandidateNode : tree.getRootNode().getChildNodes()) {
             if (dataTreeCandidateNode.getModificationType() != ModificationType.UNMODIFIED) {
                 final PathArgument identifier = dataTreeCandidateNode.getIdentifier();
@@ -70,11 +129,18 @@ public class LeafRefValidatation {
                 if (referencedByCtx != null || referencingCtx != null) {
                     final YangInstanceIdentifier yangInstanceIdentifier = YangInstanceIdentifier
                             .create(dataTreeCandidateNode.getIdentifier());
-                    validateNode(dataTreeCandidateNode, referencedByCtx, referencingCtx, yangInstanceIdentifier);
+                    if (pool != null) {
+                        tasks.add(new NodeTask(dataTreeCandidateNode, referencedByCtx, referencingCtx,
+                            yangInstanceIdentifier));
+                    } else {
+                        validateNode(dataTreeCandidateNode, referencedByCtx, referencingCtx, yangInstanceIdentifier);
+                    }
                 }
             }
         }
+        invokeParts(tasks);
 
+        final List<String> errorsMessages = resolveErrors();
         if (!errorsMessages.isEmpty()) {
             final StringBuilder message = new StringBuilder();
             int errCount = 0;
@@ -86,6 +152,61 @@ public class LeafRefValidatation {
         }
     }
 
+    /**
+     * Execute tasks validating parts of the candidate on the pool and merge their errors in task order.
+     */
+    private void invokeParts(final List<? extends PartTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        invokeAll(pool, tasks);
+        for (PartTask task : tasks) {
+            errors.addAll(task.part.errors);
+            targetTasks.addAll(task.part.targetTasks);
+        }
+    }
+
+    /**
+     * Turn accumulated entries into error messages. In parallel mode validation of leafref target nodes is deferred
+     * until all parts of the candidate have been visited, so that each target is validated only once. Its errors are
+     * reported at the position where the target was first encountered, as would be the case with sequential
+     * validation.
+     */
+    private List<String> resolveErrors() {
+        final Map<LeafRefContext, TargetTask> targets = new LinkedHashMap<>();
+        for (TargetTask target : targetTasks) {
+            if (!targets.containsKey(target.referencedByCtx)) {
+                targets.put(target.referencedByCtx, target);
+            }
+        }
+        invokeAll(pool, targets.values());
+
+        final List<String> ret = new ArrayList<>(errors.size());
+        for (ValidationError error : errors) {
+            error.addMessages(ret);
+        }
+        return ret;
+    }
+
+    private static void invokeAll(final ForkJoinPool pool, final Collection<? extends ForkJoinTask<?>> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == pool) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            pool.invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            });
+        }
+    }
+
     private void validateNode(final DataTreeCandidateNode node, final LeafRefContext referencedByCtx,
         final LeafRefContext referencingCtx, final YangInstanceIdentifier current) {
 
@@ -106,6 +227,21 @@ public class LeafRefValidatation {
         }
 
         final Collection<DataTreeCandidateNode> childNodes = node.getChildNodes();
+        if (pool != null && childNodes.size() > PARALLEL_CHUNK_SIZE) {
+            final List<ChildNodesTask> tasks = new ArrayList<>();
+            for (List<DataTreeCandidateNode> chunk : Lists.partition(new ArrayList<>(childNodes),
+                    PARALLEL_CHUNK_SIZE)) {
+                tasks.add(new ChildNodesTask(chunk, referencedByCtx, referencingCtx, current));
+            }
+            invokeParts(tasks);
+        } else {
+            validateChildNodes(childNodes, referencedByCtx, referencingCtx, current);
+        }
+    }
+
+    private void validateChildNodes(final Collection<DataTreeCandidateNode> childNodes,
+            final LeafRefContext referencedByCtx, final LeafRefContext referencingCtx,
+            final YangInstanceIdentifier current) {
         for (final DataTreeCandidateNode childNode : childNodes) {
             if (childNode.getModificationType() != ModificationType.UNMODIFIED) {
                 final LeafRefContext childReferencedByCtx = getReferencedByCtxChild(referencedByCtx, childNode);
@@ -243,38 +379,51 @@ public class LeafRefValidatation {
                 }
             }
         } else if (node instanceof MapNode) {
-            final MapNode map = (MapNode) node;
+            final Collection<MapEntryNode> entries = ((MapNode) node).getValue();
+            if (pool != null && entries.size() > PARALLEL_CHUNK_SIZE) {
+                final List<MapEntriesTask> tasks = new ArrayList<>();
+                for (List<MapEntryNode> chunk : Lists.partition(new ArrayList<>(entries), PARALLEL_CHUNK_SIZE)) {
+                    tasks.add(new MapEntriesTask(chunk, referencedByCtx, referencingCtx, modificationType, current));
+                }
+                invokeParts(tasks);
+            } else {
+                validateMapEntries(entries, referencedByCtx, referencingCtx, modificationType, current);
+            }
+        }
+        // FIXME if(node instance of UnkeyedListNode ...
+    }
 
-            for (final MapEntryNode mapEntry : map.getValue()) {
-                final YangInstanceIdentifier mapEntryYangInstanceIdentifier = current.node(mapEntry.getIdentifier());
-                for (final DataContainerChild<? extends PathArgument, ?> mapEntryNode : mapEntry.getValue()) {
-                    final QName qname = mapEntryNode.getNodeType();
+    private void validateMapEntries(final Iterable<MapEntryNode> entries, final LeafRefContext referencedByCtx,
+            final LeafRefContext referencingCtx, final ModificationType modificationType,
+            final YangInstanceIdentifier current) {
+        for (final MapEntryNode mapEntry : entries) {
+            final YangInstanceIdentifier mapEntryYangInstanceIdentifier = current.node(mapEntry.getIdentifier());
+            for (final DataContainerChild<? extends PathArgument, ?> mapEntryNode : mapEntry.getValue()) {
+                final QName qname = mapEntryNode.getNodeType();
 
-                    final LeafRefContext childReferencedByCtx;
-                    if (referencedByCtx != null) {
-                        childReferencedByCtx = referencedByCtx.getReferencedChildByName(qname);
-                    } else {
-                        childReferencedByCtx = null;
-                    }
+                final LeafRefContext childReferencedByCtx;
+                if (referencedByCtx != null) {
+                    childReferencedByCtx = referencedByCtx.getReferencedChildByName(qname);
+                } else {
+                    childReferencedByCtx = null;
+                }
 
-                    final LeafRefContext childReferencingCtx;
-                    if (referencingCtx != null) {
-                        childReferencingCtx = referencingCtx.getReferencingChildByName(qname);
-                    } else {
-                        childReferencingCtx = null;
-                    }
+                final LeafRefContext childReferencingCtx;
+                if (referencingCtx != null) {
+                    childReferencingCtx = referencingCtx.getReferencingChildByName(qname);
+                } else {
+                    childReferencingCtx = null;
+                }
 
-                    if (childReferencedByCtx != null || childReferencingCtx != null) {
-                        final YangInstanceIdentifier mapEntryNodeYangInstanceIdentifier = mapEntryYangInstanceIdentifier
-                                .node(mapEntryNode.getIdentifier());
-                        validateNodeData(mapEntryNode, childReferencedByCtx,
-                                childReferencingCtx, modificationType,
-                                mapEntryNodeYangInstanceIdentifier);
-                    }
+                if (childReferencedByCtx != null || childReferencingCtx != null) {
+                    final YangInstanceIdentifier mapEntryNodeYangInstanceIdentifier = mapEntryYangInstanceIdentifier
+                            .node(mapEntryNode.getIdentifier());
+                    validateNodeData(mapEntryNode, childReferencedByCtx,
+                            childReferencingCtx, modificationType,
+                            mapEntryNodeYangInstanceIdentifier);
                 }
             }
         }
-        // FIXME if(node instance of UnkeyedListNode ...
     }
 
     private static LeafRefContext findReferencingCtxUnderChoice(
@@ -310,6 +459,14 @@ public class LeafRefValidatation {
             leafRefTargetNodeDataLog(leaf, referencedByCtx, modificationType, leafRefsValues, null);
             return;
         }
+        if (pool != null) {
+            // Defer to resolveErrors(), as the target may be encountered in other parts of the candidate, too
+            final TargetTask target = new TargetTask(leaf, referencedByCtx, modificationType);
+            errors.add(target);
+            targetTasks.add(target);
+            validatedLeafRefCtx.add(referencedByCtx);
+            return;
+        }
 
         final Map<QName, LeafRefContext> allReferencedByLeafRefCtxs = referencedByCtx.getAllReferencedByLeafRefCtxs();
         for (final LeafRefContext leafRefContext : allReferencedByLeafRefCtxs.values()) {
@@ -357,11 +514,11 @@ public class LeafRefValidatation {
                                 " {} path of invalid LEAFREF node: {} leafRef target path: {} {}", leafRefsValue,
                                 leafRefTargetNodeValues, leaf.getNodeType(), leafRefContext.getCurrentNodePath(),
                                 leafRefContext.getAbsoluteLeafRefTargetPath(), FAILED);
-                        errorsMessages.add(String.format("Invalid leafref value [%s] allowed values %s by validation " +
-                                        "of  leafref TARGET node: %s path of invalid LEAFREF node: %s leafRef target " +
-                                        "path: %s %s", leafRefsValue, leafRefTargetNodeValues, leaf.getNodeType(),
-                                leafRefContext.getCurrentNodePath(), leafRefContext.getAbsoluteLeafRefTargetPath(),
-                                FAILED));
+                        errors.add(new ErrorMessage(String.format("Invalid leafref value [%s] allowed values %s " +
+                                        "by validation of  leafref TARGET node: %s path of invalid LEAFREF node: %s " +
+                                        "leafRef target path: %s %s", leafRefsValue, leafRefTargetNodeValues,
+                                leaf.getNodeType(), leafRefContext.getCurrentNodePath(),
+                                leafRefContext.getAbsoluteLeafRefTargetPath(), FAILED)));
                     } else {
                         LOG.debug("Valid leafref value [{}] {}", leafRefsValue, SUCCESS);
                     }
@@ -386,9 +543,9 @@ public class LeafRefValidatation {
                     modificationType, referencingCtx.getNodeName(), leaf.getValue(), FAILED);
             LOG.debug("Invalid leafref value [{}] allowed values {} of LEAFREF node: {} leafRef target path: {}",
                     leaf.getValue(), values, leaf.getNodeType(), referencingCtx.getAbsoluteLeafRefTargetPath());
-            errorsMessages.add(String.format("Invalid leafref value [%s] allowed values %s of LEAFREF node: %s " +
-                            "leafRef  target path: %s", leaf.getValue(), values, leaf.getNodeType(), referencingCtx
-                    .getAbsoluteLeafRefTargetPath()));
+            errors.add(new ErrorMessage(String.format("Invalid leafref value [%s] allowed values %s of LEAFREF node: "
+                            + "%s leafRef  target path: %s", leaf.getValue(), values, leaf.getNodeType(), referencingCtx
+                    .getAbsoluteLeafRefTargetPath())));
         } else {
             LOG.debug("Operation [{}] validate data of LEAFREF node: name[{}] = value[{}] {}", modificationType,
                     referencingCtx.getNodeName(), leaf.getValue(), SUCCESS);
@@ -544,4 +701,138 @@ public class LeafRefValidatation {
     private static Iterable<QNameWithPredicate> nextLevel(final Iterable<QNameWithPredicate> path) {
         return Iterables.skip(path, 1);
     }
-}
\ No newline at end of file
+
+    /**
+     * Base class for tasks validating a part of the candidate. Each task accumulates errors in its own instance.
+     */
+    private abstract class PartTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final LeafRefValidatation part = new LeafRefValidatation(tree, pool);
+    }
+
+    private final class NodeTask extends PartTask {
+        private static final long serialVersionUID = 1L;
+
+        private final DataTreeCandidateNode node;
+        private final LeafRefContext referencedByCtx;
+        private final LeafRefContext referencingCtx;
+        private final YangInstanceIdentifier current;
+
+        NodeTask(final DataTreeCandidateNode node, final LeafRefContext referencedByCtx,
+                final LeafRefContext referencingCtx, final YangInstanceIdentifier current) {
+            this.node = node;
+            this.referencedByCtx = referencedByCtx;
+            this.referencingCtx = referencingCtx;
+            this.current = current;
+        }
+
+        @Override
+        protected void compute() {
+            part.validateNode(node, referencedByCtx, referencingCtx, current);
+        }
+    }
+
+    private final class ChildNodesTask extends PartTask {
+        private static final long serialVersionUID = 1L;
+
+        private final Collection<DataTreeCandidateNode> childNodes;
+        private final LeafRefContext referencedByCtx;
+        private final LeafRefContext referencingCtx;
+        private final YangInstanceIdentifier current;
+
+        ChildNodesTask(final Collection<DataTreeCandidateNode> childNodes, final LeafRefContext referencedByCtx,
+                final LeafRefContext referencingCtx, final YangInstanceIdentifier current) {
+            this.childNodes = childNodes;
+            this.referencedByCtx = referencedByCtx;
+            this.referencingCtx = referencingCtx;
+            this.current = current;
+        }
+
+        @Override
+        protected void compute() {
+            part.validateChildNodes(childNodes, referencedByCtx, referencingCtx, current);
+        }
+    }
+
+    private final class MapEntriesTask extends PartTask {
+        private static final long serialVersionUID = 1L;
+
+        private final Iterable<MapEntryNode> entries;
+        private final LeafRefContext referencedByCtx;
+        private final LeafRefContext referencingCtx;
+        private final ModificationType modificationType;
+        private final YangInstanceIdentifier current;
+
+        MapEntriesTask(final Iterable<MapEntryNode> entries, final LeafRefContext referencedByCtx,
+                final LeafRefContext referencingCtx, final ModificationType modificationType,
+                final YangInstanceIdentifier current) {
+            this.entries = entries;
+            this.referencedByCtx = referencedByCtx;
+            this.referencingCtx = referencingCtx;
+            this.modificationType = modificationType;
+            this.current = current;
+        }
+
+        @Override
+        protected void compute() {
+            part.validateMapEntries(entries, referencedByCtx, referencingCtx, modificationType, current);
+        }
+    }
+
+    /**
+     * Deferred validation of a leafref target node. Tasks of distinct target nodes run in parallel once all parts of
+     * the candidate have been visited, each of them scanning the entire tree sequentially.
+     */
+    private final class TargetTask extends RecursiveAction implements ValidationError {
+        private static final long serialVersionUID = 1L;
+
+        final LeafRefValidatation part = new LeafRefValidatation(tree, null);
+        final LeafRefContext referencedByCtx;
+        private final NormalizedNode<?, ?> leaf;
+        private final ModificationType modificationType;
+
+        TargetTask(final NormalizedNode<?, ?> leaf, final LeafRefContext referencedByCtx,
+                final ModificationType modificationType) {
+            this.leaf = leaf;
+            this.referencedByCtx = referencedByCtx;
+            this.modificationType = modificationType;
+        }
+
+        @Override
+        protected void compute() {
+            part.validateLeafRefTargetNodeData(leaf, referencedByCtx, modificationType);
+        }
+
+        @Override
+        public void addMessages(final List<String> messages) {
+            // Only the first task of each target node is executed, the others have nothing to report
+            if (isDone()) {
+                for (ValidationError error : part.errors) {
+                    error.addMessages(messages);
+                }
+            }
+        }
+    }
+
+    /**
+     * An entry of accumulated validation errors, which may be resolved only once the whole candidate has been
+     * visited.
+     */
+    private interface ValidationError {
+        void addMessages(List<String> messages);
+    }
+
+    private static final class ErrorMessage implements ValidationError {
+        private final String message;
+
+        ErrorMessage(final String message) {
+            this.message = message;
+        }
+
+        @Override
+        public void addMessages(final List<String> messages) {
+            messages.add(message);
+        }
+    }
+}
@@ -7,18 +7,20 @@
  */
 package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.Map.Entry;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
-import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
 import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
 import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
@@ -39,27 +41,51 @@ abstract class AbstractDataNodeContainerModificationStrategy<T extends DataNodeC
                 @Override
                 public ModificationApplyOperation load(@Nonnull final PathArgument key) {
                     if (key instanceof AugmentationIdentifier && schema instanceof AugmentationTarget) {
-                        return SchemaAwareApplyOperation.from(schema, (AugmentationTarget) schema, (AugmentationIdentifier) key, treeType);
+                        return SchemaAwareApplyOperation.from(schema, (AugmentationTarget) schema, (AugmentationIdentifier) key, treeConfig);
                     }
 
                     final DataSchemaNode child = schema.getDataChildByName(key.getNodeType());
                     Preconditions.checkArgument(child != null, "Schema %s does not have a node for child %s", schema, key.getNodeType());
-                    return SchemaAwareApplyOperation.from(child, treeType);
+                    return SchemaAwareApplyOperation.from(child, treeConfig);
                 }
             });
     private final T schema;
-    private final TreeType treeType;
+    private final DataTreeConfiguration treeConfig;
 
-    protected AbstractDataNodeContainerModificationStrategy(final T schema, final Class<? extends NormalizedNode<?, ?>> nodeClass, final TreeType treeType) {
-        super(nodeClass, treeType);
+    protected AbstractDataNodeContainerModificationStrategy(final T schema, final Class<? extends NormalizedNode<?, ?>> nodeClass, final DataTreeConfiguration treeConfig) {
+        super(nodeClass, treeConfig);
         this.schema = Preconditions.checkNotNull(schema,"schema");
-        this.treeType = Preconditions.checkNotNull(treeType,"treeType");
+        this.treeConfig = Preconditions.checkNotNull(treeConfig,"treeConfig");
     }
 
     protected final T getSchema() {
         return schema;
     }
 
+    /**
+     * Reuse strategies of children which have been resolved by a strategy for a previous schema, as long as their
+     * schema nodes are the same instances. Effective models of unchanged modules are shared between schema contexts,
+     * in which case their children do not need to be resolved again.
+     *
+     * @param previous Strategy for the previous schema
+     */
+    final void reuseChildren(final AbstractDataNodeContainerModificationStrategy<?> previous) {
+        for (Entry<PathArgument, ModificationApplyOperation> e : previous.childCache.asMap().entrySet()) {
+            final PathArgument key = e.getKey();
+            if (!(key instanceof AugmentationIdentifier)) {
+                final DataSchemaNode child = schema.getDataChildByName(key.getNodeType());
+                if (child != null && child == previous.schema.getDataChildByName(key.getNodeType())) {
+                    childCache.put(key, e.getValue());
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    final boolean hasResolvedChild(final PathArgument identifier) {
+        return childCache.getIfPresent(identifier) != null;
+    }
+
     @Override
     public final Optional<ModificationApplyOperation> getChild(final PathArgument identifier) {
         try {
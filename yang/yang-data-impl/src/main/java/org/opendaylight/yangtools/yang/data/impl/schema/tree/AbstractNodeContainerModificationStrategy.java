@@ -11,12 +11,15 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Verify;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.ModifiedNodeDoesNotExistException;
@@ -26,16 +29,20 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.ParallelChildProcessing.ApplyChildTask;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.ParallelChildProcessing.CheckChildTask;
 
 abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareApplyOperation {
 
     private final Class<? extends NormalizedNode<?, ?>> nodeClass;
+    private final DataTreeConfiguration treeConfig;
     private final boolean verifyChildrenStructure;
 
     protected AbstractNodeContainerModificationStrategy(final Class<? extends NormalizedNode<?, ?>> nodeClass,
-            final TreeType treeType) {
+            final DataTreeConfiguration treeConfig) {
         this.nodeClass = Preconditions.checkNotNull(nodeClass , "nodeClass");
-        this.verifyChildrenStructure = (treeType == TreeType.CONFIGURATION);
+        this.treeConfig = Preconditions.checkNotNull(treeConfig, "treeConfig");
+        this.verifyChildrenStructure = (treeConfig.getTreeType() == TreeType.CONFIGURATION);
     }
 
     @SuppressWarnings("rawtypes")
@@ -128,20 +135,17 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
      */
     @SuppressWarnings({ "rawtypes", "unchecked" })
     private TreeNode mutateChildren(final MutableTreeNode meta, final NormalizedNodeContainerBuilder data,
-            final Version nodeVersion, final Iterable<ModifiedNode> modifications) {
+            final Version nodeVersion, final Collection<ModifiedNode> modifications) {
 
-        for (final ModifiedNode mod : modifications) {
-            final YangInstanceIdentifier.PathArgument id = mod.getIdentifier();
-            final Optional<TreeNode> cm = meta.getChild(id);
-
-            final Optional<TreeNode> result = resolveChildOperation(id).apply(mod, cm, nodeVersion);
-            if (result.isPresent()) {
-                final TreeNode tn = result.get();
-                meta.addChild(tn);
-                data.addChild(tn.getData());
-            } else {
-                meta.removeChild(id);
-                data.removeChild(id);
+        if (treeConfig.isParallel(modifications.size())) {
+            mutateChildrenInParallel(meta, data, nodeVersion, modifications);
+        } else {
+            for (final ModifiedNode mod : modifications) {
+                final YangInstanceIdentifier.PathArgument id = mod.getIdentifier();
+                final Optional<TreeNode> cm = meta.getChild(id);
+
+                final Optional<TreeNode> result = resolveChildOperation(id).apply(mod, cm, nodeVersion);
+                updateChild(meta, data, id, result);
             }
         }
 
@@ -149,6 +153,37 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
         return meta.seal();
     }
 
+    /**
+     * Applies child modifications concurrently. Children are independent of each other, hence we can apply them
+     * in parallel and then update the meta and data nodes in the original order.
+     */
+    @SuppressWarnings("rawtypes")
+    private void mutateChildrenInParallel(final MutableTreeNode meta, final NormalizedNodeContainerBuilder data,
+            final Version nodeVersion, final Collection<ModifiedNode> modifications) {
+        final List<ApplyChildTask> tasks = new ArrayList<>(modifications.size());
+        for (final ModifiedNode mod : modifications) {
+            tasks.add(new ApplyChildTask(this, mod, meta.getChild(mod.getIdentifier()), nodeVersion));
+        }
+
+        ParallelChildProcessing.invokeAll(treeConfig.getParallelPool().get(), tasks);
+        for (final ApplyChildTask task : tasks) {
+            updateChild(meta, data, task.getModification().getIdentifier(), task.getResult());
+        }
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static void updateChild(final MutableTreeNode meta, final NormalizedNodeContainerBuilder data,
+            final PathArgument id, final Optional<TreeNode> result) {
+        if (result.isPresent()) {
+            final TreeNode tn = result.get();
+            meta.addChild(tn);
+            data.addChild(tn.getData());
+        } else {
+            meta.removeChild(id);
+            data.removeChild(id);
+        }
+    }
+
     @Override
     protected TreeNode applyMerge(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
         /*
@@ -295,7 +330,22 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
      */
     private void checkChildPreconditions(final YangInstanceIdentifier path, final NodeModification modification,
             final TreeNode current, final Version version) throws DataValidationFailedException {
-        for (final NodeModification childMod : modification.getChildren()) {
+        final Collection<? extends NodeModification> children = modification.getChildren();
+        if (treeConfig.isParallel(children.size())) {
+            final List<CheckChildTask> tasks = new ArrayList<>(children.size());
+            for (final NodeModification childMod : children) {
+                tasks.add(new CheckChildTask(this, path, childMod, current.getChild(childMod.getIdentifier()),
+                    version));
+            }
+
+            ParallelChildProcessing.invokeAll(treeConfig.getParallelPool().get(), tasks);
+            for (final CheckChildTask task : tasks) {
+                task.checkResult();
+            }
+            return;
+        }
+
+        for (final NodeModification childMod : children) {
             final YangInstanceIdentifier.PathArgument childId = childMod.getIdentifier();
             final Optional<TreeNode> childMeta = current.getChild(childId);
 
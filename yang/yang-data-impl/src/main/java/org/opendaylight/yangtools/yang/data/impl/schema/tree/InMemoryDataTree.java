@@ -7,15 +7,21 @@
  */
 package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.GroupCommitResult;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
-import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextNode;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
@@ -34,17 +40,21 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
             AtomicReferenceFieldUpdater.newUpdater(InMemoryDataTree.class, DataTreeState.class, "state");
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryDataTree.class);
 
-    private final YangInstanceIdentifier rootPath;
-    private final TreeType treeType;
+    private final DataTreeConfiguration treeConfig;
+
+    /**
+     * Operation installed with the current schema context, guarded by this object.
+     */
+    private ModificationApplyOperation rootOperation;
 
     /**
      * Current data store state generation.
      */
     private volatile DataTreeState state;
 
-    public InMemoryDataTree(final TreeNode rootNode, final TreeType treeType, final YangInstanceIdentifier rootPath, final SchemaContext schemaContext) {
-        this.treeType = Preconditions.checkNotNull(treeType, "treeType");
-        this.rootPath = Preconditions.checkNotNull(rootPath, "rootPath");
+    public InMemoryDataTree(final TreeNode rootNode, final DataTreeConfiguration treeConfig,
+            final SchemaContext schemaContext) {
+        this.treeConfig = Preconditions.checkNotNull(treeConfig, "treeConfig");
         state = DataTreeState.createInitial(rootNode);
         if (schemaContext != null) {
             setSchemaContext(schemaContext);
@@ -62,26 +72,34 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
         LOG.debug("Following schema contexts will be attempted {}", newSchemaContext);
 
         final DataSchemaContextTree contextTree = DataSchemaContextTree.from(newSchemaContext);
-        final DataSchemaContextNode<?> rootContextNode = contextTree.getChild(rootPath);
+        final DataSchemaContextNode<?> rootContextNode = contextTree.getChild(getRootPath());
         if (rootContextNode == null) {
-            LOG.debug("Could not find root {} in new schema context, not upgrading", rootPath);
+            LOG.debug("Could not find root {} in new schema context, not upgrading", getRootPath());
             return;
         }
 
         final DataSchemaNode rootSchemaNode = rootContextNode.getDataSchemaNode();
         if (!(rootSchemaNode instanceof DataNodeContainer)) {
-            LOG.warn("Root {} resolves to non-container type {}, not upgrading", rootPath, rootSchemaNode);
+            LOG.warn("Root {} resolves to non-container type {}, not upgrading", getRootPath(), rootSchemaNode);
             return;
         }
 
         final ModificationApplyOperation rootNode;
         if (rootSchemaNode instanceof ContainerSchemaNode) {
             // FIXME: real root needs to enfore presence, but that require pre-population
-            rootNode = new ContainerModificationStrategy((ContainerSchemaNode) rootSchemaNode, treeType);
+            rootNode = new ContainerModificationStrategy((ContainerSchemaNode) rootSchemaNode, treeConfig);
         } else {
-            rootNode = SchemaAwareApplyOperation.from(rootSchemaNode, treeType);
+            rootNode = SchemaAwareApplyOperation.from(rootSchemaNode, treeConfig);
         }
 
+        // Children whose schema has not changed keep their strategies, along with the strategies they have resolved
+        if (rootNode instanceof AbstractDataNodeContainerModificationStrategy
+                && rootOperation instanceof AbstractDataNodeContainerModificationStrategy) {
+            ((AbstractDataNodeContainerModificationStrategy<?>) rootNode).reuseChildren(
+                (AbstractDataNodeContainerModificationStrategy<?>) rootOperation);
+        }
+        rootOperation = rootNode;
+
         DataTreeState currentState, newState;
         do {
             currentState = state;
@@ -125,20 +143,94 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
         } while (!STATE_UPDATER.compareAndSet(this, currentState, newState));
     }
 
+    /*
+     * Modifications are validated and prepared on top of each other's candidates, hence the only state
+     * transition we perform is the one publishing the last tip. If the tree moves underneath us, the chain
+     * is based on a stale root and we fail the entire group, just as commit() would fail its first candidate.
+     */
+    @Override
+    public List<GroupCommitResult> groupCommit(final Iterable<? extends DataTreeModification> modifications) {
+        final DataTreeState startState = state;
+        final TreeNode startRoot = startState.getRoot();
+        final List<GroupCommitResult> ret = new ArrayList<>();
+
+        AbstractDataTreeTip tip = new AbstractDataTreeTip() {
+            @Override
+            protected TreeNode getTipRoot() {
+                return startRoot;
+            }
+        };
+        for (DataTreeModification mod : modifications) {
+            try {
+                tip.validate(mod);
+            } catch (DataValidationFailedException e) {
+                LOG.debug("Modification {} failed validation, skipping it", mod, e);
+                ret.add(GroupCommitResult.failure(mod, e));
+                continue;
+            } catch (RuntimeException e) {
+                LOG.debug("Modification {} could not be validated, skipping it", mod, e);
+                ret.add(GroupCommitResult.failure(mod, e));
+                continue;
+            }
+
+            // Preparation does not touch the tip, hence a failure leaves the rest of the chain intact
+            final AbstractDataTreeCandidate candidate;
+            try {
+                candidate = (AbstractDataTreeCandidate) tip.prepare(mod);
+            } catch (RuntimeException e) {
+                LOG.debug("Modification {} could not be prepared, skipping it", mod, e);
+                ret.add(GroupCommitResult.failure(mod, e));
+                continue;
+            }
+            ret.add(GroupCommitResult.success(mod, candidate));
+            tip = candidate;
+        }
+
+        final TreeNode newRoot = tip.getTipRoot();
+        if (newRoot == startRoot) {
+            LOG.debug("Group of {} modifications did not change the datastore", ret.size());
+            return ret;
+        }
+
+        DataTreeState currentState = startState;
+        while (true) {
+            final TreeNode currentRoot = currentState.getRoot();
+            if (currentRoot != startRoot) {
+                throw new IllegalStateException("Store tree " + simpleToString(currentRoot) + " and group base "
+                        + simpleToString(startRoot) + " differ.");
+            }
+
+            final DataTreeState newState = currentState.withRoot(newRoot);
+            if (STATE_UPDATER.compareAndSet(this, currentState, newState)) {
+                LOG.debug("Group of {} modifications updated state from {} to {}", ret.size(), currentState,
+                    newState);
+                return ret;
+            }
+
+            // Lost the race, possibly to a schema context update, re-check
+            currentState = state;
+        }
+    }
+
     private static String simpleToString(final Object o) {
         return o.getClass().getName() + "@" + Integer.toHexString(o.hashCode());
     }
 
+    @VisibleForTesting
+    synchronized ModificationApplyOperation getRootOperation() {
+        return rootOperation;
+    }
+
     @Override
     public YangInstanceIdentifier getRootPath() {
-        return rootPath;
+        return treeConfig.getRootPath();
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).
                 add("object", super.toString()).
-                add("rootPath", rootPath).
+                add("config", treeConfig).
                 add("state", state).
                 toString();
     }
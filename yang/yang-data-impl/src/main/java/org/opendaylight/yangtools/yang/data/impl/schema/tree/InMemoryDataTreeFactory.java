@@ -13,6 +13,7 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdent
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeFactory;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
@@ -41,8 +42,7 @@ public final class InMemoryDataTreeFactory implements DataTreeFactory {
 
     @Override
     public TipProducingDataTree create(final TreeType treeType) {
-        return new InMemoryDataTree(TreeNodeFactory.createTreeNode(rootContainer, Version.initial()),
-            treeType, YangInstanceIdentifier.EMPTY, null);
+        return create(DataTreeConfiguration.getDefault(treeType));
     }
 
     @Override
@@ -50,6 +50,25 @@ public final class InMemoryDataTreeFactory implements DataTreeFactory {
         if (rootPath.isEmpty()) {
             return create(treeType);
         }
+
+        return create(new DataTreeConfiguration.Builder(treeType).setRootPath(rootPath).build());
+    }
+
+    /**
+     * Create a new data tree based on specified configuration.
+     *
+     * @param treeConfig
+     *          Tree configuration.
+     *
+     * @return A data tree instance.
+     */
+    public TipProducingDataTree create(final DataTreeConfiguration treeConfig) {
+        final YangInstanceIdentifier rootPath = treeConfig.getRootPath();
+        if (rootPath.isEmpty()) {
+            return new InMemoryDataTree(TreeNodeFactory.createTreeNode(rootContainer, Version.initial()), treeConfig,
+                null);
+        }
+
         final NormalizedNode<?, ?> root;
         final PathArgument arg = rootPath.getLastPathArgument();
         if (arg instanceof NodeIdentifier) {
@@ -64,7 +83,7 @@ public final class InMemoryDataTreeFactory implements DataTreeFactory {
             throw new IllegalArgumentException("Unsupported root node " + arg);
         }
 
-        return new InMemoryDataTree(TreeNodeFactory.createTreeNode(root, Version.initial()), treeType, rootPath, null);
+        return new InMemoryDataTree(TreeNodeFactory.createTreeNode(root, Version.initial()), treeConfig, null);
     }
 
     /**
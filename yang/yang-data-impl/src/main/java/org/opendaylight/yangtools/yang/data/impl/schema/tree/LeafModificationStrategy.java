@@ -8,12 +8,12 @@
 package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
-import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
 import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 
 final class LeafModificationStrategy extends AbstractValueNodeModificationStrategy<LeafSchemaNode> {
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    LeafModificationStrategy(final LeafSchemaNode schema, final TreeType treeType) {
+    LeafModificationStrategy(final LeafSchemaNode schema, final DataTreeConfiguration treeConfig) {
         super(schema, (Class) LeafNode.class);
     }
 }
\ No newline at end of file
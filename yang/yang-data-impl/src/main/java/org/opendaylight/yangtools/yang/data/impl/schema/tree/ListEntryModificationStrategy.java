@@ -11,7 +11,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.base.Optional;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
-import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
@@ -21,9 +21,9 @@ import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
 final class ListEntryModificationStrategy extends AbstractDataNodeContainerModificationStrategy<ListSchemaNode> {
     private final MandatoryLeafEnforcer enforcer;
 
-    ListEntryModificationStrategy(final ListSchemaNode schema, final TreeType treeType) {
-        super(schema, MapEntryNode.class, treeType);
-        enforcer = MandatoryLeafEnforcer.forContainer(schema, treeType);
+    ListEntryModificationStrategy(final ListSchemaNode schema, final DataTreeConfiguration treeConfig) {
+        super(schema, MapEntryNode.class, treeConfig);
+        enforcer = MandatoryLeafEnforcer.forContainer(schema, treeConfig.getTreeType());
     }
 
     @Override
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+
+/**
+ * Support for validating and applying sibling {@link ModifiedNode}s on a {@link ForkJoinPool}. Each child is
+ * processed in its own task. Tasks never complete exceptionally, but rather capture any failure, which is then
+ * reported by the caller in child iteration order. This way the caller observes the same outcome it would have
+ * observed had the children been processed sequentially.
+ */
+final class ParallelChildProcessing {
+    private ParallelChildProcessing() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    abstract static class ChildTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private Throwable failure;
+
+        @Override
+        protected final void compute() {
+            try {
+                computeChild();
+            } catch (DataValidationFailedException | RuntimeException | Error e) {
+                failure = e;
+            }
+        }
+
+        abstract void computeChild() throws DataValidationFailedException;
+
+        final void throwFailure() throws DataValidationFailedException {
+            if (failure instanceof DataValidationFailedException) {
+                throw (DataValidationFailedException) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        }
+    }
+
+    /**
+     * Task invoking {@link ModificationApplyOperation#checkApplicable(YangInstanceIdentifier, NodeModification,
+     * Optional, Version)} on a child of a node.
+     */
+    static final class CheckChildTask extends ChildTask {
+        private static final long serialVersionUID = 1L;
+
+        private final SchemaAwareApplyOperation parent;
+        private final YangInstanceIdentifier parentPath;
+        private final NodeModification modification;
+        private final Optional<TreeNode> current;
+        private final Version version;
+
+        CheckChildTask(final SchemaAwareApplyOperation parent, final YangInstanceIdentifier parentPath,
+                final NodeModification modification, final Optional<TreeNode> current, final Version version) {
+            this.parent = Preconditions.checkNotNull(parent);
+            this.parentPath = Preconditions.checkNotNull(parentPath);
+            this.modification = Preconditions.checkNotNull(modification);
+            this.current = Preconditions.checkNotNull(current);
+            this.version = Preconditions.checkNotNull(version);
+        }
+
+        @Override
+        void computeChild() throws DataValidationFailedException {
+            final YangInstanceIdentifier.PathArgument childId = modification.getIdentifier();
+            parent.resolveChildOperation(childId).checkApplicable(parentPath.node(childId), modification, current,
+                version);
+        }
+
+        void checkResult() throws DataValidationFailedException {
+            throwFailure();
+        }
+    }
+
+    /**
+     * Task invoking {@link ModificationApplyOperation#apply(ModifiedNode, Optional, Version)} on a child of a node.
+     */
+    static final class ApplyChildTask extends ChildTask {
+        private static final long serialVersionUID = 1L;
+
+        private final SchemaAwareApplyOperation parent;
+        private final ModifiedNode modification;
+        private final Optional<TreeNode> current;
+        private final Version version;
+        private Optional<TreeNode> result;
+
+        ApplyChildTask(final SchemaAwareApplyOperation parent, final ModifiedNode modification,
+                final Optional<TreeNode> current, final Version version) {
+            this.parent = Preconditions.checkNotNull(parent);
+            this.modification = Preconditions.checkNotNull(modification);
+            this.current = Preconditions.checkNotNull(current);
+            this.version = Preconditions.checkNotNull(version);
+        }
+
+        @Override
+        void computeChild() {
+            result = parent.resolveChildOperation(modification.getIdentifier()).apply(modification, current, version);
+        }
+
+        ModifiedNode getModification() {
+            return modification;
+        }
+
+        Optional<TreeNode> getResult() {
+            try {
+                throwFailure();
+            } catch (DataValidationFailedException e) {
+                // apply() does not throw checked exceptions
+                throw new IllegalStateException("Unexpected failure applying " + modification, e);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Execute specified tasks on a pool and wait for all of them to complete. If the calling thread is already
+     * a worker of the pool, the tasks are forked directly, otherwise they are submitted to the pool.
+     *
+     * @param pool Target pool
+     * @param tasks Tasks to execute
+     */
+    static void invokeAll(final ForkJoinPool pool, final Collection<? extends ChildTask> tasks) {
+        if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == pool) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            pool.invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            });
+        }
+    }
+}
@@ -9,7 +9,7 @@
 package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.Optional;
-import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
 import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
@@ -21,9 +21,9 @@ import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
 final class PresenceContainerModificationStrategy extends ContainerModificationStrategy {
     private final MandatoryLeafEnforcer enforcer;
 
-    PresenceContainerModificationStrategy(final ContainerSchemaNode schemaNode, final TreeType treeType) {
-        super(schemaNode, treeType);
-        enforcer = MandatoryLeafEnforcer.forContainer(schemaNode, treeType);
+    PresenceContainerModificationStrategy(final ContainerSchemaNode schemaNode, final DataTreeConfiguration treeConfig) {
+        super(schemaNode, treeConfig);
+        enforcer = MandatoryLeafEnforcer.forContainer(schemaNode, treeConfig.getTreeType());
     }
 
     @Override
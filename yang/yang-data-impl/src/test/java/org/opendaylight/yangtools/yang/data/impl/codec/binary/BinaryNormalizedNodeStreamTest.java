@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec.binary;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+
+public class BinaryNormalizedNodeStreamTest {
+    private static final QName TOP = QName.create("urn:opendaylight:binary:test", "2016-03-21", "top");
+    private static final QName LIST = QName.create(TOP, "list");
+    private static final QName ID = QName.create(TOP, "id");
+    private static final QName VALUE = QName.create(TOP, "value");
+    private static final QName LEAF_LIST = QName.create(TOP, "leaf-list");
+    private static final QName UNKEYED = QName.create(TOP, "unkeyed");
+    private static final QName CHOICE = QName.create(TOP, "choice");
+    private static final QName AUGMENTED = QName.create("urn:opendaylight:binary:augment", "2016-03-21", "augmented");
+    private static final YangInstanceIdentifier LIST_PATH = YangInstanceIdentifier.builder().node(TOP).node(LIST)
+            .nodeWithKey(LIST, ID, 1).build();
+
+    private static ContainerNode createTestContainer() {
+        return Builders.containerBuilder()
+            .withNodeIdentifier(new NodeIdentifier(TOP))
+            .withChild(ImmutableNodes.mapNodeBuilder(LIST)
+                .withChild(ImmutableNodes.mapEntryBuilder(LIST, ID, 1)
+                    .withChild(ImmutableNodes.leafNode(VALUE, new BigDecimal("12.345"))).build())
+                .withChild(ImmutableNodes.mapEntryBuilder(LIST, ID, 2)
+                    .withChild(ImmutableNodes.leafNode(VALUE, LIST_PATH)).build())
+                .withChild(ImmutableNodes.mapEntryBuilder(LIST, ID, 3)
+                    .withChild(ImmutableNodes.leafNode(VALUE, ImmutableSet.of("one", "two"))).build())
+                .build())
+            .withChild(Builders.orderedLeafSetBuilder()
+                .withNodeIdentifier(new NodeIdentifier(LEAF_LIST))
+                .withChild(Builders.leafSetEntryBuilder().withNodeIdentifier(new NodeWithValue<>(LEAF_LIST, "b"))
+                    .withValue("b").build())
+                .withChild(Builders.leafSetEntryBuilder().withNodeIdentifier(new NodeWithValue<>(LEAF_LIST, "a"))
+                    .withValue("a").build())
+                .build())
+            .withChild(Builders.unkeyedListBuilder()
+                .withNodeIdentifier(new NodeIdentifier(UNKEYED))
+                .withChild(Builders.unkeyedListEntryBuilder().withNodeIdentifier(new NodeIdentifier(UNKEYED))
+                    .withChild(ImmutableNodes.leafNode(VALUE, (byte) -1)).build())
+                .withChild(Builders.unkeyedListEntryBuilder().withNodeIdentifier(new NodeIdentifier(UNKEYED))
+                    .withChild(ImmutableNodes.leafNode(VALUE, Long.MIN_VALUE)).build())
+                .build())
+            .withChild(Builders.choiceBuilder()
+                .withNodeIdentifier(new NodeIdentifier(CHOICE))
+                .withChild(ImmutableNodes.leafNode(QName.create(TOP, "case-leaf"), TOP)).build())
+            .withChild(Builders.augmentationBuilder()
+                .withNodeIdentifier(new AugmentationIdentifier(ImmutableSet.of(AUGMENTED)))
+                .withChild(ImmutableNodes.leafNode(AUGMENTED, new BigInteger("123456789012345678901234567890")))
+                .build())
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "empty"), null))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "flag"), Boolean.TRUE))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "short"), (short) 300))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "int"), 65536))
+            .build();
+    }
+
+    private static byte[] write(final NormalizedNode<?, ?>... nodes) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BinaryNormalizedNodeStreamWriter writer = new BinaryNormalizedNodeStreamWriter(
+                new DataOutputStream(bos))) {
+            for (NormalizedNode<?, ?> node : nodes) {
+                writer.writeNormalizedNode(node);
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static BinaryNormalizedNodeStreamReader reader(final byte[] bytes) {
+        return new BinaryNormalizedNodeStreamReader(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Start a hand-crafted stream with a leaf node, leaving it up to the caller to encode its value.
+     */
+    private static DataOutputStream leafStream(final ByteArrayOutputStream bos) throws IOException {
+        final DataOutputStream out = new DataOutputStream(bos);
+        out.writeShort(BinaryTokens.STREAM_MAGIC);
+        out.writeByte(BinaryTokens.STREAM_VERSION);
+        out.writeByte(BinaryTokens.LEAF);
+        // QName and module definitions
+        BinaryTokens.writeVarInt(out, 0);
+        BinaryTokens.writeVarInt(out, 0);
+        out.writeUTF(VALUE.getNamespace().toString());
+        out.writeBoolean(false);
+        out.writeUTF(VALUE.getLocalName());
+        return out;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final ContainerNode container = createTestContainer();
+        assertEquals(container, reader(write(container)).readNormalizedNode());
+    }
+
+    @Test
+    public void testDictionaryAcrossNodes() throws IOException {
+        final ContainerNode container = createTestContainer();
+        final byte[] single = write(container);
+        final byte[] twice = write(container, container);
+
+        // The second copy should be encoded using references only
+        assertTrue(twice.length < 2 * single.length);
+
+        final BinaryNormalizedNodeStreamReader reader = reader(twice);
+        assertEquals(container, reader.readNormalizedNode());
+        assertEquals(container, reader.readNormalizedNode());
+    }
+
+    @Test
+    public void testStreamNormalizedNode() throws IOException {
+        final ContainerNode container = createTestContainer();
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        reader(write(container)).streamNormalizedNode(ImmutableNormalizedNodeStreamWriter.from(result));
+        assertEquals(container, result.getResult());
+    }
+
+    @Test
+    public void testYangInstanceIdentifier() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BinaryNormalizedNodeStreamWriter writer = new BinaryNormalizedNodeStreamWriter(
+                new DataOutputStream(bos))) {
+            writer.writeYangInstanceIdentifier(LIST_PATH);
+            writer.writeYangInstanceIdentifier(YangInstanceIdentifier.EMPTY);
+        }
+
+        final BinaryNormalizedNodeStreamReader reader = reader(bos.toByteArray());
+        assertEquals(LIST_PATH, reader.readYangInstanceIdentifier());
+        assertEquals(YangInstanceIdentifier.EMPTY, reader.readYangInstanceIdentifier());
+    }
+
+    @Test
+    public void testLongStringAndBinary() throws IOException {
+        final String longString = Strings.repeat("€", 30000);
+        final byte[] bytes = new byte[] { 0, 1, 2, (byte) 0xff };
+        final ContainerNode container = Builders.containerBuilder()
+            .withNodeIdentifier(new NodeIdentifier(TOP))
+            .withChild(ImmutableNodes.leafNode(VALUE, longString))
+            .withChild(ImmutableNodes.leafNode(ID, bytes))
+            .build();
+
+        final ContainerNode read = (ContainerNode) reader(write(container)).readNormalizedNode();
+        assertEquals(longString, read.getChild(new NodeIdentifier(VALUE)).get().getValue());
+        assertArrayEquals(bytes, (byte[]) ((LeafNode<?>) read.getChild(new NodeIdentifier(ID)).get()).getValue());
+    }
+
+    @Test(expected = IOException.class)
+    public void testEmptyBigInteger() throws IOException {
+        final byte[] bytes = write(ImmutableNodes.leafNode(VALUE, BigInteger.ONE));
+
+        // Replace the trailing single-byte magnitude with an empty one
+        final byte[] corrupt = Arrays.copyOf(bytes, bytes.length - 1);
+        corrupt[corrupt.length - 1] = 0;
+        reader(corrupt).readNormalizedNode();
+    }
+
+    @Test
+    public void testTruncatedStream() throws IOException {
+        final byte[] bytes = write(createTestContainer());
+        for (int i = 0; i < bytes.length; ++i) {
+            try {
+                reader(Arrays.copyOf(bytes, i)).readNormalizedNode();
+                fail("Stream truncated to " + i + " bytes was read");
+            } catch (IOException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNegativeBinaryLength() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DataOutputStream out = leafStream(bos);
+        out.writeByte(BinaryTokens.VALUE_BINARY);
+        BinaryTokens.writeVarInt(out, -1);
+        out.write(new byte[16]);
+        reader(bos.toByteArray()).readNormalizedNode();
+    }
+
+    @Test(expected = IOException.class)
+    public void testNegativeLongStringLength() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DataOutputStream out = leafStream(bos);
+        out.writeByte(BinaryTokens.VALUE_LONG_STRING);
+        out.writeInt(-1);
+        out.write(new byte[16]);
+        reader(bos.toByteArray()).readNormalizedNode();
+    }
+
+    @Test(expected = EOFException.class)
+    public void testOversizedBinaryLength() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DataOutputStream out = leafStream(bos);
+        out.writeByte(BinaryTokens.VALUE_BINARY);
+        BinaryTokens.writeVarInt(out, Integer.MAX_VALUE);
+        out.write(new byte[16]);
+        reader(bos.toByteArray()).readNormalizedNode();
+    }
+
+    @Test(expected = IOException.class)
+    public void testNegativePathLength() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DataOutputStream out = leafStream(bos);
+        out.writeByte(BinaryTokens.VALUE_INSTANCE_IDENTIFIER);
+        BinaryTokens.writeVarInt(out, Integer.MIN_VALUE);
+        reader(bos.toByteArray()).readNormalizedNode();
+    }
+
+    @Test(expected = IOException.class)
+    public void testNegativeSizeHint() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bos);
+        out.writeShort(BinaryTokens.STREAM_MAGIC);
+        out.writeByte(BinaryTokens.STREAM_VERSION);
+        out.writeByte(BinaryTokens.CONTAINER);
+        BinaryTokens.writeVarInt(out, 0);
+        BinaryTokens.writeVarInt(out, 0);
+        out.writeUTF(TOP.getNamespace().toString());
+        out.writeBoolean(false);
+        out.writeUTF(TOP.getLocalName());
+        BinaryTokens.writeVarInt(out, -5);
+        out.writeByte(BinaryTokens.END_NODE);
+        reader(bos.toByteArray()).readNormalizedNode();
+    }
+
+    @Test
+    public void testLargeBinary() throws IOException {
+        final byte[] bytes = new byte[3 * BinaryTokens.MAX_PREALLOCATED_SIZE + 7];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) i;
+        }
+
+        final NormalizedNode<?, ?> read = reader(write(ImmutableNodes.leafNode(VALUE, bytes))).readNormalizedNode();
+        assertArrayEquals(bytes, (byte[]) read.getValue());
+    }
+}
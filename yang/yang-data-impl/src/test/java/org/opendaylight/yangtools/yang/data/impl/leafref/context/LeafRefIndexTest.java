@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.leafref.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.TestUtils;
+import org.opendaylight.yangtools.yang.data.impl.leafref.LeafRefContext;
+import org.opendaylight.yangtools.yang.data.impl.leafref.LeafRefDataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.leafref.LeafRefIndex;
+import org.opendaylight.yangtools.yang.data.impl.leafref.LeafRefValidatation;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+public class LeafRefIndexTest {
+    private static SchemaContext context;
+    private static LeafRefContext rootLeafRefContext;
+    private static QName odlProject;
+    private static QName project;
+    private static QName name;
+    private static QName lead;
+    private static QName odlContributor;
+    private static QName contributor;
+    private static QName login;
+    private static QName odlProjectName;
+
+    private TipProducingDataTree dataTree;
+    private LeafRefIndex index;
+
+    @BeforeClass
+    public static void initSchema() throws Exception {
+        final File resourceFile = new File(LeafRefIndexTest.class.getResource(
+            "/leafref-validation/leafref-validation.yang").toURI());
+        context = TestUtils.parseYangSources(Arrays.asList(
+            resourceFile.getParentFile().listFiles()));
+        rootLeafRefContext = LeafRefContext.create(context);
+
+        QNameModule module = null;
+        for (Module m : context.getModules()) {
+            if (m.getName().equals("leafref-validation")) {
+                module = m.getQNameModule();
+            }
+        }
+
+        odlProject = QName.create(module, "odl-project");
+        project = QName.create(module, "project");
+        name = QName.create(module, "name");
+        lead = QName.create(module, "project-lead");
+        odlContributor = QName.create(module, "odl-contributor");
+        contributor = QName.create(module, "contributor");
+        login = QName.create(module, "login");
+        odlProjectName = QName.create(module, "odl-project-name");
+    }
+
+    @Before
+    public void init() throws Exception {
+        dataTree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        dataTree.setSchemaContext(context);
+        index = LeafRefIndex.create(rootLeafRefContext);
+
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(odlProject), projects(projectEntry("p1", null),
+            projectEntry("p2", null)));
+        assertValid(mod);
+    }
+
+    @Test
+    public void testReferencingWrite() throws Exception {
+        DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(odlContributor), contributors(contributorEntry("c1", "p1")));
+        assertValid(mod);
+
+        mod = dataTree.takeSnapshot().newModification();
+        mod.write(contributorPath("c2"), contributorEntry("c2", "p3"));
+        assertInvalid(mod);
+
+        mod = dataTree.takeSnapshot().newModification();
+        mod.write(projectPath("p3"), projectEntry("p3", "c1"));
+        mod.write(contributorPath("c2"), contributorEntry("c2", "p3"));
+        assertValid(mod);
+
+        mod = dataTree.takeSnapshot().newModification();
+        mod.write(projectPath("p2").node(lead), ImmutableNodes.leafNode(lead, "nobody"));
+        assertInvalid(mod);
+    }
+
+    @Test
+    public void testTargetRemoval() throws Exception {
+        DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(odlContributor), contributors(contributorEntry("c1", "p1")));
+        assertValid(mod);
+
+        // Removal of a referenced project
+        mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(odlProject), projects(projectEntry("p2", null)));
+        assertInvalid(mod);
+
+        // Removal along with the referencing contributor
+        mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(odlProject), projects(projectEntry("p2", null)));
+        mod.write(YangInstanceIdentifier.of(odlContributor), contributors());
+        assertValid(mod);
+    }
+
+    @Test
+    public void testEntryDelete() throws Exception {
+        DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(odlContributor), contributors(contributorEntry("c1", "p1")));
+        assertValid(mod);
+
+        // LeafRefValidatation does not handle deletes of list entries, hence only the index is checked
+        mod = dataTree.takeSnapshot().newModification();
+        mod.delete(projectPath("p1"));
+        assertIndexedInvalid(mod);
+
+        mod = dataTree.takeSnapshot().newModification();
+        mod.delete(projectPath("p2"));
+        mod.merge(contributorPath("c1").node(odlProjectName), ImmutableNodes.leafNode(odlProjectName, "p2"));
+        assertIndexedInvalid(mod);
+
+        mod = dataTree.takeSnapshot().newModification();
+        mod.delete(contributorPath("c1"));
+        mod.delete(projectPath("p1"));
+        mod.ready();
+        final DataTreeCandidate candidate = dataTree.prepare(mod);
+        index.validate(candidate);
+        dataTree.commit(candidate);
+        index.update(candidate);
+    }
+
+    @Test
+    public void testIndexFromData() throws Exception {
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(odlContributor), contributors(contributorEntry("c1", "p1")));
+        assertValid(mod);
+
+        index = LeafRefIndex.create(rootLeafRefContext, dataTree.takeSnapshot().readNode(
+            YangInstanceIdentifier.EMPTY).get());
+        testTargetRemoval();
+    }
+
+    private void assertValid(final DataTreeModification mod) throws Exception {
+        mod.ready();
+        final DataTreeCandidate candidate = dataTree.prepare(mod);
+        LeafRefValidatation.validate(candidate, rootLeafRefContext);
+        LeafRefValidatation.validate(candidate, index);
+        dataTree.commit(candidate);
+        index.update(candidate);
+    }
+
+    private void assertInvalid(final DataTreeModification mod) throws Exception {
+        mod.ready();
+        final DataTreeCandidate candidate = dataTree.prepare(mod);
+        try {
+            LeafRefValidatation.validate(candidate, rootLeafRefContext);
+            fail("Full validation should fail");
+        } catch (LeafRefDataValidationFailedException e) {
+            assertEquals(1, e.getValidationsErrorsCount());
+        }
+        assertIndexedInvalid(candidate);
+    }
+
+    private void assertIndexedInvalid(final DataTreeModification mod) {
+        mod.ready();
+        assertIndexedInvalid(dataTree.prepare(mod));
+    }
+
+    private void assertIndexedInvalid(final DataTreeCandidate candidate) {
+        try {
+            LeafRefValidatation.validate(candidate, index);
+            fail("Indexed validation should fail");
+        } catch (LeafRefDataValidationFailedException e) {
+            assertEquals(1, e.getValidationsErrorsCount());
+        }
+    }
+
+    private YangInstanceIdentifier projectPath(final String projectName) {
+        return YangInstanceIdentifier.builder().node(odlProject).node(project).nodeWithKey(project, name, projectName)
+                .build();
+    }
+
+    private YangInstanceIdentifier contributorPath(final String contributorLogin) {
+        return YangInstanceIdentifier.builder().node(odlContributor).node(contributor)
+                .nodeWithKey(contributor, login, contributorLogin).build();
+    }
+
+    private MapEntryNode projectEntry(final String projectName, final String projectLead) {
+        return projectLead == null ? ImmutableNodes.mapEntry(project, name, projectName)
+            : ImmutableNodes.mapEntryBuilder(project, name, projectName)
+                .withChild(ImmutableNodes.leafNode(lead, projectLead)).build();
+    }
+
+    private MapEntryNode contributorEntry(final String contributorLogin, final String projectName) {
+        return ImmutableNodes.mapEntryBuilder(contributor, login, contributorLogin)
+                .withChild(ImmutableNodes.leafNode(odlProjectName, projectName)).build();
+    }
+
+    private ContainerNode projects(final MapEntryNode... entries) {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(odlProject))
+                .withChild(ImmutableNodes.mapNodeBuilder(project).withValue(Arrays.asList(entries)).build()).build();
+    }
+
+    private ContainerNode contributors(final MapEntryNode... entries) {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(odlContributor))
+                .withChild(ImmutableNodes.mapNodeBuilder(contributor).withValue(Arrays.asList(entries)).build())
+                .build();
+    }
+}
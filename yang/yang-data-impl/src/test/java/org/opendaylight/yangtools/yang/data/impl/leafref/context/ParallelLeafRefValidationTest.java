@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.leafref.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.TestUtils;
+import org.opendaylight.yangtools.yang.data.impl.leafref.LeafRefContext;
+import org.opendaylight.yangtools.yang.data.impl.leafref.LeafRefDataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.leafref.LeafRefValidatation;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+public class ParallelLeafRefValidationTest {
+    // Larger than the chunk size, so lists are split across multiple tasks
+    private static final int ENTRY_COUNT = 300;
+
+    private static SchemaContext context;
+    private static LeafRefContext rootLeafRefContext;
+    private static ForkJoinPool pool;
+    private static QName odlProject;
+    private static QName project;
+    private static QName name;
+    private static QName lead;
+    private static QName odlContributor;
+    private static QName contributor;
+    private static QName login;
+    private static QName odlProjectName;
+
+    private TipProducingDataTree dataTree;
+
+    @BeforeClass
+    public static void initSchema() throws Exception {
+        final File resourceFile = new File(ParallelLeafRefValidationTest.class.getResource(
+            "/leafref-validation/leafref-validation.yang").toURI());
+        context = TestUtils.parseYangSources(Arrays.asList(
+            resourceFile.getParentFile().listFiles()));
+        rootLeafRefContext = LeafRefContext.create(context);
+        pool = new ForkJoinPool(4);
+
+        QNameModule module = null;
+        for (Module m : context.getModules()) {
+            if (m.getName().equals("leafref-validation")) {
+                module = m.getQNameModule();
+            }
+        }
+
+        odlProject = QName.create(module, "odl-project");
+        project = QName.create(module, "project");
+        name = QName.create(module, "name");
+        lead = QName.create(module, "project-lead");
+        odlContributor = QName.create(module, "odl-contributor");
+        contributor = QName.create(module, "contributor");
+        login = QName.create(module, "login");
+        odlProjectName = QName.create(module, "odl-project-name");
+    }
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Before
+    public void init() {
+        dataTree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        dataTree.setSchemaContext(context);
+    }
+
+    @Test
+    public void testValidWrite() throws Exception {
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(odlProject), projects(ENTRY_COUNT, ENTRY_COUNT));
+        mod.write(YangInstanceIdentifier.of(odlContributor), contributors(ENTRY_COUNT, ENTRY_COUNT));
+        mod.ready();
+        final DataTreeCandidate candidate = dataTree.prepare(mod);
+
+        LeafRefValidatation.validate(candidate, rootLeafRefContext);
+        LeafRefValidatation.validate(candidate, rootLeafRefContext, pool);
+    }
+
+    @Test
+    public void testInvalidWrite() throws Exception {
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(odlProject), projects(ENTRY_COUNT, ENTRY_COUNT - 20));
+        mod.write(YangInstanceIdentifier.of(odlContributor), contributors(ENTRY_COUNT, ENTRY_COUNT - 10));
+        mod.ready();
+
+        final LeafRefDataValidationFailedException e = assertSameErrors(dataTree.prepare(mod));
+        // Each invalid value is reported by validation of both the leafref and its target
+        assertEquals(60, e.getValidationsErrorsCount());
+    }
+
+    @Test
+    public void testInvalidEntryWrites() throws Exception {
+        DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(odlProject), projects(ENTRY_COUNT, ENTRY_COUNT));
+        mod.write(YangInstanceIdentifier.of(odlContributor), contributors(ENTRY_COUNT, ENTRY_COUNT));
+        mod.ready();
+        final DataTreeCandidate initial = dataTree.prepare(mod);
+        LeafRefValidatation.validate(initial, rootLeafRefContext, pool);
+        dataTree.commit(initial);
+
+        // Individual entry overwrites result in a subtree modification with many children
+        mod = dataTree.takeSnapshot().newModification();
+        final List<MapEntryNode> entries = contributorEntries(ENTRY_COUNT, ENTRY_COUNT - 5);
+        for (MapEntryNode entry : entries) {
+            mod.write(YangInstanceIdentifier.of(odlContributor).node(contributor).node(entry.getIdentifier()), entry);
+        }
+        mod.ready();
+
+        final LeafRefDataValidationFailedException e = assertSameErrors(dataTree.prepare(mod));
+        assertEquals(5, e.getValidationsErrorsCount());
+    }
+
+    private static LeafRefDataValidationFailedException assertSameErrors(final DataTreeCandidate candidate) {
+        final LeafRefDataValidationFailedException expected = validationFailure(candidate, null);
+        final LeafRefDataValidationFailedException actual = validationFailure(candidate, pool);
+        assertEquals(expected.getValidationsErrorsCount(), actual.getValidationsErrorsCount());
+        assertEquals(expected.getMessage(), actual.getMessage());
+        return actual;
+    }
+
+    private static LeafRefDataValidationFailedException validationFailure(final DataTreeCandidate candidate,
+            final ForkJoinPool pool) {
+        try {
+            if (pool == null) {
+                LeafRefValidatation.validate(candidate, rootLeafRefContext);
+            } else {
+                LeafRefValidatation.validate(candidate, rootLeafRefContext, pool);
+            }
+            fail("Validation should fail");
+            return null;
+        } catch (LeafRefDataValidationFailedException e) {
+            assertNotNull(e.getMessage());
+            return e;
+        }
+    }
+
+    /**
+     * Projects p0 .. p(count-1), led by contributors c0 .. c(count-1), of which the first validLeads exist.
+     */
+    private static ContainerNode projects(final int count, final int validLeads) {
+        final List<MapEntryNode> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            entries.add(ImmutableNodes.mapEntryBuilder(project, name, "p" + i)
+                .withChild(ImmutableNodes.leafNode(lead, i < validLeads ? "c" + i : "nobody" + i)).build());
+        }
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(odlProject))
+                .withChild(ImmutableNodes.mapNodeBuilder(project).withValue(entries).build()).build();
+    }
+
+    private static ContainerNode contributors(final int count, final int validProjects) {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(odlContributor))
+                .withChild(ImmutableNodes.mapNodeBuilder(contributor).withValue(
+                    contributorEntries(count, validProjects)).build()).build();
+    }
+
+    /**
+     * Contributors c0 .. c(count-1), working on projects p0 .., of which the first validProjects exist.
+     */
+    private static List<MapEntryNode> contributorEntries(final int count, final int validProjects) {
+        final List<MapEntryNode> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            entries.add(ImmutableNodes.mapEntryBuilder(contributor, login, "c" + i)
+                .withChild(ImmutableNodes.leafNode(odlProjectName, i < validProjects ? "p" + i : "none" + i))
+                .build());
+        }
+        return entries;
+    }
+}
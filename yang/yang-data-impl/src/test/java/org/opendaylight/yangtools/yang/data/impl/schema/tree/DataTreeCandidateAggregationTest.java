@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.EventListener;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager.Invoker;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.CoalescingDataTreeCandidateInvoker;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class DataTreeCandidateAggregationTest {
+    private interface TestListener extends EventListener {
+
+    }
+
+    private final TestListener listener = new TestListener() { };
+
+    private DataTree tree;
+    private DataTreeSnapshot initial;
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        tree = InMemoryDataTreeFactory.getInstance().create();
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build())
+            .withChild(ImmutableContainerNodeBuilder.create()
+                .withNodeIdentifier(new NodeIdentifier(TestModel.INNER_CONTAINER_QNAME))
+                .withChild(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "a")).build())
+            .build());
+        commit(mod);
+        initial = tree.takeSnapshot();
+    }
+
+    private static YangInstanceIdentifier outerEntryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private DataTreeCandidate commit(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        final DataTreeCandidate candidate = tree.prepare(mod);
+        tree.commit(candidate);
+        return candidate;
+    }
+
+    private DataTreeCandidate writeEntry(final int id) throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(outerEntryPath(id), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id));
+        return commit(mod);
+    }
+
+    private DataTreeCandidate deleteEntry(final int id) throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.delete(outerEntryPath(id));
+        return commit(mod);
+    }
+
+    private DataTreeCandidate writeValue(final String value) throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.INNER_VALUE_PATH, ImmutableNodes.leafNode(TestModel.VALUE_QNAME, value));
+        return commit(mod);
+    }
+
+    private static DataTreeCandidateNode child(final DataTreeCandidateNode node, final YangInstanceIdentifier path) {
+        DataTreeCandidateNode current = node;
+        for (YangInstanceIdentifier.PathArgument arg : path.getPathArguments()) {
+            current = current.getModifiedChild(arg);
+            if (current == null) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private void assertAppliesToInitial(final DataTreeCandidate aggregated) throws DataValidationFailedException {
+        final DataTreeModification mod = initial.newModification();
+        DataTreeCandidates.applyToModification(mod, aggregated);
+        mod.ready();
+        assertEquals(tree.takeSnapshot().readNode(TestModel.TEST_PATH), mod.readNode(TestModel.TEST_PATH));
+    }
+
+    @Test
+    public void testSingleCandidate() throws DataValidationFailedException {
+        final DataTreeCandidate candidate = writeEntry(1);
+        assertSame(candidate, DataTreeCandidates.aggregate(ImmutableList.of(candidate)));
+    }
+
+    @Test
+    public void testSubtreeModifications() throws DataValidationFailedException {
+        final DataTreeCandidate first = writeEntry(1);
+        final DataTreeCandidate second = writeEntry(2);
+        final DataTreeCandidate third = writeValue("b");
+
+        final DataTreeCandidate aggregated = DataTreeCandidates.aggregate(ImmutableList.of(first, second, third));
+        final DataTreeCandidateNode root = aggregated.getRootNode();
+        assertEquals(ModificationType.SUBTREE_MODIFIED, root.getModificationType());
+        assertEquals(first.getRootNode().getDataBefore(), root.getDataBefore());
+        assertEquals(third.getRootNode().getDataAfter(), root.getDataAfter());
+
+        assertEquals(ModificationType.WRITE, child(root, outerEntryPath(1)).getModificationType());
+        assertEquals(ModificationType.WRITE, child(root, outerEntryPath(2)).getModificationType());
+        assertEquals(2, child(root, TestModel.OUTER_LIST_PATH).getChildNodes().size());
+
+        final DataTreeCandidateNode value = child(root, TestModel.INNER_VALUE_PATH);
+        assertEquals(ModificationType.WRITE, value.getModificationType());
+        assertEquals(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "a"), value.getDataBefore().get());
+        assertEquals(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "b"), value.getDataAfter().get());
+
+        assertAppliesToInitial(aggregated);
+    }
+
+    @Test
+    public void testCancellingModifications() throws DataValidationFailedException {
+        final DataTreeCandidate first = writeEntry(1);
+        final DataTreeCandidate second = writeValue("b");
+        final DataTreeCandidate third = deleteEntry(1);
+        final DataTreeCandidate fourth = writeValue("a");
+
+        final DataTreeCandidate aggregated = DataTreeCandidates.aggregate(
+            ImmutableList.of(first, second, third, fourth));
+        assertEquals(ModificationType.UNMODIFIED, aggregated.getRootNode().getModificationType());
+        assertTrue(aggregated.getRootNode().getChildNodes().isEmpty());
+    }
+
+    @Test
+    public void testPartiallyCancellingModifications() throws DataValidationFailedException {
+        final DataTreeCandidate first = writeEntry(1);
+        final DataTreeCandidate second = writeEntry(2);
+        final DataTreeCandidate third = deleteEntry(1);
+
+        final DataTreeCandidate aggregated = DataTreeCandidates.aggregate(ImmutableList.of(first, second, third));
+        final DataTreeCandidateNode root = aggregated.getRootNode();
+        assertEquals(ModificationType.SUBTREE_MODIFIED, root.getModificationType());
+        assertNull(child(root, outerEntryPath(1)));
+        assertEquals(ModificationType.WRITE, child(root, outerEntryPath(2)).getModificationType());
+        assertNull(child(root, TestModel.INNER_CONTAINER_PATH));
+
+        assertAppliesToInitial(aggregated);
+    }
+
+    @Test
+    public void testReplacedSubtree() throws DataValidationFailedException {
+        final DataTreeCandidate first = writeEntry(1);
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+            .withChild(ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 2)).build());
+        final DataTreeCandidate second = commit(mod);
+        final DataTreeCandidate third = writeEntry(3);
+
+        final DataTreeCandidate aggregated = DataTreeCandidates.aggregate(ImmutableList.of(first, second, third));
+        final DataTreeCandidateNode list = child(aggregated.getRootNode(), TestModel.OUTER_LIST_PATH);
+        assertEquals(ModificationType.WRITE, list.getModificationType());
+        assertFalse(list.getDataBefore().get().equals(list.getDataAfter().get()));
+        assertEquals(2, list.getChildNodes().size());
+        assertNull(child(aggregated.getRootNode(), outerEntryPath(1)));
+        assertEquals(ModificationType.WRITE, child(aggregated.getRootNode(), outerEntryPath(2)).getModificationType());
+        assertEquals(ModificationType.WRITE, child(aggregated.getRootNode(), outerEntryPath(3)).getModificationType());
+
+        assertAppliesToInitial(aggregated);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentRoots() throws DataValidationFailedException {
+        DataTreeCandidates.aggregate(ImmutableList.of(writeEntry(1),
+            DataTreeCandidates.fromNormalizedNode(outerEntryPath(2),
+                ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 2))));
+    }
+
+    @Test
+    public void testCoalescingInvoker() throws DataValidationFailedException {
+        final DataTreeCandidate entry = DataTreeCandidates.fromNormalizedNode(outerEntryPath(4),
+            ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 4));
+        final DataTreeCandidate first = writeEntry(1);
+        final DataTreeCandidate second = writeEntry(2);
+        final DataTreeCandidate third = writeValue("b");
+        final DataTreeCandidate fourth = writeValue("a");
+
+        final List<DataTreeCandidate> delivered = new ArrayList<>();
+        final CoalescingDataTreeCandidateInvoker<TestListener> invoker = CoalescingDataTreeCandidateInvoker.create(
+            new Invoker<TestListener, DataTreeCandidate>() {
+                @Override
+                public void invokeListener(final TestListener listener, final DataTreeCandidate notification) {
+                    delivered.add(notification);
+                }
+            });
+
+        invoker.invokeListener(listener, ImmutableList.of(first));
+        assertEquals(1, delivered.size());
+        assertSame(first, delivered.get(0));
+
+        delivered.clear();
+        invoker.invokeListener(listener, ImmutableList.of(second, entry, third, fourth));
+        assertEquals(2, delivered.size());
+        assertSame(second, delivered.get(0));
+        assertSame(entry, delivered.get(1));
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import com.google.common.base.Optional;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EventListener;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.util.concurrent.NotificationManager;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateListenerRegistry;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class DataTreeCandidateListenerRegistryTest {
+    private interface TestListener extends EventListener {
+
+    }
+
+    private static final class RecordingNotificationManager
+            implements NotificationManager<TestListener, DataTreeCandidate> {
+        final ListMultimap<TestListener, DataTreeCandidate> notifications = ArrayListMultimap.create();
+
+        @Override
+        public void submitNotification(final TestListener listener, final DataTreeCandidate notification) {
+            notifications.put(listener, notification);
+        }
+
+        @Override
+        public void submitNotifications(final TestListener listener, final Iterable<DataTreeCandidate> notifications) {
+            this.notifications.putAll(listener, notifications);
+        }
+    }
+
+    /**
+     * A candidate node which refuses to enumerate the children of lists, asserting they are looked up by key.
+     */
+    private static final class KeyedLookupNode implements DataTreeCandidateNode {
+        private final DataTreeCandidateNode delegate;
+
+        KeyedLookupNode(final DataTreeCandidateNode delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public PathArgument getIdentifier() {
+            return delegate.getIdentifier();
+        }
+
+        @Override
+        public Collection<DataTreeCandidateNode> getChildNodes() {
+            if (delegate.getDataAfter().orNull() instanceof MapNode) {
+                throw new AssertionError("Attempted to enumerate children of " + delegate.getIdentifier());
+            }
+
+            final Collection<DataTreeCandidateNode> ret = new ArrayList<>();
+            for (DataTreeCandidateNode child : delegate.getChildNodes()) {
+                ret.add(new KeyedLookupNode(child));
+            }
+            return ret;
+        }
+
+        @Override
+        public DataTreeCandidateNode getModifiedChild(final PathArgument identifier) {
+            final DataTreeCandidateNode child = delegate.getModifiedChild(identifier);
+            return child == null ? null : new KeyedLookupNode(child);
+        }
+
+        @Override
+        public ModificationType getModificationType() {
+            return delegate.getModificationType();
+        }
+
+        @Override
+        public Optional<NormalizedNode<?, ?>> getDataAfter() {
+            return delegate.getDataAfter();
+        }
+
+        @Override
+        public Optional<NormalizedNode<?, ?>> getDataBefore() {
+            return delegate.getDataBefore();
+        }
+    }
+
+    private static final YangInstanceIdentifier OUTER_LIST_WILDCARD = YangInstanceIdentifier
+            .builder(TestModel.OUTER_LIST_PATH).node(TestModel.OUTER_LIST_QNAME).build();
+
+    private final TestListener testListener = new TestListener() { };
+    private final TestListener wildcardListener = new TestListener() { };
+    private final TestListener entryListener = new TestListener() { };
+    private final TestListener innerListener = new TestListener() { };
+
+    private RecordingNotificationManager notificationManager;
+    private DataTreeCandidateListenerRegistry<TestListener> registry;
+    private ListenerRegistration<TestListener> entryRegistration;
+    private DataTree tree;
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        tree = InMemoryDataTreeFactory.getInstance().create();
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+
+        notificationManager = new RecordingNotificationManager();
+        registry = new DataTreeCandidateListenerRegistry<>(notificationManager);
+        registry.registerListener(TestModel.TEST_PATH, testListener);
+        registry.registerListener(OUTER_LIST_WILDCARD, wildcardListener);
+        entryRegistration = registry.registerListener(outerEntryPath(2), entryListener);
+        registry.registerListener(TestModel.INNER_CONTAINER_PATH, innerListener);
+    }
+
+    private static YangInstanceIdentifier outerEntryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private DataTreeCandidate commit(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        final DataTreeCandidate candidate = tree.prepare(mod);
+        tree.commit(candidate);
+        return candidate;
+    }
+
+    @Test
+    public void testPublish() throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(outerEntryPath(1), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1));
+        mod.write(outerEntryPath(2), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 2));
+        registry.publish(commit(mod));
+
+        final List<DataTreeCandidate> test = notificationManager.notifications.get(testListener);
+        assertEquals(1, test.size());
+        assertEquals(TestModel.TEST_PATH, test.get(0).getRootPath());
+        assertEquals(ModificationType.SUBTREE_MODIFIED, test.get(0).getRootNode().getModificationType());
+
+        final List<DataTreeCandidate> wildcard = notificationManager.notifications.get(wildcardListener);
+        assertEquals(2, wildcard.size());
+        assertEquals(ImmutableSet.of(outerEntryPath(1), outerEntryPath(2)),
+            ImmutableSet.of(wildcard.get(0).getRootPath(), wildcard.get(1).getRootPath()));
+        assertEquals(ModificationType.WRITE, wildcard.get(0).getRootNode().getModificationType());
+        assertEquals(ModificationType.WRITE, wildcard.get(1).getRootNode().getModificationType());
+
+        final List<DataTreeCandidate> entry = notificationManager.notifications.get(entryListener);
+        assertEquals(1, entry.size());
+        assertEquals(outerEntryPath(2), entry.get(0).getRootPath());
+
+        assertTrue(notificationManager.notifications.get(innerListener).isEmpty());
+    }
+
+    @Test
+    public void testUnregister() throws DataValidationFailedException {
+        final DataTreeModification write = tree.takeSnapshot().newModification();
+        write.write(outerEntryPath(2), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 2));
+        commit(write);
+
+        entryRegistration.close();
+        final DataTreeModification delete = tree.takeSnapshot().newModification();
+        delete.delete(outerEntryPath(2));
+        registry.publish(commit(delete));
+
+        assertTrue(notificationManager.notifications.get(entryListener).isEmpty());
+        final List<DataTreeCandidate> wildcard = notificationManager.notifications.get(wildcardListener);
+        assertEquals(1, wildcard.size());
+        assertEquals(ModificationType.DELETE, wildcard.get(0).getRootNode().getModificationType());
+    }
+
+    @Test
+    public void testPublishBelowRegistration() {
+        registry.publish(DataTreeCandidates.fromNormalizedNode(TestModel.OUTER_LIST_PATH,
+            ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+                .withChild(ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3)).build()));
+
+        final List<DataTreeCandidate> test = notificationManager.notifications.get(testListener);
+        assertEquals(1, test.size());
+        assertEquals(TestModel.OUTER_LIST_PATH, test.get(0).getRootPath());
+
+        final List<DataTreeCandidate> wildcard = notificationManager.notifications.get(wildcardListener);
+        assertEquals(1, wildcard.size());
+        assertEquals(outerEntryPath(3), wildcard.get(0).getRootPath());
+
+        assertTrue(notificationManager.notifications.get(entryListener).isEmpty());
+    }
+
+    @Test
+    public void testExactEntriesLookedUp() throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        for (int i = 0; i < 10; ++i) {
+            mod.write(outerEntryPath(i), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i));
+        }
+        final DataTreeCandidate candidate = commit(mod);
+
+        final DataTreeCandidateListenerRegistry<TestListener> exactRegistry =
+                new DataTreeCandidateListenerRegistry<>(notificationManager);
+        exactRegistry.registerListener(outerEntryPath(2), entryListener);
+        exactRegistry.registerListener(outerEntryPath(20), innerListener);
+        exactRegistry.publish(DataTreeCandidates.newDataTreeCandidate(candidate.getRootPath(),
+            new KeyedLookupNode(candidate.getRootNode())));
+
+        final List<DataTreeCandidate> entry = notificationManager.notifications.get(entryListener);
+        assertEquals(1, entry.size());
+        assertEquals(outerEntryPath(2), entry.get(0).getRootPath());
+        assertTrue(notificationManager.notifications.get(innerListener).isEmpty());
+    }
+}
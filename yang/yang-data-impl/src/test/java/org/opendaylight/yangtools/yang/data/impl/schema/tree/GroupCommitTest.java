@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.GroupCommitResult;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class GroupCommitTest {
+    private TipProducingDataTree tree;
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        tree = createTree();
+    }
+
+    private static TipProducingDataTree createTree() throws ReactorException, DataValidationFailedException {
+        final TipProducingDataTree tree = InMemoryDataTreeFactory.getInstance().create();
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+        return tree;
+    }
+
+    private static YangInstanceIdentifier outerEntryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private static MapEntryNode outerEntry(final int id) {
+        return ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id);
+    }
+
+    private static DataTreeModification writeEntry(final DataTreeSnapshot snapshot, final int id) {
+        final DataTreeModification mod = snapshot.newModification();
+        mod.write(outerEntryPath(id), outerEntry(id));
+        mod.ready();
+        return mod;
+    }
+
+    @Test
+    public void testGroupCommit() {
+        final DataTreeSnapshot snapshot = tree.takeSnapshot();
+        final DataTreeModification first = writeEntry(snapshot, 1);
+        final DataTreeModification conflicting = writeEntry(snapshot, 1);
+        final DataTreeModification second = writeEntry(snapshot, 2);
+        final DataTreeModification empty = snapshot.newModification();
+        empty.ready();
+
+        final List<GroupCommitResult> results = tree.groupCommit(ImmutableList.of(first, conflicting, second, empty));
+        assertEquals(4, results.size());
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(first, results.get(0).getModification());
+        final DataTreeCandidate firstCandidate = results.get(0).getCandidate().get();
+        assertEquals(ModificationType.SUBTREE_MODIFIED, firstCandidate.getRootNode().getModificationType());
+
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(conflicting, results.get(1).getModification());
+        assertFalse(results.get(1).getCandidate().isPresent());
+        assertTrue(results.get(1).getFailure().get() instanceof ConflictingModificationAppliedException);
+
+        // The second candidate has to observe the first modification as already applied
+        assertTrue(results.get(2).isSuccess());
+        final DataTreeCandidate secondCandidate = results.get(2).getCandidate().get();
+        assertTrue(secondCandidate.getRootNode().getDataBefore().isPresent());
+        assertEquals(firstCandidate.getRootNode().getDataAfter(), secondCandidate.getRootNode().getDataBefore());
+
+        assertTrue(results.get(3).isSuccess());
+        assertEquals(ModificationType.UNMODIFIED,
+            results.get(3).getCandidate().get().getRootNode().getModificationType());
+
+        final DataTreeSnapshot after = tree.takeSnapshot();
+        assertEquals(outerEntry(1), after.readNode(outerEntryPath(1)).get());
+        assertEquals(outerEntry(2), after.readNode(outerEntryPath(2)).get());
+    }
+
+    @Test
+    public void testGroupCommitMatchesSequential() throws ReactorException, DataValidationFailedException {
+        final DataTreeSnapshot snapshot = tree.takeSnapshot();
+        final DataTreeModification first = writeEntry(snapshot, 1);
+        final DataTreeModification second = writeEntry(snapshot, 2);
+
+        final List<GroupCommitResult> results = tree.groupCommit(ImmutableList.of(first, second));
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+
+        final TipProducingDataTree sequential = createTree();
+        final DataTreeSnapshot seqSnapshot = sequential.takeSnapshot();
+        for (DataTreeModification mod : ImmutableList.of(writeEntry(seqSnapshot, 1), writeEntry(seqSnapshot, 2))) {
+            sequential.validate(mod);
+            sequential.commit(sequential.prepare(mod));
+        }
+
+        assertEquals(sequential.takeSnapshot().readNode(TestModel.TEST_PATH).get(),
+            tree.takeSnapshot().readNode(TestModel.TEST_PATH).get());
+    }
+
+    @Test
+    public void testStaleGroupCandidatesCannotBeCommitted() {
+        final DataTreeModification first = writeEntry(tree.takeSnapshot(), 1);
+        final DataTreeCandidate candidate = tree.groupCommit(ImmutableList.of(first)).get(0).getCandidate().get();
+
+        try {
+            tree.commit(candidate);
+            fail("Group commit candidate was committed again");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testRuntimeFailuresAreReported() throws ReactorException {
+        final TipProducingDataTree configTree = InMemoryDataTreeFactory.getInstance().create(TreeType.CONFIGURATION);
+        configTree.setSchemaContext(TestModel.createTestContext("/mandatory-leaf-test.yang"));
+
+        final NodeIdentifier choiceId = new NodeIdentifier(QName.create(TestModel.TEST_QNAME, "choice1"));
+        final NodeIdentifier case2ContId = new NodeIdentifier(QName.create(TestModel.TEST_QNAME, "case2-cont"));
+        final QName case2Leaf2 = QName.create(TestModel.TEST_QNAME, "case2-leaf2");
+        final YangInstanceIdentifier choicePath = TestModel.TEST_PATH.node(choiceId);
+        final YangInstanceIdentifier case2Leaf2Path = choicePath.node(case2ContId).node(case2Leaf2);
+        final DataTreeSnapshot snapshot = configTree.takeSnapshot();
+
+        final DataTreeModification case2 = snapshot.newModification();
+        case2.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(Builders.choiceBuilder().withNodeIdentifier(choiceId)
+                .withChild(Builders.containerBuilder().withNodeIdentifier(case2ContId)
+                    .withChild(ImmutableNodes.leafNode(QName.create(TestModel.TEST_QNAME, "case2-leaf1"), "value"))
+                    .build()).build()).build());
+        case2.ready();
+
+        // Passes validation, but the merged choice ends up with children from both cases, which fails preparation
+        final DataTreeModification case1 = snapshot.newModification();
+        case1.merge(choicePath, Builders.choiceBuilder().withNodeIdentifier(choiceId)
+            .withChild(ImmutableNodes.leafNode(QName.create(TestModel.TEST_QNAME, "case1-leaf1"), "value")).build());
+        case1.ready();
+
+        final DataTreeModification unsealed = snapshot.newModification();
+
+        final DataTreeModification valid = snapshot.newModification();
+        valid.write(case2Leaf2Path, ImmutableNodes.leafNode(case2Leaf2, "value"));
+        valid.ready();
+
+        final List<GroupCommitResult> results = configTree.groupCommit(ImmutableList.of(case2, case1, unsealed,
+            valid));
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).getFailure().get() instanceof IllegalArgumentException);
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(2).getFailure().get() instanceof IllegalArgumentException);
+        assertTrue(results.get(3).isSuccess());
+
+        assertEquals(ImmutableNodes.leafNode(case2Leaf2, "value"),
+            configTree.takeSnapshot().readNode(case2Leaf2Path).get());
+    }
+}
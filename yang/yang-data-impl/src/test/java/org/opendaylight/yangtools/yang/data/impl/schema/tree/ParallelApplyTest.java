@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class ParallelApplyTest {
+    private static final int OUTER_LIST_SIZE = 64;
+
+    private static SchemaContext schemaContext;
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void beforeClass() throws ReactorException {
+        schemaContext = TestModel.createTestContext();
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        pool.shutdown();
+        pool = null;
+        schemaContext = null;
+    }
+
+    private static DataTree createTree(final boolean parallel) throws DataValidationFailedException {
+        final DataTreeConfiguration.Builder builder = new DataTreeConfiguration.Builder(TreeType.OPERATIONAL);
+        if (parallel) {
+            builder.setParallelProcessing(pool, 2);
+        }
+
+        final DataTree tree = InMemoryDataTreeFactory.getInstance().create(builder.build());
+        tree.setSchemaContext(schemaContext);
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+        return tree;
+    }
+
+    private static YangInstanceIdentifier outerEntryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private static MapEntryNode outerEntry(final int id) {
+        return ImmutableNodes.mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id)
+                .withChild(ImmutableNodes.mapNodeBuilder(TestModel.INNER_LIST_QNAME)
+                    .withChild(ImmutableNodes.mapEntry(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, "one"))
+                    .withChild(ImmutableNodes.mapEntry(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, "two"))
+                    .build()).build();
+    }
+
+    private static DataTreeModification writeEntries(final DataTree tree) {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        for (int i = 0; i < OUTER_LIST_SIZE; ++i) {
+            mod.write(outerEntryPath(i), outerEntry(i));
+        }
+        mod.ready();
+        return mod;
+    }
+
+    private static NormalizedNode<?, ?> applyEntries(final DataTree tree) throws DataValidationFailedException {
+        final DataTreeModification mod = writeEntries(tree);
+        tree.validate(mod);
+        final DataTreeCandidate candidate = tree.prepare(mod);
+        assertEquals(ModificationType.SUBTREE_MODIFIED, candidate.getRootNode().getModificationType());
+        tree.commit(candidate);
+
+        return tree.takeSnapshot().readNode(TestModel.TEST_PATH).get();
+    }
+
+    @Test
+    public void testParallelApplyMatchesSequential() throws DataValidationFailedException {
+        final NormalizedNode<?, ?> sequential = applyEntries(createTree(false));
+        final NormalizedNode<?, ?> parallel = applyEntries(createTree(true));
+        assertEquals(sequential, parallel);
+    }
+
+    private static ConflictingModificationAppliedException validateConflict(final DataTree tree) {
+        final DataTreeModification first = writeEntries(tree);
+        final DataTreeModification second = writeEntries(tree);
+
+        try {
+            tree.validate(first);
+            tree.commit(tree.prepare(first));
+        } catch (DataValidationFailedException e) {
+            throw new AssertionError("Unexpected failure", e);
+        }
+
+        try {
+            tree.validate(second);
+            fail("Conflicting modification was not detected");
+            return null;
+        } catch (ConflictingModificationAppliedException e) {
+            return e;
+        } catch (DataValidationFailedException e) {
+            throw new AssertionError("Unexpected failure", e);
+        }
+    }
+
+    @Test
+    public void testParallelValidateReportsFirstConflict() throws DataValidationFailedException {
+        final ConflictingModificationAppliedException sequential = validateConflict(createTree(false));
+        final ConflictingModificationAppliedException parallel = validateConflict(createTree(true));
+        assertNotNull(sequential);
+        assertNotNull(parallel);
+        assertEquals(sequential.getPath(), parallel.getPath());
+        assertEquals(sequential.getMessage(), parallel.getMessage());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.parser.repo.IncrementalSchemaContext;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+
+public class SchemaContextUpdateTest {
+    private static final NodeIdentifier FOO = NodeIdentifier.create(QName.create("urn:foo", "2016-03-21", "top"));
+    private static final NodeIdentifier BAR = NodeIdentifier.create(QName.create("urn:bar", "2016-03-21", "top"));
+
+    private InMemoryDataTree dataTree;
+    private IncrementalSchemaContext context;
+
+    @Before
+    public void setup() throws Exception {
+        context = IncrementalSchemaContext.create(ImmutableList.of(module("foo", ""), module("bar", "")),
+            qname -> true);
+        dataTree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        dataTree.setSchemaContext(context.getSchemaContext());
+
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.create(FOO), ImmutableNodes.containerNode(FOO.getNodeType()));
+        mod.write(YangInstanceIdentifier.create(BAR), ImmutableNodes.containerNode(BAR.getNodeType()));
+        mod.ready();
+        dataTree.validate(mod);
+        dataTree.commit(dataTree.prepare(mod));
+
+        assertTrue(rootOperation().hasResolvedChild(FOO));
+        assertTrue(rootOperation().hasResolvedChild(BAR));
+    }
+
+    @Test
+    public void testUnrelatedModuleAdded() throws Exception {
+        final AbstractDataNodeContainerModificationStrategy<?> previous = rootOperation();
+        context = context.update(ImmutableList.of(module("baz", "")), ImmutableList.of());
+        dataTree.setSchemaContext(context.getSchemaContext());
+
+        assertNotSame(previous, rootOperation());
+        assertTrue(rootOperation().hasResolvedChild(FOO));
+        assertTrue(rootOperation().hasResolvedChild(BAR));
+    }
+
+    @Test
+    public void testModuleReplaced() throws Exception {
+        context = context.update(ImmutableList.of(module("foo", "leaf extra { type string; }")), ImmutableList.of());
+        dataTree.setSchemaContext(context.getSchemaContext());
+
+        assertFalse(rootOperation().hasResolvedChild(FOO));
+        assertTrue(rootOperation().hasResolvedChild(BAR));
+
+        // The changed child is resolved against the new schema
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.create(FOO), ImmutableNodes.containerNode(FOO.getNodeType()));
+        mod.ready();
+        dataTree.validate(mod);
+        assertTrue(rootOperation().hasResolvedChild(FOO));
+    }
+
+    private AbstractDataNodeContainerModificationStrategy<?> rootOperation() {
+        return (AbstractDataNodeContainerModificationStrategy<?>) dataTree.getRootOperation();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static ASTSchemaSource module(final String name, final String extra) throws Exception {
+        final List<String> lines = new ArrayList<>();
+        lines.add("module " + name + " {");
+        lines.add("    namespace \"urn:" + name + "\";");
+        lines.add("    prefix " + name + ";");
+        lines.add("    revision 2016-03-21;");
+        lines.add("    container top { leaf name { type string; } " + extra + " }");
+        lines.add("}");
+
+        final String text = String.join("\n", lines);
+        final YangStatementSourceImpl parsed = new YangStatementSourceImpl(
+            ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8)).openStream());
+        return ASTSchemaSource.create(name, parsed.getYangAST(), text);
+    }
+}
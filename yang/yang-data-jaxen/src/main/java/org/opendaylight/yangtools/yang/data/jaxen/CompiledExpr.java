@@ -0,0 +1,658 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.jaxen;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jaxen.function.BooleanFunction;
+import org.jaxen.function.NumberFunction;
+import org.jaxen.function.StringFunction;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+
+/**
+ * A node in the evaluator tree of a {@link CompiledXPath}. Evaluation results follow XPath 1.0 data model, using
+ * the same representation as Jaxen: node-sets are {@link List}s of {@link DataNodeContext}s, other values are
+ * {@link String}s, {@link Double}s and {@link Boolean}s. Conversions between these types are delegated to Jaxen's
+ * core function implementations, hence the results match those of {@link JaxenXPath}.
+ */
+abstract class CompiledExpr {
+    /**
+     * Evaluate this expression.
+     *
+     * @param context Context node
+     * @param current Node at which the entire expression is evaluated, as returned by current()
+     * @return Evaluation result
+     */
+    abstract Object evaluate(DataNodeContext context, DataNodeContext current);
+
+    static boolean toBoolean(final Object value) {
+        if (value instanceof List) {
+            return !((List<?>) value).isEmpty();
+        }
+        return BooleanFunction.evaluate(value, null);
+    }
+
+    static String toStringValue(final Object value) {
+        if (value instanceof List) {
+            final List<?> nodes = (List<?>) value;
+            return nodes.isEmpty() ? "" : stringValue(nodes.get(0));
+        }
+        return StringFunction.evaluate(value, null);
+    }
+
+    static double toNumber(final Object value) {
+        if (value instanceof List) {
+            return NumberFunction.evaluate(toStringValue(value), null);
+        }
+        if (value instanceof Boolean) {
+            // Jaxen consults the navigator before checking for Booleans
+            return (Boolean) value ? 1 : 0;
+        }
+        return NumberFunction.evaluate(value, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<DataNodeContext> toNodeSet(final Object value) {
+        return value instanceof List ? (List<DataNodeContext>) value : Collections.<DataNodeContext>emptyList();
+    }
+
+    private static String stringValue(final Object node) {
+        return NormalizedNodeNavigator.stringValue(((DataNodeContext) node).getNode());
+    }
+
+    /**
+     * An expression evaluating to a node-set. Its schema position is known at compile time if all of its steps could
+     * be resolved against the schema.
+     */
+    abstract static class NodeSetExpr extends CompiledExpr {
+        private final List<DataSchemaNode> position;
+
+        NodeSetExpr(final List<DataSchemaNode> position) {
+            this.position = position;
+        }
+
+        /**
+         * Return the schema nodes leading to the nodes in the result of this expression, or null if they are unknown.
+         * An empty list denotes the schema context itself.
+         */
+        final List<DataSchemaNode> getPosition() {
+            return position;
+        }
+
+        @Override
+        abstract List<DataNodeContext> evaluate(DataNodeContext context, DataNodeContext current);
+    }
+
+    static final class Literal extends CompiledExpr {
+        private final Object value;
+
+        Literal(final Object value) {
+            this.value = Preconditions.checkNotNull(value);
+        }
+
+        @Override
+        Object evaluate(final DataNodeContext context, final DataNodeContext current) {
+            return value;
+        }
+    }
+
+    static final class Current extends NodeSetExpr {
+        Current(final List<DataSchemaNode> position) {
+            super(position);
+        }
+
+        @Override
+        List<DataNodeContext> evaluate(final DataNodeContext context, final DataNodeContext current) {
+            return ImmutableList.of(current);
+        }
+    }
+
+    static final class Path extends NodeSetExpr {
+        private final NodeSetExpr start;
+        private final boolean absolute;
+        private final List<Step> steps;
+
+        Path(final NodeSetExpr start, final boolean absolute, final List<Step> steps,
+                final List<DataSchemaNode> position) {
+            super(position);
+            this.start = start;
+            this.absolute = absolute;
+            this.steps = ImmutableList.copyOf(steps);
+        }
+
+        @Override
+        List<DataNodeContext> evaluate(final DataNodeContext context, final DataNodeContext current) {
+            List<DataNodeContext> nodes;
+            if (start != null) {
+                nodes = start.evaluate(context, current);
+            } else if (absolute) {
+                nodes = ImmutableList.of(context.getRoot());
+            } else {
+                nodes = ImmutableList.of(context);
+            }
+
+            for (Step step : steps) {
+                if (nodes.isEmpty()) {
+                    break;
+                }
+                nodes = step.evaluate(nodes, current);
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * A single location step. Predicates are evaluated with positions relative to each context node.
+     */
+    abstract static class Step {
+        private final List<CompiledExpr> predicates;
+
+        Step(final List<CompiledExpr> predicates) {
+            this.predicates = ImmutableList.copyOf(predicates);
+        }
+
+        abstract void addCandidates(List<DataNodeContext> result, DataNodeContext context);
+
+        List<DataNodeContext> evaluate(final List<DataNodeContext> contexts, final DataNodeContext current) {
+            if (predicates.isEmpty()) {
+                final List<DataNodeContext> ret = new ArrayList<>();
+                for (DataNodeContext context : contexts) {
+                    addCandidates(ret, context);
+                }
+                return ret;
+            }
+
+            final List<DataNodeContext> ret = new ArrayList<>();
+            final List<DataNodeContext> candidates = new ArrayList<>();
+            for (DataNodeContext context : contexts) {
+                candidates.clear();
+                addCandidates(candidates, context);
+                filter(ret, candidates, current);
+            }
+            return ret;
+        }
+
+        private void filter(final List<DataNodeContext> result, final List<DataNodeContext> candidates,
+                final DataNodeContext current) {
+            List<DataNodeContext> nodes = candidates;
+            for (CompiledExpr predicate : predicates) {
+                final List<DataNodeContext> matching = new ArrayList<>(nodes.size());
+                for (int i = 0; i < nodes.size(); ++i) {
+                    final DataNodeContext node = nodes.get(i);
+                    final Object value = predicate.evaluate(node, current);
+                    // Numeric predicates are abbreviated position tests
+                    if (value instanceof Double ? ((Double) value).doubleValue() == i + 1 : toBoolean(value)) {
+                        matching.add(node);
+                    }
+                }
+                nodes = matching;
+            }
+            result.addAll(nodes);
+        }
+    }
+
+    /**
+     * Child axis with a name test. Children of lists and leaf-lists are their entries. Unprefixed names are bound
+     * to the namespace of the context node, as is the case with {@link NormalizedNodeNavigator}.
+     */
+    static final class ChildStep extends Step {
+        private final NodeIdentifier bound;
+        private final String localName;
+        private volatile NodeIdentifier cached;
+
+        ChildStep(final QName qname, final List<CompiledExpr> predicates) {
+            super(predicates);
+            this.bound = new NodeIdentifier(qname);
+            this.localName = qname.getLocalName();
+        }
+
+        ChildStep(final String localName, final List<CompiledExpr> predicates) {
+            super(predicates);
+            this.bound = null;
+            this.localName = Preconditions.checkNotNull(localName);
+        }
+
+        private NodeIdentifier identifier(final QNameModule module) {
+            NodeIdentifier ret = cached;
+            if (ret == null || !module.equals(ret.getNodeType().getModule())) {
+                ret = new NodeIdentifier(QName.create(module, localName));
+                cached = ret;
+            }
+            return ret;
+        }
+
+        @Override
+        void addCandidates(final List<DataNodeContext> result, final DataNodeContext context) {
+            final NormalizedNode<?, ?> node = context.getNode();
+            if (!(node instanceof DataContainerNode)) {
+                return;
+            }
+
+            final NodeIdentifier id = bound != null ? bound : identifier(node.getNodeType().getModule());
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            final Optional<NormalizedNode<?, ?>> maybeChild = ((DataContainerNode) node).getChild(id);
+            if (!maybeChild.isPresent()) {
+                return;
+            }
+
+            final NormalizedNode<?, ?> child = maybeChild.get();
+            if (child instanceof MapNode) {
+                for (NormalizedNode<?, ?> entry : ((MapNode) child).getValue()) {
+                    result.add(context.child(entry));
+                }
+            } else if (child instanceof LeafSetNode) {
+                for (NormalizedNode<?, ?> entry : ((LeafSetNode<?>) child).getValue()) {
+                    result.add(context.child(entry));
+                }
+            } else if (child instanceof UnkeyedListNode) {
+                for (NormalizedNode<?, ?> entry : ((UnkeyedListNode) child).getValue()) {
+                    result.add(context.child(entry));
+                }
+            } else {
+                result.add(context.child(child));
+            }
+        }
+    }
+
+    static final class SelfStep extends Step {
+        SelfStep(final List<CompiledExpr> predicates) {
+            super(predicates);
+        }
+
+        @Override
+        void addCandidates(final List<DataNodeContext> result, final DataNodeContext context) {
+            result.add(context);
+        }
+    }
+
+    static final class ParentStep extends Step {
+        ParentStep(final List<CompiledExpr> predicates) {
+            super(predicates);
+        }
+
+        @Override
+        void addCandidates(final List<DataNodeContext> result, final DataNodeContext context) {
+            final DataNodeContext parent = context.getParent();
+            if (parent != null) {
+                result.add(parent);
+            }
+        }
+
+        @Override
+        List<DataNodeContext> evaluate(final List<DataNodeContext> contexts, final DataNodeContext current) {
+            final List<DataNodeContext> ret = super.evaluate(contexts, current);
+            if (ret.size() < 2) {
+                return ret;
+            }
+
+            // Siblings share their parent
+            final Map<DataNodeContext, Boolean> seen = new IdentityHashMap<>();
+            final List<DataNodeContext> unique = new ArrayList<>();
+            for (DataNodeContext node : ret) {
+                if (seen.put(node, Boolean.TRUE) == null) {
+                    unique.add(node);
+                }
+            }
+            return unique;
+        }
+    }
+
+    static final class Or extends CompiledExpr {
+        private final CompiledExpr lhs;
+        private final CompiledExpr rhs;
+
+        Or(final CompiledExpr lhs, final CompiledExpr rhs) {
+            this.lhs = Preconditions.checkNotNull(lhs);
+            this.rhs = Preconditions.checkNotNull(rhs);
+        }
+
+        @Override
+        Boolean evaluate(final DataNodeContext context, final DataNodeContext current) {
+            return toBoolean(lhs.evaluate(context, current)) || toBoolean(rhs.evaluate(context, current));
+        }
+    }
+
+    static final class And extends CompiledExpr {
+        private final CompiledExpr lhs;
+        private final CompiledExpr rhs;
+
+        And(final CompiledExpr lhs, final CompiledExpr rhs) {
+            this.lhs = Preconditions.checkNotNull(lhs);
+            this.rhs = Preconditions.checkNotNull(rhs);
+        }
+
+        @Override
+        Boolean evaluate(final DataNodeContext context, final DataNodeContext current) {
+            return toBoolean(lhs.evaluate(context, current)) && toBoolean(rhs.evaluate(context, current));
+        }
+    }
+
+    enum Operator {
+        EQ("="),
+        NE("!="),
+        LT("<"),
+        GT(">"),
+        LE("<="),
+        GE(">="),
+        ADD("+"),
+        SUBTRACT("-"),
+        MULTIPLY("*"),
+        DIVIDE("div"),
+        MOD("mod");
+
+        private final String str;
+
+        Operator(final String str) {
+            this.str = str;
+        }
+
+        static Operator forString(final String str) {
+            for (Operator op : values()) {
+                if (op.str.equals(str)) {
+                    return op;
+                }
+            }
+            return null;
+        }
+
+        boolean isEquality() {
+            return this == EQ || this == NE;
+        }
+
+        boolean isRelational() {
+            return this == LT || this == GT || this == LE || this == GE;
+        }
+
+        boolean compare(final double lhs, final double rhs) {
+            switch (this) {
+                case EQ:
+                    return lhs == rhs;
+                case NE:
+                    return lhs != rhs;
+                case LT:
+                    return lhs < rhs;
+                case GT:
+                    return lhs > rhs;
+                case LE:
+                    return lhs <= rhs;
+                case GE:
+                    return lhs >= rhs;
+                default:
+                    throw new IllegalStateException("Unhandled comparison " + this);
+            }
+        }
+
+        boolean compare(final Object lhs, final Object rhs) {
+            switch (this) {
+                case EQ:
+                    return lhs.equals(rhs);
+                case NE:
+                    return !lhs.equals(rhs);
+                default:
+                    throw new IllegalStateException("Unhandled comparison " + this);
+            }
+        }
+
+        double apply(final double lhs, final double rhs) {
+            switch (this) {
+                case ADD:
+                    return lhs + rhs;
+                case SUBTRACT:
+                    return lhs - rhs;
+                case MULTIPLY:
+                    return lhs * rhs;
+                case DIVIDE:
+                    return lhs / rhs;
+                case MOD:
+                    return lhs % rhs;
+                default:
+                    throw new IllegalStateException("Unhandled arithmetic operation " + this);
+            }
+        }
+    }
+
+    /**
+     * Equality and relational comparisons, with XPath 1.0 semantics for comparing node-sets.
+     */
+    static final class Comparison extends CompiledExpr {
+        private final Operator op;
+        private final CompiledExpr lhs;
+        private final CompiledExpr rhs;
+
+        Comparison(final Operator op, final CompiledExpr lhs, final CompiledExpr rhs) {
+            Preconditions.checkArgument(op.isEquality() || op.isRelational());
+            this.op = op;
+            this.lhs = Preconditions.checkNotNull(lhs);
+            this.rhs = Preconditions.checkNotNull(rhs);
+        }
+
+        @Override
+        Boolean evaluate(final DataNodeContext context, final DataNodeContext current) {
+            final Object left = lhs.evaluate(context, current);
+            final Object right = rhs.evaluate(context, current);
+
+            if (left instanceof List) {
+                return right instanceof List ? compareNodeSets((List<?>) left, (List<?>) right)
+                        : compareNodeSet((List<?>) left, right, false);
+            }
+            if (right instanceof List) {
+                return compareNodeSet((List<?>) right, left, true);
+            }
+            return compareValues(left, right);
+        }
+
+        private boolean compareNodeSets(final List<?> left, final List<?> right) {
+            for (Object l : left) {
+                final String lstr = stringValue(l);
+                for (Object r : right) {
+                    if (compareValues(lstr, stringValue(r))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean compareNodeSet(final List<?> nodes, final Object value, final boolean swapped) {
+            // A node-set compared to a boolean is converted to a boolean, even for relational operators
+            if (value instanceof Boolean) {
+                return swapped ? compareValues(value, toBoolean(nodes)) : compareValues(toBoolean(nodes), value);
+            }
+
+            for (Object node : nodes) {
+                final String str = stringValue(node);
+                if (swapped ? compareValues(value, str) : compareValues(str, value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean compareValues(final Object left, final Object right) {
+            if (op.isRelational()) {
+                return op.compare(toNumber(left), toNumber(right));
+            }
+            if (left instanceof Boolean || right instanceof Boolean) {
+                return op.compare(toBoolean(left), toBoolean(right));
+            }
+            if (left instanceof Double || right instanceof Double) {
+                return op.compare(toNumber(left), toNumber(right));
+            }
+            return op.compare(toStringValue(left), toStringValue(right));
+        }
+    }
+
+    static final class Arithmetic extends CompiledExpr {
+        private final Operator op;
+        private final CompiledExpr lhs;
+        private final CompiledExpr rhs;
+
+        Arithmetic(final Operator op, final CompiledExpr lhs, final CompiledExpr rhs) {
+            Preconditions.checkArgument(!op.isEquality() && !op.isRelational());
+            this.op = op;
+            this.lhs = Preconditions.checkNotNull(lhs);
+            this.rhs = Preconditions.checkNotNull(rhs);
+        }
+
+        @Override
+        Double evaluate(final DataNodeContext context, final DataNodeContext current) {
+            return op.apply(toNumber(lhs.evaluate(context, current)), toNumber(rhs.evaluate(context, current)));
+        }
+    }
+
+    static final class Negate extends CompiledExpr {
+        private final CompiledExpr expr;
+
+        Negate(final CompiledExpr expr) {
+            this.expr = Preconditions.checkNotNull(expr);
+        }
+
+        @Override
+        Double evaluate(final DataNodeContext context, final DataNodeContext current) {
+            return -toNumber(expr.evaluate(context, current));
+        }
+    }
+
+    /**
+     * Core XPath functions, as per http://tools.ietf.org/html/rfc6020#section-6.4.1. Functions taking an optional
+     * argument use the context node when it is not specified.
+     */
+    enum Function {
+        BOOLEAN("boolean", 1, 1),
+        CONCAT("concat", 2, Integer.MAX_VALUE),
+        CONTAINS("contains", 2, 2),
+        COUNT("count", 1, 1),
+        NOT("not", 1, 1),
+        NUMBER("number", 0, 1),
+        STARTS_WITH("starts-with", 2, 2),
+        STRING("string", 0, 1),
+        STRING_LENGTH("string-length", 0, 1);
+
+        private final String name;
+        private final int minArgs;
+        private final int maxArgs;
+
+        Function(final String name, final int minArgs, final int maxArgs) {
+            this.name = name;
+            this.minArgs = minArgs;
+            this.maxArgs = maxArgs;
+        }
+
+        static Function forName(final String name) {
+            for (Function f : values()) {
+                if (f.name.equals(name)) {
+                    return f;
+                }
+            }
+            return null;
+        }
+
+        boolean acceptsArgs(final int count) {
+            return count >= minArgs && count <= maxArgs;
+        }
+    }
+
+    static final class FunctionCall extends CompiledExpr {
+        private final Function function;
+        private final List<CompiledExpr> args;
+
+        FunctionCall(final Function function, final List<CompiledExpr> args) {
+            Preconditions.checkArgument(function.acceptsArgs(args.size()));
+            this.function = function;
+            this.args = ImmutableList.copyOf(args);
+        }
+
+        private Object arg(final int index, final DataNodeContext context, final DataNodeContext current) {
+            return index < args.size() ? args.get(index).evaluate(context, current) : ImmutableList.of(context);
+        }
+
+        private String stringArg(final int index, final DataNodeContext context, final DataNodeContext current) {
+            return toStringValue(arg(index, context, current));
+        }
+
+        @Override
+        Object evaluate(final DataNodeContext context, final DataNodeContext current) {
+            switch (function) {
+                case BOOLEAN:
+                    return toBoolean(arg(0, context, current));
+                case CONCAT:
+                    final StringBuilder sb = new StringBuilder();
+                    for (int i = 0; i < args.size(); ++i) {
+                        sb.append(stringArg(i, context, current));
+                    }
+                    return sb.toString();
+                case CONTAINS:
+                    return stringArg(0, context, current).contains(stringArg(1, context, current));
+                case COUNT:
+                    return (double) toNodeSet(arg(0, context, current)).size();
+                case NOT:
+                    return !toBoolean(arg(0, context, current));
+                case NUMBER:
+                    return toNumber(arg(0, context, current));
+                case STARTS_WITH:
+                    return stringArg(0, context, current).startsWith(stringArg(1, context, current));
+                case STRING:
+                    return stringArg(0, context, current);
+                case STRING_LENGTH:
+                    final String str = stringArg(0, context, current);
+                    return (double) str.codePointCount(0, str.length());
+                default:
+                    throw new IllegalStateException("Unhandled function " + function);
+            }
+        }
+    }
+
+    /**
+     * deref() function, as per https://tools.ietf.org/html/rfc7950#section-10.3.1, bound to a leafref at compile time.
+     * It evaluates the leafref path at the first node of its argument and returns the target nodes which have the same
+     * value.
+     */
+    static final class Deref extends NodeSetExpr {
+        private final NodeSetExpr arg;
+        private final NodeSetExpr targetPath;
+
+        Deref(final NodeSetExpr arg, final NodeSetExpr targetPath) {
+            super(targetPath.getPosition());
+            this.arg = Preconditions.checkNotNull(arg);
+            this.targetPath = targetPath;
+        }
+
+        @Override
+        List<DataNodeContext> evaluate(final DataNodeContext context, final DataNodeContext current) {
+            final List<DataNodeContext> nodes = arg.evaluate(context, current);
+            if (nodes.isEmpty()) {
+                return nodes;
+            }
+
+            final DataNodeContext leaf = nodes.get(0);
+            final Object value = leaf.getNode().getValue();
+            final List<DataNodeContext> ret = new ArrayList<>(1);
+            for (DataNodeContext target : targetPath.evaluate(leaf, leaf)) {
+                if (Objects.equal(value, target.getNode().getValue())) {
+                    ret.add(target);
+                }
+            }
+            return ret;
+        }
+    }
+}
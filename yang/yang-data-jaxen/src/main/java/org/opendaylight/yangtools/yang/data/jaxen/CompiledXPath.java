@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.jaxen;
+
+import com.google.common.base.Converter;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import java.util.Collection;
+import java.util.List;
+import javax.xml.xpath.XPathExpressionException;
+import org.jaxen.expr.Expr;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathBooleanResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathDocument;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathExpression;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathNodesetResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathNumberResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathStringResult;
+import org.opendaylight.yangtools.yang.data.jaxen.ExprCompiler.UnsupportedExpressionException;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+/**
+ * An {@link XPathExpression} evaluated by a tree of {@link CompiledExpr}s directly on {@link NormalizedNode}s,
+ * without going through Jaxen's navigator. Navigation to parent nodes skips mixin nodes, such as the {@link
+ * org.opendaylight.yangtools.yang.data.api.schema.MapNode} containing a list entry.
+ */
+final class CompiledXPath implements XPathExpression {
+    private static final Function<DataNodeContext, NormalizedNode<?, ?>> EXTRACT_NODE =
+            new Function<DataNodeContext, NormalizedNode<?, ?>>() {
+        @Override
+        public NormalizedNode<?, ?> apply(final DataNodeContext input) {
+            return input.getNode();
+        }
+    };
+
+    private final SchemaPath schemaPath;
+    private final SchemaPath apexPath;
+    private final CompiledExpr expr;
+
+    private CompiledXPath(final SchemaPath schemaPath, final SchemaPath apexPath, final CompiledExpr expr) {
+        this.schemaPath = Preconditions.checkNotNull(schemaPath);
+        this.apexPath = Preconditions.checkNotNull(apexPath);
+        this.expr = Preconditions.checkNotNull(expr);
+    }
+
+    static CompiledXPath create(final SchemaContext context, final Converter<String, QNameModule> converter,
+            final SchemaPath schemaPath, final Expr expr) throws UnsupportedExpressionException,
+            XPathExpressionException {
+        final ExprCompiler compiler = ExprCompiler.create(context, converter, schemaPath);
+        final CompiledExpr compiled = compiler.compile(expr);
+        return new CompiledXPath(schemaPath, compiler.getApexPath(), compiled);
+    }
+
+    @Override
+    public Optional<? extends XPathResult<?>> evaluate(final XPathDocument document, final YangInstanceIdentifier path)
+            throws XPathExpressionException {
+        Preconditions.checkArgument(document instanceof JaxenDocument);
+
+        final DataNodeContext context = DataNodeContext.create(document.getRootNode(), path);
+        final Object result = expr.evaluate(context, context);
+
+        if (result instanceof String) {
+            return Optional.of(new XPathStringResult() {
+                @Override
+                public String getValue() {
+                    return (String) result;
+                }
+            });
+        } else if (result instanceof Number) {
+            return Optional.of(new XPathNumberResult() {
+                @Override
+                public Number getValue() {
+                    return (Number) result;
+                }
+            });
+        } else if (result instanceof Boolean) {
+            return Optional.of(new XPathBooleanResult() {
+                @Override
+                public Boolean getValue() {
+                    return (Boolean) result;
+                }
+            });
+        } else {
+            final List<DataNodeContext> nodes = CompiledExpr.toNodeSet(result);
+            return Optional.of(new XPathNodesetResult() {
+                @Override
+                public Collection<NormalizedNode<?, ?>> getValue() {
+                    return Lists.transform(nodes, EXTRACT_NODE);
+                }
+            });
+        }
+    }
+
+    @Override
+    public SchemaPath getEvaluationPath() {
+        return schemaPath;
+    }
+
+    @Override
+    public SchemaPath getApexPath() {
+        return apexPath;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.jaxen;
+
+import com.google.common.base.Converter;
+import com.google.common.base.Preconditions;
+import javax.xml.xpath.XPathExpressionException;
+import org.jaxen.BaseXPath;
+import org.jaxen.JaxenException;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathDocument;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathExpression;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContext;
+import org.opendaylight.yangtools.yang.data.jaxen.ExprCompiler.UnsupportedExpressionException;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class CompiledXPathSchemaContext implements XPathSchemaContext {
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledXPathSchemaContext.class);
+
+    private final SchemaContext context;
+    private final JaxenSchemaContext jaxenContext;
+
+    CompiledXPathSchemaContext(final SchemaContext context) {
+        this.context = Preconditions.checkNotNull(context);
+        this.jaxenContext = new JaxenSchemaContext(context);
+    }
+
+    @Override
+    public XPathExpression compileExpression(final SchemaPath schemaPath,
+            final Converter<String, QNameModule> prefixes, final String xpath) throws XPathExpressionException {
+        final BaseXPath parsed;
+        try {
+            parsed = JaxenXPath.parse(xpath);
+        } catch (JaxenException e) {
+            throw new XPathExpressionException(e);
+        }
+
+        try {
+            return CompiledXPath.create(context, prefixes, schemaPath, parsed.getRootExpr());
+        } catch (UnsupportedExpressionException e) {
+            LOG.debug("Expression {} cannot be compiled, falling back to Jaxen", xpath, e);
+            return JaxenXPath.create(prefixes, schemaPath, parsed);
+        }
+    }
+
+    @Override
+    public XPathDocument createDocument(final NormalizedNode<?, ?> documentRoot) {
+        return jaxenContext.createDocument(documentRoot);
+    }
+}
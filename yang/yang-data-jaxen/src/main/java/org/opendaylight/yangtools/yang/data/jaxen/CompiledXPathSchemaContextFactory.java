@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.jaxen;
+
+import com.google.common.annotations.Beta;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContext;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * An {@link XPathSchemaContextFactory} which compiles expressions into evaluators working directly on
+ * {@link org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode}s. The supported subset covers location
+ * paths along the child, self and parent axes with predicates, current(), deref() of leafrefs, comparisons,
+ * arithmetic, boolean operators and the core string, number and node-set functions. Expressions using other
+ * constructs are evaluated by Jaxen, as with {@link JaxenSchemaContextFactory}.
+ */
+@Beta
+public final class CompiledXPathSchemaContextFactory implements XPathSchemaContextFactory {
+    @Override
+    public XPathSchemaContext createContext(final SchemaContext context) {
+        return new CompiledXPathSchemaContext(context);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.jaxen;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MixinNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+
+/**
+ * Lightweight counterpart to {@link NormalizedNodeContext} used by {@link CompiledXPath}. It tracks the parent node
+ * for purposes of traversing upwards the NormalizedNode tree. Unlike {@link NormalizedNodeContext}, parents never
+ * point to {@link MixinNode}s, as these are not present in the XPath data model.
+ */
+final class DataNodeContext {
+    private final DataNodeContext parent;
+    private final NormalizedNode<?, ?> node;
+
+    DataNodeContext(@Nonnull final NormalizedNode<?, ?> node, @Nullable final DataNodeContext parent) {
+        this.node = Preconditions.checkNotNull(node);
+        this.parent = parent;
+    }
+
+    static DataNodeContext create(final NormalizedNode<?, ?> root, final YangInstanceIdentifier path) {
+        DataNodeContext result = new DataNodeContext(root, null);
+        NormalizedNode<?, ?> current = root;
+        for (PathArgument arg : path.getPathArguments()) {
+            final Optional<NormalizedNode<?, ?>> node = NormalizedNodes.getDirectChild(current, arg);
+            Preconditions.checkArgument(node.isPresent(), "Node %s has no child %s", current, arg);
+            current = node.get();
+            if (!(current instanceof MixinNode)) {
+                result = new DataNodeContext(current, result);
+            }
+        }
+
+        // The path may point to a mixin node itself
+        return current == result.node ? result : new DataNodeContext(current, result);
+    }
+
+    @Nullable DataNodeContext getParent() {
+        return parent;
+    }
+
+    @Nonnull NormalizedNode<?, ?> getNode() {
+        return node;
+    }
+
+    @Nonnull DataNodeContext getRoot() {
+        DataNodeContext ret = this;
+        while (ret.parent != null) {
+            ret = ret.parent;
+        }
+        return ret;
+    }
+
+    DataNodeContext child(final NormalizedNode<?, ?> child) {
+        return new DataNodeContext(child, this);
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.jaxen;
+
+import com.google.common.base.Converter;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.xpath.XPathExpressionException;
+import org.jaxen.JaxenException;
+import org.jaxen.expr.AdditiveExpr;
+import org.jaxen.expr.AllNodeStep;
+import org.jaxen.expr.BinaryExpr;
+import org.jaxen.expr.EqualityExpr;
+import org.jaxen.expr.Expr;
+import org.jaxen.expr.FilterExpr;
+import org.jaxen.expr.FunctionCallExpr;
+import org.jaxen.expr.LiteralExpr;
+import org.jaxen.expr.LocationPath;
+import org.jaxen.expr.LogicalExpr;
+import org.jaxen.expr.MultiplicativeExpr;
+import org.jaxen.expr.NameStep;
+import org.jaxen.expr.NumberExpr;
+import org.jaxen.expr.PathExpr;
+import org.jaxen.expr.Predicate;
+import org.jaxen.expr.RelationalExpr;
+import org.jaxen.expr.Step;
+import org.jaxen.expr.UnaryExpr;
+import org.jaxen.saxpath.Axis;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.jaxen.CompiledExpr.NodeSetExpr;
+import org.opendaylight.yangtools.yang.data.jaxen.CompiledExpr.Operator;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.ModuleImport;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
+
+/**
+ * Translates an expression tree parsed by Jaxen into a {@link CompiledExpr} tree. Location steps are resolved against
+ * the schema as far as possible, which allows deref() to be bound to the referenced leafref and the apex of the
+ * expression to be determined.
+ *
+ * Constructs outside of the supported subset are reported via {@link UnsupportedExpressionException}, in which case
+ * the expression needs to be evaluated by Jaxen.
+ */
+final class ExprCompiler {
+    static final class UnsupportedExpressionException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedExpressionException(final String message) {
+            super(message);
+        }
+    }
+
+    private final SchemaContext schemaContext;
+    private final Converter<String, QNameModule> prefixes;
+    // Schema positions of the context node and of current(), which differ in predicates
+    private final List<DataSchemaNode> contextPosition;
+    private final List<DataSchemaNode> currentPosition;
+    private final ExprCompiler parent;
+
+    // Common prefix of schema paths of all nodes selected by paths in the expression
+    private List<QName> apex;
+    private boolean apexUnknown;
+
+    private ExprCompiler(final SchemaContext schemaContext, final Converter<String, QNameModule> prefixes,
+            final List<DataSchemaNode> contextPosition, final List<DataSchemaNode> currentPosition,
+            final ExprCompiler parent) {
+        this.schemaContext = Preconditions.checkNotNull(schemaContext);
+        this.prefixes = Preconditions.checkNotNull(prefixes);
+        this.contextPosition = contextPosition;
+        this.currentPosition = currentPosition;
+        this.parent = parent;
+    }
+
+    static ExprCompiler create(final SchemaContext schemaContext, final Converter<String, QNameModule> prefixes,
+            final SchemaPath evaluationPath) {
+        final List<DataSchemaNode> position = resolvePosition(schemaContext, evaluationPath);
+        return new ExprCompiler(schemaContext, prefixes, position, position, null);
+    }
+
+    SchemaPath getApexPath() {
+        return apexUnknown || apex == null ? SchemaPath.ROOT : SchemaPath.create(apex, true);
+    }
+
+    CompiledExpr compile(final Expr expr) throws UnsupportedExpressionException, XPathExpressionException {
+        if (expr instanceof LiteralExpr) {
+            return new CompiledExpr.Literal(((LiteralExpr) expr).getLiteral());
+        }
+        if (expr instanceof NumberExpr) {
+            return new CompiledExpr.Literal(((NumberExpr) expr).getNumber().doubleValue());
+        }
+        if (expr instanceof LocationPath) {
+            return compilePath(null, (LocationPath) expr);
+        }
+        if (expr instanceof PathExpr) {
+            final PathExpr path = (PathExpr) expr;
+            final NodeSetExpr filter = path.getFilterExpr() == null ? null : compileNodeSet(path.getFilterExpr());
+            if (path.getLocationPath() == null) {
+                return Preconditions.checkNotNull(filter);
+            }
+            return compilePath(filter, path.getLocationPath());
+        }
+        if (expr instanceof FilterExpr) {
+            final FilterExpr filter = (FilterExpr) expr;
+            if (!filter.getPredicates().isEmpty()) {
+                throw new UnsupportedExpressionException("Predicates on filter expressions are not supported");
+            }
+            return compile(filter.getExpr());
+        }
+        if (expr instanceof UnaryExpr) {
+            return new CompiledExpr.Negate(compile(((UnaryExpr) expr).getExpr()));
+        }
+        if (expr instanceof LogicalExpr) {
+            final BinaryExpr binary = (BinaryExpr) expr;
+            final CompiledExpr lhs = compile(binary.getLHS());
+            final CompiledExpr rhs = compile(binary.getRHS());
+            return "or".equals(binary.getOperator()) ? new CompiledExpr.Or(lhs, rhs) : new CompiledExpr.And(lhs, rhs);
+        }
+        if (expr instanceof EqualityExpr || expr instanceof RelationalExpr) {
+            final BinaryExpr binary = (BinaryExpr) expr;
+            return new CompiledExpr.Comparison(operator(binary), compile(binary.getLHS()), compile(binary.getRHS()));
+        }
+        if (expr instanceof AdditiveExpr || expr instanceof MultiplicativeExpr) {
+            final BinaryExpr binary = (BinaryExpr) expr;
+            return new CompiledExpr.Arithmetic(operator(binary), compile(binary.getLHS()), compile(binary.getRHS()));
+        }
+        if (expr instanceof FunctionCallExpr) {
+            return compileFunction((FunctionCallExpr) expr);
+        }
+
+        throw new UnsupportedExpressionException("Unsupported expression " + expr.getText());
+    }
+
+    private static Operator operator(final BinaryExpr expr) throws UnsupportedExpressionException {
+        final Operator ret = Operator.forString(expr.getOperator());
+        if (ret == null) {
+            throw new UnsupportedExpressionException("Unsupported operator " + expr.getOperator());
+        }
+        return ret;
+    }
+
+    private NodeSetExpr compileNodeSet(final Expr expr) throws UnsupportedExpressionException,
+            XPathExpressionException {
+        final CompiledExpr ret = compile(expr);
+        if (!(ret instanceof NodeSetExpr)) {
+            throw new UnsupportedExpressionException("Expression " + expr.getText() + " is not a node-set");
+        }
+        return (NodeSetExpr) ret;
+    }
+
+    private CompiledExpr.Path compilePath(final NodeSetExpr start, final LocationPath path)
+            throws UnsupportedExpressionException, XPathExpressionException {
+        List<DataSchemaNode> position;
+        if (start != null) {
+            position = start.getPosition();
+        } else if (path.isAbsolute()) {
+            position = ImmutableList.of();
+        } else {
+            position = contextPosition;
+        }
+
+        final List<CompiledExpr.Step> steps = new ArrayList<>();
+        for (Object obj : path.getSteps()) {
+            final Step step = (Step) obj;
+            final CompiledExpr.Step compiled;
+            if (step instanceof NameStep && step.getAxis() == Axis.CHILD) {
+                final NameStep name = (NameStep) step;
+                if ("*".equals(name.getLocalName())) {
+                    throw new UnsupportedExpressionException("Wildcard steps are not supported");
+                }
+
+                final QName qname;
+                if (Strings.isNullOrEmpty(name.getPrefix())) {
+                    qname = position == null || position.isEmpty() ? null
+                            : QName.create(Iterables.getLast(position).getQName().getModule(), name.getLocalName());
+                } else {
+                    qname = QName.create(resolvePrefix(name.getPrefix()), name.getLocalName());
+                }
+
+                position = childPosition(position, qname);
+                final List<CompiledExpr> predicates = compilePredicates(step, position);
+                compiled = Strings.isNullOrEmpty(name.getPrefix())
+                        ? new CompiledExpr.ChildStep(name.getLocalName(), predicates)
+                                : new CompiledExpr.ChildStep(qname, predicates);
+            } else if (step instanceof AllNodeStep && step.getAxis() == Axis.SELF) {
+                compiled = new CompiledExpr.SelfStep(compilePredicates(step, position));
+            } else if (step instanceof AllNodeStep && step.getAxis() == Axis.PARENT) {
+                position = position == null || position.isEmpty() ? null : position.subList(0, position.size() - 1);
+                compiled = new CompiledExpr.ParentStep(compilePredicates(step, position));
+            } else {
+                throw new UnsupportedExpressionException("Unsupported step " + step.getText());
+            }
+
+            steps.add(compiled);
+        }
+
+        // Intermediate steps are ancestors of the resulting nodes, hence they do not need to be recorded
+        record(position);
+        return new CompiledExpr.Path(start, path.isAbsolute(), steps, position);
+    }
+
+    private List<CompiledExpr> compilePredicates(final Step step, final List<DataSchemaNode> position)
+            throws UnsupportedExpressionException, XPathExpressionException {
+        final List<?> predicates = step.getPredicates();
+        if (predicates.isEmpty()) {
+            return ImmutableList.of();
+        }
+
+        final ExprCompiler compiler = new ExprCompiler(schemaContext, prefixes, position, currentPosition, this);
+        final List<CompiledExpr> ret = new ArrayList<>(predicates.size());
+        for (Object predicate : predicates) {
+            ret.add(compiler.compile(((Predicate) predicate).getExpr()));
+        }
+        return ret;
+    }
+
+    private CompiledExpr compileFunction(final FunctionCallExpr expr) throws UnsupportedExpressionException,
+            XPathExpressionException {
+        if (!Strings.isNullOrEmpty(expr.getPrefix())) {
+            throw new UnsupportedExpressionException("Unsupported function " + expr.getText());
+        }
+
+        final String name = expr.getFunctionName();
+        final List<?> params = expr.getParameters();
+        switch (name) {
+            case "current":
+                checkNoArgs(expr);
+                record(currentPosition);
+                return new CompiledExpr.Current(currentPosition);
+            case "true":
+                checkNoArgs(expr);
+                return new CompiledExpr.Literal(Boolean.TRUE);
+            case "false":
+                checkNoArgs(expr);
+                return new CompiledExpr.Literal(Boolean.FALSE);
+            case "deref":
+                if (params.size() != 1) {
+                    throw new UnsupportedExpressionException("deref() takes one argument");
+                }
+                return compileDeref(compileNodeSet((Expr) params.get(0)));
+            default:
+                break;
+        }
+
+        final CompiledExpr.Function function = CompiledExpr.Function.forName(name);
+        if (function == null || !function.acceptsArgs(params.size())) {
+            throw new UnsupportedExpressionException("Unsupported function " + expr.getText());
+        }
+
+        final List<CompiledExpr> args = new ArrayList<>(params.size());
+        for (Object param : params) {
+            args.add(compile((Expr) param));
+        }
+        return new CompiledExpr.FunctionCall(function, args);
+    }
+
+    private static void checkNoArgs(final FunctionCallExpr expr) throws UnsupportedExpressionException {
+        if (!expr.getParameters().isEmpty()) {
+            throw new UnsupportedExpressionException(expr.getFunctionName() + "() takes no arguments");
+        }
+    }
+
+    private CompiledExpr compileDeref(final NodeSetExpr arg) throws UnsupportedExpressionException,
+            XPathExpressionException {
+        final List<DataSchemaNode> position = arg.getPosition();
+        final DataSchemaNode node = position == null || position.isEmpty() ? null : Iterables.getLast(position);
+        if (!(node instanceof LeafSchemaNode)) {
+            throw new UnsupportedExpressionException("deref() argument cannot be resolved to a leaf");
+        }
+
+        TypeDefinition<?> type = ((LeafSchemaNode) node).getType();
+        while (type != null && !(type instanceof LeafrefTypeDefinition)) {
+            type = type.getBaseType();
+        }
+        if (type == null) {
+            throw new UnsupportedExpressionException("deref() is supported only for leafrefs");
+        }
+
+        final String path = ((LeafrefTypeDefinition) type).getPathStatement().toString();
+        final ExprCompiler compiler = new ExprCompiler(schemaContext, modulePrefixes(node.getQName()), position,
+            position, this);
+        final Expr parsed;
+        try {
+            parsed = JaxenXPath.parse(path).getRootExpr();
+        } catch (JaxenException e) {
+            throw new XPathExpressionException(e);
+        }
+
+        return new CompiledExpr.Deref(arg, compiler.compileNodeSet(parsed));
+    }
+
+    /**
+     * Prefixes in leafref paths are those declared in the module defining the leaf.
+     */
+    private Converter<String, QNameModule> modulePrefixes(final QName qname) throws UnsupportedExpressionException {
+        final Module module = schemaContext.findModuleByNamespaceAndRevision(qname.getNamespace(),
+            qname.getRevision());
+        if (module == null) {
+            throw new UnsupportedExpressionException("Module of " + qname + " not found");
+        }
+
+        final BiMap<String, QNameModule> ret = HashBiMap.create();
+        ret.put(module.getPrefix(), module.getQNameModule());
+        for (ModuleImport imp : module.getImports()) {
+            final Module imported = schemaContext.findModuleByName(imp.getModuleName(), imp.getRevision());
+            if (imported != null) {
+                ret.forcePut(imp.getPrefix(), imported.getQNameModule());
+            }
+        }
+        return Maps.asConverter(ret);
+    }
+
+    private QNameModule resolvePrefix(final String prefix) throws XPathExpressionException {
+        try {
+            return Preconditions.checkNotNull(prefixes.convert(prefix));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new XPathExpressionException("Unknown prefix " + prefix);
+        }
+    }
+
+    private void record(final List<DataSchemaNode> position) {
+        if (parent != null) {
+            parent.record(position);
+            return;
+        }
+        if (position == null) {
+            apexUnknown = true;
+            return;
+        }
+
+        final List<QName> path = position.isEmpty() ? ImmutableList.<QName>of()
+                : ImmutableList.copyOf(Iterables.getLast(position).getPath().getPathFromRoot());
+        if (apex == null) {
+            apex = path;
+            return;
+        }
+
+        int common = 0;
+        while (common < apex.size() && common < path.size() && apex.get(common).equals(path.get(common))) {
+            common++;
+        }
+        apex = apex.subList(0, common);
+    }
+
+    private List<DataSchemaNode> childPosition(final List<DataSchemaNode> position, final QName qname) {
+        if (position == null || qname == null) {
+            return null;
+        }
+
+        final DataNodeContainer container;
+        if (position.isEmpty()) {
+            container = schemaContext;
+        } else if (Iterables.getLast(position) instanceof DataNodeContainer) {
+            container = (DataNodeContainer) Iterables.getLast(position);
+        } else {
+            return null;
+        }
+
+        final DataSchemaNode child = container.getDataChildByName(qname);
+        if (child == null || child instanceof ChoiceSchemaNode || child instanceof ChoiceCaseNode) {
+            return null;
+        }
+
+        return ImmutableList.<DataSchemaNode>builder().addAll(position).add(child).build();
+    }
+
+    /**
+     * Resolve the data nodes visible to XPath along a schema path, skipping choices and cases.
+     */
+    private static List<DataSchemaNode> resolvePosition(final SchemaContext schemaContext, final SchemaPath path) {
+        final List<DataSchemaNode> ret = new ArrayList<>();
+        DataNodeContainer container = schemaContext;
+        ChoiceSchemaNode choice = null;
+        for (QName qname : path.getPathFromRoot()) {
+            final DataSchemaNode child;
+            if (choice != null) {
+                child = choice.getCaseNodeByName(qname);
+            } else if (container != null) {
+                child = container.getDataChildByName(qname);
+            } else {
+                return null;
+            }
+            if (child == null) {
+                return null;
+            }
+
+            if (child instanceof ChoiceSchemaNode) {
+                choice = (ChoiceSchemaNode) child;
+                container = null;
+            } else if (child instanceof ChoiceCaseNode) {
+                choice = null;
+                container = (ChoiceCaseNode) child;
+            } else {
+                ret.add(child);
+                choice = null;
+                container = child instanceof DataNodeContainer ? (DataNodeContainer) child : null;
+            }
+        }
+        return ImmutableList.copyOf(ret);
+    }
+}
@@ -55,6 +55,17 @@ final class JaxenXPath implements XPathExpression {
 
     static JaxenXPath create(final Converter<String, QNameModule> converter, final SchemaPath schemaPath,
             final String xpath) throws JaxenException {
+        return create(converter, schemaPath, parse(xpath));
+    }
+
+    static JaxenXPath create(final Converter<String, QNameModule> converter, final SchemaPath schemaPath,
+            final BaseXPath compiled) {
+        // FIXME: perform expression introspection to understand things like apex, etc.
+
+        return new JaxenXPath(converter, schemaPath, compiled);
+    }
+
+    static BaseXPath parse(final String xpath) throws JaxenException {
         final BaseXPath compiled = new BaseXPath(xpath) {
             private static final long serialVersionUID = 1L;
 
@@ -66,10 +77,7 @@ final class JaxenXPath implements XPathExpression {
 
         final Expr expr = compiled.getRootExpr();
         LOG.debug("Compiled {} to expression {}", xpath, expr);
-
-        // FIXME: perform expression introspection to understand things like apex, etc.
-
-        return new JaxenXPath(converter, schemaPath, compiled);
+        return compiled;
     }
 
     @Override
@@ -36,6 +36,7 @@ import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
 
 /**
  * A {@link Navigator} implementation for YANG XPaths instantiated on a particular root {@link NormalizedNode}.
@@ -159,7 +160,10 @@ final class NormalizedNodeNavigator extends DefaultNavigator implements NamedAcc
 
     @Override
     public String getElementStringValue(final Object element) {
-        final NormalizedNode<?, ?> node = contextNode(element);
+        return stringValue(contextNode(element));
+    }
+
+    static String stringValue(final NormalizedNode<?, ?> node) {
         if (node instanceof LeafNode || node instanceof LeafSetEntryNode) {
             final Object value = node.getValue();
 
@@ -234,6 +238,9 @@ final class NormalizedNodeNavigator extends DefaultNavigator implements NamedAcc
         if (child instanceof LeafSetNode) {
             return Iterators.transform(((LeafSetNode<?>)child).getValue().iterator(), ctx);
         }
+        if (child instanceof UnkeyedListNode) {
+            return Iterators.transform(((UnkeyedListNode)child).getValue().iterator(), ctx);
+        }
 
         return Iterators.singletonIterator(ctx.apply(child));
     }
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.jaxen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Converter;
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import java.util.Collection;
+import javax.xml.xpath.XPathExpressionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathDocument;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathExpression;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathNodesetResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContext;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+public class CompiledXPathTest {
+    private static final QName INTERFACES = QName.create("urn:opendaylight.compiled-test", "2016-03-21",
+        "interfaces");
+    private static final QName INTERFACE = QName.create(INTERFACES, "interface");
+    private static final QName NAME = QName.create(INTERFACES, "name");
+    private static final QName TYPE = QName.create(INTERFACES, "type");
+    private static final QName MTU = QName.create(INTERFACES, "mtu");
+    private static final QName TAG = QName.create(INTERFACES, "tag");
+    private static final QName SUBINTERFACES = QName.create(INTERFACES, "subinterfaces");
+    private static final QName SUBINTERFACE = QName.create(INTERFACES, "subinterface");
+    private static final QName ID = QName.create(INTERFACES, "id");
+    private static final QName PARENT = QName.create(INTERFACES, "parent");
+    private static final QName STATISTICS = QName.create(INTERFACES, "statistics");
+    private static final QName COUNTER = QName.create(INTERFACES, "counter");
+    private static final QName VALUE = QName.create(INTERFACES, "value");
+
+    private static final SchemaPath MTU_PATH = SchemaPath.create(true, SUBINTERFACES, SUBINTERFACE, MTU);
+    private static final YangInstanceIdentifier SUBINTERFACE_MTU = YangInstanceIdentifier.builder()
+            .node(SUBINTERFACES).node(SUBINTERFACE).nodeWithKey(SUBINTERFACE, ID, 2L).node(MTU).build();
+
+    private XPathSchemaContext compiledContext;
+    private XPathSchemaContext jaxenContext;
+    private XPathDocument document;
+    private Converter<String, QNameModule> prefixes;
+
+    @Before
+    public void setup() throws Exception {
+        final SchemaContext schemaContext = TestUtils.loadModules("/test/compiledTest");
+        compiledContext = new CompiledXPathSchemaContextFactory().createContext(schemaContext);
+        jaxenContext = new JaxenSchemaContextFactory().createContext(schemaContext);
+        prefixes = Maps.asConverter(ImmutableBiMap.of("ct", INTERFACES.getModule()));
+
+        document = compiledContext.createDocument(Builders.containerBuilder()
+            .withNodeIdentifier(new NodeIdentifier(SchemaContext.NAME))
+            .withChild(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(INTERFACES))
+                .withChild(ImmutableNodes.mapNodeBuilder(INTERFACE)
+                    .withChild(interfaceEntry("eth0", "ethernet", 1500, "core"))
+                    .withChild(interfaceEntry("eth1", "ethernet", 9000, "edge"))
+                    .withChild(interfaceEntry("lo", "loopback", 65535, "core"))
+                    .build())
+                .build())
+            .withChild(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(SUBINTERFACES))
+                .withChild(ImmutableNodes.mapNodeBuilder(SUBINTERFACE)
+                    .withChild(subinterfaceEntry(1, "eth0", 1400))
+                    .withChild(subinterfaceEntry(2, "eth1", 1500))
+                    .build())
+                .build())
+            .withChild(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(STATISTICS))
+                .withChild(Builders.unkeyedListBuilder().withNodeIdentifier(new NodeIdentifier(COUNTER))
+                    .withChild(counterEntry("rx", 10))
+                    .withChild(counterEntry("tx", 20))
+                    .build())
+                .build())
+            .build());
+    }
+
+    @Test
+    public void testSameResultsAsJaxen() throws XPathExpressionException {
+        assertSameResult("../parent");
+        assertSameResult(".");
+        assertSameResult(". = 1500");
+        assertSameResult("count(/ct:interfaces/ct:interface)");
+        assertSameResult("count(/ct:interfaces/ct:interface[type = 'ethernet']) > 1 and not(../mtu > 9000)");
+        assertSameResult("/ct:interfaces/ct:interface[2]/name");
+        assertSameResult("/ct:interfaces/ct:interface[tag = 'core'][mtu > 1500]/name");
+        assertSameResult("/ct:interfaces/ct:interface/tag = 'edge'");
+        assertSameResult("/ct:interfaces/ct:interface/mtu = ../mtu");
+        assertSameResult("/ct:interfaces/ct:interface/mtu != /ct:interfaces/ct:interface/mtu");
+        assertSameResult("/ct:interfaces/ct:missing = false()");
+        assertSameResult("../mtu + 10");
+        assertSameResult("-../mtu div 7");
+        assertSameResult("../mtu mod 7 * 3");
+        assertSameResult("string(../parent)");
+        assertSameResult("concat(../parent, '.', ../id)");
+        assertSameResult("contains(../parent, 'th') or starts-with(../parent, 'lo')");
+        assertSameResult("string-length(../parent)");
+        assertSameResult("number('12') = 12 and boolean(../missing) = false()");
+        assertSameResult("true() != false()");
+        assertSameResult("/ct:interfaces/ct:interface/name = true()");
+        assertSameResult("/ct:interfaces/ct:missing != false()");
+        assertSameResult("count(/ct:statistics/ct:counter)");
+        assertSameResult("/ct:statistics/ct:counter[value > 10]/name");
+    }
+
+    @Test
+    public void testCurrent() throws XPathExpressionException {
+        // Jaxen cannot resolve current(), hence we check the results directly
+        final XPathExpression expr = compiledContext.compileExpression(MTU_PATH, prefixes,
+            "/ct:interfaces/ct:interface[name = current()/../parent]/mtu");
+        assertEquals(ImmutableList.of(ImmutableNodes.leafNode(MTU, 9000)),
+            ImmutableList.copyOf(nodes(expr.evaluate(document, SUBINTERFACE_MTU).get())));
+
+        assertEquals(Boolean.TRUE, compiledContext.compileExpression(MTU_PATH, prefixes,
+            "/ct:interfaces/ct:interface[name = current()/../parent]/mtu >= current()")
+            .evaluate(document, SUBINTERFACE_MTU).get().getValue());
+    }
+
+    @Test
+    public void testRelationalBooleanComparison() throws XPathExpressionException {
+        // Jaxen cannot compare node-sets to booleans with relational operators, hence we check the results directly
+        assertEquals(Boolean.TRUE, compiledContext.compileExpression(MTU_PATH, prefixes,
+            "/ct:interfaces/ct:interface/name > false()").evaluate(document, SUBINTERFACE_MTU).get().getValue());
+        assertEquals(Boolean.TRUE, compiledContext.compileExpression(MTU_PATH, prefixes,
+            "/ct:interfaces/ct:missing < true()").evaluate(document, SUBINTERFACE_MTU).get().getValue());
+        assertEquals(Boolean.FALSE, compiledContext.compileExpression(MTU_PATH, prefixes,
+            "true() < /ct:interfaces/ct:interface/mtu").evaluate(document, SUBINTERFACE_MTU).get().getValue());
+    }
+
+    @Test
+    public void testFallback() throws XPathExpressionException {
+        final XPathExpression expr = compiledContext.compileExpression(MTU_PATH, prefixes,
+            "count(/ct:interfaces/ct:interface[position() > 1])");
+        assertTrue(expr instanceof JaxenXPath);
+        assertSameResult("count(/ct:interfaces/ct:interface[position() > 1])");
+        assertSameResult("/ct:interfaces/ct:interface[last()]/name");
+    }
+
+    @Test
+    public void testDeref() throws XPathExpressionException {
+        final XPathExpression expr = compiledContext.compileExpression(MTU_PATH, prefixes,
+            "deref(../parent)/../mtu");
+        assertTrue(expr instanceof CompiledXPath);
+        final Collection<NormalizedNode<?, ?>> nodes = nodes(expr.evaluate(document, SUBINTERFACE_MTU).get());
+        assertEquals(ImmutableList.of(ImmutableNodes.leafNode(MTU, 9000)), ImmutableList.copyOf(nodes));
+
+        assertEquals(Boolean.TRUE, compiledContext.compileExpression(MTU_PATH, prefixes,
+            ". <= deref(../parent)/../mtu").evaluate(document, SUBINTERFACE_MTU).get().getValue());
+    }
+
+    @Test
+    public void testParentSkipsList() throws XPathExpressionException {
+        // Jaxen's parent of a list entry is the list node, which has no named children
+        assertEquals(2.0, compiledContext.compileExpression(MTU_PATH, prefixes, "count(../../subinterface)")
+            .evaluate(document, SUBINTERFACE_MTU).get().getValue());
+    }
+
+    @Test
+    public void testApexPath() throws XPathExpressionException {
+        assertEquals(SchemaPath.create(true, SUBINTERFACES, SUBINTERFACE),
+            compiledContext.compileExpression(MTU_PATH, prefixes, "../parent != ../id").getApexPath());
+        assertEquals(SchemaPath.create(true, INTERFACES, INTERFACE),
+            compiledContext.compileExpression(MTU_PATH, prefixes, "count(/ct:interfaces/ct:interface)")
+            .getApexPath());
+        assertEquals(SchemaPath.ROOT, compiledContext.compileExpression(MTU_PATH, prefixes,
+            "/ct:interfaces/ct:interface[name = current()/../parent]").getApexPath());
+    }
+
+    @Test(expected = XPathExpressionException.class)
+    public void testUnknownPrefix() throws XPathExpressionException {
+        compiledContext.compileExpression(MTU_PATH, prefixes, "/foo:interfaces");
+    }
+
+    private void assertSameResult(final String xpath) throws XPathExpressionException {
+        final XPathResult<?> expected = jaxenContext.compileExpression(MTU_PATH, prefixes, xpath)
+                .evaluate(document, SUBINTERFACE_MTU).get();
+        final XPathResult<?> actual = compiledContext.compileExpression(MTU_PATH, prefixes, xpath)
+                .evaluate(document, SUBINTERFACE_MTU).get();
+
+        if (expected instanceof XPathNodesetResult) {
+            assertTrue(xpath, actual instanceof XPathNodesetResult);
+            assertEquals(xpath, ImmutableList.copyOf(nodes(expected)), ImmutableList.copyOf(nodes(actual)));
+        } else {
+            assertEquals(xpath, expected.getValue(), actual.getValue());
+        }
+    }
+
+    private static Collection<NormalizedNode<?, ?>> nodes(final XPathResult<?> result) {
+        return ((XPathNodesetResult) result).getValue();
+    }
+
+    private static MapEntryNode interfaceEntry(final String name, final String type, final int mtu,
+            final String tag) {
+        return ImmutableNodes.mapEntryBuilder(INTERFACE, NAME, name)
+                .withChild(ImmutableNodes.leafNode(TYPE, type))
+                .withChild(ImmutableNodes.leafNode(MTU, mtu))
+                .withChild(Builders.leafSetBuilder().withNodeIdentifier(new NodeIdentifier(TAG))
+                    .withChildValue(tag).build())
+                .build();
+    }
+
+    private static UnkeyedListEntryNode counterEntry(final String name, final long value) {
+        return Builders.unkeyedListEntryBuilder().withNodeIdentifier(new NodeIdentifier(COUNTER))
+                .withChild(ImmutableNodes.leafNode(NAME, name))
+                .withChild(ImmutableNodes.leafNode(VALUE, value))
+                .build();
+    }
+
+    private static MapEntryNode subinterfaceEntry(final long id, final String parent, final int mtu) {
+        return ImmutableNodes.mapEntryBuilder(SUBINTERFACE, ID, id)
+                .withChild(ImmutableNodes.leafNode(PARENT, parent))
+                .withChild(ImmutableNodes.leafNode(MTU, mtu))
+                .build();
+    }
+}
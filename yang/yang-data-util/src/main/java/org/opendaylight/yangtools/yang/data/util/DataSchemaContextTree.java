@@ -7,15 +7,39 @@
  */
 package org.opendaylight.yangtools.yang.data.util;
 
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
+/**
+ * Tree of {@link DataSchemaContextNode}s for a particular {@link SchemaContext}. Resolved paths are cached in a bounded
+ * cache keyed by their schema-only form, i.e. with list keys and leaf-list values stripped, so that all instances of
+ * a list share the same entry. A path missing from the cache is resolved from its parent's entry, hence only
+ * the last step of a new path under a known parent needs to be walked.
+ *
+ * <p>
+ * Trees are shared by all users of a SchemaContext. A tree may be garbage-collected while its SchemaContext is still
+ * in use, but its resolved paths are retained until the SchemaContext itself is collected.
+ */
 public final class DataSchemaContextTree {
+    private static final int MAX_CACHED_PATHS = 65536;
+
+    /*
+     * Trees reference their SchemaContext through the root node, hence they can only be weakly reachable from here.
+     */
     private static final LoadingCache<SchemaContext, DataSchemaContextTree> TREES = CacheBuilder.newBuilder()
             .weakKeys().weakValues().build(new CacheLoader<SchemaContext, DataSchemaContextTree>() {
                 @Override
@@ -24,22 +48,106 @@ public final class DataSchemaContextTree {
                 }
             });
 
+    /*
+     * Resolved paths are retained for as long as their SchemaContext lives. They must not reference the SchemaContext,
+     * otherwise it would never be collected, hence the root node is not cached and the cache does not have a loader.
+     */
+    private static final LoadingCache<SchemaContext, Cache<YangInstanceIdentifier, Optional<DataSchemaContextNode<?>>>>
+            PATHS = CacheBuilder.newBuilder().weakKeys().build(
+                new CacheLoader<SchemaContext, Cache<YangInstanceIdentifier, Optional<DataSchemaContextNode<?>>>>() {
+                    @Override
+                    public Cache<YangInstanceIdentifier, Optional<DataSchemaContextNode<?>>> load(
+                            final SchemaContext key) {
+                        return CacheBuilder.newBuilder().maximumSize(MAX_CACHED_PATHS).recordStats().build();
+                    }
+                });
+
+    private final Cache<YangInstanceIdentifier, Optional<DataSchemaContextNode<?>>> paths;
     private final DataSchemaContextNode<?> root;
 
     private DataSchemaContextTree(final SchemaContext ctx) {
         root = DataSchemaContextNode.from(ctx);
+        paths = PATHS.getUnchecked(ctx);
     }
 
     @Nonnull public static DataSchemaContextTree from(@Nonnull final SchemaContext ctx) {
         return TREES.getUnchecked(ctx);
     }
 
+    /**
+     * Find the context node corresponding to a path.
+     *
+     * @param path Instance identifier, may contain list keys and leaf-list values
+     * @return Context node, or null if the path does not match the schema
+     */
     public DataSchemaContextNode<?> getChild(final YangInstanceIdentifier path) {
-        DataSchemaContextNode<?> currentOp = root;
+        return resolve(toSchemaPath(path)).orNull();
+    }
+
+    /**
+     * Return statistics of the resolved path cache. The cache is shared by all trees of the same SchemaContext.
+     *
+     * @return Path cache statistics
+     */
+    public CacheStats getPathCacheStats() {
+        return paths.stats();
+    }
+
+    private Optional<DataSchemaContextNode<?>> resolve(final YangInstanceIdentifier path) {
+        final YangInstanceIdentifier parentPath = path.getParent();
+        if (parentPath == null) {
+            return Optional.<DataSchemaContextNode<?>>of(root);
+        }
+
+        try {
+            return paths.get(path, new Callable<Optional<DataSchemaContextNode<?>>>() {
+                @Override
+                public Optional<DataSchemaContextNode<?>> call() {
+                    final Optional<DataSchemaContextNode<?>> parent = resolve(parentPath);
+                    if (!parent.isPresent()) {
+                        return parent;
+                    }
+                    return Optional.<DataSchemaContextNode<?>>fromNullable(
+                        parent.get().getChild(path.getLastPathArgument()));
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to resolve " + path, e.getCause());
+        }
+    }
+
+    private static YangInstanceIdentifier toSchemaPath(final YangInstanceIdentifier path) {
+        // Reuse the path as-is if it does not contain any instance-specific arguments
+        boolean schemaOnly = true;
         for (PathArgument arg : path.getPathArguments()) {
-            currentOp = currentOp.getChild(arg);
+            if (toSchemaArgument(arg) != arg) {
+                schemaOnly = false;
+                break;
+            }
+        }
+        if (schemaOnly) {
+            return path;
+        }
+
+        // Stacked identifiers make the parent of each step available without copying
+        YangInstanceIdentifier schemaPath = YangInstanceIdentifier.EMPTY;
+        for (PathArgument arg : path.getPathArguments()) {
+            schemaPath = schemaPath.node(toSchemaArgument(arg));
+        }
+        return schemaPath;
+    }
+
+    private static PathArgument toSchemaArgument(final PathArgument arg) {
+        if (arg instanceof NodeIdentifierWithPredicates) {
+            if (!((NodeIdentifierWithPredicates) arg).getKeyValues().isEmpty()) {
+                return new NodeIdentifierWithPredicates(arg.getNodeType(), Collections.<QName, Object>emptyMap());
+            }
+        } else if (arg instanceof NodeWithValue) {
+            if (((NodeWithValue<?>) arg).getValue() != null) {
+                return new NodeWithValue<>(arg.getNodeType(), null);
+            }
         }
-        return currentOp;
+        return arg;
     }
 
     public DataSchemaContextNode<?> getRoot() {
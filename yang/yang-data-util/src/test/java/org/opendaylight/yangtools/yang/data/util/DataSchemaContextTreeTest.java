@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+
+public class DataSchemaContextTreeTest {
+    private static final QName TOP = QName.create("urn:opendaylight:context-tree-test", "2016-04-01", "top");
+    private static final QName ENTRY = QName.create(TOP, "entry");
+    private static final QName ID = QName.create(TOP, "id");
+    private static final QName VALUES = QName.create(TOP, "values");
+    private static final QName SHAPE = QName.create(TOP, "shape");
+    private static final QName RADIUS = QName.create(TOP, "radius");
+    private static final QName AUGMENTED = QName.create(TOP, "augmented");
+    private static final QName MISSING = QName.create(TOP, "missing");
+
+    private static final YangInstanceIdentifier TOP_PATH = YangInstanceIdentifier.of(TOP);
+
+    private static DataSchemaContextTree tree;
+
+    @BeforeClass
+    public static void beforeClass() throws ReactorException {
+        tree = DataSchemaContextTree.from(createContext());
+    }
+
+    private static SchemaContext createContext() throws ReactorException {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        return reactor.buildEffective(Collections.singletonList(
+            DataSchemaContextTreeTest.class.getResourceAsStream("/context-tree-test.yang")));
+    }
+
+    private static void collect(final WeakReference<?> ref) {
+        for (int i = 0; i < 10 && ref.get() != null; ++i) {
+            System.gc();
+        }
+        assertNull(ref.get());
+    }
+
+    private static YangInstanceIdentifier valuePath(final long id, final String value) {
+        return YangInstanceIdentifier.builder(TOP_PATH).node(ENTRY).nodeWithKey(ENTRY, ID, id).node(VALUES)
+                .node(new NodeWithValue<>(VALUES, value)).build();
+    }
+
+    @Test
+    public void testKeysAndValuesStripped() {
+        final DataSchemaContextNode<?> first = tree.getChild(valuePath(1, "a"));
+        assertNotNull(first);
+        assertTrue(first.isLeaf());
+        assertEquals(VALUES, first.getIdentifier().getNodeType());
+        assertSame(first, tree.getChild(valuePath(2, "b")));
+
+        final DataSchemaContextNode<?> entry = tree.getChild(valuePath(1, "a").getParent().getParent());
+        assertNotNull(entry);
+        assertTrue(entry.isKeyedEntry());
+        assertSame(entry, tree.getChild(valuePath(3, "c").getParent().getParent()));
+    }
+
+    @Test
+    public void testParentPrefixReused() {
+        final YangInstanceIdentifier parentPath = YangInstanceIdentifier.builder(TOP_PATH).node(ENTRY)
+                .nodeWithKey(ENTRY, ID, 10L).build();
+        assertNotNull(tree.getChild(parentPath));
+
+        // Only the last step is resolved, the parent entry is looked up in the cache
+        final CacheStats before = tree.getPathCacheStats();
+        assertNotNull(tree.getChild(YangInstanceIdentifier.builder(parentPath).node(ID).build()));
+        final CacheStats miss = tree.getPathCacheStats().minus(before);
+        assertEquals(1, miss.loadCount());
+        assertEquals(1, miss.hitCount());
+
+        // A different list entry maps onto the same cached path
+        final CacheStats hitBefore = tree.getPathCacheStats();
+        assertNotNull(tree.getChild(YangInstanceIdentifier.builder(TOP_PATH).node(ENTRY)
+            .nodeWithKey(ENTRY, ID, 11L).node(ID).build()));
+        final CacheStats hit = tree.getPathCacheStats().minus(hitBefore);
+        assertEquals(0, hit.loadCount());
+        assertEquals(1, hit.hitCount());
+    }
+
+    @Test
+    public void testChoice() {
+        final DataSchemaContextNode<?> choice = tree.getChild(YangInstanceIdentifier.builder(TOP_PATH).node(SHAPE)
+            .build());
+        assertNotNull(choice);
+        assertTrue(choice.isMixin());
+
+        final DataSchemaContextNode<?> radius = tree.getChild(YangInstanceIdentifier.builder(TOP_PATH).node(SHAPE)
+            .node(RADIUS).build());
+        assertNotNull(radius);
+        assertEquals(new NodeIdentifier(RADIUS), radius.getIdentifier());
+    }
+
+    @Test
+    public void testAugmentation() {
+        final AugmentationIdentifier augId = new AugmentationIdentifier(ImmutableSet.of(AUGMENTED));
+        final DataSchemaContextNode<?> augmentation = tree.getChild(YangInstanceIdentifier.builder(TOP_PATH)
+            .node(augId).build());
+        assertNotNull(augmentation);
+        assertTrue(augmentation.isMixin());
+        assertEquals(augId, augmentation.getIdentifier());
+
+        final DataSchemaContextNode<?> augmented = tree.getChild(YangInstanceIdentifier.builder(TOP_PATH)
+            .node(augId).node(AUGMENTED).build());
+        assertNotNull(augmented);
+        assertEquals(new NodeIdentifier(AUGMENTED), augmented.getIdentifier());
+    }
+
+    @Test
+    public void testNonMatchingPath() {
+        assertNull(tree.getChild(YangInstanceIdentifier.builder(TOP_PATH).node(MISSING).build()));
+        assertNull(tree.getChild(YangInstanceIdentifier.builder(TOP_PATH).node(MISSING).node(ID).build()));
+        assertNull(tree.getChild(YangInstanceIdentifier.builder(TOP_PATH).node(ENTRY).nodeWithKey(ENTRY, ID, 1L)
+            .node(MISSING).node(ID).build()));
+    }
+
+    @Test
+    public void testPathsOutliveTree() throws ReactorException {
+        final SchemaContext ctx = createContext();
+        final YangInstanceIdentifier path = valuePath(1, "a");
+        final WeakReference<DataSchemaContextTree> ref = resolveOnce(ctx, path);
+
+        // The tree itself is only weakly reachable, but the paths it resolved remain cached
+        collect(ref);
+        final DataSchemaContextTree newTree = DataSchemaContextTree.from(ctx);
+        final CacheStats before = newTree.getPathCacheStats();
+        assertNotNull(newTree.getChild(path));
+        final CacheStats stats = newTree.getPathCacheStats().minus(before);
+        assertEquals(0, stats.loadCount());
+        assertEquals(1, stats.hitCount());
+    }
+
+    @Test
+    public void testContextCollected() throws ReactorException {
+        collect(resolveInRetiredContext());
+    }
+
+    private static WeakReference<DataSchemaContextTree> resolveOnce(final SchemaContext ctx,
+            final YangInstanceIdentifier path) {
+        final DataSchemaContextTree contextTree = DataSchemaContextTree.from(ctx);
+        assertNotNull(contextTree.getChild(path));
+        return new WeakReference<>(contextTree);
+    }
+
+    private static WeakReference<SchemaContext> resolveInRetiredContext() throws ReactorException {
+        final SchemaContext ctx = createContext();
+        resolveOnce(ctx, valuePath(1, "a"));
+        final DataSchemaContextTree contextTree = DataSchemaContextTree.from(ctx);
+        assertNotNull(contextTree.getChild(YangInstanceIdentifier.builder(TOP_PATH).node(SHAPE).node(RADIUS).build()));
+        assertNotNull(contextTree.getChild(YangInstanceIdentifier.builder(TOP_PATH)
+            .node(new AugmentationIdentifier(ImmutableSet.of(AUGMENTED))).node(AUGMENTED).build()));
+        return new WeakReference<>(ctx);
+    }
+}
@@ -11,28 +11,37 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.Date;
-import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
@@ -41,12 +50,21 @@ import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource.Costs;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Cache implementation that stores schemas in form of files under provided folder
+ * Cache implementation that stores schemas in form of files under provided folder.
+ *
+ * <p>
+ * The content of the folder is indexed in memory when the cache is instantiated and the index is maintained as
+ * sources are stored, so that lookups do not need to access the filesystem until the source is actually read.
+ * Lookups do not take any locks, hence concurrent lookups do not contend. Sources are stored by an {@link Executor}
+ * specified at instantiation, so that {@link #offer(SchemaSourceRepresentation)} does not block on I/O. Until a
+ * source is stored, lookups are served from memory. A source which fails to be stored is unregistered, as it can
+ * no longer be served.
  */
 public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentation> extends AbstractSchemaSourceCache<T> {
 
@@ -62,14 +80,35 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
                     "(?<moduleName>[^@]+)" +
                     "(@(?<revision>" + SourceIdentifier.REVISION_PATTERN + "))?");
 
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    // Index of stored sources: module name -> revision -> file. Revisions in YYYY-MM-DD format sort chronologically.
+    private final ConcurrentMap<String, ConcurrentNavigableMap<String, File>> index = new ConcurrentHashMap<>();
+    // Sources offered to the cache, which are being stored
+    private final ConcurrentMap<SourceIdentifier, T> pending = new ConcurrentHashMap<>();
     private final Class<T> representation;
     private final File storageDirectory;
+    private final Executor storeExecutor;
 
     public FilesystemSchemaSourceCache(
             final SchemaSourceRegistry consumer, final Class<T> representation, final File storageDirectory) {
+        this(consumer, representation, storageDirectory, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Create a new cache, which stores offered sources asynchronously.
+     *
+     * @param consumer Registry with which cached sources are registered
+     * @param representation Cached representation
+     * @param storageDirectory Directory holding cached sources
+     * @param storeExecutor Executor used to store offered sources
+     */
+    public FilesystemSchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation,
+            final File storageDirectory, final Executor storeExecutor) {
         super(consumer, representation, Costs.LOCAL_IO);
         this.representation = representation;
         this.storageDirectory = Preconditions.checkNotNull(storageDirectory);
+        this.storeExecutor = Preconditions.checkNotNull(storeExecutor);
 
         checkSupportedRepresentation(representation);
 
@@ -108,15 +147,58 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
             return;
         }
 
-        for (final SourceIdentifier cachedSchema : fileVisitor.getCachedSchemas()) {
-            register(cachedSchema);
+        for (final Entry<SourceIdentifier, File> cachedSchema : fileVisitor.getCachedSchemas().entrySet()) {
+            addToIndex(cachedSchema.getKey(), cachedSchema.getValue());
+            register(cachedSchema.getKey());
+        }
+    }
+
+    private void addToIndex(final SourceIdentifier sourceIdentifier, final File file) {
+        ConcurrentNavigableMap<String, File> revisions = index.get(sourceIdentifier.getName());
+        if (revisions == null) {
+            final ConcurrentNavigableMap<String, File> created = new ConcurrentSkipListMap<>();
+            revisions = index.putIfAbsent(sourceIdentifier.getName(), created);
+            if (revisions == null) {
+                revisions = created;
+            }
+        }
+        revisions.put(sourceIdentifier.getRevision(), file);
+    }
+
+    private File findFile(final SourceIdentifier sourceIdentifier) {
+        final ConcurrentNavigableMap<String, File> revisions = index.get(sourceIdentifier.getName());
+        final String rev = sourceIdentifier.getRevision();
+        if (Strings.isNullOrEmpty(rev)) {
+            final Entry<String, File> newest = revisions == null ? null : revisions.lastEntry();
+            return newest == null ? null : newest.getValue();
+        }
+        if (revisions != null) {
+            final File file = revisions.get(rev);
+            if (file != null) {
+                return file;
+            }
+        }
+
+        // Not indexed, it may have been placed into the directory by someone else
+        final File file = new File(storageDirectory, sourceIdentifier.toYangFilename());
+        if (file.isFile()) {
+            LOG.debug("Source {} found outside of index as {}", sourceIdentifier, file);
+            addToIndex(sourceIdentifier, file);
+            return file;
         }
+        return null;
     }
 
     @Override
-    public synchronized CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
-        final File file = sourceIdToFile(sourceIdentifier, storageDirectory);
-        if(file.exists() && file.canRead()) {
+    public CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
+        final T stored = pending.get(sourceIdentifier);
+        if (stored != null) {
+            LOG.trace("Source {} found in cache while being stored", sourceIdentifier);
+            return Futures.immediateCheckedFuture(stored);
+        }
+
+        final File file = findFile(sourceIdentifier);
+        if (file != null && file.canRead()) {
             LOG.trace("Source {} found in cache as {}", sourceIdentifier, file);
             final SchemaSourceRepresentation restored = STORAGE_ADAPTERS.get(representation).restore(sourceIdentifier, file);
             return Futures.immediateCheckedFuture(representation.cast(restored));
@@ -127,21 +209,52 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
     }
 
     @Override
-    protected synchronized void offer(final T source) {
-        LOG.trace("Source {} offered to cache", source.getIdentifier());
-        final File file = sourceIdToFile(source);
-        if(file.exists()) {
-            LOG.debug("Source {} already in cache as {}", source.getIdentifier(), file);
+    protected void offer(final T source) {
+        final SourceIdentifier sourceIdentifier = source.getIdentifier();
+        LOG.trace("Source {} offered to cache", sourceIdentifier);
+        final File file = new File(storageDirectory, sourceIdentifier.toYangFilename());
+        if (isIndexed(sourceIdentifier) || file.exists()) {
+            LOG.debug("Source {} already in cache as {}", sourceIdentifier, file);
+            return;
+        }
+        if (pending.putIfAbsent(sourceIdentifier, source) != null) {
+            LOG.debug("Source {} is already being stored", sourceIdentifier);
             return;
         }
 
-        storeSource(file, source);
-        register(source.getIdentifier());
-        LOG.trace("Source {} stored in cache as {}", source.getIdentifier(), file);
+        // Lookups are served from memory until the source is stored, hence we can register it right away
+        final SchemaSourceRegistration<T> reg = register(sourceIdentifier);
+        try {
+            storeExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    storeSource(sourceIdentifier, file, source, reg);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Executor rejected storing source {}, storing it synchronously", sourceIdentifier, e);
+            storeSource(sourceIdentifier, file, source, reg);
+        }
     }
 
-    private File sourceIdToFile(final T source) {
-        return sourceIdToFile(source.getIdentifier(), storageDirectory);
+    private boolean isIndexed(final SourceIdentifier sourceIdentifier) {
+        final Map<String, File> revisions = index.get(sourceIdentifier.getName());
+        return revisions != null && revisions.containsKey(sourceIdentifier.getRevision());
+    }
+
+    private void storeSource(final SourceIdentifier sourceIdentifier, final File file, final T source,
+            final SchemaSourceRegistration<T> reg) {
+        try {
+            STORAGE_ADAPTERS.get(representation).store(file, source);
+            addToIndex(sourceIdentifier, file);
+            LOG.trace("Source {} stored in cache as {}", sourceIdentifier, file);
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to store source {} in cache as {}", sourceIdentifier, file, e);
+            // The source cannot be served once it is no longer pending, hence stop advertising it
+            reg.close();
+        } finally {
+            pending.remove(sourceIdentifier);
+        }
     }
 
     static File sourceIdToFile(final SourceIdentifier identifier, final File storageDirectory) {
@@ -202,10 +315,6 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
         return file;
     }
 
-    private void storeSource(final File file, final T schemaRepresentation) {
-        STORAGE_ADAPTERS.get(representation).store(file, schemaRepresentation);
-    }
-
     private static abstract class StorageAdapter<T extends SchemaSourceRepresentation> {
 
         private final Class<T> supportedType;
@@ -242,8 +351,18 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
 
         @Override
         protected void storeAsType(final File file, final YangTextSchemaSource cast) {
-            try (final InputStream castStream = cast.openStream()) {
-                Files.copy(castStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            // Write to a temporary file first, so that readers never observe a partially-written source
+            final Path target = file.toPath();
+            try {
+                final Path tmp = Files.createTempFile(target.getParent(), file.getName(), TEMPORARY_FILE_SUFFIX);
+                try {
+                    try (final InputStream castStream = cast.openStream()) {
+                        Files.copy(castStream, tmp, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
             } catch (final IOException e) {
                 throw new IllegalStateException("Cannot store schema source " + cast.getIdentifier() + " to " + file, e);
             }
@@ -251,34 +370,103 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
 
         @Override
         public YangTextSchemaSource restoreAsType(final SourceIdentifier sourceIdentifier, final File cachedSource) {
-            return new YangTextSchemaSource(sourceIdentifier) {
+            return new CachedYangTextSchemaSource(sourceIdentifier, cachedSource.toPath());
+        }
+    }
 
-                @Override
-                protected MoreObjects.ToStringHelper addToStringAttributes(final MoreObjects.ToStringHelper toStringHelper) {
-                    return toStringHelper;
-                }
+    /**
+     * A YANG text source backed by a cached file. Large files are memory-mapped when they are first read and the
+     * mapping is shared by all streams opened on the source.
+     */
+    private static final class CachedYangTextSchemaSource extends YangTextSchemaSource {
+        private static final long MAP_THRESHOLD = 256 * 1024;
 
-                @Override
-                public InputStream openStream() throws IOException {
-                    return new FileInputStream(cachedSource);
+        private final Path path;
+        private volatile ByteBuffer mapped;
+
+        CachedYangTextSchemaSource(final SourceIdentifier identifier, final Path path) {
+            super(identifier);
+            this.path = Preconditions.checkNotNull(path);
+        }
+
+        @Override
+        protected MoreObjects.ToStringHelper addToStringAttributes(final MoreObjects.ToStringHelper toStringHelper) {
+            return toStringHelper.add("path", path);
+        }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            ByteBuffer buffer = mapped;
+            if (buffer == null) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    final long size = channel.size();
+                    if (size < MAP_THRESHOLD) {
+                        return Files.newInputStream(path);
+                    }
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
                 }
-            };
+                mapped = buffer;
+            }
+            return new ByteBufferInputStream(buffer.duplicate());
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int count = (int) Math.min(Math.max(n, 0), buffer.remaining());
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
         }
     }
 
     private static final class CachedModulesFileVisitor extends SimpleFileVisitor<Path> {
-        private final List<SourceIdentifier> cachedSchemas = Lists.newArrayList();
+        private final Map<SourceIdentifier, File> cachedSchemas = Maps.newLinkedHashMap();
 
         @Override
         public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
             final FileVisitResult fileVisitResult = super.visitFile(file, attrs);
             String fileName = file.toFile().getName();
+            if (fileName.endsWith(TEMPORARY_FILE_SUFFIX)) {
+                LOG.debug("Removing incomplete cached file {}", file);
+                Files.deleteIfExists(file);
+                return fileVisitResult;
+            }
             fileName = com.google.common.io.Files.getNameWithoutExtension(fileName);
 
             final Optional<SourceIdentifier> si = getSourceIdentifier(fileName);
             if(si.isPresent()) {
                 LOG.trace("Restoring cached file {} as {}", file, si.get());
-                cachedSchemas.add(si.get());
+                cachedSchemas.put(si.get(), file.toFile());
             } else {
                 LOG.debug("Skipping cached file {}, cannot restore source identifier from filename: {}, does not match {}", file, fileName, CACHED_FILE_PATTERN);
             }
@@ -301,7 +489,7 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
             return FileVisitResult.CONTINUE;
         }
 
-        public List<SourceIdentifier> getCachedSchemas() {
+        public Map<SourceIdentifier, File> getCachedSchemas() {
             return cachedSchemas;
         }
     }
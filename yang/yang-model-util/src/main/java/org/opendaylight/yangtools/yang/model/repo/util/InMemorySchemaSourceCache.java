@@ -8,33 +8,98 @@
 package org.opendaylight.yangtools.yang.model.repo.util;
 
 import com.google.common.annotations.Beta;
-import com.google.common.base.FinalizablePhantomReference;
 import com.google.common.base.FinalizableReferenceQueue;
+import com.google.common.base.FinalizableWeakReference;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource.Costs;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * A schema source cache which keeps sources in memory. Sources are registered with the {@link SchemaSourceRegistry}
+ * while they are cached and unregistered once they are evicted or garbage-collected.
+ *
+ * <p>
+ * Caches created via {@link #createBoundedCache(SchemaSourceRegistry, Class, long, Weigher)} are bounded by the total
+ * weight of cached sources, as assigned by a {@link Weigher}, for example {@link #YANG_TEXT_WEIGHER}. Once the bound is
+ * exceeded, least recently used sources are evicted. Cache statistics, including eviction counts, are available via
+ * {@link #getStats()}.
+ *
+ * <p>
+ * Subclasses which supply their own {@link CacheBuilder} hand it over to this class, which installs its own removal
+ * listener on it, see {@link #InMemorySchemaSourceCache(SchemaSourceRegistry, Class, CacheBuilder)}.
+ */
 @Beta
 public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> extends AbstractSchemaSourceCache<T> implements AutoCloseable {
-    private final List<FinalizablePhantomReference<T>> regs = Collections.synchronizedList(new ArrayList<>());
+    private static final Logger LOG = LoggerFactory.getLogger(InMemorySchemaSourceCache.class);
+
+    /**
+     * A {@link Weigher} which assigns {@link YangTextSchemaSource}s their size in bytes. Sources whose size cannot be
+     * determined weigh as much as the largest possible source.
+     */
+    public static final Weigher<Object, YangTextSchemaSource> YANG_TEXT_WEIGHER = new Weigher<Object, YangTextSchemaSource>() {
+        @Override
+        public int weigh(final Object key, final YangTextSchemaSource value) {
+            try {
+                return (int) Math.min(value.size(), Integer.MAX_VALUE);
+            } catch (IOException e) {
+                LOG.debug("Failed to determine size of {}", value, e);
+                return Integer.MAX_VALUE;
+            }
+        }
+    };
+
+    private final ConcurrentMap<SourceIdentifier, SourceReference> regs = new ConcurrentHashMap<>();
     private final FinalizableReferenceQueue queue = new FinalizableReferenceQueue();
     private final Cache<SourceIdentifier, T> cache;
 
-    protected InMemorySchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation, final CacheBuilder<Object, Object> builder) {
+    /**
+     * Create a cache backed by a {@link Cache} built from the specified builder. The builder is configured to record
+     * statistics and to unregister evicted sources before the cache is built, hence it must not have a removal
+     * listener set and it should not be reused by the caller. Prefer the static factory methods, which use a private
+     * builder.
+     *
+     * @param consumer Registry with which cached sources are registered
+     * @param representation Cached source representation
+     * @param builder Builder of the backing cache, which must not have a removal listener set
+     * @throws IllegalStateException if the builder already has a removal listener set
+     */
+    protected InMemorySchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation,
+            final CacheBuilder<? super SourceIdentifier, ? super T> builder) {
         super(consumer, representation, Costs.IMMEDIATE);
-        cache = builder.build();
+        cache = builder.recordStats().<SourceIdentifier, T>removalListener(new RemovalListener<SourceIdentifier, T>() {
+            @Override
+            public void onRemoval(final RemovalNotification<SourceIdentifier, T> notification) {
+                // Replaced sources remain available and collected sources are handled by their weak reference
+                if (notification.wasEvicted() && notification.getCause() != RemovalCause.COLLECTED) {
+                    // The source may have been offered again since it was evicted, its new registration has to stay
+                    final SourceReference ref = regs.get(notification.getKey());
+                    if (ref != null && ref.get() == notification.getValue()) {
+                        ref.finalizeReferent();
+                    }
+                }
+            }
+        }).build();
     }
 
     public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createSoftCache(final SchemaSourceRegistry consumer, final Class<R> representation) {
@@ -47,6 +112,59 @@ public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> ext
                 .expireAfterAccess(lifetime, units));
     }
 
+    /**
+     * Create a cache which holds sources via strong references up to a maximum total weight.
+     *
+     * @param consumer Registry with which cached sources are registered
+     * @param representation Cached source representation
+     * @param maximumWeight Maximum total weight of cached sources
+     * @param weigher Weigher of cached sources
+     * @return A new cache
+     */
+    public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createBoundedCache(
+            final SchemaSourceRegistry consumer, final Class<R> representation, final long maximumWeight,
+            final Weigher<? super SourceIdentifier, ? super R> weigher) {
+        return new InMemorySchemaSourceCache<>(consumer, representation, CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight).weigher(weigher));
+    }
+
+    /**
+     * Create a cache which holds sources via soft references up to a maximum total weight. Sources may be evicted
+     * before the maximum weight is reached in response to memory demand.
+     *
+     * @param consumer Registry with which cached sources are registered
+     * @param representation Cached source representation
+     * @param maximumWeight Maximum total weight of cached sources
+     * @param weigher Weigher of cached sources
+     * @return A new cache
+     */
+    public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createBoundedSoftCache(
+            final SchemaSourceRegistry consumer, final Class<R> representation, final long maximumWeight,
+            final Weigher<? super SourceIdentifier, ? super R> weigher) {
+        return new InMemorySchemaSourceCache<>(consumer, representation, CacheBuilder.newBuilder().softValues()
+                .maximumWeight(maximumWeight).weigher(weigher));
+    }
+
+    /**
+     * Return statistics of this cache. Hit and miss counts reflect {@link #getSource(SourceIdentifier)} requests,
+     * eviction counts include sources evicted due to size or lifetime constraints and sources which have been
+     * garbage-collected.
+     *
+     * @return Cache statistics
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Return the approximate number of sources held in this cache.
+     *
+     * @return Number of cached sources
+     */
+    public long size() {
+        return cache.size();
+    }
+
     @Override
     public CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
         final T present = cache.getIfPresent(sourceIdentifier);
@@ -59,31 +177,46 @@ public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> ext
 
     @Override
     protected void offer(final T source) {
-        final T present = cache.getIfPresent(source.getIdentifier());
+        // Lookups through the map view are not accounted in cache statistics
+        final T present = cache.asMap().get(source.getIdentifier());
         if (present == null) {
-            cache.put(source.getIdentifier(), source);
+            // Register before caching, as caching may evict the source immediately
+            final SourceReference ref = new SourceReference(source, register(source.getIdentifier()));
+            final SourceReference prev = regs.put(source.getIdentifier(), ref);
+            if (prev != null) {
+                prev.registration.close();
+            }
 
-            final SchemaSourceRegistration<T> reg = register(source.getIdentifier());
-            final FinalizablePhantomReference<T> ref = new FinalizablePhantomReference<T>(source, queue) {
-                @Override
-                public void finalizeReferent() {
-                    reg.close();
-                    regs.remove(this);
-                }
-            };
-
-            regs.add(ref);
+            cache.put(source.getIdentifier(), source);
         }
     }
 
     @Override
     public void close() {
-        while (!regs.isEmpty()) {
-            final FinalizablePhantomReference<?> ref = regs.get(0);
-            ref.finalizeReferent();
+        final Iterator<SourceReference> it = regs.values().iterator();
+        while (it.hasNext()) {
+            it.next().finalizeReferent();
         }
 
         cache.invalidateAll();
         queue.close();
     }
+
+    private final class SourceReference extends FinalizableWeakReference<T> {
+        private final SchemaSourceRegistration<T> registration;
+        private final SourceIdentifier identifier;
+
+        SourceReference(final T source, final SchemaSourceRegistration<T> registration) {
+            super(source, queue);
+            this.identifier = source.getIdentifier();
+            this.registration = registration;
+        }
+
+        @Override
+        public void finalizeReferent() {
+            if (regs.remove(identifier, this)) {
+                registration.close();
+            }
+        }
+    }
 }
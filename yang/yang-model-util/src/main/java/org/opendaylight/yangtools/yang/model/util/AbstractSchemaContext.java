@@ -40,7 +40,7 @@ import org.opendaylight.yangtools.yang.model.api.UnknownSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.UsesNode;
 
 
-public abstract class AbstractSchemaContext implements SchemaContext {
+public abstract class AbstractSchemaContext implements IndexedSchemaContext {
 
     protected static final Supplier<TreeSet<Module>> MODULE_SET_SUPPLIER = new Supplier<TreeSet<Module>>() {
         @Override
@@ -60,6 +60,8 @@ public abstract class AbstractSchemaContext implements SchemaContext {
         }
     };
 
+    private volatile SchemaContextIndex index;
+
     /**
      * @return yang sources where key is ModuleIdentifier
      */
@@ -75,6 +77,21 @@ public abstract class AbstractSchemaContext implements SchemaContext {
      */
     protected abstract SetMultimap<String, Module> getNameToModules();
 
+    @Override
+    public final SchemaContextIndex getIndex() {
+        SchemaContextIndex ret = index;
+        if (ret == null) {
+            synchronized (this) {
+                ret = index;
+                if (ret == null) {
+                    ret = SchemaContextIndex.create(getModules());
+                    index = ret;
+                }
+            }
+        }
+        return ret;
+    }
+
     @Override
     public Set<DataSchemaNode> getDataDefinitions() {
         final Set<DataSchemaNode> dataDefs = new HashSet<>();
@@ -133,12 +150,7 @@ public abstract class AbstractSchemaContext implements SchemaContext {
         if (namespace == null) {
             return null;
         }
-        for (Module module : findModuleByNamespace(namespace)) {
-            if (revision == null || revision.equals(module.getRevision())) {
-                return module;
-            }
-        }
-        return null;
+        return getIndex().findModule(namespace, revision);
     }
 
     @Override
@@ -224,13 +236,7 @@ public abstract class AbstractSchemaContext implements SchemaContext {
 
     @Override
     public DataSchemaNode getDataChildByName(final QName name) {
-        for (Module module : getModules()) {
-            final DataSchemaNode result = module.getDataChildByName(name);
-            if (result != null) {
-                return result;
-            }
-        }
-        return null;
+        return getIndex().findDataChild(name);
     }
 
     @Override
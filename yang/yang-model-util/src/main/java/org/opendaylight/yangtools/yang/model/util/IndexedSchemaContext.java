@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * A {@link SchemaContext} which maintains a {@link SchemaContextIndex}. {@link SchemaContextUtil} uses the index
+ * for lookups in such contexts instead of searching modules.
+ */
+@Beta
+public interface IndexedSchemaContext extends SchemaContext {
+    /**
+     * Return the index of this context.
+     *
+     * @return Context index
+     */
+    @Nonnull SchemaContextIndex getIndex();
+}
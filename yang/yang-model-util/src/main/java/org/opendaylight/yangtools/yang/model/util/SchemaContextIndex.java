@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+/**
+ * Lookup indexes of a {@link org.opendaylight.yangtools.yang.model.api.SchemaContext}. Modules and identities are
+ * indexed when the index is created, schema nodes are indexed by their {@link SchemaPath} as they are looked up.
+ * Since schema contexts are immutable, an index can be reused for the lifetime of its context.
+ */
+@Beta
+public final class SchemaContextIndex {
+    private final Map<QNameModule, Module> modules;
+    private final Map<URI, Module> latestModules;
+    private final Map<QName, IdentitySchemaNode> identities;
+    private final ConcurrentMap<SchemaPath, SchemaNode> nodes = new ConcurrentHashMap<>();
+
+    private SchemaContextIndex(final Map<QNameModule, Module> modules, final Map<URI, Module> latestModules,
+            final Map<QName, IdentitySchemaNode> identities) {
+        this.modules = ImmutableMap.copyOf(modules);
+        this.latestModules = ImmutableMap.copyOf(latestModules);
+        this.identities = ImmutableMap.copyOf(identities);
+    }
+
+    /**
+     * Create an index of a set of modules.
+     *
+     * @param modules Modules of a schema context
+     * @return A new index
+     */
+    public static SchemaContextIndex create(final Collection<Module> modules) {
+        final Map<QNameModule, Module> moduleMap = new HashMap<>(modules.size());
+        final Map<URI, Module> latestMap = new HashMap<>(modules.size());
+        final Map<QName, IdentitySchemaNode> identityMap = new HashMap<>();
+        for (Module module : modules) {
+            moduleMap.put(module.getQNameModule(), module);
+            final Module latest = latestMap.get(module.getNamespace());
+            if (latest == null || AbstractSchemaContext.REVISION_COMPARATOR.compare(module, latest) < 0) {
+                latestMap.put(module.getNamespace(), module);
+            }
+            for (IdentitySchemaNode identity : module.getIdentities()) {
+                identityMap.put(identity.getQName(), identity);
+            }
+        }
+        return new SchemaContextIndex(moduleMap, latestMap, identityMap);
+    }
+
+    /**
+     * Find a module by its namespace and revision.
+     *
+     * @param namespace Module namespace
+     * @param revision Module revision, null to find the latest revision
+     * @return Module, or null if the context does not contain it
+     */
+    @Nullable public Module findModule(@Nonnull final URI namespace, @Nullable final Date revision) {
+        return revision == null ? latestModules.get(namespace) : modules.get(QNameModule.create(namespace, revision));
+    }
+
+    /**
+     * Find an identity by its name.
+     *
+     * @param qname Identity name
+     * @return Identity, or null if the context does not contain it
+     */
+    @Nullable public IdentitySchemaNode findIdentity(@Nonnull final QName qname) {
+        return identities.get(Preconditions.checkNotNull(qname));
+    }
+
+    /**
+     * Find a top-level data node.
+     *
+     * @param qname Node name
+     * @return Data node, or null if the context does not contain it
+     */
+    @Nullable public DataSchemaNode findDataChild(@Nonnull final QName qname) {
+        final Module module = findModule(qname.getNamespace(), qname.getRevision());
+        return module == null ? null : module.getDataChildByName(qname);
+    }
+
+    /**
+     * Find a schema node by its absolute path, with the same semantics as
+     * {@link SchemaContextUtil#findDataSchemaNode(org.opendaylight.yangtools.yang.model.api.SchemaContext, SchemaPath)}.
+     *
+     * @param path Absolute schema path
+     * @return Schema node, or null if the context does not contain it
+     */
+    @Nullable public SchemaNode findSchemaNode(@Nonnull final SchemaPath path) {
+        final SchemaNode existing = nodes.get(path);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Iterable<QName> qnames = path.getPathFromRoot();
+        final Iterator<QName> it = qnames.iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        final QName first = it.next();
+        final Module module = findModule(first.getNamespace(), first.getRevision());
+        if (module == null) {
+            return null;
+        }
+
+        // Only found nodes are indexed, so that lookups of invalid paths do not grow the index
+        final SchemaNode found = SchemaContextUtil.findNodeInModule(module, qnames);
+        if (found != null) {
+            nodes.putIfAbsent(path, found);
+        }
+        return found;
+    }
+}
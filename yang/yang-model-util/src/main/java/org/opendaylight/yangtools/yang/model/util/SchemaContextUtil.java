@@ -30,6 +30,7 @@ import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.DerivableSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.GroupingDefinition;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
 import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
@@ -89,6 +90,9 @@ public final class SchemaContextUtil {
         }
 
         LOG.trace("Looking for path {} in context {}", schemaPath, context);
+        if (context instanceof IndexedSchemaContext) {
+            return ((IndexedSchemaContext) context).getIndex().findSchemaNode(schemaPath);
+        }
         return findNodeInSchemaContext(context, prefixedPath);
     }
 
@@ -243,6 +247,34 @@ public final class SchemaContextUtil {
         return findNodeInModule(module, path);
     }
 
+    /**
+     * Method attempts to find an identity in Schema Context.
+     *
+     * @param context
+     *            Schema Context
+     * @param qname
+     *            Name of the identity
+     * @return Identity, or <code>null</code> if the identity is not present.
+     */
+    @Beta
+    @Nullable public static IdentitySchemaNode findIdentity(@Nonnull final SchemaContext context, @Nonnull final QName qname) {
+        Preconditions.checkNotNull(context, "Schema context must not be null.");
+        Preconditions.checkNotNull(qname, "Identity name must not be null.");
+        if (context instanceof IndexedSchemaContext) {
+            return ((IndexedSchemaContext) context).getIndex().findIdentity(qname);
+        }
+
+        final Module module = context.findModuleByNamespaceAndRevision(qname.getNamespace(), qname.getRevision());
+        if (module != null) {
+            for (final IdentitySchemaNode identity : module.getIdentities()) {
+                if (qname.equals(identity.getQName())) {
+                    return identity;
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns NotificationDefinition from Schema Context
      *
@@ -286,7 +318,7 @@ public final class SchemaContextUtil {
         return null;
     }
 
-    private static SchemaNode findNodeInModule(final Module module, final Iterable<QName> path) {
+    static SchemaNode findNodeInModule(final Module module, final Iterable<QName> path) {
 
         Preconditions.checkArgument(module != null, "Parent reference cannot be NULL");
         Preconditions.checkArgument(path != null, "Path reference cannot be NULL");
@@ -13,9 +13,12 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.either;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -23,6 +26,7 @@ import com.google.common.base.Charsets;
 import com.google.common.base.Function;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
+import com.google.common.base.Strings;
 import com.google.common.collect.Collections2;
 import com.google.common.io.Files;
 import com.google.common.util.concurrent.CheckedFuture;
@@ -30,15 +34,22 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
@@ -218,6 +229,136 @@ public class FilesystemSchemaSourceCacheTest {
         checked.get();
     }
 
+    @Test
+    public void testAsynchronousStore() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir, new Executor() {
+                    @Override
+                    public void execute(final Runnable command) {
+                        tasks.add(command);
+                    }
+                });
+        final YangTextSchemaSource source = new TestingYangSource("test", "2013-12-12", "content1");
+        cache.offer(source);
+        cache.offer(source);
+
+        // Not stored yet, but already available
+        assertEquals(1, tasks.size());
+        assertEquals(0, getFilesFromCache().size());
+        verify(this.registry).registerSchemaSource(any(SchemaSourceProvider.class), any(PotentialSchemaSource.class));
+        final SourceIdentifier sourceIdentifier = new SourceIdentifier("test", "2013-12-12");
+        assertSame(source, cache.getSource(sourceIdentifier).checkedGet());
+
+        tasks.get(0).run();
+        assertEquals(1, getFilesFromCache().size());
+        assertEquals("content1", cache.getSource(sourceIdentifier).checkedGet().asCharSource(Charsets.UTF_8).read());
+    }
+
+    @Test
+    public void testFailedStore() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir, new Executor() {
+                    @Override
+                    public void execute(final Runnable command) {
+                        tasks.add(command);
+                    }
+                });
+        final YangTextSchemaSource source = new TestingYangSource("test", "2013-12-12", "content1") {
+            @Override
+            public InputStream openStream() throws IOException {
+                throw new IOException("Unreadable source");
+            }
+        };
+        cache.offer(source);
+        verify(this.registry).registerSchemaSource(any(SchemaSourceProvider.class), any(PotentialSchemaSource.class));
+        verify(this.registration, never()).close();
+
+        // The source cannot be stored, hence it is no longer advertised
+        tasks.get(0).run();
+        assertEquals(0, getFilesFromCache().size());
+        verify(this.registration).close();
+        try {
+            cache.getSource(new SourceIdentifier("test", "2013-12-12")).checkedGet();
+            fail("Source should not be available");
+        } catch (MissingSchemaSourceException e) {
+            // Expected
+        }
+
+        // The source can be offered again
+        cache.offer(new TestingYangSource("test", "2013-12-12", "content1"));
+        verify(this.registry, times(2)).registerSchemaSource(any(SchemaSourceProvider.class),
+            any(PotentialSchemaSource.class));
+        tasks.get(1).run();
+        assertEquals(1, getFilesFromCache().size());
+        verify(this.registration).close();
+    }
+
+    @Test
+    public void testNewestRevision() throws Exception {
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir);
+        cache.offer(new TestingYangSource("test", "2013-12-12", "content2013"));
+        cache.offer(new TestingYangSource("test", "2012-12-12", "content2012"));
+
+        final SourceIdentifier sourceIdentifier = new SourceIdentifier("test", "");
+        assertEquals("content2013", cache.getSource(sourceIdentifier).checkedGet().asCharSource(Charsets.UTF_8).read());
+
+        // Index restored from the storage directory
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> restored = new FilesystemSchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, this.storageDir);
+        assertEquals("content2013", restored.getSource(sourceIdentifier).checkedGet().asCharSource(Charsets.UTF_8)
+                .read());
+    }
+
+    @Test
+    public void testLargeSource() throws Exception {
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir);
+        final String content = Strings.repeat("leaf test { type string; }\n", 32768);
+        cache.offer(new TestingYangSource("test", "2013-12-12", content));
+
+        final YangTextSchemaSource restored = cache.getSource(new SourceIdentifier("test", "2013-12-12")).checkedGet();
+        assertEquals(content, restored.asCharSource(Charsets.UTF_8).read());
+        // Streams are independent of each other
+        assertEquals(content, restored.asCharSource(Charsets.UTF_8).read());
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir);
+        final int sources = 32;
+        for (int i = 0; i < sources; ++i) {
+            cache.offer(new TestingYangSource("test" + i, "2013-12-12", "content" + i));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int i = 0; i < 100 * sources; ++i) {
+                            final int index = i % sources;
+                            final YangTextSchemaSource source = cache.getSource(
+                                new SourceIdentifier("test" + index, "2013-12-12")).checkedGet();
+                            assertEquals("content" + index, source.asCharSource(Charsets.UTF_8).read());
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private List<File> getFilesFromCache() {
         return Arrays.asList(this.storageDir.listFiles());
     }
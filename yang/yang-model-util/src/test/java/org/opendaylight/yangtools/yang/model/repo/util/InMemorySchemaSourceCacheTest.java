@@ -8,10 +8,17 @@
 package org.opendaylight.yangtools.yang.model.repo.util;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import com.google.common.base.Charsets;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.util.concurrent.CheckedFuture;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -23,7 +30,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
@@ -125,6 +134,96 @@ public class InMemorySchemaSourceCacheTest {
         inMemorySchemaSourceCache2.close();
     }
 
+    @Test
+    public void inMemorySchemaSourceCacheBoundedTest() throws Exception {
+        final InMemorySchemaSourceCache<YangTextSchemaSource> inMemorySchemaSourceCache = new InMemorySchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, CacheBuilder.newBuilder().concurrencyLevel(1)
+                .maximumWeight(20).weigher(InMemorySchemaSourceCache.YANG_TEXT_WEIGHER));
+
+        final SourceIdentifier first = new SourceIdentifier("test", "2012-12-12");
+        final SourceIdentifier second = new SourceIdentifier("test", "2013-12-12");
+        final SourceIdentifier third = new SourceIdentifier("test", "2014-12-12");
+        inMemorySchemaSourceCache.offer(new TestingYangSource("test", "2012-12-12", "0123456789"));
+        inMemorySchemaSourceCache.offer(new TestingYangSource("test", "2013-12-12", "0123456789"));
+        Assert.assertNotNull(inMemorySchemaSourceCache.getSource(first).get());
+
+        // The least recently used source is evicted and unregistered
+        inMemorySchemaSourceCache.offer(new TestingYangSource("test", "2014-12-12", "0123456789"));
+        Assert.assertEquals(2, inMemorySchemaSourceCache.size());
+        Assert.assertEquals(1, inMemorySchemaSourceCache.getStats().evictionCount());
+        verify(this.registration).close();
+
+        Assert.assertNotNull(inMemorySchemaSourceCache.getSource(first).get());
+        Assert.assertNotNull(inMemorySchemaSourceCache.getSource(third).get());
+        try {
+            inMemorySchemaSourceCache.getSource(second).get();
+            Assert.fail("Evicted source should not be available");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof SchemaSourceException);
+        }
+        Assert.assertEquals(3, inMemorySchemaSourceCache.getStats().hitCount());
+        Assert.assertEquals(1, inMemorySchemaSourceCache.getStats().missCount());
+        inMemorySchemaSourceCache.close();
+    }
+
+    @Test
+    public void inMemorySchemaSourceCacheReofferedWhileEvictedTest() throws Exception {
+        final InMemorySchemaSourceCache<YangTextSchemaSource> inMemorySchemaSourceCache = new InMemorySchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, CacheBuilder.newBuilder().concurrencyLevel(1)
+                .maximumWeight(20).weigher(InMemorySchemaSourceCache.YANG_TEXT_WEIGHER));
+
+        final SchemaSourceRegistration<?> firstRegistration = mock(SchemaSourceRegistration.class);
+        final SchemaSourceRegistration<?> secondRegistration = mock(SchemaSourceRegistration.class);
+        final SchemaSourceRegistration<?> reofferedRegistration = mock(SchemaSourceRegistration.class);
+        doReturn(firstRegistration).doReturn(secondRegistration).doReturn(this.registration)
+            .doReturn(reofferedRegistration).when(this.registry).registerSchemaSource(any(SchemaSourceProvider.class),
+                any(PotentialSchemaSource.class));
+
+        // The second source is offered again once it has been evicted, but before its eviction is processed
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                inMemorySchemaSourceCache.offer(new TestingYangSource("test", "2013-12-12", "0123"));
+                return null;
+            }
+        }).when(firstRegistration).close();
+
+        inMemorySchemaSourceCache.offer(new TestingYangSource("test", "2012-12-12", "0123456789"));
+        inMemorySchemaSourceCache.offer(new TestingYangSource("test", "2013-12-12", "0123456789"));
+        inMemorySchemaSourceCache.offer(new TestingYangSource("test", "2014-12-12", "0123456789012345"));
+
+        verify(firstRegistration).close();
+        verify(secondRegistration).close();
+        verify(reofferedRegistration, never()).close();
+        Assert.assertNotNull(inMemorySchemaSourceCache.getSource(new SourceIdentifier("test", "2013-12-12")).get());
+        inMemorySchemaSourceCache.close();
+        verify(reofferedRegistration).close();
+    }
+
+    @Test
+    public void inMemorySchemaSourceCacheOversizedTest() throws Exception {
+        final InMemorySchemaSourceCache<YangTextSchemaSource> inMemorySchemaSourceCache = InMemorySchemaSourceCache
+                .createBoundedCache(this.registry, YangTextSchemaSource.class, 4,
+                        InMemorySchemaSourceCache.YANG_TEXT_WEIGHER);
+
+        // A source which exceeds the bound is not retained, nor does it remain registered
+        inMemorySchemaSourceCache.offer(new TestingYangSource("test", "2012-12-12", "0123456789"));
+        Assert.assertEquals(0, inMemorySchemaSourceCache.size());
+        verify(this.registration).close();
+        inMemorySchemaSourceCache.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void inMemorySchemaSourceCacheRemovalListenerTest() {
+        new InMemorySchemaSourceCache<>(this.registry, YangTextSchemaSource.class, CacheBuilder.newBuilder()
+                .removalListener(new RemovalListener<Object, Object>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<Object, Object> notification) {
+                        // Never invoked
+                    }
+                }));
+    }
+
     private class TestingYangSource extends YangTextSchemaSource {
 
         private final String content;
@@ -58,16 +58,32 @@ public class YangStatementParserListenerImpl extends YangStatementParserBaseList
 
     @Override
     public void enterStatement(final StatementContext ctx) {
-        final StatementSourceReference ref = DeclarationInTextSource.atPosition(sourceName, ctx
-                .getStart().getLine(), ctx.getStart().getCharPositionInLine());
         final KeywordContext keywordCtx = Verify.verifyNotNull(ctx.getChild(KeywordContext.class, 0));
         final ArgumentContext argumentCtx = ctx.getChild(ArgumentContext.class, 0);
-        final String keywordTxt = keywordCtx.getText();
+        enterStatement(keywordCtx.getText(), argumentCtx, null, ctx.getStart().getLine(),
+            ctx.getStart().getCharPositionInLine());
+    }
+
+    /**
+     * Enter a statement, which has been already extracted from its parse tree.
+     *
+     * @param keywordTxt Statement keyword, as it appears in the source
+     * @param argument Statement argument, null if the statement has no argument
+     * @param line Line of the statement in the source
+     * @param position Position of the statement on its line
+     */
+    public void enterStatement(final String keywordTxt, final String argument, final int line, final int position) {
+        enterStatement(keywordTxt, null, argument, line, position);
+    }
 
+    private void enterStatement(final String keywordTxt, final ArgumentContext argumentCtx, final String argumentTxt,
+            final int line, final int position) {
+        final StatementSourceReference ref = DeclarationInTextSource.atPosition(sourceName, line, position);
         final QName identifier = QName.create(YangConstants.RFC6020_YIN_MODULE, keywordTxt);
         final QName validStatementDefinition = Utils.getValidStatementDefinition(prefixes, stmtDef, identifier);
         if (stmtDef != null && validStatementDefinition != null && toBeSkipped.isEmpty()) {
-            final String argument = argumentCtx != null ? Utils.stringFromStringContext(argumentCtx) : null;
+            // Parse tree arguments are only converted when the statement is actually written
+            final String argument = argumentCtx != null ? Utils.stringFromStringContext(argumentCtx) : argumentTxt;
             // FIXME: Refactor/clean up this special case
             if (identifier.equals(Rfc6020Mapping.TYPE.getStatementName())) {
                 Preconditions.checkArgument(argument != null);
@@ -93,12 +109,21 @@ public class YangStatementParserListenerImpl extends YangStatementParserBaseList
 
     @Override
     public void exitStatement(final StatementContext ctx) {
-        final StatementSourceReference ref = DeclarationInTextSource.atPosition(
-            sourceName, ctx.getStart().getLine(), ctx.getStart().getCharPositionInLine());
+        exitStatement(ctx.getChild(KeywordContext.class, 0).getText(), ctx.getStart().getLine(),
+            ctx.getStart().getCharPositionInLine());
+    }
+
+    /**
+     * Exit a statement previously entered via {@link #enterStatement(String, String, int, int)}.
+     *
+     * @param statementName Statement keyword, as it appears in the source
+     * @param line Line of the statement in the source
+     * @param position Position of the statement on its line
+     */
+    public void exitStatement(final String statementName, final int line, final int position) {
+        final StatementSourceReference ref = DeclarationInTextSource.atPosition(sourceName, line, position);
 
         try {
-            KeywordContext keyword = ctx.getChild(KeywordContext.class, 0);
-            String statementName = keyword.getText();
             QName identifier = QName.create(YangConstants.RFC6020_YIN_MODULE, statementName);
             if (stmtDef != null && Utils.getValidStatementDefinition(prefixes, stmtDef, identifier) != null
                     && toBeSkipped.isEmpty()) {
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.ModuleImport;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.EffectiveSourceCache;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+
+/**
+ * Computation of keys under which effective models of sources are shared in an {@link EffectiveSourceCache}.
+ *
+ * <p>
+ * The effective model of a source depends on its own text, on the sources it imports or includes and on the
+ * sources which import it, as those may augment or deviate its nodes and derive from its identities. The key of a
+ * source therefore consists of its text digest and the digests of the transitive dependencies of the source and of
+ * its direct importers, along with the feature predicate.
+ */
+final class EffectiveSharingKeys {
+    private EffectiveSharingKeys() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Compute sharing keys for a set of sources. Sources whose text is not available are not assigned a key, nor
+     * are any sources which depend on them.
+     *
+     * @param sources Sources making up a schema context
+     * @param isFeatureSupported Feature predicate used to build the schema context
+     * @return Sharing keys of sources
+     */
+    static Map<SourceIdentifier, Object> compute(final Map<SourceIdentifier, ASTSchemaSource> sources,
+            final Predicate<QName> isFeatureSupported) {
+        final Map<SourceIdentifier, HashCode> digests = new HashMap<>();
+        for (Entry<SourceIdentifier, ASTSchemaSource> e : sources.entrySet()) {
+            @SuppressWarnings("deprecation")
+            final String text = e.getValue().getYangText();
+            if (text != null) {
+                digests.put(e.getKey(), Hashing.sha256().hashString(text, StandardCharsets.UTF_8));
+            }
+        }
+
+        final Map<SourceIdentifier, Set<SourceIdentifier>> closures = computeClosures(sources);
+        final ImmutableMap.Builder<SourceIdentifier, Object> builder = ImmutableMap.builder();
+        for (Entry<SourceIdentifier, Set<SourceIdentifier>> e : closures.entrySet()) {
+            final SourceIdentifier id = e.getKey();
+            final Set<SourceIdentifier> closure = e.getValue();
+            final ImmutableSet.Builder<HashCode> closureDigests = ImmutableSet.builder();
+            boolean complete = true;
+            for (SourceIdentifier member : closure) {
+                final HashCode digest = digests.get(member);
+                if (digest == null) {
+                    complete = false;
+                    break;
+                }
+                closureDigests.add(digest);
+            }
+            if (complete) {
+                builder.put(id, new Key(digests.get(id), closureDigests.build(), isFeatureSupported));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Compute the closure of each source, i.e. the set of sources its effective model depends on: the source itself,
+     * its direct importers and the transitive dependencies of both.
+     *
+     * @param sources Sources making up a schema context
+     * @return Closures of sources
+     */
+    static Map<SourceIdentifier, Set<SourceIdentifier>> computeClosures(
+            final Map<SourceIdentifier, ASTSchemaSource> sources) {
+        final ListMultimap<SourceIdentifier, SourceIdentifier> dependencies = ArrayListMultimap.create();
+        final ListMultimap<SourceIdentifier, SourceIdentifier> importers = ArrayListMultimap.create();
+        for (Entry<SourceIdentifier, ASTSchemaSource> e : sources.entrySet()) {
+            for (ModuleImport mi : e.getValue().getDependencyInformation().getDependencies()) {
+                for (Entry<SourceIdentifier, ASTSchemaSource> candidate : sources.entrySet()) {
+                    if (matches(candidate.getValue().getDependencyInformation(), mi)) {
+                        dependencies.put(e.getKey(), candidate.getKey());
+                        importers.put(candidate.getKey(), e.getKey());
+                    }
+                }
+            }
+        }
+
+        final ImmutableMap.Builder<SourceIdentifier, Set<SourceIdentifier>> builder = ImmutableMap.builder();
+        for (SourceIdentifier id : sources.keySet()) {
+            final Set<SourceIdentifier> closure = new HashSet<>();
+            final Deque<SourceIdentifier> queue = new ArrayDeque<>();
+            queue.add(id);
+            queue.addAll(importers.get(id));
+            while (!queue.isEmpty()) {
+                final SourceIdentifier next = queue.remove();
+                if (closure.add(next)) {
+                    queue.addAll(dependencies.get(next));
+                }
+            }
+            builder.put(id, ImmutableSet.copyOf(closure));
+        }
+        return builder.build();
+    }
+
+    private static boolean matches(final YangModelDependencyInfo info, final ModuleImport mi) {
+        if (!info.getName().equals(mi.getModuleName())) {
+            return false;
+        }
+        return mi.getRevision() == null
+                || QName.formattedRevision(mi.getRevision()).equals(info.getFormattedRevision());
+    }
+
+    private static final class Key {
+        private final HashCode digest;
+        private final Set<HashCode> closure;
+        private final Predicate<QName> isFeatureSupported;
+
+        Key(final HashCode digest, final Set<HashCode> closure, final Predicate<QName> isFeatureSupported) {
+            this.digest = Preconditions.checkNotNull(digest);
+            this.closure = Preconditions.checkNotNull(closure);
+            this.isFeatureSupported = Preconditions.checkNotNull(isFeatureSupported);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(digest, closure, System.identityHashCode(isFeatureSupported));
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            // Predicates do not define equality, hence only the same predicate instance yields the same model
+            return isFeatureSupported == other.isFeatureSupported && digest.equals(other.digest)
+                    && closure.equals(other.closure);
+        }
+    }
+}
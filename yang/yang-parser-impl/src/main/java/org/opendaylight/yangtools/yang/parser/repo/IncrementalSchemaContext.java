@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Verify;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.meta.DeclaredStatement;
+import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.EffectiveSourceCache;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.EffectiveSchemaContext;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link EffectiveSchemaContext} along with the sources it was built from, which can be updated by adding and
+ * removing a few sources without rebuilding the effective models of all modules.
+ *
+ * <p>
+ * An update re-processes only the sources whose effective model is affected by the change, as determined by
+ * the import and include graph of the sources, along with the sources these need to be processed. Effective models
+ * of all other modules are reused by reference, hence consumers can detect unchanged parts of the schema by
+ * comparing {@link org.opendaylight.yangtools.yang.model.api.Module} and
+ * {@link org.opendaylight.yangtools.yang.model.api.DataSchemaNode} instances for identity.
+ *
+ * <p>
+ * Reuse relies on the same sharing keys as {@link EffectiveSourceCache}, hence the text of all sources has to be
+ * available, see {@link ASTSchemaSource#create(String, ParserRuleContext, String)}. Instances are immutable and each
+ * update results in a new instance.
+ */
+@Beta
+public final class IncrementalSchemaContext {
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementalSchemaContext.class);
+
+    private final Map<SourceIdentifier, ASTSchemaSource> sources;
+    private final Map<SourceIdentifier, Object> sharingKeys;
+    private final Map<SourceIdentifier, EffectiveStatement<?, ?>> statements;
+    private final Set<SourceIdentifier> processedSources;
+    private final Predicate<QName> isFeatureSupported;
+    private final EffectiveSourceCache cache;
+    private final EffectiveSchemaContext schemaContext;
+
+    private IncrementalSchemaContext(final Map<SourceIdentifier, ASTSchemaSource> sources,
+            final Map<SourceIdentifier, Object> sharingKeys,
+            final Map<SourceIdentifier, EffectiveStatement<?, ?>> statements, final Set<SourceIdentifier> processedSources,
+            final Predicate<QName> isFeatureSupported, final EffectiveSourceCache cache) {
+        this.sources = ImmutableMap.copyOf(sources);
+        this.sharingKeys = ImmutableMap.copyOf(sharingKeys);
+        this.statements = ImmutableMap.copyOf(statements);
+        this.processedSources = ImmutableSet.copyOf(processedSources);
+        this.isFeatureSupported = isFeatureSupported;
+        this.cache = cache;
+
+        final List<DeclaredStatement<?>> declared = new ArrayList<>(statements.size());
+        for (EffectiveStatement<?, ?> statement : statements.values()) {
+            declared.add(statement.getDeclared());
+        }
+        this.schemaContext = new EffectiveSchemaContext(declared, new ArrayList<>(statements.values()));
+    }
+
+    /**
+     * Build a schema context from a set of sources.
+     *
+     * @param sources Sources, which need to carry their text
+     * @param isFeatureSupported Predicate selecting supported features
+     * @return A new incremental schema context
+     * @throws ReactorException if the model cannot be built
+     * @throws IllegalArgumentException if any of the sources does not carry its text, or sources are duplicated
+     */
+    public static IncrementalSchemaContext create(final Collection<ASTSchemaSource> sources,
+            final Predicate<QName> isFeatureSupported) throws ReactorException {
+        final Map<SourceIdentifier, ASTSchemaSource> sourceMap = new LinkedHashMap<>();
+        for (ASTSchemaSource source : sources) {
+            Preconditions.checkArgument(sourceMap.put(source.getIdentifier(), source) == null,
+                "Duplicate source %s", source.getIdentifier());
+        }
+
+        return build(sourceMap, EffectiveSharingKeys.compute(sourceMap, isFeatureSupported), sourceMap.keySet(),
+            ImmutableMap.of(), Preconditions.checkNotNull(isFeatureSupported), EffectiveSourceCache.create());
+    }
+
+    /**
+     * Create a schema context with a set of sources added and removed. A source which is added with the identifier of
+     * an existing source replaces it.
+     *
+     * @param added Sources to add, which need to carry their text
+     * @param removed Identifiers of sources to remove
+     * @return A new incremental schema context
+     * @throws ReactorException if the updated model cannot be built
+     * @throws IllegalArgumentException if any of the added sources does not carry its text, or any of the removed
+     *         sources is not present
+     */
+    public IncrementalSchemaContext update(final Collection<ASTSchemaSource> added,
+            final Collection<SourceIdentifier> removed) throws ReactorException {
+        final Map<SourceIdentifier, ASTSchemaSource> sourceMap = new LinkedHashMap<>(sources);
+        for (SourceIdentifier id : removed) {
+            Preconditions.checkArgument(sourceMap.remove(id) != null, "Source %s is not present", id);
+        }
+        for (ASTSchemaSource source : added) {
+            sourceMap.put(source.getIdentifier(), source);
+        }
+
+        // A source is affected when any source its effective model depends on changes, which changes its key
+        final Map<SourceIdentifier, Object> keys = EffectiveSharingKeys.compute(sourceMap, isFeatureSupported);
+        final Map<SourceIdentifier, Set<SourceIdentifier>> closures = EffectiveSharingKeys.computeClosures(sourceMap);
+        final Set<SourceIdentifier> processed = new LinkedHashSet<>();
+        for (SourceIdentifier id : sourceMap.keySet()) {
+            final Object key = keys.get(id);
+            if (key == null || !key.equals(sharingKeys.get(id))) {
+                // Everything the effective model of the source depends on has to be processed along with it
+                processed.addAll(closures.get(id));
+            }
+        }
+
+        LOG.debug("Updating context with {} added and {} removed sources, processing {} of {} sources", added.size(),
+            removed.size(), processed.size(), sourceMap.size());
+        return build(sourceMap, keys, processed, statements, isFeatureSupported, cache);
+    }
+
+    /**
+     * Return the schema context.
+     *
+     * @return Schema context
+     */
+    public EffectiveSchemaContext getSchemaContext() {
+        return schemaContext;
+    }
+
+    /**
+     * Return the identifiers of sources making up the schema context.
+     *
+     * @return Source identifiers
+     */
+    public Set<SourceIdentifier> getSources() {
+        return sources.keySet();
+    }
+
+    /**
+     * Return the identifiers of sources which have been processed by the build which created this context. Effective
+     * models of the remaining sources have been reused from the context this context was updated from. Note that
+     * processed sources may still have reused their effective models, if they have not been affected by the update.
+     *
+     * @return Identifiers of processed sources
+     */
+    public Set<SourceIdentifier> getProcessedSources() {
+        return processedSources;
+    }
+
+    private static IncrementalSchemaContext build(final Map<SourceIdentifier, ASTSchemaSource> sources,
+            final Map<SourceIdentifier, Object> keys, final Set<SourceIdentifier> toBuild,
+            final Map<SourceIdentifier, EffectiveStatement<?, ?>> previous, final Predicate<QName> isFeatureSupported,
+            final EffectiveSourceCache cache) throws ReactorException {
+        final Map<SourceIdentifier, EffectiveStatement<?, ?>> built = new LinkedHashMap<>();
+
+        if (!toBuild.isEmpty()) {
+            final CrossSourceStatementReactor.BuildAction reactor =
+                    YangInferencePipeline.RFC6020_REACTOR.newBuild(isFeatureSupported);
+            for (SourceIdentifier id : toBuild) {
+                final Object key = keys.get(id);
+                Preconditions.checkArgument(key != null, "Source %s does not have text", id);
+
+                final ParserRuleContext ast = sources.get(id).getAST();
+                Preconditions.checkArgument(ast instanceof StatementContext, "Unsupported context class %s for source %s",
+                    ast.getClass(), id);
+                reactor.addSource(new YangStatementSourceImpl(id, (StatementContext) ast), key);
+            }
+
+            // Unaffected sources are found in the cache, so they retain their identity
+            final Iterator<EffectiveStatement<?, ?>> it =
+                    reactor.buildEffective(cache).getRootEffectiveStatements().iterator();
+            for (SourceIdentifier id : toBuild) {
+                built.put(id, it.next());
+            }
+        }
+
+        final Map<SourceIdentifier, EffectiveStatement<?, ?>> statements = new LinkedHashMap<>();
+        for (Entry<SourceIdentifier, ASTSchemaSource> e : sources.entrySet()) {
+            final SourceIdentifier id = e.getKey();
+            final EffectiveStatement<?, ?> statement = built.containsKey(id) ? built.get(id) : previous.get(id);
+            statements.put(id, Verify.verifyNotNull(statement, "Missing effective model of source %s", id));
+        }
+
+        return new IncrementalSchemaContext(sources, keys, statements, toBuild, isFeatureSupported, cache);
+    }
+}
@@ -43,6 +43,7 @@ import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
 import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
 import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.EffectiveSourceCache;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
 import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
@@ -91,7 +92,8 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
         sf = Futures.transform(sf, new SourceIdMismatchDetector(uniqueSourceIdentifiers));
 
         // Assemble sources into a schema context
-        final AssembleSources assembleSources = new AssembleSources(isFeatureSupported);
+        final AssembleSources assembleSources = new AssembleSources(repository.getEffectiveSourceCache(),
+            isFeatureSupported);
         final ListenableFuture<SchemaContext> cf = Futures.transform(sf, assembleSources);
 
         // Populate cache when successful
@@ -165,9 +167,12 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
 
     private static final class AssembleSources implements AsyncFunction<List<ASTSchemaSource>, SchemaContext> {
 
+        private final EffectiveSourceCache effectiveSources;
         private final java.util.function.Predicate<QName> isFeatureSupported;
 
-        private AssembleSources(final java.util.function.Predicate<QName> isFeatureSupported) {
+        private AssembleSources(final EffectiveSourceCache effectiveSources,
+                final java.util.function.Predicate<QName> isFeatureSupported) {
+            this.effectiveSources = Preconditions.checkNotNull(effectiveSources);
             this.isFeatureSupported = Preconditions.checkNotNull(isFeatureSupported);
         }
 
@@ -189,6 +194,7 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
             }
 
             final Map<SourceIdentifier, ParserRuleContext> asts = Maps.transformValues(srcs, ASTSchemaSource.GET_AST);
+            final Map<SourceIdentifier, Object> sharingKeys = EffectiveSharingKeys.compute(srcs, isFeatureSupported);
             final CrossSourceStatementReactor.BuildAction reactor =
                     YangInferencePipeline.RFC6020_REACTOR.newBuild(isFeatureSupported);
 
@@ -197,10 +203,17 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
                 Preconditions.checkArgument(parserRuleCtx instanceof StatementContext,
                         "Unsupported context class %s for source %s", parserRuleCtx.getClass(), e.getKey());
 
-                reactor.addSource(new YangStatementSourceImpl(e.getKey(), (StatementContext) parserRuleCtx));
+                final YangStatementSourceImpl source = new YangStatementSourceImpl(e.getKey(),
+                    (StatementContext) parserRuleCtx);
+                final Object sharingKey = sharingKeys.get(e.getKey());
+                if (sharingKey != null) {
+                    reactor.addSource(source, sharingKey);
+                } else {
+                    reactor.addSource(source);
+                }
             }
 
-            SchemaContext schemaContext = reactor.buildEffective();
+            SchemaContext schemaContext = reactor.buildEffective(effectiveSources);
 
             return Futures.immediateCheckedFuture(schemaContext);
         }
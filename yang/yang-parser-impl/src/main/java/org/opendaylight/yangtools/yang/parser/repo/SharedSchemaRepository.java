@@ -11,6 +11,7 @@ import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 
 import org.opendaylight.yangtools.concepts.Identifiable;
@@ -20,6 +21,9 @@ import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.util.AbstractSchemaRepository;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.EffectiveSourceCache;
+import org.opendaylight.yangtools.yang.parser.util.TextToASTTransformer;
+import org.opendaylight.yangtools.yang.parser.util.TextToASTTransformer.TextToASTTransformation;
 
 /**
  * A {@link SchemaRepository} which allows sharing of {@link SchemaContext} as
@@ -27,9 +31,19 @@ import org.opendaylight.yangtools.yang.model.repo.util.AbstractSchemaRepository;
  *
  * Note: for current implementation, "same" means the same filter and the same
  * set of {@link SourceIdentifier}s.
+ *
+ * Effective models of individual modules are shared between {@link SchemaContext}s
+ * assembled by this repository, as long as the module, the modules it depends on
+ * and the modules which import it are the same.
+ *
+ * The repository also owns a {@link TextToASTTransformation} which caches parsed sources by their content, so that
+ * the same model registered under several names is parsed only once. To use it, pass {@link #getASTTransformation()}
+ * when creating a {@link TextToASTTransformer}.
  */
 @Beta
 public final class SharedSchemaRepository extends AbstractSchemaRepository implements Identifiable<String> {
+    private static final long MAX_CACHED_AST_NODES = 1024 * 1024;
+
     private final LoadingCache<SchemaSourceFilter, SchemaContextFactory> cache =
             CacheBuilder.newBuilder().softValues().build(new CacheLoader<SchemaSourceFilter, SchemaContextFactory>() {
                 @Override
@@ -37,6 +51,9 @@ public final class SharedSchemaRepository extends AbstractSchemaRepository imple
                     return new SharedSchemaContextFactory(SharedSchemaRepository.this, key);
                 }
             });
+    private final EffectiveSourceCache effectiveSources = EffectiveSourceCache.create();
+    private final TextToASTTransformation astTransformation =
+            TextToASTTransformation.createCached(MAX_CACHED_AST_NODES);
     private final String id;
 
     public SharedSchemaRepository(final String id) {
@@ -53,6 +70,32 @@ public final class SharedSchemaRepository extends AbstractSchemaRepository imple
         return cache.getUnchecked(filter);
     }
 
+    /**
+     * Return statistics of sharing of effective models of modules between schema contexts.
+     *
+     * @return Cache statistics
+     */
+    @Beta
+    public CacheStats getEffectiveSourceStats() {
+        return effectiveSources.getStats();
+    }
+
+    /**
+     * Return the transformation of YANG text into ASTs owned by this repository. It caches parsed sources by their
+     * content until the repository is garbage-collected or {@link TextToASTTransformation#invalidateCache()} is
+     * invoked.
+     *
+     * @return Transformation caching parsed sources
+     */
+    @Beta
+    public TextToASTTransformation getASTTransformation() {
+        return astTransformation;
+    }
+
+    EffectiveSourceCache getEffectiveSourceCache() {
+        return effectiveSources;
+    }
+
     @Override
     public String toString() {
         return "SchemaRepository: " + id;
@@ -15,8 +15,8 @@ import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -64,7 +64,9 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
     private final Map<Class<?>,NamespaceBehaviourWithListeners<?, ?, ?>> supportedNamespaces = new HashMap<>();
 
     private final Map<ModelProcessingPhase,StatementSupportBundle> supports;
-    private final Set<SourceSpecificContext> sources = new HashSet<>();
+    // Sources are kept in the order they were added, which is the order of root statements of the effective model
+    private final Set<SourceSpecificContext> sources = new LinkedHashSet<>();
+    private final Map<SourceSpecificContext, Object> sharingKeys = new HashMap<>();
 
     private ModelProcessingPhase currentPhase = ModelProcessingPhase.INIT;
     private ModelProcessingPhase finishedPhase = ModelProcessingPhase.INIT;
@@ -98,6 +100,12 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         sources.add(new SourceSpecificContext(this,source));
     }
 
+    public void addSource(@Nonnull final StatementStreamSource source, @Nonnull final Object sharingKey) {
+        final SourceSpecificContext ctx = new SourceSpecificContext(this, source);
+        sources.add(ctx);
+        sharingKeys.put(ctx, Preconditions.checkNotNull(sharingKey));
+    }
+
     @Override
     public StorageNodeType getStorageNodeType() {
         return StorageNodeType.GLOBAL;
@@ -180,24 +188,45 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
     }
 
     public EffectiveSchemaContext buildEffective() throws SourceException, ReactorException {
+        return buildEffective(null);
+    }
+
+    public EffectiveSchemaContext buildEffective(final EffectiveSourceCache cache) throws SourceException,
+            ReactorException {
         for (ModelProcessingPhase phase : PHASE_EXECUTION_ORDER) {
             startPhase(phase);
             loadPhaseStatements();
             completePhaseActions();
             endPhase(phase);
         }
-        return transformEffective();
+        return transformEffective(cache);
     }
 
-    private EffectiveSchemaContext transformEffective() {
+    private EffectiveSchemaContext transformEffective(final EffectiveSourceCache cache) {
         Preconditions.checkState(finishedPhase == ModelProcessingPhase.EFFECTIVE_MODEL);
         List<DeclaredStatement<?>> rootStatements = new ArrayList<>(sources.size());
         List<EffectiveStatement<?,?>> rootEffectiveStatements = new ArrayList<>(sources.size());
 
         for (SourceSpecificContext source : sources) {
+            final Object sharingKey = cache != null ? sharingKeys.get(source) : null;
+            if (sharingKey != null) {
+                // Reuse the effective model built by a previous build, along with its declared statements
+                final EffectiveStatement<?, ?> shared = cache.get(sharingKey);
+                if (shared != null) {
+                    LOG.debug("Reusing effective model of source {}", source);
+                    rootStatements.add(shared.getDeclared());
+                    rootEffectiveStatements.add(shared);
+                    continue;
+                }
+            }
+
             final RootStatementContext<?, ?, ?> root = source.getRoot();
+            final EffectiveStatement<?, ?> effective = root.buildEffective();
             rootStatements.add(root.buildDeclared());
-            rootEffectiveStatements.add(root.buildEffective());
+            rootEffectiveStatements.add(effective);
+            if (sharingKey != null) {
+                cache.put(sharingKey, effective);
+            }
         }
 
         return new EffectiveSchemaContext(rootStatements, rootEffectiveStatements);
@@ -7,13 +7,18 @@
  */
 package org.opendaylight.yangtools.yang.parser.stmt.reactor;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
 import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
@@ -21,20 +26,32 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.function.Predicate;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ModelProcessingPhase;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
 import org.opendaylight.yangtools.yang.parser.spi.meta.StatementSupportBundle;
+import org.opendaylight.yangtools.yang.parser.spi.source.DeclarationInTextSource;
+import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
 import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
 import org.opendaylight.yangtools.yang.parser.spi.validation.ValidationBundlesNamespace.ValidationBundleType;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementParseCache;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangTextStatementSource;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.EffectiveSchemaContext;
 import org.opendaylight.yangtools.yang.parser.util.NamedFileInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class CrossSourceStatementReactor {
+    private static final Logger LOG = LoggerFactory.getLogger(CrossSourceStatementReactor.class);
 
     private final Map<ModelProcessingPhase,StatementSupportBundle> supportedTerminology;
     private final Map<ValidationBundleType,Collection<?>> supportedValidation;
@@ -61,6 +78,18 @@ public class CrossSourceStatementReactor {
         return new BuildAction(isFeatureSupported);
     }
 
+    /**
+     * Create a new build, which parses the sources passed to {@link BuildAction#buildEffective(Collection)} and
+     * {@link BuildAction#buildEffective(List)} concurrently on the specified executor.
+     *
+     * @param isFeatureSupported Predicate selecting supported features
+     * @param executor Executor to run source parsing on
+     * @return A new build action
+     */
+    public final BuildAction newBuild(final Predicate<QName> isFeatureSupported, final Executor executor) {
+        return new BuildAction(isFeatureSupported, executor);
+    }
+
     public static class Builder implements org.opendaylight.yangtools.concepts.Builder<CrossSourceStatementReactor>{
 
         final Map<ModelProcessingPhase,StatementSupportBundle> bundles = new EnumMap<>(ModelProcessingPhase.class);
@@ -85,20 +114,49 @@ public class CrossSourceStatementReactor {
 
     public class BuildAction {
         private final BuildGlobalContext context;
+        private final Executor executor;
+        private boolean textSources;
 
         public BuildAction() {
             this(t -> true);
         }
 
         public BuildAction(Predicate<QName> isFeatureSupported) {
+            this(isFeatureSupported, MoreExecutors.directExecutor());
+        }
+
+        public BuildAction(final Predicate<QName> isFeatureSupported, final Executor executor) {
             Preconditions.checkNotNull(isFeatureSupported);
             this.context = new BuildGlobalContext(supportedTerminology, supportedValidation, isFeatureSupported);
+            this.executor = Preconditions.checkNotNull(executor);
+        }
+
+        /**
+         * Parse sources passed to {@link #buildEffective(Collection)} and {@link #buildEffective(List)} with
+         * {@link YangTextStatementSource}, which tokenizes them directly instead of building ANTLR parse trees.
+         * Builds using a parse cache always use ANTLR, as the cache is created from parse trees.
+         *
+         * @return This build action
+         */
+        public BuildAction useTextStatementSources() {
+            textSources = true;
+            return this;
         }
 
         public void addSource(final StatementStreamSource source) {
             context.addSource(source);
         }
 
+        /**
+         * Add a source, whose effective model can be shared with other builds via an {@link EffectiveSourceCache}.
+         *
+         * @param source Source
+         * @param sharingKey Key identifying the effective model of the source, see {@link EffectiveSourceCache}
+         */
+        public void addSource(final StatementStreamSource source, final Object sharingKey) {
+            context.addSource(source, sharingKey);
+        }
+
         public void addSources(final StatementStreamSource... sources) {
             for (StatementStreamSource source : sources) {
                 context.addSource(source);
@@ -117,24 +175,147 @@ public class CrossSourceStatementReactor {
             return context.buildEffective();
         }
 
+        /**
+         * Build the effective model, reusing effective models of sources found in the specified cache. Effective
+         * models of sources added with a sharing key, which are not present in the cache, are added to it.
+         *
+         * @param cache Effective source cache
+         * @return Effective schema context
+         * @throws ReactorException if the model cannot be built
+         */
+        public EffectiveSchemaContext buildEffective(final EffectiveSourceCache cache) throws ReactorException {
+            return context.buildEffective(Preconditions.checkNotNull(cache));
+        }
+
         public SchemaContext buildEffective(final Collection<ByteSource> yangByteSources) throws
                 ReactorException, IOException {
-            for (ByteSource yangByteSource : yangByteSources) {
-                addSource(new YangStatementSourceImpl(yangByteSource.openStream()));
-            }
+            addParsedSources(textSources ? tokenizeSources(yangByteSources) : parseSources(yangByteSources));
 
             return buildEffective();
         }
 
+        /**
+         * Build the effective model from YANG sources, using a cache of their parsed statements if available.
+         * If the cache file does not exist, does not correspond to the sources or is damaged, the sources are parsed
+         * and, once the model is successfully built, a new cache is written to the file.
+         * The cache covers parsing only, all reactor phases still run, see {@link YangStatementParseCache}.
+         *
+         * @param yangByteSources YANG source texts
+         * @param parseCache Parse cache file, see {@link YangStatementParseCache}
+         * @return Effective schema context
+         * @throws ReactorException if the model cannot be built
+         * @throws IOException if the sources cannot be read or the cache cannot be written
+         */
+        public SchemaContext buildEffective(final Collection<ByteSource> yangByteSources, final File parseCache)
+                throws ReactorException, IOException {
+            final HashCode digest = YangStatementParseCache.digest(yangByteSources);
+            final Optional<List<StatementStreamSource>> cachedSources = YangStatementParseCache.read(parseCache,
+                digest);
+            if (cachedSources.isPresent()) {
+                LOG.debug("Building from parse cache {}", parseCache);
+                for (StatementStreamSource source : cachedSources.get()) {
+                    addSource(source);
+                }
+                return buildEffective();
+            }
+
+            final List<YangStatementSourceImpl> sources = parseSources(yangByteSources);
+            addParsedSources(sources);
+            final SchemaContext ret = buildEffective();
+            YangStatementParseCache.write(parseCache, digest, sources);
+            return ret;
+        }
+
         public SchemaContext buildEffective(final List<InputStream> yangInputStreams) throws
                 ReactorException {
+            final List<Callable<StatementStreamSource>> parsers = new ArrayList<>(yangInputStreams.size());
             for (InputStream yangInputStream : yangInputStreams) {
-                addSource(new YangStatementSourceImpl(yangInputStream));
+                if (textSources) {
+                    parsers.add(() -> tokenize(yangInputStream));
+                } else {
+                    parsers.add(() -> new YangStatementSourceImpl(yangInputStream));
+                }
+            }
+            try {
+                addParsedSources(parseSources(parsers));
+            } catch (IOException e) {
+                throw new IllegalStateException("Unexpected failure to parse sources", e);
             }
 
             return buildEffective();
         }
 
+        private List<YangStatementSourceImpl> parseSources(final Collection<ByteSource> yangByteSources)
+                throws IOException {
+            final List<Callable<YangStatementSourceImpl>> parsers = new ArrayList<>(yangByteSources.size());
+            for (ByteSource yangByteSource : yangByteSources) {
+                parsers.add(() -> {
+                    try (InputStream yangInputStream = yangByteSource.openStream()) {
+                        return new YangStatementSourceImpl(yangInputStream);
+                    }
+                });
+            }
+            return parseSources(parsers);
+        }
+
+        private List<YangTextStatementSource> tokenizeSources(final Collection<ByteSource> yangByteSources)
+                throws IOException {
+            final List<Callable<YangTextStatementSource>> parsers = new ArrayList<>(yangByteSources.size());
+            for (ByteSource yangByteSource : yangByteSources) {
+                parsers.add(() -> {
+                    try (InputStream yangInputStream = yangByteSource.openStream()) {
+                        return tokenize(yangInputStream);
+                    }
+                });
+            }
+            return parseSources(parsers);
+        }
+
+        private void addParsedSources(final List<? extends StatementStreamSource> sources) {
+            for (StatementStreamSource source : sources) {
+                addSource(source);
+            }
+        }
+
+        private YangTextStatementSource tokenize(final InputStream yangInputStream) throws IOException {
+            try {
+                return YangTextStatementSource.create(yangInputStream);
+            } catch (YangSyntaxErrorException e) {
+                throw new SourceException(e.getMessage(), DeclarationInTextSource.atPosition(e.getModule(),
+                    e.getLine(), e.getCharPositionInLine()), e);
+            }
+        }
+
+        /*
+         * Parsing is the only part of the build which is confined to a single source, hence it is the part we run
+         * on the executor. Statement writing publishes into global namespaces, which in turn triggers actions on
+         * other sources, and so it remains sequential. Sources are added in their original order, so the resulting
+         * context does not depend on the executor.
+         */
+        private <T extends StatementStreamSource> List<T> parseSources(final List<Callable<T>> parsers)
+                throws IOException {
+            final List<FutureTask<T>> tasks = new ArrayList<>(parsers.size());
+            for (Callable<T> parser : parsers) {
+                final FutureTask<T> task = new FutureTask<>(parser);
+                executor.execute(task);
+                tasks.add(task);
+            }
+
+            final List<T> ret = new ArrayList<>(tasks.size());
+            for (FutureTask<T> task : tasks) {
+                try {
+                    ret.add(task.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while parsing sources", e);
+                } catch (ExecutionException e) {
+                    Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+                    throw Throwables.propagate(e.getCause());
+                }
+            }
+            return ret;
+        }
+
         /**
          * @deprecated This method was never used and relies on deprecated module methods.
          */
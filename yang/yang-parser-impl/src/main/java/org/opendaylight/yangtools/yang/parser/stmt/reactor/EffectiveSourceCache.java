@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.reactor;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
+
+/**
+ * Cache of effective statements of individual sources, which allows multiple reactor builds to share the effective
+ * model of a module by reference. Sources participate in sharing when they are added to a build via
+ * {@link CrossSourceStatementReactor.BuildAction#addSource(StatementStreamSource, Object)}. Each build still
+ * processes every source through all reactor phases, hence sharing reduces the memory retained by schema contexts
+ * rather than the time needed to build them.
+ *
+ * <p>
+ * The caller is responsible for choosing sharing keys, which must capture everything which influences the effective
+ * model of a source: its text, the sources it depends on, the sources which augment or deviate it and the set of
+ * supported features. Entries are held via weak references, hence they are evicted once no schema context refers
+ * to them.
+ */
+@Beta
+public final class EffectiveSourceCache {
+    private final Cache<Object, EffectiveStatement<?, ?>> statements =
+            CacheBuilder.newBuilder().weakValues().recordStats().build();
+
+    private EffectiveSourceCache() {
+        // Hidden on purpose
+    }
+
+    public static EffectiveSourceCache create() {
+        return new EffectiveSourceCache();
+    }
+
+    /**
+     * Return statistics of this cache.
+     *
+     * @return Cache statistics
+     */
+    public CacheStats getStats() {
+        return statements.stats();
+    }
+
+    EffectiveStatement<?, ?> get(final Object key) {
+        return statements.getIfPresent(key);
+    }
+
+    void put(final Object key, final EffectiveStatement<?, ?> statement) {
+        statements.put(key, Preconditions.checkNotNull(statement));
+    }
+}
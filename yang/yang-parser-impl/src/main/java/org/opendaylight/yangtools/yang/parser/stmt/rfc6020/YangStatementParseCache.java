@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.rfc6020;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteSource;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.antlr.v4.runtime.Token;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.ArgumentContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.KeywordContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.parser.impl.YangStatementParserListenerImpl;
+import org.opendaylight.yangtools.yang.parser.spi.source.PrefixToModule;
+import org.opendaylight.yangtools.yang.parser.spi.source.QNameToStatementDefinition;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache of parsed YANG sources, which allows a reactor to be fed with previously-parsed statements without
+ * running the YANG lexer and parser again. A cache file is tied to a digest of the source texts it was created from,
+ * see {@link #digest(Collection)}, and is not loaded if the digest does not match.
+ *
+ * <p>
+ * This is a parse cache only: it does not persist the effective model. Statement inference and effective model
+ * construction run on every build, hence the cache saves only the time spent lexing and parsing sources.
+ *
+ * <p>
+ * The whole file is checked against a checksum and decoded when it is loaded, so that a damaged file is detected
+ * before any of its statements reach the reactor. Such a file is ignored, as if it did not exist.
+ */
+@Beta
+public final class YangStatementParseCache {
+    private static final Logger LOG = LoggerFactory.getLogger(YangStatementParseCache.class);
+    private static final int MAGIC = 0x59535353;
+    private static final short VERSION = 2;
+    // Keyword and argument lengths, line, position and child count
+    private static final int MIN_STATEMENT_SIZE = 20;
+
+    private YangStatementParseCache() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Compute the digest of a set of YANG source texts. The digest depends on the order of sources.
+     *
+     * @param sources YANG source texts
+     * @return Source digest
+     * @throws IOException if a source cannot be read
+     */
+    public static HashCode digest(final Collection<? extends ByteSource> sources) throws IOException {
+        final Hasher hasher = Hashing.sha256().newHasher().putShort(VERSION).putInt(sources.size());
+        for (ByteSource source : sources) {
+            hasher.putBytes(source.hash(Hashing.sha256()).asBytes());
+        }
+        return hasher.hash();
+    }
+
+    /**
+     * Write a cache of parsed sources. The file is replaced atomically, so that a concurrent or interrupted write
+     * does not leave a partial file behind.
+     *
+     * @param file Cache file
+     * @param digest Digest of the source texts, as computed by {@link #digest(Collection)}
+     * @param sources Parsed sources
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if any of the sources failed to parse
+     */
+    public static void write(final File file, final HashCode digest, final Collection<YangStatementSourceImpl> sources)
+            throws IOException {
+        final List<byte[]> encoded = new ArrayList<>(sources.size());
+        for (YangStatementSourceImpl source : sources) {
+            final StatementContext ast = source.getYangAST();
+            Preconditions.checkArgument(ast != null, "Source %s has not been parsed", source);
+
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bos)) {
+                writeString(out, source.toString());
+                writeStatement(out, ast);
+            }
+            encoded.add(bos.toByteArray());
+        }
+
+        // Index of sources, so they can be located without decoding their predecessors. Offsets are relative
+        // to the start of the payload, which is covered by the checksum.
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            out.writeInt(encoded.size());
+            int offset = 4 + 8 * encoded.size();
+            for (byte[] bytes : encoded) {
+                out.writeInt(offset);
+                out.writeInt(bytes.length);
+                offset += bytes.length;
+            }
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+        }
+        final byte[] payloadBytes = payload.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(payloadBytes);
+
+        final byte[] digestBytes = digest.asBytes();
+        final File tmp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeInt(digestBytes.length);
+                out.write(digestBytes);
+                out.writeInt((int) crc.getValue());
+                out.writeInt(payloadBytes.length);
+                out.write(payloadBytes);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tmp.delete();
+        }
+        LOG.debug("Wrote parse cache of {} sources to {}", encoded.size(), file);
+    }
+
+    /**
+     * Load a cache of parsed sources, if it exists and matches the specified digest. The file is validated and
+     * decoded in its entirety, hence the returned sources never fail to replay.
+     *
+     * @param file Cache file
+     * @param digest Expected digest of the source texts, as computed by {@link #digest(Collection)}
+     * @return Sources stored in the cache, in their original order, or absent if the file does not exist, does not
+     *         match or is damaged.
+     * @throws IOException if the file cannot be read
+     */
+    public static Optional<List<StatementStreamSource>> read(final File file, final HashCode digest)
+            throws IOException {
+        if (!file.isFile()) {
+            return Optional.absent();
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                LOG.debug("Parse cache {} has unrecognized format, ignoring it", file);
+                return Optional.absent();
+            }
+            final byte[] digestBytes = new byte[checkLength(buffer, buffer.getInt())];
+            buffer.get(digestBytes);
+            if (!Arrays.equals(digestBytes, digest.asBytes())) {
+                LOG.debug("Parse cache {} does not match sources, ignoring it", file);
+                return Optional.absent();
+            }
+
+            final int checksum = buffer.getInt();
+            final int payloadLength = checkLength(buffer, buffer.getInt());
+            final ByteBuffer payload = slice(buffer, buffer.position(), payloadLength);
+            buffer.position(buffer.position() + payloadLength);
+            checkFormat(!buffer.hasRemaining(), "trailing data");
+
+            final CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            checkFormat((int) crc.getValue() == checksum, "checksum mismatch");
+
+            final int count = payload.getInt();
+            checkFormat(count >= 0 && count <= payload.remaining() / 8, "invalid source count %s", count);
+            final ImmutableList.Builder<StatementStreamSource> builder = ImmutableList.builder();
+            for (int i = 0; i < count; ++i) {
+                final int offset = payload.getInt();
+                final int length = payload.getInt();
+                checkFormat(offset >= 0 && length >= 0 && (long) offset + length <= payload.limit(),
+                    "source %s at offset %s length %s out of bounds", i, offset, length);
+
+                final ByteBuffer body = slice(payload, offset, length);
+                final String sourceName = readString(body);
+                final Statement root = new Statement(body);
+                checkFormat(!body.hasRemaining(), "trailing data in source %s", sourceName);
+                builder.add(new CachedSource(sourceName, root));
+            }
+            return Optional.<List<StatementStreamSource>>of(builder.build());
+        } catch (IOException | BufferUnderflowException e) {
+            LOG.warn("Parse cache {} is damaged, ignoring it", file, e);
+            return Optional.absent();
+        }
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buffer, final int offset, final int length) {
+        final ByteBuffer ret = buffer.duplicate();
+        ret.position(offset);
+        ret.limit(offset + length);
+        return ret.slice();
+    }
+
+    private static void checkFormat(final boolean expression, final String message, final Object... args)
+            throws IOException {
+        if (!expression) {
+            throw new IOException(String.format(message, args));
+        }
+    }
+
+    private static int checkLength(final ByteBuffer buffer, final int length) throws IOException {
+        checkFormat(length >= 0 && length <= buffer.remaining(), "invalid length %s, %s bytes remaining", length,
+            buffer.remaining());
+        return length;
+    }
+
+    private static void writeStatement(final DataOutputStream out, final StatementContext ctx) throws IOException {
+        final ArgumentContext argumentCtx = ctx.getChild(ArgumentContext.class, 0);
+        final Token start = ctx.getStart();
+        writeString(out, ctx.getChild(KeywordContext.class, 0).getText());
+        writeString(out, argumentCtx != null ? Utils.stringFromStringContext(argumentCtx) : null);
+        out.writeInt(start.getLine());
+        out.writeInt(start.getCharPositionInLine());
+
+        final List<StatementContext> children = ctx.getRuleContexts(StatementContext.class);
+        out.writeInt(children.size());
+        for (StatementContext child : children) {
+            writeStatement(out, child);
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+        } else {
+            // Arguments, such as descriptions, may exceed the limit of DataOutput.writeUTF()
+            final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer) throws IOException {
+        final int length = buffer.getInt();
+        if (length == -1) {
+            return null;
+        }
+        final byte[] bytes = new byte[checkLength(buffer, length)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Statement {
+        final String keyword;
+        final String argument;
+        final int line;
+        final int position;
+        final Statement[] children;
+
+        Statement(final ByteBuffer buffer) throws IOException {
+            keyword = readString(buffer);
+            checkFormat(keyword != null, "missing statement keyword");
+            argument = readString(buffer);
+            line = buffer.getInt();
+            position = buffer.getInt();
+
+            final int count = buffer.getInt();
+            checkFormat(count >= 0 && count <= buffer.remaining() / MIN_STATEMENT_SIZE,
+                "invalid child count %s of statement %s", count, keyword);
+            children = new Statement[count];
+            for (int i = 0; i < children.length; ++i) {
+                children[i] = new Statement(buffer);
+            }
+        }
+
+        void walk(final YangStatementParserListenerImpl listener) {
+            listener.enterStatement(keyword, argument, line, position);
+            for (Statement child : children) {
+                child.walk(listener);
+            }
+            listener.exitStatement(keyword, line, position);
+        }
+    }
+
+    private static final class CachedSource implements StatementStreamSource {
+        private final YangStatementParserListenerImpl listener;
+        private final String sourceName;
+        private final Statement root;
+
+        CachedSource(final String sourceName, final Statement root) {
+            this.sourceName = sourceName;
+            this.root = Preconditions.checkNotNull(root);
+            this.listener = new YangStatementParserListenerImpl(sourceName);
+        }
+
+        @Override
+        public void writePreLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef) {
+            listener.setAttributes(writer, stmtDef);
+            root.walk(listener);
+        }
+
+        @Override
+        public void writeLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+                final PrefixToModule preLinkagePrefixes) {
+            listener.setAttributes(writer, stmtDef, preLinkagePrefixes);
+            root.walk(listener);
+        }
+
+        @Override
+        public void writeLinkageAndStatementDefinitions(final StatementWriter writer,
+                final QNameToStatementDefinition stmtDef, final PrefixToModule prefixes) {
+            listener.setAttributes(writer, stmtDef, prefixes);
+            root.walk(listener);
+        }
+
+        @Override
+        public void writeFull(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+                final PrefixToModule prefixes) {
+            listener.setAttributes(writer, stmtDef, prefixes);
+            root.walk(listener);
+        }
+
+        @Override
+        public String toString() {
+            return sourceName;
+        }
+    }
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.rfc6020;
+
+import com.google.common.annotations.Beta;
+import com.google.common.io.CharStreams;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.parser.impl.YangStatementParserListenerImpl;
+import org.opendaylight.yangtools.yang.parser.spi.source.PrefixToModule;
+import org.opendaylight.yangtools.yang.parser.spi.source.QNameToStatementDefinition;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
+import org.opendaylight.yangtools.yang.parser.util.NamedFileInputStream;
+
+/**
+ * A {@link StatementStreamSource} which tokenizes YANG text directly, without going through the ANTLR lexer and
+ * parser used by {@link YangStatementSourceImpl}. The text is tokenized once, when the source is created, into flat
+ * arrays of statement keywords, arguments and positions, which are then replayed for each phase of the reactor. No
+ * parse tree is built, hence this source cannot be used where an AST is required, such as
+ * {@link YangStatementParseCache}.
+ *
+ * <p>
+ * Arguments are extracted with the same rules as {@link Utils#stringFromStringContext}: the parts of a concatenated
+ * argument are joined, quoted parts have their quotes removed and escape sequences are not interpreted.
+ */
+@Beta
+public final class YangTextStatementSource implements StatementStreamSource {
+    private final String sourceName;
+    private final String[] keywords;
+    private final String[] arguments;
+    private final int[] lines;
+    private final int[] positions;
+    private final int[] ends;
+    private final int count;
+    private final int maxDepth;
+    private final YangStatementParserListenerImpl listener;
+
+    private YangTextStatementSource(final String sourceName, final Tokenizer tokenizer) {
+        this.sourceName = sourceName;
+        this.keywords = tokenizer.keywords;
+        this.arguments = tokenizer.arguments;
+        this.lines = tokenizer.lines;
+        this.positions = tokenizer.positions;
+        this.ends = tokenizer.ends;
+        this.count = tokenizer.count;
+        this.maxDepth = tokenizer.maxDepth;
+        this.listener = new YangStatementParserListenerImpl(sourceName);
+    }
+
+    /**
+     * Tokenize a YANG source text.
+     *
+     * @param sourceName Name of the source, used in statement source references, may be null
+     * @param text YANG source text
+     * @return A new source
+     * @throws YangSyntaxErrorException if the text is not syntactically valid
+     */
+    public static YangTextStatementSource create(@Nullable final String sourceName, @Nonnull final CharSequence text)
+            throws YangSyntaxErrorException {
+        final Tokenizer tokenizer;
+        if (text instanceof CharBuffer && ((CharBuffer) text).hasArray()) {
+            final CharBuffer buffer = (CharBuffer) text;
+            final int offset = buffer.arrayOffset() + buffer.position();
+            tokenizer = new Tokenizer(buffer.array(), offset, offset + buffer.remaining());
+        } else {
+            final char[] chars = text.toString().toCharArray();
+            tokenizer = new Tokenizer(chars, 0, chars.length);
+        }
+
+        tokenizer.tokenize();
+        return new YangTextStatementSource(sourceName, tokenizer);
+    }
+
+    /**
+     * Tokenize a YANG source file. The file is read in full and decoded as UTF-8, its path is used as the source
+     * name. The decoded text is tokenized in place, without further copies.
+     *
+     * @param file YANG source file
+     * @return A new source
+     * @throws IOException if the file cannot be read
+     * @throws YangSyntaxErrorException if the file is not syntactically valid
+     */
+    public static YangTextStatementSource create(@Nonnull final File file) throws IOException,
+            YangSyntaxErrorException {
+        // YANG files are small, hence reading them is cheaper than mapping them
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        return create(file.getPath(), StandardCharsets.UTF_8.decode(ByteBuffer.wrap(bytes)));
+    }
+
+    /**
+     * Tokenize a YANG source text read from a stream, which is decoded as UTF-8. Sources read from a
+     * {@link NamedFileInputStream} are named after it, as is the case with {@link YangStatementSourceImpl}.
+     * The stream is not closed.
+     *
+     * @param stream Stream containing the YANG source text
+     * @return A new source
+     * @throws IOException if the stream cannot be read
+     * @throws YangSyntaxErrorException if the text is not syntactically valid
+     */
+    public static YangTextStatementSource create(@Nonnull final InputStream stream) throws IOException,
+            YangSyntaxErrorException {
+        final String sourceName = stream instanceof NamedFileInputStream ? stream.toString() : null;
+        return create(sourceName, CharStreams.toString(new InputStreamReader(stream, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Return the number of statements in this source.
+     *
+     * @return Number of statements
+     */
+    public int getStatementCount() {
+        return count;
+    }
+
+    @Override
+    public void writePreLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef) {
+        listener.setAttributes(writer, stmtDef);
+        walk();
+    }
+
+    @Override
+    public void writeLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule preLinkagePrefixes) {
+        listener.setAttributes(writer, stmtDef, preLinkagePrefixes);
+        walk();
+    }
+
+    @Override
+    public void writeLinkageAndStatementDefinitions(final StatementWriter writer,
+            final QNameToStatementDefinition stmtDef, final PrefixToModule prefixes) {
+        listener.setAttributes(writer, stmtDef, prefixes);
+        walk();
+    }
+
+    @Override
+    public void writeFull(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule prefixes) {
+        listener.setAttributes(writer, stmtDef, prefixes);
+        walk();
+    }
+
+    /*
+     * Statements are stored in pre-order, each with the index following its last substatement, so the tree is walked
+     * with an explicit stack of open statements.
+     */
+    private void walk() {
+        final int[] open = new int[maxDepth + 1];
+        int depth = 0;
+        for (int i = 0; i < count; ++i) {
+            while (depth != 0 && ends[open[depth - 1]] <= i) {
+                exit(open[--depth]);
+            }
+            listener.enterStatement(keywords[i], arguments[i], lines[i], positions[i]);
+            open[depth++] = i;
+        }
+        while (depth != 0) {
+            exit(open[--depth]);
+        }
+    }
+
+    private void exit(final int index) {
+        listener.exitStatement(keywords[index], lines[index], positions[index]);
+    }
+
+    @Override
+    public String toString() {
+        return sourceName;
+    }
+
+    private static final class Tokenizer {
+        private static final int INITIAL_CAPACITY = 64;
+        private static final int KEYWORD_CACHE_SIZE = 64;
+
+        // Keywords repeat heavily, hence we reuse their strings instead of allocating one for each statement
+        private final String[] keywordCache = new String[KEYWORD_CACHE_SIZE];
+        private final char[] buf;
+        private final int limit;
+        private int pos;
+        private int line = 1;
+        private int lineStart;
+
+        String[] keywords = new String[INITIAL_CAPACITY];
+        String[] arguments = new String[INITIAL_CAPACITY];
+        int[] lines = new int[INITIAL_CAPACITY];
+        int[] positions = new int[INITIAL_CAPACITY];
+        int[] ends = new int[INITIAL_CAPACITY];
+        int count;
+        int maxDepth;
+
+        Tokenizer(final char[] buf, final int offset, final int limit) {
+            this.buf = buf;
+            this.pos = offset;
+            this.lineStart = offset;
+            this.limit = limit;
+        }
+
+        void tokenize() throws YangSyntaxErrorException {
+            int[] open = new int[INITIAL_CAPACITY];
+            int depth = 0;
+
+            skipSeparators();
+            do {
+                if (depth != 0 && pos < limit && buf[pos] == '}') {
+                    ++pos;
+                    ends[open[--depth]] = count;
+                } else {
+                    final int index = statement();
+                    if (buf[pos] == ';') {
+                        ends[index] = count;
+                    } else {
+                        if (depth == open.length) {
+                            open = Arrays.copyOf(open, depth * 2);
+                        }
+                        open[depth++] = index;
+                        maxDepth = Math.max(maxDepth, depth);
+                    }
+                    ++pos;
+                }
+                skipSeparators();
+            } while (depth != 0);
+
+            if (pos < limit) {
+                throw error("Unexpected content after the end of the root statement");
+            }
+
+            keywords = Arrays.copyOf(keywords, count);
+            arguments = Arrays.copyOf(arguments, count);
+            lines = Arrays.copyOf(lines, count);
+            positions = Arrays.copyOf(positions, count);
+            ends = Arrays.copyOf(ends, count);
+        }
+
+        /*
+         * Reads a statement up to its terminating ';' or '{', which is left at the current position.
+         */
+        private int statement() throws YangSyntaxErrorException {
+            if (pos == limit) {
+                throw error(count == 0 ? "Source contains no statement" : "Missing '}'");
+            }
+
+            final int index = count;
+            if (index == keywords.length) {
+                grow();
+            }
+            lines[index] = line;
+            positions[index] = pos - lineStart;
+            keywords[index] = keyword();
+            ++count;
+
+            skipSeparators();
+            if (pos < limit && buf[pos] != ';' && buf[pos] != '{') {
+                arguments[index] = argument();
+                skipSeparators();
+            }
+            if (pos == limit || buf[pos] != ';' && buf[pos] != '{') {
+                throw error("Expected ';' or '{'");
+            }
+            return index;
+        }
+
+        private String keyword() throws YangSyntaxErrorException {
+            final int start = pos;
+            if (!isIdentifierStart(buf[pos])) {
+                throw error("Expected statement keyword");
+            }
+
+            int hash = buf[pos++];
+            while (pos < limit && isIdentifierPart(buf[pos])) {
+                hash = 31 * hash + buf[pos++];
+            }
+
+            final int slot = hash & KEYWORD_CACHE_SIZE - 1;
+            final String cached = keywordCache[slot];
+            if (cached != null && regionEquals(cached, start)) {
+                return cached;
+            }
+            final String ret = new String(buf, start, pos - start);
+            keywordCache[slot] = ret;
+            return ret;
+        }
+
+        private boolean regionEquals(final String str, final int start) {
+            final int length = pos - start;
+            if (str.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; ++i) {
+                if (str.charAt(i) != buf[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String argument() throws YangSyntaxErrorException {
+            String ret = part();
+            StringBuilder sb = null;
+            while (true) {
+                final int savedPos = pos;
+                final int savedLine = line;
+                final int savedLineStart = lineStart;
+                skipSeparators();
+                if (pos == limit || buf[pos] != '+') {
+                    // Let the caller report what follows the argument
+                    pos = savedPos;
+                    line = savedLine;
+                    lineStart = savedLineStart;
+                    return sb == null ? ret : sb.toString();
+                }
+
+                ++pos;
+                skipSeparators();
+                if (sb == null) {
+                    sb = new StringBuilder(ret);
+                }
+                sb.append(part());
+            }
+        }
+
+        private String part() throws YangSyntaxErrorException {
+            if (pos == limit) {
+                throw error("Missing argument");
+            }
+
+            final char first = buf[pos];
+            if (first == '"' || first == '\'') {
+                return quotedPart(first);
+            }
+
+            final int start = pos;
+            while (pos < limit && !isArgumentEnd(buf[pos])) {
+                ++pos;
+            }
+            if (pos == start) {
+                throw error("Missing argument");
+            }
+            return new String(buf, start, pos - start);
+        }
+
+        private String quotedPart(final char quote) throws YangSyntaxErrorException {
+            final int startLine = line;
+            final int startPosition = pos - lineStart;
+            final int start = ++pos;
+            int quotes = 0;
+
+            while (true) {
+                if (pos == limit) {
+                    throw new YangSyntaxErrorException(moduleName(), startLine, startPosition,
+                        "Unterminated quoted string");
+                }
+
+                final char c = buf[pos];
+                if (c == quote) {
+                    break;
+                }
+                if (c == '\\' && quote == '"' && pos + 1 < limit) {
+                    if (buf[pos + 1] == '"') {
+                        ++quotes;
+                    }
+                    ++pos;
+                }
+                if (buf[pos] == '\n') {
+                    newLine();
+                }
+                ++pos;
+            }
+
+            final int end = pos++;
+            if (quotes == 0) {
+                return new String(buf, start, end - start);
+            }
+
+            // Quote characters are removed even when escaped, which is what Utils.stringFromStringContext() does
+            final StringBuilder sb = new StringBuilder(end - start - quotes);
+            for (int i = start; i < end; ++i) {
+                if (buf[i] != quote) {
+                    sb.append(buf[i]);
+                }
+            }
+            return sb.toString();
+        }
+
+        private void skipSeparators() throws YangSyntaxErrorException {
+            while (pos < limit) {
+                final char c = buf[pos];
+                if (c == '\n') {
+                    newLine();
+                    ++pos;
+                } else if (c == ' ' || c == '\t' || c == '\r') {
+                    ++pos;
+                } else if (c == '/' && pos + 1 < limit && buf[pos + 1] == '/') {
+                    pos += 2;
+                    while (pos < limit && buf[pos] != '\n' && buf[pos] != '\r') {
+                        ++pos;
+                    }
+                } else if (c == '/' && pos + 1 < limit && buf[pos + 1] == '*') {
+                    skipBlockComment();
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private void skipBlockComment() throws YangSyntaxErrorException {
+            final int startLine = line;
+            final int startPosition = pos - lineStart;
+            pos += 2;
+            while (pos + 1 < limit) {
+                if (buf[pos] == '*' && buf[pos + 1] == '/') {
+                    pos += 2;
+                    return;
+                }
+                if (buf[pos] == '\n') {
+                    newLine();
+                }
+                ++pos;
+            }
+            throw new YangSyntaxErrorException(moduleName(), startLine, startPosition, "Unterminated comment");
+        }
+
+        private void newLine() {
+            ++line;
+            lineStart = pos + 1;
+        }
+
+        private void grow() {
+            final int capacity = keywords.length * 2;
+            keywords = Arrays.copyOf(keywords, capacity);
+            arguments = Arrays.copyOf(arguments, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+
+        private String moduleName() {
+            return count != 0 ? arguments[0] : null;
+        }
+
+        private YangSyntaxErrorException error(final String message) {
+            return new YangSyntaxErrorException(moduleName(), line, pos - lineStart, message);
+        }
+
+        private static boolean isIdentifierStart(final char c) {
+            return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_' || c == '/';
+        }
+
+        private static boolean isIdentifierPart(final char c) {
+            return isIdentifierStart(c) || c >= '0' && c <= '9' || c == '-' || c == '.' || c == ':';
+        }
+
+        private static boolean isArgumentEnd(final char c) {
+            return c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == ';' || c == '{' || c == '}';
+        }
+    }
+}
@@ -38,8 +38,10 @@ import org.opendaylight.yangtools.yang.model.api.Status;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.UnknownSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.UsesNode;
+import org.opendaylight.yangtools.yang.model.util.IndexedSchemaContext;
+import org.opendaylight.yangtools.yang.model.util.SchemaContextIndex;
 
-abstract class AbstractEffectiveSchemaContext implements SchemaContext {
+abstract class AbstractEffectiveSchemaContext implements IndexedSchemaContext {
 
     protected static final Supplier<NavigableSet<Module>> MODULE_SET_SUPPLIER = new Supplier<NavigableSet<Module>>() {
         @Override
@@ -59,6 +61,8 @@ abstract class AbstractEffectiveSchemaContext implements SchemaContext {
         }
     };
 
+    private volatile SchemaContextIndex index;
+
     /**
      * @return yang sources where key is ModuleIdentifier
      */
@@ -74,6 +78,21 @@ abstract class AbstractEffectiveSchemaContext implements SchemaContext {
      */
     protected abstract SetMultimap<String, Module> getNameToModules();
 
+    @Override
+    public final SchemaContextIndex getIndex() {
+        SchemaContextIndex ret = index;
+        if (ret == null) {
+            synchronized (this) {
+                ret = index;
+                if (ret == null) {
+                    ret = SchemaContextIndex.create(getModules());
+                    index = ret;
+                }
+            }
+        }
+        return ret;
+    }
+
     @Override
     public Set<DataSchemaNode> getDataDefinitions() {
         final Set<DataSchemaNode> dataDefs = new HashSet<>();
@@ -133,12 +152,7 @@ abstract class AbstractEffectiveSchemaContext implements SchemaContext {
         if (namespace == null) {
             return null;
         }
-        for (Module module : findModuleByNamespace(namespace)) {
-            if (revision == null || revision.equals(module.getRevision())) {
-                return module;
-            }
-        }
-        return null;
+        return getIndex().findModule(namespace, revision);
     }
 
     @Override
@@ -224,13 +238,7 @@ abstract class AbstractEffectiveSchemaContext implements SchemaContext {
 
     @Override
     public DataSchemaNode getDataChildByName(final QName name) {
-        for (Module module : getModules()) {
-            final DataSchemaNode result = module.getDataChildByName(name);
-            if (result != null) {
-                return result;
-            }
-        }
-        return null;
+        return getIndex().findDataChild(name);
     }
 
     @Override
@@ -10,8 +10,12 @@ package org.opendaylight.yangtools.yang.parser.util;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Weigher;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import javax.annotation.Nonnull;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
@@ -50,6 +54,26 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
             return input.getAST();
         }
     };
+    /**
+     * A {@link Weigher} which assigns sources the number of nodes in their AST, for use with bounded caches such as
+     * {@link org.opendaylight.yangtools.yang.model.repo.util.InMemorySchemaSourceCache}.
+     */
+    public static final Weigher<Object, ASTSchemaSource> WEIGHER = new Weigher<Object, ASTSchemaSource>() {
+        @Override
+        public int weigh(final Object key, @Nonnull final ASTSchemaSource value) {
+            int nodes = 0;
+            final Deque<ParseTree> queue = new ArrayDeque<>();
+            queue.add(value.getAST());
+            while (!queue.isEmpty()) {
+                final ParseTree node = queue.remove();
+                nodes++;
+                for (int i = 0; i < node.getChildCount(); ++i) {
+                    queue.add(node.getChild(i));
+                }
+            }
+            return nodes;
+        }
+    };
 
     private final YangModelDependencyInfo depInfo;
     private final ParserRuleContext tree;
@@ -12,8 +12,15 @@ import org.antlr.v4.runtime.ParserRuleContext;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
@@ -32,19 +39,86 @@ import org.slf4j.LoggerFactory;
 @Beta
 public final class TextToASTTransformer extends SchemaSourceTransformer<YangTextSchemaSource, ASTSchemaSource> {
 
+    /**
+     * Transformation of YANG text into its AST. A transformation may optionally cache parsed sources by the SHA-256
+     * hash of their content, so that the same model provided by multiple sources, for example by multiple devices, is
+     * parsed only once. Such a cache is bounded by the total number of AST nodes of cached sources, as assigned by
+     * {@link ASTSchemaSource#WEIGHER}, and is owned by whoever created the transformation.
+     */
     public static final class TextToASTTransformation implements Transformation<YangTextSchemaSource, ASTSchemaSource> {
+        private final Cache<HashCode, ASTSchemaSource> cache;
+
+        /**
+         * Create a new transformation which does not cache parsed sources.
+         */
+        public TextToASTTransformation() {
+            this.cache = null;
+        }
+
+        private TextToASTTransformation(final long maximumNodes) {
+            this.cache = CacheBuilder.newBuilder().maximumWeight(maximumNodes).weigher(ASTSchemaSource.WEIGHER)
+                    .recordStats().build();
+        }
+
+        /**
+         * Create a new transformation which caches parsed sources by their content.
+         *
+         * @param maximumNodes Maximum total number of AST nodes of cached sources
+         * @return A new transformation
+         */
+        public static TextToASTTransformation createCached(final long maximumNodes) {
+            Preconditions.checkArgument(maximumNodes >= 0, "Maximum number of nodes %s is negative", maximumNodes);
+            return new TextToASTTransformation(maximumNodes);
+        }
+
         @Override
         public CheckedFuture<ASTSchemaSource, SchemaSourceException> apply(final YangTextSchemaSource input) throws IOException, YangSyntaxErrorException {
-            try (InputStream is = input.openStream()) {
+            final byte[] bytes = input.read();
+            final HashCode hash;
+            if (cache != null) {
+                hash = Hashing.sha256().hashBytes(bytes);
+                final ASTSchemaSource cached = cache.getIfPresent(hash);
+                if (cached != null) {
+                    LOG.debug("Model {} found in cache as {}", input, cached.getIdentifier());
+                    return Futures.immediateCheckedFuture(cached);
+                }
+            } else {
+                hash = null;
+            }
+
+            try (InputStream is = new ByteArrayInputStream(bytes)) {
                 final ParserRuleContext ctx = new YangStatementSourceImpl(is).getYangAST();
                 LOG.debug("Model {} parsed successfully", input);
 
                 //:TODO missing validation (YangModelBasicValidationListener should be re-implemented to new parser)
 
                 // Backwards compatibility
-                final String text = input.asCharSource(Charsets.UTF_8).read();
+                final String text = new String(bytes, Charsets.UTF_8);
+
+                final ASTSchemaSource ret = ASTSchemaSource.create(input.getIdentifier().getName(), ctx, text);
+                if (cache != null) {
+                    cache.put(hash, ret);
+                }
+                return Futures.immediateCheckedFuture(ret);
+            }
+        }
 
-                return Futures.immediateCheckedFuture(ASTSchemaSource.create(input.getIdentifier().getName(), ctx, text));
+        /**
+         * Return statistics of the parsed source cache. A transformation which does not cache parsed sources reports
+         * empty statistics.
+         *
+         * @return Cache statistics
+         */
+        public CacheStats getCacheStats() {
+            return cache != null ? cache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+        }
+
+        /**
+         * Discard all cached parsed sources.
+         */
+        public void invalidateCache() {
+            if (cache != null) {
+                cache.invalidateAll();
             }
         }
     }
@@ -52,11 +126,25 @@ public final class TextToASTTransformer extends SchemaSourceTransformer<YangText
     public static final TextToASTTransformation TRANSFORMATION = new TextToASTTransformation();
     private static final Logger LOG = LoggerFactory.getLogger(TextToASTTransformer.class);
 
-    private TextToASTTransformer(final SchemaRepository provider, final SchemaSourceRegistry consumer) {
-        super(provider, YangTextSchemaSource.class, consumer, ASTSchemaSource.class, TRANSFORMATION);
+    private TextToASTTransformer(final SchemaRepository provider, final SchemaSourceRegistry consumer,
+            final TextToASTTransformation transformation) {
+        super(provider, YangTextSchemaSource.class, consumer, ASTSchemaSource.class, transformation);
     }
 
     public static TextToASTTransformer create(final SchemaRepository provider, final SchemaSourceRegistry consumer) {
-        return new TextToASTTransformer(provider, consumer);
+        return new TextToASTTransformer(provider, consumer, TRANSFORMATION);
+    }
+
+    /**
+     * Create a new transformer which uses a specific transformation, for example one which caches parsed sources.
+     *
+     * @param provider Repository providing YANG text sources
+     * @param consumer Registry to which ASTs are provided
+     * @param transformation Transformation to use
+     * @return A new transformer
+     */
+    public static TextToASTTransformer create(final SchemaRepository provider, final SchemaSourceRegistry consumer,
+            final TextToASTTransformation transformation) {
+        return new TextToASTTransformer(provider, consumer, Preconditions.checkNotNull(transformation));
     }
 }
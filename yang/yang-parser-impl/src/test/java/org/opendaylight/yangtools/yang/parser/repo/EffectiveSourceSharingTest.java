@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.Resources;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.junit.Test;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.EffectiveSourceCache;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+
+public class EffectiveSourceSharingTest {
+    private static final Predicate<QName> ALL_FEATURES = qname -> true;
+    private static final int CONTEXTS = 4;
+
+    private static final String[] SHARED = {
+        "/ietf/iana-timezones@2012-07-09.yang",
+        "/ietf/ietf-inet-types@2010-09-24.yang",
+        "/ietf/ietf-yang-types@2010-09-24.yang",
+        "/ietf/network-topology@2013-10-21.yang",
+    };
+
+    @Test
+    public void testModulesSharedAcrossContexts() throws Exception {
+        final EffectiveSourceCache cache = EffectiveSourceCache.create();
+        final SchemaContext first = build(sources(device(0, null)), cache);
+        final SchemaContext second = build(sources(device(1, null)), cache);
+
+        assertSame(module(first, "ietf-inet-types"), module(second, "ietf-inet-types"));
+        assertSame(module(first, "network-topology"), module(second, "network-topology"));
+        assertEquals(5, second.getModules().size());
+        assertEquals(SHARED.length, cache.getStats().hitCount());
+
+        // A module imported by a device model may be augmented by it, hence it is not shared
+        final SchemaContext third = build(sources(device(2, "ietf-yang-types")), cache);
+        assertNotSame(module(first, "ietf-yang-types"), module(third, "ietf-yang-types"));
+        assertSame(module(first, "iana-timezones"), module(third, "iana-timezones"));
+    }
+
+    @Test
+    public void testSharingKeys() throws Exception {
+        final Map<SourceIdentifier, Object> first = EffectiveSharingKeys.compute(sources(device(0, null)),
+            ALL_FEATURES);
+        final Map<SourceIdentifier, Object> second = EffectiveSharingKeys.compute(sources(device(1, null)),
+            ALL_FEATURES);
+        final Map<SourceIdentifier, Object> noFeatures = EffectiveSharingKeys.compute(sources(device(0, null)),
+            qname -> false);
+
+        final SourceIdentifier inetTypes = new SourceIdentifier("ietf-inet-types", "2010-09-24");
+        assertEquals(first.get(inetTypes), second.get(inetTypes));
+        assertNotEquals(first.get(inetTypes), noFeatures.get(inetTypes));
+        assertNotEquals(first.get(new SourceIdentifier("device-0")), second.get(new SourceIdentifier("device-1")));
+    }
+
+    @Test
+    public void testOverlappingContexts() throws Exception {
+        final EffectiveSourceCache cache = EffectiveSourceCache.create();
+        final List<SchemaContext> contexts = new ArrayList<>(CONTEXTS);
+        for (int i = 0; i < CONTEXTS; ++i) {
+            contexts.add(build(sources(device(i, null)), cache));
+        }
+
+        assertEquals((CONTEXTS - 1) * SHARED.length, cache.getStats().hitCount());
+        final SchemaContext first = contexts.get(0);
+        for (SchemaContext context : contexts.subList(1, CONTEXTS)) {
+            assertEquals(SHARED.length + 1, context.getModules().size());
+            for (Module module : first.getModules()) {
+                if (!module.getName().startsWith("device-")) {
+                    assertSame(module, module(context, module.getName()));
+                }
+            }
+        }
+    }
+
+    private static SchemaContext build(final Map<SourceIdentifier, ASTSchemaSource> sources,
+            final EffectiveSourceCache cache) throws Exception {
+        final CrossSourceStatementReactor.BuildAction reactor =
+                YangInferencePipeline.RFC6020_REACTOR.newBuild(ALL_FEATURES);
+        if (cache == null) {
+            for (ASTSchemaSource source : sources.values()) {
+                reactor.addSource(statementSource(source));
+            }
+            return reactor.buildEffective();
+        }
+
+        final Map<SourceIdentifier, Object> keys = EffectiveSharingKeys.compute(sources, ALL_FEATURES);
+        for (ASTSchemaSource source : sources.values()) {
+            reactor.addSource(statementSource(source), keys.get(source.getIdentifier()));
+        }
+        return reactor.buildEffective(cache);
+    }
+
+    private static YangStatementSourceImpl statementSource(final ASTSchemaSource source) {
+        return new YangStatementSourceImpl(source.getIdentifier(),
+            (StatementContext) source.getAST());
+    }
+
+    private static Module module(final SchemaContext context, final String name) {
+        for (Module module : context.getModules()) {
+            if (name.equals(module.getName())) {
+                return module;
+            }
+        }
+        throw new AssertionError("Module " + name + " not found");
+    }
+
+    private static String device(final int index, final String imported) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("module device-").append(index).append(" {\n");
+        sb.append("  namespace \"urn:device:").append(index).append("\";\n");
+        sb.append("  prefix dev").append(index).append(";\n");
+        if (imported != null) {
+            sb.append("  import ").append(imported).append(" { prefix imp; }\n");
+        }
+        sb.append("  container device { leaf name { type string; } }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static ASTSchemaSource astSource(final String name, final ByteSource bytes) throws Exception {
+        final String text = bytes.asCharSource(StandardCharsets.UTF_8).read();
+        final YangStatementSourceImpl parsed = new YangStatementSourceImpl(bytes.openStream());
+        return ASTSchemaSource.create(name, parsed.getYangAST(), text);
+    }
+
+    private static Map<SourceIdentifier, ASTSchemaSource> sources(final String device) throws Exception {
+        final Map<SourceIdentifier, ASTSchemaSource> ret = new LinkedHashMap<>();
+        for (String resource : SHARED) {
+            final ASTSchemaSource source = astSource(resource,
+                Resources.asByteSource(EffectiveSourceSharingTest.class.getResource(resource)));
+            ret.put(source.getIdentifier(), source);
+        }
+        final ASTSchemaSource source = astSource("device", ByteSource.wrap(device.getBytes(StandardCharsets.UTF_8)));
+        ret.put(source.getIdentifier(), source);
+        return ret;
+    }
+}
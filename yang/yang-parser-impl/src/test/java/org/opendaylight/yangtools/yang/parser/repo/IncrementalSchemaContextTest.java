@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSource;
+import com.google.common.io.Resources;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+
+public class IncrementalSchemaContextTest {
+    private static final Predicate<QName> ALL_FEATURES = qname -> true;
+
+    private static final String[] SHARED = {
+        "/ietf/iana-timezones@2012-07-09.yang",
+        "/ietf/ietf-inet-types@2010-09-24.yang",
+        "/ietf/ietf-yang-types@2010-09-24.yang",
+        "/ietf/network-topology@2013-10-21.yang",
+    };
+
+    @Test
+    public void testAddSource() throws Exception {
+        final IncrementalSchemaContext first = IncrementalSchemaContext.create(sources(0, 1), ALL_FEATURES);
+        assertEquals(first.getSources(), first.getProcessedSources());
+
+        final IncrementalSchemaContext second = first.update(ImmutableList.of(device(2, "ietf-inet-types", "")),
+            ImmutableList.of());
+        assertEquals(7, second.getSchemaContext().getModules().size());
+
+        // Modules unrelated to the added one are not processed at all
+        final Set<SourceIdentifier> processed = second.getProcessedSources();
+        assertTrue(processed.contains(new SourceIdentifier("device-2")));
+        assertTrue(processed.contains(new SourceIdentifier("ietf-inet-types", "2010-09-24")));
+        assertFalse(processed.contains(new SourceIdentifier("device-0")));
+        assertFalse(processed.contains(new SourceIdentifier("iana-timezones", "2012-07-09")));
+        assertSame(module(first, "device-0"), module(second, "device-0"));
+        assertSame(module(first, "iana-timezones"), module(second, "iana-timezones"));
+
+        // The imported module may be augmented by the added one, hence it is rebuilt, while its other importers are
+        // processed only to rebuild it
+        assertNotSame(module(first, "ietf-inet-types"), module(second, "ietf-inet-types"));
+        assertTrue(processed.contains(new SourceIdentifier("network-topology", "2013-10-21")));
+        assertSame(module(first, "network-topology"), module(second, "network-topology"));
+
+        assertSameContent(fullBuild(sources(0, 1, 2)), second.getSchemaContext());
+    }
+
+    @Test
+    public void testRemoveSource() throws Exception {
+        final IncrementalSchemaContext first = IncrementalSchemaContext.create(sources(0, 1, 2), ALL_FEATURES);
+        final IncrementalSchemaContext second = first.update(ImmutableList.of(),
+            ImmutableList.of(new SourceIdentifier("device-2")));
+
+        assertEquals(6, second.getSchemaContext().getModules().size());
+        assertFalse(second.getSources().contains(new SourceIdentifier("device-2")));
+        assertSame(module(first, "device-1"), module(second, "device-1"));
+        assertNotSame(module(first, "ietf-inet-types"), module(second, "ietf-inet-types"));
+        assertSameContent(fullBuild(sources(0, 1)), second.getSchemaContext());
+    }
+
+    @Test
+    public void testReplaceSource() throws Exception {
+        final IncrementalSchemaContext first = IncrementalSchemaContext.create(sources(0, 1), ALL_FEATURES);
+        final IncrementalSchemaContext second = first.update(
+            ImmutableList.of(device(0, null, "  container extra;\n")), ImmutableList.of());
+
+        assertEquals(ImmutableList.of(new SourceIdentifier("device-0")),
+            ImmutableList.copyOf(second.getProcessedSources()));
+        assertNotSame(module(first, "device-0"), module(second, "device-0"));
+        assertEquals(2, module(second, "device-0").getChildNodes().size());
+        assertSame(module(first, "device-1"), module(second, "device-1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRemoveMissingSource() throws Exception {
+        IncrementalSchemaContext.create(sources(0), ALL_FEATURES).update(ImmutableList.of(),
+            ImmutableList.of(new SourceIdentifier("device-1")));
+    }
+
+    private static SchemaContext fullBuild(final List<ASTSchemaSource> sources) throws Exception {
+        final List<ByteSource> texts = new ArrayList<>(sources.size());
+        for (ASTSchemaSource source : sources) {
+            @SuppressWarnings("deprecation")
+            final String text = source.getYangText();
+            texts.add(ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        }
+        return YangInferencePipeline.RFC6020_REACTOR.newBuild(ALL_FEATURES).buildEffective(texts);
+    }
+
+    private static void assertSameContent(final SchemaContext expected, final SchemaContext actual) {
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    private static Map<String, Set<String>> describe(final SchemaContext context) {
+        final Map<String, Set<String>> ret = new TreeMap<>();
+        for (Module module : context.getModules()) {
+            final Set<String> nodes = new TreeSet<>();
+            for (DataSchemaNode child : module.getChildNodes()) {
+                nodes.add(child.getPath().toString());
+            }
+            ret.put(module.getName() + "@" + module.getRevision(), nodes);
+        }
+        return ret;
+    }
+
+    private static Module module(final IncrementalSchemaContext context, final String name) {
+        for (Module module : context.getSchemaContext().getModules()) {
+            if (name.equals(module.getName())) {
+                return module;
+            }
+        }
+        throw new AssertionError("Module " + name + " not found");
+    }
+
+    private static ASTSchemaSource device(final int index, final String imported, final String extra)
+            throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("module device-").append(index).append(" {\n");
+        sb.append("  namespace \"urn:device:").append(index).append("\";\n");
+        sb.append("  prefix dev").append(index).append(";\n");
+        if (imported != null) {
+            sb.append("  import ").append(imported).append(" { prefix imp; }\n");
+        }
+        sb.append("  container device { leaf name { type string; } }\n");
+        sb.append(extra);
+        sb.append("}\n");
+        return astSource("device", ByteSource.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @SuppressWarnings("deprecation")
+    private static ASTSchemaSource astSource(final String name, final ByteSource bytes) throws Exception {
+        final String text = bytes.asCharSource(StandardCharsets.UTF_8).read();
+        final YangStatementSourceImpl parsed = new YangStatementSourceImpl(bytes.openStream());
+        return ASTSchemaSource.create(name, parsed.getYangAST(), text);
+    }
+
+    private static List<ASTSchemaSource> sources(final int... devices) throws Exception {
+        final List<ASTSchemaSource> ret = new ArrayList<>();
+        for (String resource : SHARED) {
+            ret.add(astSource(resource, Resources.asByteSource(IncrementalSchemaContextTest.class.getResource(
+                resource))));
+        }
+        for (int device : devices) {
+            ret.add(device(device, device == 2 ? "ietf-inet-types" : null, ""));
+        }
+        return ret;
+    }
+}
@@ -8,14 +8,19 @@
 package org.opendaylight.yangtools.yang.parser.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -26,6 +31,7 @@ import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.GroupingDefinition;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
 import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
@@ -35,6 +41,8 @@ import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.model.util.DataNodeIterator;
+import org.opendaylight.yangtools.yang.model.util.IndexedSchemaContext;
 import org.opendaylight.yangtools.yang.model.util.Int32;
 import org.opendaylight.yangtools.yang.model.util.RevisionAwareXPathImpl;
 import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
@@ -868,4 +876,55 @@ public class SchemaContextUtilTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void findDataSchemaNodeIndexedTest() throws URISyntaxException, IOException, YangSyntaxErrorException,
+            ReactorException {
+
+        SchemaContext context = TestUtils.parseYangSources("/schema-context-util-test");
+        assertTrue(context instanceof IndexedSchemaContext);
+
+        List<DataSchemaNode> nodes = new ArrayList<>();
+        collectChildren(context, nodes);
+        assertFalse(nodes.isEmpty());
+        for (DataSchemaNode node : nodes) {
+            SchemaPath path = node.getPath();
+            SchemaNode walked = SchemaContextUtil.findNodeInSchemaContext(context, path.getPathFromRoot());
+            assertSame(walked, SchemaContextUtil.findDataSchemaNode(context, path));
+            // Second lookup is served from the index
+            assertSame(walked, SchemaContextUtil.findDataSchemaNode(context, path));
+        }
+        for (GroupingDefinition grouping : new DataNodeIterator(context).allGroupings()) {
+            assertSame(grouping, SchemaContextUtil.findDataSchemaNode(context, grouping.getPath()));
+        }
+
+        Module myModule = context.findModuleByNamespaceAndRevision(new URI("uri:my-module"), null);
+        assertNotNull(myModule);
+        assertSame(myModule.getDataChildByName("my-container"),
+                context.getDataChildByName(QName.create(myModule.getQNameModule(), "my-container")));
+        assertNull(SchemaContextUtil.findDataSchemaNode(context, SchemaPath.create(true,
+                QName.create(myModule.getQNameModule(), "no-such-container"))));
+    }
+
+    private static void collectChildren(final DataNodeContainer container, final List<DataSchemaNode> nodes) {
+        for (DataSchemaNode child : container.getChildNodes()) {
+            nodes.add(child);
+            if (child instanceof DataNodeContainer) {
+                collectChildren((DataNodeContainer) child, nodes);
+            }
+        }
+    }
+
+    @Test
+    public void findIdentityTest() throws URISyntaxException, IOException, YangSyntaxErrorException,
+            ReactorException {
+
+        SchemaContext context = TestUtils.parseYangSource("/stmt-test/identity/identity-test.yang");
+        for (Module module : context.getModules()) {
+            for (IdentitySchemaNode identity : module.getIdentities()) {
+                assertSame(identity, SchemaContextUtil.findIdentity(context, identity.getQName()));
+            }
+        }
+        assertNull(SchemaContextUtil.findIdentity(context, QName.create("urn:no:such:module", "2016-01-01",
+                "identity")));
+    }
+}
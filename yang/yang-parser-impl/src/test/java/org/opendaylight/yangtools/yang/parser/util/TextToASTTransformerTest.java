@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import com.google.common.io.Resources;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.util.TextToASTTransformer.TextToASTTransformation;
+
+public class TextToASTTransformerTest {
+
+    private static YangTextSchemaSource source(final String name, final String resource) {
+        return YangTextSchemaSource.delegateForByteSource(new SourceIdentifier(name),
+            Resources.asByteSource(TextToASTTransformerTest.class.getResource(resource)));
+    }
+
+    @Test
+    public void testSameContentParsedOnce() throws Exception {
+        final TextToASTTransformation transformation = TextToASTTransformation.createCached(Long.MAX_VALUE);
+
+        final ASTSchemaSource first = transformation.apply(
+            source("ietf-inet-types", "/ietf/ietf-inet-types@2010-09-24.yang")).checkedGet();
+        // Same content provided under a different name, for example by another device
+        final ASTSchemaSource second = transformation.apply(
+            source("inet-types", "/ietf/ietf-inet-types@2010-09-24.yang")).checkedGet();
+        assertSame(first, second);
+        assertEquals(new SourceIdentifier("ietf-inet-types", "2010-09-24"), second.getIdentifier());
+
+        final ASTSchemaSource other = transformation.apply(
+            source("iana-timezones", "/ietf/iana-timezones@2012-07-09.yang")).checkedGet();
+        assertNotSame(first, other);
+
+        assertEquals(1, transformation.getCacheStats().hitCount());
+        assertEquals(2, transformation.getCacheStats().missCount());
+    }
+
+    @Test
+    public void testInvalidateCache() throws Exception {
+        final TextToASTTransformation transformation = TextToASTTransformation.createCached(Long.MAX_VALUE);
+        final ASTSchemaSource first = transformation.apply(
+            source("ietf-inet-types", "/ietf/ietf-inet-types@2010-09-24.yang")).checkedGet();
+        transformation.invalidateCache();
+        assertNotSame(first, transformation.apply(
+            source("ietf-inet-types", "/ietf/ietf-inet-types@2010-09-24.yang")).checkedGet());
+    }
+
+    @Test
+    public void testCacheBoundedByNodes() throws Exception {
+        final YangTextSchemaSource source = source("ietf-inet-types", "/ietf/ietf-inet-types@2010-09-24.yang");
+
+        // A source whose AST exceeds the bound is not retained
+        final TextToASTTransformation small = TextToASTTransformation.createCached(1);
+        assertNotSame(small.apply(source).checkedGet(), small.apply(source).checkedGet());
+        assertEquals(0, small.getCacheStats().hitCount());
+    }
+
+    @Test
+    public void testUncached() throws Exception {
+        final YangTextSchemaSource source = source("ietf-inet-types", "/ietf/ietf-inet-types@2010-09-24.yang");
+        assertNotSame(TextToASTTransformer.TRANSFORMATION.apply(source).checkedGet(),
+            TextToASTTransformer.TRANSFORMATION.apply(source).checkedGet());
+        assertEquals(0, TextToASTTransformer.TRANSFORMATION.getCacheStats().requestCount());
+    }
+}
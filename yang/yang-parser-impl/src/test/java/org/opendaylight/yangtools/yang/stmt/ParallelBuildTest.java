@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+
+public class ParallelBuildTest {
+    private static ExecutorService executor;
+
+    @BeforeClass
+    public static void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        executor.shutdown();
+    }
+
+    static Collection<ByteSource> loadSources(final String... directories) throws URISyntaxException {
+        final List<ByteSource> sources = new ArrayList<>();
+        for (String directory : directories) {
+            for (File file : new File(ParallelBuildTest.class.getResource(directory).toURI()).listFiles()) {
+                sources.add(Files.asByteSource(file));
+            }
+        }
+        return sources;
+    }
+
+    /*
+     * Augmentations from multiple sources may be applied in different order, as the reactor keeps its sources
+     * in a HashSet, hence we compare the set of data nodes rather than their order.
+     */
+    static Map<String, Set<String>> describe(final SchemaContext context) {
+        final Map<String, Set<String>> ret = new TreeMap<>();
+        for (Module module : context.getModules()) {
+            final Set<String> nodes = new TreeSet<>();
+            describe(nodes, module);
+            nodes.add("typedefs " + module.getTypeDefinitions().size());
+            nodes.add("groupings " + module.getGroupings().size());
+            nodes.add("augmentations " + module.getAugmentations().size());
+            nodes.add("imports " + module.getImports().size());
+            ret.put(module.getName() + "@" + module.getRevision().getTime(), nodes);
+        }
+        return ret;
+    }
+
+    private static void describe(final Set<String> nodes, final DataNodeContainer container) {
+        for (DataSchemaNode child : container.getChildNodes()) {
+            nodes.add(child.getPath().toString());
+            if (child instanceof DataNodeContainer) {
+                describe(nodes, (DataNodeContainer) child);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelBuildMatchesSequential() throws Exception {
+        final Collection<ByteSource> sources = loadSources("/ietf", "/model");
+
+        final SchemaContext sequential = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources);
+        final SchemaContext parallel = YangInferencePipeline.RFC6020_REACTOR.newBuild(t -> true, executor)
+                .buildEffective(sources);
+
+        final Map<String, Set<String>> expected = describe(sequential);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, describe(parallel));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import com.google.common.hash.HashCode;
+import com.google.common.io.ByteSource;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementParseCache;
+
+public class YangStatementParseCacheTest {
+    private File parseCache;
+
+    @Before
+    public void setUp() throws Exception {
+        parseCache = File.createTempFile("schema-", ".parse-cache");
+        parseCache.delete();
+    }
+
+    @After
+    public void tearDown() {
+        parseCache.delete();
+    }
+
+    @Test
+    public void testBuildFromParseCache() throws Exception {
+        final Collection<ByteSource> sources = ParallelBuildTest.loadSources("/ietf", "/model");
+        final HashCode digest = YangStatementParseCache.digest(sources);
+
+        final SchemaContext parsed = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources,
+            parseCache);
+        assertTrue(parseCache.isFile());
+        assertTrue(YangStatementParseCache.read(parseCache, digest).isPresent());
+
+        final SchemaContext loaded = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources,
+            parseCache);
+        assertEquals(ParallelBuildTest.describe(parsed), ParallelBuildTest.describe(loaded));
+    }
+
+    @Test
+    public void testParseCacheMismatch() throws Exception {
+        final Collection<ByteSource> sources = ParallelBuildTest.loadSources("/ietf");
+        YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources, parseCache);
+
+        final List<ByteSource> changed = new ArrayList<>(sources);
+        changed.addAll(ParallelBuildTest.loadSources("/model"));
+        final HashCode digest = YangStatementParseCache.digest(changed);
+        assertFalse(YangStatementParseCache.read(parseCache, digest).isPresent());
+
+        // The cache is replaced with one matching the new sources
+        final SchemaContext context = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(changed,
+            parseCache);
+        assertTrue(YangStatementParseCache.read(parseCache, digest).isPresent());
+        assertEquals(ParallelBuildTest.describe(YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(
+            changed)), ParallelBuildTest.describe(context));
+    }
+
+    @Test
+    public void testTruncatedParseCache() throws Exception {
+        final Collection<ByteSource> sources = ParallelBuildTest.loadSources("/ietf", "/model");
+        final SchemaContext parsed = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources,
+            parseCache);
+
+        final byte[] bytes = Files.readAllBytes(parseCache.toPath());
+        Files.write(parseCache.toPath(), Arrays.copyOf(bytes, bytes.length - 100));
+        assertDamaged(sources, parsed);
+    }
+
+    @Test
+    public void testCorruptedParseCache() throws Exception {
+        final Collection<ByteSource> sources = ParallelBuildTest.loadSources("/ietf", "/model");
+        final SchemaContext parsed = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources,
+            parseCache);
+
+        final byte[] bytes = Files.readAllBytes(parseCache.toPath());
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(parseCache.toPath(), bytes);
+        assertDamaged(sources, parsed);
+    }
+
+    @Test
+    public void testNegativeLengthInParseCache() throws Exception {
+        final Collection<ByteSource> sources = ParallelBuildTest.loadSources("/ietf");
+        final HashCode digest = YangStatementParseCache.digest(sources);
+        final SchemaContext parsed = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources,
+            parseCache);
+
+        // Overwrite the payload length, which follows the magic, version, digest and checksum
+        final byte[] bytes = Files.readAllBytes(parseCache.toPath());
+        ByteBuffer.wrap(bytes).putInt(4 + 2 + 4 + digest.bits() / 8 + 4, -8);
+        Files.write(parseCache.toPath(), bytes);
+        assertDamaged(sources, parsed);
+    }
+
+    private void assertDamaged(final Collection<ByteSource> sources, final SchemaContext expected) throws Exception {
+        final HashCode digest = YangStatementParseCache.digest(sources);
+        assertFalse(YangStatementParseCache.read(parseCache, digest).isPresent());
+
+        // The sources are parsed again and the cache is rewritten
+        final SchemaContext context = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources,
+            parseCache);
+        assertEquals(ParallelBuildTest.describe(expected), ParallelBuildTest.describe(context));
+        assertTrue(YangStatementParseCache.read(parseCache, digest).isPresent());
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSource;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.meta.DeclaredStatement;
+import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
+import org.opendaylight.yangtools.yang.model.api.meta.StatementDefinition;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ModelProcessingPhase;
+import org.opendaylight.yangtools.yang.parser.spi.source.QNameToStatementDefinition;
+import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementSourceReference;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangTextStatementSource;
+
+public class YangTextStatementSourceTest {
+    private static final String ARGUMENTS = "module arguments {\n"
+            + "    namespace urn:arguments; prefix \"arg\" ;\n"
+            + "    // line comment\n"
+            + "    description \"double \\\"quoted\\\"\n"
+            + "        text\" + 'single \"quoted\" text' +\n"
+            + "        unquoted=text;\n"
+            + "    /* block\n"
+            + "       comment */ container foo{presence 'a // b /* c */ d';}\n"
+            + "    leaf bar { type string { pattern \"[a-z\\\\]+\"; } }\n"
+            + "}\n";
+
+    /*
+     * Accepts every statement, so that writers see all statements of a source in the pre-linkage phase.
+     */
+    private static final QNameToStatementDefinition ALL_STATEMENTS = new QNameToStatementDefinition() {
+        @Override
+        public StatementDefinition get(final QName identifier) {
+            return new StatementDefinition() {
+                @Override
+                public QName getStatementName() {
+                    return identifier;
+                }
+
+                @Override
+                public QName getArgumentName() {
+                    return null;
+                }
+
+                @Override
+                public Class<? extends DeclaredStatement<?>> getDeclaredRepresentationClass() {
+                    return null;
+                }
+
+                @Override
+                public Class<? extends EffectiveStatement<?, ?>> getEffectiveRepresentationClass() {
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public StatementDefinition getByNamespaceAndLocalName(final URI namespace, final String localName) {
+            return null;
+        }
+    };
+
+    private static final class RecordingWriter implements StatementWriter {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void startStatement(final QName name, final StatementSourceReference ref) {
+            events.add("start " + name.getLocalName() + " at " + ref);
+        }
+
+        @Override
+        public void argumentValue(final String value, final StatementSourceReference ref) {
+            events.add("argument " + value);
+        }
+
+        @Override
+        public void endStatement(final StatementSourceReference ref) {
+            events.add("end at " + ref);
+        }
+
+        @Override
+        public ModelProcessingPhase getPhase() {
+            return ModelProcessingPhase.SOURCE_PRE_LINKAGE;
+        }
+    }
+
+    private static List<String> record(final StatementStreamSource source) {
+        final RecordingWriter writer = new RecordingWriter();
+        source.writePreLinkage(writer, ALL_STATEMENTS);
+        return writer.events;
+    }
+
+    private static void collectYangFiles(final File dir, final List<File> files) {
+        for (File file : dir.listFiles()) {
+            if (file.isDirectory()) {
+                collectYangFiles(file, files);
+            } else if (file.getName().endsWith(".yang")) {
+                files.add(file);
+            }
+        }
+    }
+
+    @Test
+    public void testStatementsMatchParseTree() throws Exception {
+        final List<File> files = new ArrayList<>();
+        collectYangFiles(new File(getClass().getResource("/ietf").toURI()).getParentFile(), files);
+
+        int compared = 0;
+        for (File file : files) {
+            final YangStatementSourceImpl antlr;
+            try (InputStream stream = new FileInputStream(file)) {
+                antlr = new YangStatementSourceImpl(stream);
+            }
+            if (antlr.getYangAST() == null) {
+                // Not syntactically valid, which is covered by negative tests
+                continue;
+            }
+
+            final YangTextStatementSource text = YangTextStatementSource.create(null,
+                new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+            assertEquals(file.toString(), record(antlr), record(text));
+            ++compared;
+        }
+        assertTrue(compared > 100);
+    }
+
+    @Test
+    public void testArguments() throws Exception {
+        final YangTextStatementSource text = YangTextStatementSource.create("arguments", ARGUMENTS);
+        assertEquals(9, text.getStatementCount());
+
+        final List<String> events = record(text);
+        assertTrue(events.contains("argument double \\quoted\\\n        textsingle \"quoted\" textunquoted=text"));
+        assertTrue(events.contains("argument a // b /* c */ d"));
+        assertTrue(events.contains("argument [a-z\\\\]+"));
+        assertTrue(events.contains("start container at arguments:8:18"));
+
+        final YangStatementSourceImpl antlr = new YangStatementSourceImpl(
+            ByteSource.wrap(ARGUMENTS.getBytes(StandardCharsets.UTF_8)).openStream());
+        assertEquals(record(antlr), record(YangTextStatementSource.create(null, ARGUMENTS)));
+    }
+
+    @Test
+    public void testFile() throws Exception {
+        final File file = File.createTempFile("arguments", ".yang");
+        try {
+            Files.write(file.toPath(), ARGUMENTS.getBytes(StandardCharsets.UTF_8));
+            final YangTextStatementSource text = YangTextStatementSource.create(file);
+            assertEquals(9, text.getStatementCount());
+            assertTrue(record(text).contains("start container at " + file.getPath() + ":8:18"));
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testSameContextAsParseTree() throws Exception {
+        final Collection<ByteSource> sources = ParallelBuildTest.loadSources("/ietf", "/model");
+        final SchemaContext antlr = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(sources);
+        final SchemaContext text = YangInferencePipeline.RFC6020_REACTOR.newBuild().useTextStatementSources()
+                .buildEffective(sources);
+        assertEquals(ParallelBuildTest.describe(antlr), ParallelBuildTest.describe(text));
+    }
+
+    @Test
+    public void testSyntaxError() throws Exception {
+        try {
+            YangTextStatementSource.create(null, "module foo {\n    namespace urn:foo;\n    prefix foo\n}\n");
+            fail("YangSyntaxErrorException should be thrown");
+        } catch (YangSyntaxErrorException e) {
+            assertEquals("foo", e.getModule());
+            assertEquals(4, e.getLine());
+            assertEquals(0, e.getCharPositionInLine());
+        }
+
+        try {
+            YangTextStatementSource.create(null, "module foo {\n    description \"unterminated;\n}\n");
+            fail("YangSyntaxErrorException should be thrown");
+        } catch (YangSyntaxErrorException e) {
+            assertEquals(2, e.getLine());
+            assertEquals(16, e.getCharPositionInLine());
+        }
+
+        try {
+            YangInferencePipeline.RFC6020_REACTOR.newBuild().useTextStatementSources().buildEffective(
+                ImmutableList.of(ByteSource.wrap("module foo {".getBytes(StandardCharsets.UTF_8))));
+            fail("SourceException should be thrown");
+        } catch (SourceException e) {
+            assertTrue(e.getCause() instanceof YangSyntaxErrorException);
+            assertEquals("foo", ((YangSyntaxErrorException) e.getCause()).getModule());
+        }
+    }
+}